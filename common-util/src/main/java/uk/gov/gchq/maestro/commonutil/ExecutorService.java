@@ -18,19 +18,26 @@ package uk.gov.gchq.maestro.commonutil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer;
+
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * An {@code ExecutorService} that can schedule commands to run after a given
  * delay, or to execute periodically.
  * <p>
+ * A {@link HashedWheelTimer} running its tasks on the same threads is also
+ * provided, for scheduling large numbers of jobs.
+ * </p>
  * @see ScheduledExecutorService
  **/
 public final class ExecutorService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorService.class);
     private static ScheduledExecutorService service;
+    private static HashedWheelTimer timer;
 
     private ExecutorService() {
         // private constructor to prevent instantiation
@@ -43,20 +50,40 @@ public final class ExecutorService {
             thread.setDaemon(true);
             return thread;
         });
+        if (null == timer) {
+            // Jobs already on the timer are kept when the service is replaced
+            timer = new HashedWheelTimer(ExecutorService::runOnService);
+        }
     }
 
     public static ScheduledExecutorService getService() {
         return service;
     }
 
+    public static HashedWheelTimer getTimer() {
+        return timer;
+    }
+
     public static boolean isEnabled() {
         return null != service;
     }
 
+    private static void runOnService(final Runnable runnable) {
+        final ScheduledExecutorService current = service;
+        if (null == current) {
+            throw new RejectedExecutionException("ExecutorService has been shut down");
+        }
+        current.execute(runnable);
+    }
+
     public static void shutdown() {
         if (null != service) {
             service.shutdown();
         }
+        if (null != timer) {
+            timer.close();
+        }
         service = null;
+        timer = null;
     }
 }
@@ -21,10 +21,22 @@ import uk.gov.gchq.maestro.commonutil.exception.OverwritingException;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Interface that All cache objects must abide by so components may instantiate any impl of a cache - no
  * matter what cache it is.
+ * <p>
+ * The conditional update methods ({@link #putIfAbsent(Object, Object)},
+ * {@link #replace(Object, Object, Object)}, {@link #compute(Object, BiFunction)}
+ * and {@link #merge(Object, Object, BiFunction)}) read and write an entry in
+ * one step. The default implementations are built from {@link #get(Object)},
+ * {@link #put(Object, Object)} and {@link #remove(Object)} and are NOT
+ * atomic: a concurrent write may land between the read and the write.
+ * Implementations that can update an entry atomically, such as
+ * {@link uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCache}, override
+ * them to do so.
+ * </p>
  *
  * @param <K> The object type that acts as the key for the cache
  * @param <V> The value that is stored in the cache
@@ -68,6 +80,81 @@ public interface ICache<K, V> {
         }
     }
 
+    /**
+     * Add a new key-value pair to the cache if there is no existing entry for the key.
+     * The default implementation is not atomic.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return the existing value, or null if the value was added
+     * @throws CacheOperationException if there is an error adding the new key-value pair to the cache
+     */
+    default V putIfAbsent(final K key, final V value) throws CacheOperationException {
+        final V existing = get(key);
+        if (null == existing) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Replace the value associated with the key, but only if it is currently
+     * equal to the expected value. The default implementation is not atomic.
+     *
+     * @param key      the key of the entry to replace
+     * @param oldValue the expected current value
+     * @param newValue the value to replace it with
+     * @return true if the value was replaced
+     * @throws CacheOperationException if there is an error updating the cache
+     */
+    default boolean replace(final K key, final V oldValue, final V newValue) throws CacheOperationException {
+        final V existing = get(key);
+        if (null == existing || !existing.equals(oldValue)) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    /**
+     * Compute a new value for the key from its current value, which is null
+     * if there is no entry. If the function returns null the entry is removed.
+     * The default implementation is not atomic.
+     *
+     * @param key               the key of the entry to compute
+     * @param remappingFunction the function to compute the new value
+     * @return the new value, or null if the entry was removed
+     * @throws CacheOperationException if there is an error updating the cache
+     */
+    default V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        final V newValue = remappingFunction.apply(key, get(key));
+        if (null == newValue) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Add the value if there is no entry for the key, otherwise combine it
+     * with the current value. If the function returns null the entry is removed.
+     * The default implementation delegates to {@link #compute(Object, BiFunction)},
+     * so it is atomic only if that is.
+     *
+     * @param key               the key of the entry to merge
+     * @param value             the value to add or combine
+     * @param remappingFunction the function to combine the current and given values
+     * @return the new value, or null if the entry was removed
+     * @throws CacheOperationException if there is an error updating the cache
+     */
+    default V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        if (null == value) {
+            throw new IllegalArgumentException("A value is required");
+        }
+        return compute(key, (k, oldValue) -> null == oldValue ? value : remappingFunction.apply(oldValue, value));
+    }
+
     /**
      * Remove the entry associated with the specified key.
      *
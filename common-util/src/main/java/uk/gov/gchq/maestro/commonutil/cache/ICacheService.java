@@ -21,6 +21,7 @@ import uk.gov.gchq.maestro.commonutil.exception.CacheOperationException;
 import java.util.Collection;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * The cache service interface which enables the cache service loader to instantiate
@@ -96,6 +97,79 @@ public interface ICacheService {
         cache.putSafe(key, value);
     }
 
+    /**
+     * Add a new key-value pair to the specified cache if there is no existing entry for the key.
+     *
+     * @param cacheName the name of the cache
+     * @param key       the key to add
+     * @param value     the value to add
+     * @param <K>       The object type that acts as the key for the cache
+     * @param <V>       The value that is stored in the cache
+     * @return the existing value, or null if the value was added
+     * @throws CacheOperationException if there is an error adding the new key-value pair to the cache
+     * @see ICache#putIfAbsent(Object, Object)
+     */
+    default <K, V> V putIfAbsentInCache(final String cacheName, final K key, final V value) throws CacheOperationException {
+        final ICache<K, V> cache = getCache(cacheName);
+        return cache.putIfAbsent(key, value);
+    }
+
+    /**
+     * Replace the value associated with the key in the specified cache, but
+     * only if it is currently equal to the expected value.
+     *
+     * @param cacheName the name of the cache
+     * @param key       the key of the entry to replace
+     * @param oldValue  the expected current value
+     * @param newValue  the value to replace it with
+     * @param <K>       The object type that acts as the key for the cache
+     * @param <V>       The value that is stored in the cache
+     * @return true if the value was replaced
+     * @throws CacheOperationException if there is an error updating the cache
+     * @see ICache#replace(Object, Object, Object)
+     */
+    default <K, V> boolean replaceInCache(final String cacheName, final K key, final V oldValue, final V newValue) throws CacheOperationException {
+        final ICache<K, V> cache = getCache(cacheName);
+        return cache.replace(key, oldValue, newValue);
+    }
+
+    /**
+     * Compute a new value for the key in the specified cache from its current value.
+     *
+     * @param cacheName         the name of the cache
+     * @param key               the key of the entry to compute
+     * @param remappingFunction the function to compute the new value
+     * @param <K>               The object type that acts as the key for the cache
+     * @param <V>               The value that is stored in the cache
+     * @return the new value, or null if the entry was removed
+     * @throws CacheOperationException if there is an error updating the cache
+     * @see ICache#compute(Object, BiFunction)
+     */
+    default <K, V> V computeInCache(final String cacheName, final K key,
+                                    final BiFunction<? super K, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        final ICache<K, V> cache = getCache(cacheName);
+        return cache.compute(key, remappingFunction);
+    }
+
+    /**
+     * Add the value to the specified cache, or combine it with the current value.
+     *
+     * @param cacheName         the name of the cache
+     * @param key               the key of the entry to merge
+     * @param value             the value to add or combine
+     * @param remappingFunction the function to combine the current and given values
+     * @param <K>               The object type that acts as the key for the cache
+     * @param <V>               The value that is stored in the cache
+     * @return the new value, or null if the entry was removed
+     * @throws CacheOperationException if there is an error updating the cache
+     * @see ICache#merge(Object, Object, BiFunction)
+     */
+    default <K, V> V mergeInCache(final String cacheName, final K key, final V value,
+                                  final BiFunction<? super V, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        final ICache<K, V> cache = getCache(cacheName);
+        return cache.merge(key, value, remappingFunction);
+    }
+
     /**
      * Remove the entry associated with the specified key from the specified cache.
      *
@@ -25,11 +25,14 @@ import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Simple impl of the {@link ICache} interface, using a {@link HashMap}
- * as the cache data store.
+ * as the cache data store. Access is synchronised on the cache, so the
+ * conditional update methods are atomic within this JVM.
  *
  * @param <K> The object type that acts as the key for the HashMap
  * @param <V> The value that is stored in the HashMap
@@ -48,18 +51,23 @@ public class HashMapCache<K, V> implements ICache<K, V> {
     }
 
     @Override
-    public V get(final K key) {
+    public synchronized V get(final K key) {
+        final Object value = cache.get(key);
+        if (null == value) {
+            return null;
+        }
+
         try {
             return (V) (useJavaSerialisation
-                    ? JAVA_SERIALISER.deserialise((byte[]) cache.get(key))
-                    : cache.get(key));
+                    ? JAVA_SERIALISER.deserialise((byte[]) value)
+                    : value);
         } catch (final SerialisationException e) {
             throw new RuntimeException(e);
         }
     }
 
     @Override
-    public void put(final K key, final V value) {
+    public synchronized void put(final K key, final V value) {
         if (useJavaSerialisation) {
             try {
                 cache.put(key, JAVA_SERIALISER.serialise(value));
@@ -72,12 +80,42 @@ public class HashMapCache<K, V> implements ICache<K, V> {
     }
 
     @Override
-    public void remove(final K key) {
+    public synchronized V putIfAbsent(final K key, final V value) {
+        final V existing = get(key);
+        if (null == existing) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public synchronized boolean replace(final K key, final V oldValue, final V newValue) {
+        final V existing = get(key);
+        if (null == existing || !existing.equals(oldValue)) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public synchronized V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final V newValue = remappingFunction.apply(key, get(key));
+        if (null == newValue) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    @Override
+    public synchronized void remove(final K key) {
         cache.remove(key);
     }
 
     @Override
-    public Collection<V> getAllValues() {
+    public synchronized Collection<V> getAllValues() {
         ArrayList<V> rtn = Lists.newArrayList();
         if (useJavaSerialisation) {
             cache.values()
@@ -94,18 +132,22 @@ public class HashMapCache<K, V> implements ICache<K, V> {
         return rtn;
     }
 
+    /**
+     * @return a copy of the keys, so it can be iterated while the cache is
+     * updated
+     */
     @Override
-    public Set<K> getAllKeys() {
-        return cache.keySet();
+    public synchronized Set<K> getAllKeys() {
+        return new HashSet<>(cache.keySet());
     }
 
     @Override
-    public int size() {
+    public synchronized int size() {
         return cache.size();
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         cache.clear();
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.commonutil.iterable.MergedSortedIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code ExternalSorter} sorts an {@link Iterable} which may be larger than
+ * the available memory.
+ * <p>
+ * Items are read into memory in runs of at most {@code maxItemsInMemory}
+ * items. Each full run is sorted and written sequentially to a temporary file
+ * using the provided {@link ToBytesSerialiser}. The sorted runs are then
+ * lazily merged with a {@link MergedSortedIterable}. If the input fits in a
+ * single run nothing is written to disk.
+ * </p>
+ * <p>
+ * The sort is stable. The returned iterable can only be iterated once, and
+ * its temporary files are deleted when it, or its iterator, is closed.
+ * </p>
+ *
+ * @param <T> the type of items to sort.
+ */
+public class ExternalSorter<T> {
+    public static final int DEFAULT_MAX_ITEMS_IN_MEMORY = 100000;
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final Comparator<? super T> comparator;
+    private final ToBytesSerialiser<T> serialiser;
+    private final int maxItemsInMemory;
+
+    public ExternalSorter(final Comparator<? super T> comparator, final ToBytesSerialiser<T> serialiser) {
+        this(comparator, serialiser, DEFAULT_MAX_ITEMS_IN_MEMORY);
+    }
+
+    public ExternalSorter(final Comparator<? super T> comparator, final ToBytesSerialiser<T> serialiser, final int maxItemsInMemory) {
+        if (null == comparator) {
+            throw new IllegalArgumentException("A comparator is required.");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("A serialiser is required.");
+        }
+        if (maxItemsInMemory < 1) {
+            throw new IllegalArgumentException("Max items in memory must be at least 1");
+        }
+        this.comparator = comparator;
+        this.serialiser = serialiser;
+        this.maxItemsInMemory = maxItemsInMemory;
+    }
+
+    /**
+     * Sorts the input. The input is fully consumed, and then closed, before
+     * this method returns.
+     *
+     * @param input the items to sort
+     * @return the sorted items
+     */
+    public CloseableIterable<T> sort(final Iterable<? extends T> input) {
+        final List<CloseableIterable<T>> runs = new ArrayList<>();
+        List<T> run = new ArrayList<>();
+        try {
+            for (final T item : input) {
+                run.add(item);
+                if (run.size() >= maxItemsInMemory) {
+                    runs.add(spill(run));
+                    run = new ArrayList<>();
+                }
+            }
+        } catch (final RuntimeException e) {
+            for (final CloseableIterable<T> spilled : runs) {
+                spilled.close();
+            }
+            throw e;
+        } finally {
+            CloseableUtil.close(input);
+        }
+
+        run.sort(comparator);
+        if (runs.isEmpty()) {
+            return new WrappedCloseableIterable<>(run);
+        }
+        if (!run.isEmpty()) {
+            runs.add(new WrappedCloseableIterable<>(run));
+        }
+        return new MergedSortedIterable<>(comparator, null, runs);
+    }
+
+    private SpilledRun spill(final List<T> run) {
+        run.sort(comparator);
+        final File file;
+        try {
+            file = File.createTempFile("maestro-sort", ".run");
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to create temporary file for sorting", e);
+        }
+        file.deleteOnExit();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE))) {
+            for (final T item : run) {
+                final byte[] bytes = null == item ? serialiser.serialiseNull() : serialiser.serialise(item);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        } catch (final IOException e) {
+            file.delete();
+            throw new RuntimeException("Unable to write sorted run to disk", e);
+        }
+        return new SpilledRun(file);
+    }
+
+    private final class SpilledRun implements CloseableIterable<T> {
+        private final File file;
+
+        private SpilledRun(final File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void close() {
+            file.delete();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final DataInputStream in;
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to read sorted run from disk", e);
+            }
+
+            return new CloseableIterator<T>() {
+                private T nextItem;
+                private boolean fetched;
+                private boolean hasNext;
+
+                @Override
+                public boolean hasNext() {
+                    if (!fetched) {
+                        hasNext = readNext();
+                        fetched = true;
+                        if (!hasNext) {
+                            close();
+                        }
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException("Reached the end of the iterator");
+                    }
+                    fetched = false;
+                    final T item = nextItem;
+                    nextItem = null;
+                    return item;
+                }
+
+                @Override
+                public void close() {
+                    CloseableUtil.close(in);
+                }
+
+                private boolean readNext() {
+                    try {
+                        final int length;
+                        try {
+                            length = in.readInt();
+                        } catch (final EOFException e) {
+                            return false;
+                        }
+                        final byte[] bytes = new byte[length];
+                        in.readFully(bytes);
+                        nextItem = 0 == length ? serialiser.deserialiseEmpty() : serialiser.deserialise(bytes);
+                        return true;
+                    } catch (final SerialisationException e) {
+                        close();
+                        throw new RuntimeException("Unable to deserialise sorted item", e);
+                    } catch (final IOException e) {
+                        close();
+                        throw new RuntimeException("Unable to read sorted run from disk", e);
+                    }
+                }
+            };
+        }
+    }
+}
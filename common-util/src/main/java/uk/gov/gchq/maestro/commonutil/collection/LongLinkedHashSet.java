@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import uk.gov.gchq.maestro.commonutil.iterable.primitive.LongCloseableIterator;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code LongLinkedHashSet} is an insertion ordered set of primitive
+ * {@code long} values.
+ * <p>
+ * The values are held in a {@code long[]} in the order they were added and
+ * indexed by a primitive open addressing hash table of positions, so no
+ * value is boxed and there is no entry or node object per value. Each value
+ * costs 8 bytes in the value array plus 4 to 8 bytes in the hash table.
+ * </p>
+ * <p>
+ * Values can be read back in insertion order from any position with
+ * {@link #get(int)} or {@link #iterator(int)}. Values cannot be removed.
+ * </p>
+ */
+public class LongLinkedHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] values;
+    // Insertion position + 1 of the value in each slot, 0 marks an empty slot
+    private int[] table;
+    private int mask;
+    private int size;
+
+    public LongLinkedHashSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of values the set is expected to hold
+     */
+    public LongLinkedHashSet(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        final int capacity = tableSizeFor(Math.max(INITIAL_CAPACITY, expectedSize));
+        values = new long[Math.max(INITIAL_CAPACITY, expectedSize)];
+        table = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds the value to the set.
+     *
+     * @param value the value to add
+     * @return true if the value was not already in the set
+     */
+    public boolean add(final long value) {
+        int slot = slot(value);
+        while (0 != table[slot]) {
+            if (value == values[table[slot] - 1]) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+        table[slot] = size;
+        if (size > (mask + 1) / 2) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * @param value the value to look for
+     * @return true if the value is in the set
+     */
+    public boolean contains(final long value) {
+        int slot = slot(value);
+        while (0 != table[slot]) {
+            if (value == values[table[slot] - 1]) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the insertion position of the value
+     * @return the value at the given insertion position
+     */
+    public long get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns an iterator over the values in insertion order, starting at the
+     * given position. The iterator stops at the size of the set when it was
+     * created.
+     *
+     * @param from the insertion position of the first value to return
+     * @return an iterator over the values
+     */
+    public LongCloseableIterator iterator(final int from) {
+        final int end = size;
+        return new LongCloseableIterator() {
+            private int index = Math.max(0, from);
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+
+            @Override
+            public void close() {
+                index = end;
+            }
+        };
+    }
+
+    private void resize() {
+        final int capacity = mask + 1;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full, it can hold at most " + MAX_CAPACITY / 2 + " values");
+        }
+
+        table = new int[capacity * 2];
+        mask = capacity * 2 - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = slot(values[i]);
+            while (0 != table[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private int slot(final long value) {
+        // Murmur3 finaliser, so sequential ids are spread across the table
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        final long target = Math.min(MAX_CAPACITY, 2L * expectedSize);
+        return (int) Math.max(INITIAL_CAPACITY, Long.highestOneBit(target - 1) << 1);
+    }
+}
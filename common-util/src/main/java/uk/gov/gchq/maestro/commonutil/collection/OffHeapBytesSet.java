@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code OffHeapBytesSet} is an insertion ordered set of byte arrays whose
+ * contents are held outside the Java heap.
+ * <p>
+ * Entries are appended as length prefixed records to direct
+ * {@link ByteBuffer} pages. An entry never spans two pages; an entry larger
+ * than the page size is given a page of its own. The heap only holds the
+ * position of each entry (8 bytes) and a primitive open addressing hash
+ * table of positions and 32 bit hashes (8 to 16 bytes per entry). When two
+ * entries share a hash their bytes are compared, so membership is exact.
+ * </p>
+ * <p>
+ * Entries can be read back in insertion order from any position with
+ * {@link #get(int)} or {@link #iterator(int)}. Entries cannot be removed.
+ * Closing the set empties it and releases the pages; direct memory is
+ * returned once the pages are garbage collected and is limited by
+ * {@code -XX:MaxDirectMemorySize}.
+ * </p>
+ */
+public class OffHeapBytesSet implements Closeable {
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int pageSize;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+
+    // Page number in the high 32 bits and offset in the low 32 bits of each entry
+    private long[] positions = new long[INITIAL_CAPACITY];
+    // Insertion position + 1 of the entry in each slot, 0 marks an empty slot
+    private int[] table = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    public OffHeapBytesSet() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize the size in bytes of each block of direct memory
+     */
+    public OffHeapBytesSet(final int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Adds the bytes to the set.
+     *
+     * @param bytes the bytes to add
+     * @return true if the bytes were not already in the set
+     */
+    public boolean add(final byte[] bytes) {
+        final int hash = hash(bytes);
+        int slot = hash & mask;
+        while (0 != table[slot]) {
+            if (hash == hashes[slot] && equalsAt(positions[table[slot] - 1], bytes)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = append(bytes);
+        table[slot] = size;
+        hashes[slot] = hash;
+        if (size > (mask + 1) / 2) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * @param bytes the bytes to look for
+     * @return true if the bytes are in the set
+     */
+    public boolean contains(final byte[] bytes) {
+        final int hash = hash(bytes);
+        int slot = hash & mask;
+        while (0 != table[slot]) {
+            if (hash == hashes[slot] && equalsAt(positions[table[slot] - 1], bytes)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the insertion position of the entry
+     * @return the bytes of the entry at the given insertion position
+     */
+    public byte[] get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return read(positions[index]);
+    }
+
+    /**
+     * Returns an iterator over the entries in insertion order, starting at the
+     * given position. The iterator stops at the size of the set when it was
+     * created.
+     *
+     * @param from the insertion position of the first entry to return
+     * @return an iterator over the entries
+     */
+    public CloseableIterator<byte[]> iterator(final int from) {
+        final int end = size;
+        return new CloseableIterator<byte[]>() {
+            private int index = Math.max(0, from);
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return read(positions[index++]);
+            }
+
+            @Override
+            public void close() {
+                index = end;
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes of direct memory allocated by the set.
+     */
+    public long getAllocatedBytes() {
+        long allocated = 0;
+        for (final ByteBuffer page : pages) {
+            allocated += page.capacity();
+        }
+        return allocated;
+    }
+
+    @Override
+    public void close() {
+        pages.clear();
+        positions = new long[INITIAL_CAPACITY];
+        table = new int[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+    }
+
+    private long append(final byte[] bytes) {
+        final int recordLength = 4 + bytes.length;
+        ByteBuffer page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (null == page || page.remaining() < recordLength) {
+            page = ByteBuffer.allocateDirect(Math.max(pageSize, recordLength));
+            pages.add(page);
+        }
+
+        final int offset = page.position();
+        page.putInt(bytes.length);
+        page.put(bytes);
+        return ((long) (pages.size() - 1) << 32) | offset;
+    }
+
+    private byte[] read(final long position) {
+        final ByteBuffer page = pages.get((int) (position >>> 32));
+        final int offset = (int) position;
+        final byte[] bytes = new byte[page.getInt(offset)];
+        final ByteBuffer record = page.duplicate();
+        record.position(offset + 4);
+        record.get(bytes);
+        return bytes;
+    }
+
+    private boolean equalsAt(final long position, final byte[] bytes) {
+        final ByteBuffer page = pages.get((int) (position >>> 32));
+        final int offset = (int) position;
+        if (page.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (page.get(offset + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize() {
+        final int capacity = mask + 1;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full, it can hold at most " + MAX_CAPACITY / 2 + " entries");
+        }
+
+        final int[] oldTable = table;
+        final int[] oldHashes = hashes;
+        table = new int[capacity * 2];
+        hashes = new int[capacity * 2];
+        mask = capacity * 2 - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (0 != oldTable[i]) {
+                int slot = oldHashes[i] & mask;
+                while (0 != table[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = oldTable[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static int hash(final byte[] bytes) {
+        return HASH_FUNCTION.hashBytes(bytes).asInt();
+    }
+}
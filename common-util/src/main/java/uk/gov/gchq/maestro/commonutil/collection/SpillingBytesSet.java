@@ -0,0 +1,361 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code SpillingBytesSet} is a set of byte arrays which holds its contents
+ * in memory up to a budget, then spills them to a temporary file.
+ * <p>
+ * Entries are indexed by a 64 bit hash in a primitive open addressing hash
+ * table. When two entries share a hash their bytes are compared, so
+ * membership is exact. The index itself is always held in memory and uses
+ * 16 bytes per entry; only the entry bytes count towards the memory budget.
+ * </p>
+ * <p>
+ * Entries are appended to a single log in the order they were added, and the
+ * offset of each entry is recorded (a further 8 bytes per entry), so entries
+ * can be read back in insertion order from any position with
+ * {@link #get(int)} or {@link #iterator(int)}.
+ * </p>
+ * <p>
+ * The set must be closed to delete the temporary file.
+ * </p>
+ */
+public class SpillingBytesSet implements Closeable {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final long memoryBudget;
+
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    private long[] positions = new long[INITIAL_CAPACITY];
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int bufferLength;
+    private long spilledLength;
+    private File spillFile;
+    private RandomAccessFile spill;
+
+    public SpillingBytesSet() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    public SpillingBytesSet(final long memoryBudget) {
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Adds the bytes to the set.
+     *
+     * @param bytes the bytes to add
+     * @return true if the bytes were not already in the set
+     */
+    public boolean add(final byte[] bytes) {
+        final long hash = hash(bytes);
+        int slot = slot(hash);
+        while (0 != hashes[slot]) {
+            if (hash == hashes[slot] && equalsAt(offsets[slot], bytes)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        hashes[slot] = hash;
+        offsets[slot] = append(bytes);
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size] = offsets[slot];
+        size++;
+        if (size > (mask + 1) / 2) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * @param bytes the bytes to look for
+     * @return true if the bytes are in the set
+     */
+    public boolean contains(final byte[] bytes) {
+        final long hash = hash(bytes);
+        int slot = slot(hash);
+        while (0 != hashes[slot]) {
+            if (hash == hashes[slot] && equalsAt(offsets[slot], bytes)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the insertion position of the entry
+     * @return the bytes of the entry at the given insertion position
+     */
+    public byte[] get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+
+        final long offset = positions[index];
+        if (offset >= spilledLength) {
+            return readBuffer((int) (offset - spilledLength));
+        }
+
+        try {
+            spill.seek(offset);
+            final byte[] bytes = new byte[spill.readInt()];
+            spill.readFully(bytes);
+            return bytes;
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to read spilled set entries from disk", e);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries in insertion order, starting at the
+     * given position. Spilled entries are read sequentially from disk, so the
+     * cost of the iterator does not depend on its start position. The
+     * iterator stops at the size of the set when it was created.
+     *
+     * @param from the insertion position of the first entry to return
+     * @return an iterator over the entries
+     */
+    public CloseableIterator<byte[]> iterator(final int from) {
+        return new EntryIterator(Math.max(0, from), size);
+    }
+
+    /**
+     * @return true if any entries have been written to disk.
+     */
+    public boolean isSpilled() {
+        return null != spill;
+    }
+
+    @Override
+    public void close() {
+        if (null != spill) {
+            try {
+                spill.close();
+            } catch (final IOException e) {
+                // Ignore exception
+            }
+            spill = null;
+        }
+        if (null != spillFile) {
+            spillFile.delete();
+            spillFile = null;
+        }
+        buffer = new byte[0];
+        bufferLength = 0;
+    }
+
+    private long append(final byte[] bytes) {
+        final int recordLength = 4 + bytes.length;
+        if (bufferLength > 0 && bufferLength + recordLength > memoryBudget) {
+            flush();
+        }
+        if (bufferLength + recordLength > buffer.length) {
+            final long newLength = Math.max(bufferLength + recordLength, Math.min(2L * buffer.length, memoryBudget));
+            buffer = Arrays.copyOf(buffer, (int) Math.min(Integer.MAX_VALUE - 8, newLength));
+        }
+
+        final long offset = spilledLength + bufferLength;
+        buffer[bufferLength++] = (byte) (bytes.length >>> 24);
+        buffer[bufferLength++] = (byte) (bytes.length >>> 16);
+        buffer[bufferLength++] = (byte) (bytes.length >>> 8);
+        buffer[bufferLength++] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, buffer, bufferLength, bytes.length);
+        bufferLength += bytes.length;
+        return offset;
+    }
+
+    private void flush() {
+        try {
+            if (null == spill) {
+                spillFile = File.createTempFile("maestro-spill", ".bin");
+                spillFile.deleteOnExit();
+                spill = new RandomAccessFile(spillFile, "rw");
+            }
+            spill.seek(spilledLength);
+            spill.write(buffer, 0, bufferLength);
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to spill set entries to disk", e);
+        }
+        spilledLength += bufferLength;
+        bufferLength = 0;
+    }
+
+    private byte[] readBuffer(final int position) {
+        final int length = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+                | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+        return Arrays.copyOfRange(buffer, position + 4, position + 4 + length);
+    }
+
+    private boolean equalsAt(final long offset, final byte[] bytes) {
+        if (offset >= spilledLength) {
+            final int position = (int) (offset - spilledLength);
+            final int length = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+                    | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+            if (length != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer[position + 4 + i] != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        try {
+            spill.seek(offset);
+            final int length = spill.readInt();
+            if (length != bytes.length) {
+                return false;
+            }
+            final byte[] stored = new byte[length];
+            spill.readFully(stored);
+            return Arrays.equals(stored, bytes);
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to read spilled set entries from disk", e);
+        }
+    }
+
+    private void resize() {
+        final int capacity = mask + 1;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full, it can hold at most " + MAX_CAPACITY / 2 + " entries");
+        }
+
+        final long[] oldHashes = hashes;
+        final long[] oldOffsets = offsets;
+        hashes = new long[capacity * 2];
+        offsets = new long[capacity * 2];
+        mask = capacity * 2 - 1;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (0 != oldHashes[i]) {
+                int slot = slot(oldHashes[i]);
+                while (0 != hashes[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                offsets[slot] = oldOffsets[i];
+            }
+        }
+    }
+
+    private int slot(final long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long hash(final byte[] bytes) {
+        final long hash = HASH_FUNCTION.hashBytes(bytes).asLong();
+        // 0 marks an empty slot
+        return 0 == hash ? 1 : hash;
+    }
+
+    private final class EntryIterator implements CloseableIterator<byte[]> {
+        private final int end;
+        private int index;
+        private DataInputStream stream;
+        private long streamOffset = -1;
+
+        private EntryIterator(final int from, final int end) {
+            this.index = from;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = index < end;
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final long offset = positions[index++];
+            if (offset >= spilledLength) {
+                return readBuffer((int) (offset - spilledLength));
+            }
+
+            try {
+                if (offset != streamOffset) {
+                    close();
+                    final FileInputStream fileStream = new FileInputStream(spillFile);
+                    fileStream.getChannel().position(offset);
+                    stream = new DataInputStream(new BufferedInputStream(fileStream));
+                }
+                final byte[] bytes = new byte[stream.readInt()];
+                stream.readFully(bytes);
+                streamOffset = offset + 4 + bytes.length;
+                return bytes;
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to read spilled set entries from disk", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (null != stream) {
+                try {
+                    stream.close();
+                } catch (final IOException e) {
+                    // Ignore exception
+                }
+                stream = null;
+            }
+            streamOffset = -1;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A {@code BatchCloseableIterator} is a {@link CloseableIterator} which is able
+ * to hand out several elements per call, avoiding a {@code hasNext()}/{@code next()}
+ * pair per element.
+ * <p>
+ * The default implementations simply loop over {@link #hasNext()} and
+ * {@link #next()}; implementations should override them where they can fill
+ * the buffer more efficiently.
+ * </p>
+ *
+ * @param <T> the type of items in the iterator.
+ */
+public interface BatchCloseableIterator<T> extends CloseableIterator<T> {
+
+    /**
+     * Copies up to {@code maxElements} elements into the provided array,
+     * starting at {@code offset}.
+     *
+     * @param buffer      the array to fill
+     * @param offset      the position in the array to start writing at
+     * @param maxElements the maximum number of elements to write
+     * @return the number of elements written. 0 is only returned if the
+     * iterator is exhausted or {@code maxElements} is 0.
+     */
+    default int nextBatch(final T[] buffer, final int offset, final int maxElements) {
+        int count = 0;
+        while (count < maxElements && hasNext()) {
+            buffer[offset + count] = next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Adds up to {@code maxElements} elements to the provided collection.
+     *
+     * @param buffer      the collection to add to
+     * @param maxElements the maximum number of elements to read
+     * @return the number of elements read from this iterator, which may
+     * differ from the change in size of the collection if it rejects
+     * duplicates. 0 is only returned if the iterator is exhausted or
+     * {@code maxElements} is 0.
+     */
+    default int nextBatch(final Collection<? super T> buffer, final int maxElements) {
+        int count = 0;
+        while (count < maxElements && hasNext()) {
+            buffer.add(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the provided iterator as a {@code BatchCloseableIterator},
+     * wrapping it in a {@link WrappedCloseableIterator} if required.
+     *
+     * @param iterator the iterator
+     * @param <T>      the type of items in the iterator.
+     * @return a {@code BatchCloseableIterator}
+     */
+    static <T> BatchCloseableIterator<T> wrap(final Iterator<T> iterator) {
+        if (iterator instanceof BatchCloseableIterator) {
+            return (BatchCloseableIterator<T>) iterator;
+        }
+
+        return new WrappedCloseableIterator<>(iterator);
+    }
+}
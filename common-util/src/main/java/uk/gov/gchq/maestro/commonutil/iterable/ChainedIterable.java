@@ -18,14 +18,23 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * A {@code ChainedIterable} is an iterable composed of other {@link Iterable}s.
  * <p>
  * As a client iterates through this iterable, the child iterables are consumed
  * sequentially.
+ * </p>
+ * <p>
+ * The {@link Spliterator} splits at the boundaries between child iterables
+ * before splitting within a child, and is sized if all the children are
+ * {@link Collection}s.
+ * </p>
  *
  * @param <T> the type of items in the iterable.
  */
@@ -53,7 +62,101 @@ public class ChainedIterable<T> implements CloseableIterable<T> {
         return new IteratorWrapper();
     }
 
-    private class IteratorWrapper implements CloseableIterator<T> {
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ChainedSpliterator(0, n, null);
+    }
+
+    private class ChainedSpliterator implements Spliterator<T> {
+        private final int fence;
+        private int index;
+        private Spliterator<T> current;
+
+        ChainedSpliterator(final int index, final int fence, final Spliterator<T> current) {
+            this.index = index;
+            this.fence = fence;
+            this.current = current;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            while (index < fence) {
+                if (getCurrent().tryAdvance(action)) {
+                    return true;
+                }
+                current = null;
+                index++;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            while (index < fence) {
+                getCurrent().forEachRemaining(action);
+                current = null;
+                index++;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (fence - index > 1) {
+                final int mid = (index + fence) >>> 1;
+                final Spliterator<T> prefix = new ChainedSpliterator(index, mid, current);
+                index = mid;
+                current = null;
+                return prefix;
+            }
+
+            return index < fence ? getCurrent().trySplit() : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int i = index; i < fence; i++) {
+                final long childSize = getSize(i);
+                if (childSize < 0) {
+                    return Long.MAX_VALUE;
+                }
+                size += childSize;
+                if (size < 0) {
+                    return Long.MAX_VALUE;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            for (int i = index; i < fence; i++) {
+                if (getSize(i) < 0) {
+                    return ORDERED;
+                }
+            }
+            return ORDERED | SIZED | SUBSIZED;
+        }
+
+        private long getSize(final int i) {
+            if (i == index && null != current) {
+                return current.getExactSizeIfKnown();
+            }
+            if (itrs[i] instanceof Collection) {
+                return ((Collection) itrs[i]).size();
+            }
+            return -1;
+        }
+
+        private Spliterator<T> getCurrent() {
+            if (null == current) {
+                current = itrs[index].spliterator();
+            }
+            return current;
+        }
+    }
+
+    private class IteratorWrapper implements BatchCloseableIterator<T> {
         private final Iterator<T>[] iterators = new Iterator[itrs.length];
         private int index = 0;
 
@@ -72,6 +175,58 @@ public class ChainedIterable<T> implements CloseableIterable<T> {
             return getIterator(index).next();
         }
 
+        @Override
+        public int nextBatch(final T[] buffer, final int offset, final int maxElements) {
+            int count = 0;
+            while (-1 != index && count < maxElements) {
+                final Iterator<T> itr = getIterator(index);
+                int read = 0;
+                if (itr instanceof BatchCloseableIterator) {
+                    read = ((BatchCloseableIterator<T>) itr).nextBatch(buffer, offset + count, maxElements - count);
+                } else {
+                    while (count + read < maxElements && itr.hasNext()) {
+                        buffer[offset + count + read] = itr.next();
+                        read++;
+                    }
+                }
+                count += read;
+                if (0 == read && !advance()) {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public int nextBatch(final Collection<? super T> buffer, final int maxElements) {
+            int count = 0;
+            while (-1 != index && count < maxElements) {
+                final Iterator<T> itr = getIterator(index);
+                int read = 0;
+                if (itr instanceof BatchCloseableIterator) {
+                    read = ((BatchCloseableIterator<T>) itr).nextBatch(buffer, maxElements - count);
+                } else {
+                    while (count + read < maxElements && itr.hasNext()) {
+                        buffer.add(itr.next());
+                        read++;
+                    }
+                }
+                count += read;
+                if (0 == read && !advance()) {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        private boolean advance() {
+            if (index + 1 < n) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
         private int getNextIndex() {
             boolean hasNext = getIterator(index).hasNext();
             int nextIndex = index;
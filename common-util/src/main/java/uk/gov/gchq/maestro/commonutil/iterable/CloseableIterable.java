@@ -17,6 +17,8 @@
 package uk.gov.gchq.maestro.commonutil.iterable;
 
 import java.io.Closeable;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A {@code CloseableIterable} is an {@link Iterable} which must provide an impl
@@ -30,4 +32,25 @@ public interface CloseableIterable<T> extends Iterable<T>, Closeable {
 
     @Override
     CloseableIterator<T> iterator();
+
+    /**
+     * Returns a sequential {@link Stream} over this iterable. Closing the
+     * stream closes this iterable.
+     *
+     * @return a sequential {@link Stream}
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    /**
+     * Returns a parallel {@link Stream} over this iterable. Closing the
+     * stream closes this iterable. The stream will only parallelise well if
+     * the {@link java.util.Spliterator} of this iterable splits well.
+     *
+     * @return a parallel {@link Stream}
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true).onClose(this::close);
+    }
 }
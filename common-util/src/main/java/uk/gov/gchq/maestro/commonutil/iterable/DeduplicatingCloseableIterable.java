@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.collection.SpillingBytesSet;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code DeduplicatingCloseableIterable} lazily removes duplicate items from
+ * an {@link Iterable}, returning only the first occurrence of each item.
+ * Items are compared by their serialised form, so the
+ * {@link ToBytesSerialiser} must always produce the same bytes for equal items.
+ * <p>
+ * There are two modes:
+ * <ul>
+ * <li>{@link Mode#EXACT} - the serialised items are held in a
+ * {@link SpillingBytesSet}, which spills to disk once the memory budget is
+ * exceeded.</li>
+ * <li>{@link Mode#APPROXIMATE} - only a {@link BloomFilter} is held, so memory
+ * use is fixed, but a small fraction of unique items (given by the false
+ * positive rate) will be wrongly dropped as duplicates.</li>
+ * </ul>
+ * Each iterator tracks the items it has seen separately.
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public class DeduplicatingCloseableIterable<T> implements CloseableIterable<T> {
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    public enum Mode {
+        EXACT, APPROXIMATE
+    }
+
+    private final Iterable<? extends T> input;
+    private final ToBytesSerialiser<? super T> serialiser;
+    private final Mode mode;
+    private final long memoryBudget;
+    private final long expectedItems;
+    private final double falsePositiveRate;
+
+    /**
+     * Constructs an exact {@code DeduplicatingCloseableIterable} with the
+     * default memory budget.
+     *
+     * @param input      the input {@link Iterable}
+     * @param serialiser the {@link ToBytesSerialiser} used to compare items
+     */
+    public DeduplicatingCloseableIterable(final Iterable<? extends T> input, final ToBytesSerialiser<? super T> serialiser) {
+        this(input, serialiser, SpillingBytesSet.DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructs an exact {@code DeduplicatingCloseableIterable}.
+     *
+     * @param input        the input {@link Iterable}
+     * @param serialiser   the {@link ToBytesSerialiser} used to compare items
+     * @param memoryBudget the number of bytes of serialised items to hold in
+     *                     memory before spilling to disk
+     */
+    public DeduplicatingCloseableIterable(final Iterable<? extends T> input, final ToBytesSerialiser<? super T> serialiser, final long memoryBudget) {
+        this(input, serialiser, Mode.EXACT, memoryBudget, 0, 0);
+    }
+
+    /**
+     * Constructs an approximate {@code DeduplicatingCloseableIterable}.
+     *
+     * @param input             the input {@link Iterable}
+     * @param serialiser        the {@link ToBytesSerialiser} used to compare items
+     * @param expectedItems     the expected number of unique items
+     * @param falsePositiveRate the fraction of unique items which may be
+     *                          wrongly dropped, once the expected number of
+     *                          items has been reached
+     */
+    public DeduplicatingCloseableIterable(final Iterable<? extends T> input, final ToBytesSerialiser<? super T> serialiser, final long expectedItems, final double falsePositiveRate) {
+        this(input, serialiser, Mode.APPROXIMATE, 0, expectedItems, falsePositiveRate);
+    }
+
+    private DeduplicatingCloseableIterable(final Iterable<? extends T> input, final ToBytesSerialiser<? super T> serialiser, final Mode mode,
+                                           final long memoryBudget, final long expectedItems, final double falsePositiveRate) {
+        if (null == input) {
+            throw new IllegalArgumentException("Input iterable is required");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("Serialiser is required");
+        }
+        if (Mode.EXACT == mode && memoryBudget < 1) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        if (Mode.APPROXIMATE == mode) {
+            if (expectedItems < 1) {
+                throw new IllegalArgumentException("Expected items must be positive");
+            }
+            if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+                throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+            }
+        }
+        this.input = input;
+        this.serialiser = serialiser;
+        this.mode = mode;
+        this.memoryBudget = memoryBudget;
+        this.expectedItems = expectedItems;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(input);
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        return new DeduplicatingIterator();
+    }
+
+    private class DeduplicatingIterator implements CloseableIterator<T> {
+        private final Iterator<? extends T> inputItr = input.iterator();
+        private final SpillingBytesSet seen = Mode.EXACT == mode ? new SpillingBytesSet(memoryBudget) : null;
+        private final BloomFilter<byte[]> filter = Mode.APPROXIMATE == mode
+                ? BloomFilter.create(Funnels.byteArrayFunnel(), (int) Math.min(Integer.MAX_VALUE, expectedItems), falsePositiveRate)
+                : null;
+
+        private T nextElement;
+        private boolean fetched;
+        private boolean hasNext;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                hasNext = false;
+                while (inputItr.hasNext()) {
+                    final T possibleNext = inputItr.next();
+                    if (isFirstOccurrence(possibleNext)) {
+                        nextElement = possibleNext;
+                        hasNext = true;
+                        break;
+                    }
+                }
+                fetched = true;
+
+                if (!hasNext) {
+                    close();
+                }
+            }
+
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            fetched = false;
+            final T element = nextElement;
+            nextElement = null;
+            return element;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(inputItr);
+            CloseableUtil.close(seen);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Cannot call remove on a " + DeduplicatingCloseableIterable.class.getSimpleName() + " iterator");
+        }
+
+        private boolean isFirstOccurrence(final T item) {
+            final byte[] bytes = serialise(item);
+            if (null != seen) {
+                return seen.add(bytes);
+            }
+            // put only returns false if the item may already have been added
+            return filter.put(bytes);
+        }
+
+        private byte[] serialise(final T item) {
+            if (null == item) {
+                return serialiser.serialiseNull();
+            }
+            try {
+                return serialiser.serialise(item);
+            } catch (final SerialisationException e) {
+                close();
+                throw new RuntimeException("Unable to serialise item for de-duplication: " + item, e);
+            }
+        }
+    }
+}
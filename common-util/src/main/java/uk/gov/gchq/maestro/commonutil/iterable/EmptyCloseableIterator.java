@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.maestro.commonutil.iterable;
 
+import java.util.Collection;
 import java.util.NoSuchElementException;
 
 /**
@@ -25,7 +26,7 @@ import java.util.NoSuchElementException;
  *
  * @param <T> the type of items in the iterator.
  */
-public class EmptyCloseableIterator<T> implements CloseableIterator<T> {
+public class EmptyCloseableIterator<T> implements BatchCloseableIterator<T> {
     @Override
     public void close() {
     }
@@ -40,6 +41,16 @@ public class EmptyCloseableIterator<T> implements CloseableIterator<T> {
         throw new NoSuchElementException();
     }
 
+    @Override
+    public int nextBatch(final T[] buffer, final int offset, final int maxElements) {
+        return 0;
+    }
+
+    @Override
+    public int nextBatch(final Collection<? super T> buffer, final int maxElements) {
+        return 0;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException();
@@ -18,9 +18,16 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.Spliterator;
+import java.util.Spliterators;
+
 /**
  * A {@code LimitedCloseableIterable} is an {@link Iterable} which is limited to
  * a maximum size.
+ * <p>
+ * If the underlying iterable is a {@link SeekableCloseableIterable} the
+ * elements before the start position are skipped without being read.
+ * </p>
  *
  * @param <T> the type of items in the iterable.
  */
@@ -76,6 +83,29 @@ public class LimitedCloseableIterable<T> implements CloseableIterable<T> {
 
     @Override
     public CloseableIterator<T> iterator() {
+        if (start > 0 && iterable instanceof SeekableCloseableIterable) {
+            return new LimitedCloseableIterator<>(((SeekableCloseableIterable<T>) iterable).iterator(start), start, end, truncate, start);
+        }
+
         return new LimitedCloseableIterator<>(iterable.iterator(), start, end, truncate);
     }
+
+    /**
+     * Returns a sized {@link Spliterator} if the underlying iterable wraps a
+     * {@link java.util.Collection}, otherwise an unsized one. If the items
+     * are not truncated and there are more than the end pointer allows, the
+     * iterator fails part way through, so no size is reported.
+     *
+     * @return a {@link Spliterator} over the limited items.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        final long size = iterable instanceof WrappedCloseableIterable ? ((WrappedCloseableIterable<T>) iterable).getExactSizeIfKnown() : -1;
+        if (size < 0 || (null != end && size > end && !Boolean.TRUE.equals(truncate))) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+        }
+
+        final long limitedSize = Math.max(0, (null == end ? size : Math.min(size, end)) - start);
+        return Spliterators.spliterator(iterator(), limitedSize, Spliterator.ORDERED);
+    }
 }
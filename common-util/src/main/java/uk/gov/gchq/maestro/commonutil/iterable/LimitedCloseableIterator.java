@@ -18,6 +18,7 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import uk.gov.gchq.maestro.commonutil.exception.LimitExceededException;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -25,7 +26,8 @@ import java.util.NoSuchElementException;
  * An {@code LimitedCloseableIterator} is an {@link Iterator} which is
  * limited to a maximum size. This is achieved by iterating through the objects
  * contained in the iterator until the preconfigured starting point is reached
- * (and discarding these), then by retrieving objects until either:
+ * (and discarding these, or skipping them if the iterator is a
+ * {@link SkippableCloseableIterator}), then by retrieving objects until either:
  * <ul>
  * <li>the end of the iterator is reached, or</li>
  * <li>the iterator pointer exceeds the specified limit</li>
@@ -33,8 +35,8 @@ import java.util.NoSuchElementException;
  *
  * @param <T> the type of items in the iterator.
  */
-public class LimitedCloseableIterator<T> implements CloseableIterator<T> {
-    private final CloseableIterator<T> iterator;
+public class LimitedCloseableIterator<T> implements BatchCloseableIterator<T> {
+    private final BatchCloseableIterator<T> iterator;
     private final Integer end;
     private int index = 0;
     private Boolean truncate = true;
@@ -52,6 +54,21 @@ public class LimitedCloseableIterator<T> implements CloseableIterator<T> {
     }
 
     public LimitedCloseableIterator(final CloseableIterator<T> iterator, final int start, final Integer end, final Boolean truncate) {
+        this(iterator, start, end, truncate, 0);
+    }
+
+    /**
+     * Constructs a {@code LimitedCloseableIterator} over an iterator which has
+     * already been moved to the given position, for example by a
+     * {@link SeekableCloseableIterable}.
+     *
+     * @param iterator the iterator
+     * @param start    the start position
+     * @param end      the end position, or null if there is no end
+     * @param truncate if false an exception is thrown if the end is exceeded
+     * @param position the position the iterator is currently at
+     */
+    LimitedCloseableIterator(final CloseableIterator<T> iterator, final int start, final Integer end, final Boolean truncate, final int position) {
         if (null != end && start > end) {
             throw new IllegalArgumentException("start should be less than end");
         }
@@ -59,11 +76,15 @@ public class LimitedCloseableIterator<T> implements CloseableIterator<T> {
         if (null == iterator) {
             this.iterator = new EmptyCloseableIterator<>();
         } else {
-            this.iterator = iterator;
+            this.iterator = BatchCloseableIterator.wrap(iterator);
         }
         this.end = end;
         this.truncate = truncate;
+        this.index = position;
 
+        if (index < start && iterator instanceof SkippableCloseableIterator) {
+            index += (int) ((SkippableCloseableIterator<T>) iterator).skip(start - index);
+        }
         while (index < start && hasNext()) {
             next();
         }
@@ -101,6 +122,31 @@ public class LimitedCloseableIterator<T> implements CloseableIterator<T> {
         return iterator.next();
     }
 
+    @Override
+    public int nextBatch(final T[] buffer, final int offset, final int maxElements) {
+        final int count = iterator.nextBatch(buffer, offset, getBatchLimit(maxElements));
+        return updateIndex(count, maxElements);
+    }
+
+    @Override
+    public int nextBatch(final Collection<? super T> buffer, final int maxElements) {
+        final int count = iterator.nextBatch(buffer, getBatchLimit(maxElements));
+        return updateIndex(count, maxElements);
+    }
+
+    private int getBatchLimit(final int maxElements) {
+        return null == end ? maxElements : Math.max(0, Math.min(maxElements, end - index));
+    }
+
+    private int updateIndex(final int count, final int maxElements) {
+        index += count;
+        if (0 == count && maxElements > 0) {
+            // Closes the iterator, or throws if the limit has been exceeded and truncate is false.
+            hasNext();
+        }
+        return count;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException();
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@code MergedSortedIterable} lazily merges several {@link Iterable}s,
+ * each of which must already be sorted by the provided {@link Comparator},
+ * into a single sorted iterable.
+ * <p>
+ * The merge holds one element per source in a heap, so it uses memory
+ * proportional to the number of sources rather than the number of elements.
+ * Elements which compare as equal are returned in source order, unless a
+ * combiner is provided, in which case they are merged into a single element.
+ * </p>
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public class MergedSortedIterable<T> implements CloseableIterable<T> {
+    private final Comparator<? super T> comparator;
+    private final BinaryOperator<T> combiner;
+    private final List<Iterable<? extends T>> iterables;
+
+    public MergedSortedIterable(final Comparator<? super T> comparator, final Iterable... iterables) {
+        this(comparator, false, iterables);
+    }
+
+    /**
+     * Constructs a {@code MergedSortedIterable} which optionally removes
+     * duplicates. If deduplicating, only the first of a group of elements
+     * which compare as equal is returned.
+     *
+     * @param comparator  the {@link Comparator} the sources are sorted by
+     * @param deduplicate if true elements which compare as equal are only returned once
+     * @param iterables   the sorted sources
+     */
+    public MergedSortedIterable(final Comparator<? super T> comparator, final boolean deduplicate, final Iterable... iterables) {
+        this(comparator, deduplicate ? (first, second) -> first : null, toList(iterables));
+    }
+
+    /**
+     * Constructs a {@code MergedSortedIterable} with the given parameters
+     *
+     * @param comparator the {@link Comparator} the sources are sorted by
+     * @param combiner   the function used to merge elements which compare as
+     *                   equal, or null to return them all
+     * @param iterables  the sorted sources
+     */
+    public MergedSortedIterable(final Comparator<? super T> comparator, final BinaryOperator<T> combiner, final Collection<? extends Iterable<? extends T>> iterables) {
+        if (null == comparator) {
+            throw new IllegalArgumentException("A comparator is required.");
+        }
+        if (null == iterables || iterables.isEmpty()) {
+            throw new IllegalArgumentException("At least 1 iterable is required.");
+        }
+        this.comparator = comparator;
+        this.combiner = combiner;
+        this.iterables = new ArrayList<>(iterables);
+    }
+
+    @Override
+    public void close() {
+        for (final Iterable<? extends T> iterable : iterables) {
+            CloseableUtil.close(iterable);
+        }
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        return new MergedIterator();
+    }
+
+    private static <T> List<Iterable<? extends T>> toList(final Iterable[] iterables) {
+        if (null == iterables) {
+            return null;
+        }
+        return (List) Arrays.asList(iterables);
+    }
+
+    private final class Source {
+        private final Iterator<? extends T> iterator;
+        private final int index;
+        private T head;
+
+        private Source(final Iterator<? extends T> iterator, final int index) {
+            this.iterator = iterator;
+            this.index = index;
+        }
+
+        private boolean advance() {
+            if (iterator.hasNext()) {
+                head = iterator.next();
+                return true;
+            }
+            head = null;
+            return false;
+        }
+    }
+
+    private class MergedIterator implements CloseableIterator<T> {
+        private final List<Iterator<? extends T>> iterators = new ArrayList<>(iterables.size());
+        private final PriorityQueue<Source> heap = new PriorityQueue<>(iterables.size(), (a, b) -> {
+            final int result = comparator.compare(a.head, b.head);
+            return 0 != result ? result : Integer.compare(a.index, b.index);
+        });
+        private boolean initialised;
+
+        @Override
+        public boolean hasNext() {
+            if (!initialised) {
+                initialise();
+            }
+
+            if (heap.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            final Source source = heap.poll();
+            T result = source.head;
+            requeue(source);
+
+            if (null != combiner) {
+                while (!heap.isEmpty() && 0 == comparator.compare(heap.peek().head, result)) {
+                    final Source equal = heap.poll();
+                    result = combiner.apply(result, equal.head);
+                    requeue(equal);
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public void close() {
+            for (final Iterator<? extends T> iterator : iterators) {
+                CloseableUtil.close(iterator);
+            }
+            heap.clear();
+            MergedSortedIterable.this.close();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Cannot call remove on a " + MergedSortedIterable.class.getSimpleName() + " iterator");
+        }
+
+        private void initialise() {
+            initialised = true;
+            for (int i = 0; i < iterables.size(); i++) {
+                final Iterator<? extends T> iterator = iterables.get(i).iterator();
+                iterators.add(iterator);
+                requeue(new Source(iterator, i));
+            }
+        }
+
+        private void requeue(final Source source) {
+            if (source.advance()) {
+                heap.add(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A {@code ParallelTransformIterable} is a variant of {@link TransformIterable}
+ * which validates and transforms items on an {@link ExecutorService} rather
+ * than on the consuming thread.
+ * <p>
+ * The input is read on the consuming thread in chunks of {@code chunkSize}
+ * items, and at most {@code readAhead} chunks are submitted to the executor
+ * at any one time. If {@code ordered} is true the results are returned in the
+ * same order as the input, otherwise each chunk is returned as soon as it has
+ * been transformed.
+ * </p>
+ * <p>
+ * The {@link Validator} and {@link #transform(Object)} method must be thread
+ * safe. Any exception thrown whilst transforming is rethrown on the consuming
+ * thread and the iterator is closed. Closing an iterator cancels any chunks
+ * that are still outstanding.
+ * </p>
+ *
+ * @param <I> The input iterable type.
+ * @param <O> the output iterable type.
+ */
+public abstract class ParallelTransformIterable<I, O> implements CloseableIterable<O> {
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final Iterable<? extends I> input;
+    private final Validator<I> validator;
+    private final boolean skipInvalid;
+    private final boolean autoClose;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int readAhead;
+    private final boolean ordered;
+
+    /**
+     * Constructs a {@code ParallelTransformIterable} with the given input
+     * {@link Iterable} and no validation. Items are transformed on the common
+     * {@link ForkJoinPool} and returned in input order.
+     *
+     * @param input the input {@link Iterable}
+     */
+    public ParallelTransformIterable(final Iterable<? extends I> input) {
+        this(input, new AlwaysValid<>(), false, true, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, 2 * ForkJoinPool.getCommonPoolParallelism(), true);
+    }
+
+    /**
+     * Constructs a {@code ParallelTransformIterable} with the given input
+     * {@link Iterable}, no validation and the given executor settings.
+     *
+     * @param input     the input {@link Iterable}
+     * @param executor  the {@link ExecutorService} to transform items on
+     * @param chunkSize the number of items to transform in each task
+     * @param readAhead the maximum number of chunks to have outstanding
+     * @param ordered   if true the results are returned in input order
+     */
+    public ParallelTransformIterable(final Iterable<? extends I> input, final ExecutorService executor, final int chunkSize, final int readAhead, final boolean ordered) {
+        this(input, new AlwaysValid<>(), false, true, executor, chunkSize, readAhead, ordered);
+    }
+
+    /**
+     * Constructs a {@code ParallelTransformIterable} with the given parameters
+     *
+     * @param input       the input {@link Iterable}
+     * @param validator   the {@link Validator}
+     * @param skipInvalid if true invalid items should be skipped
+     * @param autoClose   if true then the input iterable will be closed when any iterators reach the end.
+     * @param executor    the {@link ExecutorService} to transform items on
+     * @param chunkSize   the number of items to transform in each task
+     * @param readAhead   the maximum number of chunks to have outstanding
+     * @param ordered     if true the results are returned in input order
+     */
+    public ParallelTransformIterable(final Iterable<? extends I> input, final Validator<I> validator, final boolean skipInvalid, final boolean autoClose,
+                                     final ExecutorService executor, final int chunkSize, final int readAhead, final boolean ordered) {
+        if (null == input) {
+            throw new IllegalArgumentException("Input iterable is required");
+        }
+        if (null == executor) {
+            throw new IllegalArgumentException("Executor is required");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("Read ahead must be at least 1");
+        }
+        this.input = input;
+        this.validator = validator;
+        this.skipInvalid = skipInvalid;
+        this.autoClose = autoClose;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.readAhead = readAhead;
+        this.ordered = ordered;
+    }
+
+    /**
+     * @return an {@link java.util.Iterator} that lazily transforms the I items to O items
+     * in parallel.
+     */
+    @Override
+    public CloseableIterator<O> iterator() {
+        return new ParallelIterator();
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(input);
+    }
+
+    /**
+     * Transforms the I item into an O item. This may be called concurrently
+     * from several threads.
+     *
+     * @param item the I item to be transformed
+     * @return the transformed O item
+     */
+    protected abstract O transform(final I item);
+
+    /**
+     * Handles an invalid item. Simply throws an {@link IllegalArgumentException} explaining that the item is
+     * invalid. Override this method to handle invalid items differently. This may be called concurrently
+     * from several threads.
+     *
+     * @param item the invalid I item
+     * @throws IllegalArgumentException always thrown unless this method is overridden.
+     */
+    protected void handleInvalidItem(final I item) {
+        final String itemDescription = null != item ? item.toString() : "<unknown>";
+        throw new IllegalArgumentException("Next " + itemDescription + " in iterable is not valid.");
+    }
+
+    private List<O> transformChunk(final List<I> chunk) {
+        final List<O> results = new ArrayList<>(chunk.size());
+        for (final I item : chunk) {
+            if (validator.validate(item)) {
+                results.add(transform(item));
+            } else if (!skipInvalid) {
+                handleInvalidItem(item);
+            }
+        }
+        return results;
+    }
+
+    private Class<? extends ParallelTransformIterable> getIterableClass() {
+        return getClass();
+    }
+
+    private class ParallelIterator implements CloseableIterator<O> {
+        private final Iterator<? extends I> inputItr = input.iterator();
+        private final Deque<Future<List<O>>> pending = new ArrayDeque<>(readAhead);
+        private final CompletionService<List<O>> completionService = ordered ? null : new ExecutorCompletionService<>(executor);
+        private Iterator<O> current = Collections.emptyIterator();
+        private boolean closed;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (closed) {
+                    return false;
+                }
+                submitChunks();
+                if (pending.isEmpty()) {
+                    if (autoClose) {
+                        close();
+                    }
+                    return false;
+                }
+                current = nextChunk().iterator();
+                submitChunks();
+            }
+            return true;
+        }
+
+        @Override
+        public O next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (final Future<List<O>> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            current = Collections.emptyIterator();
+            CloseableUtil.close(inputItr);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Cannot call remove on a " + getIterableClass().getSimpleName() + " iterator");
+        }
+
+        private void submitChunks() {
+            while (pending.size() < readAhead && inputItr.hasNext()) {
+                final List<I> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && inputItr.hasNext()) {
+                    chunk.add(inputItr.next());
+                }
+                if (ordered) {
+                    pending.add(executor.submit(() -> transformChunk(chunk)));
+                } else {
+                    pending.add(completionService.submit(() -> transformChunk(chunk)));
+                }
+            }
+        }
+
+        private List<O> nextChunk() {
+            try {
+                final Future<List<O>> future;
+                if (ordered) {
+                    future = pending.poll();
+                } else {
+                    future = completionService.take();
+                    pending.remove(future);
+                }
+                return future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Interrupted whilst waiting for items to be transformed", e);
+            } catch (final ExecutionException e) {
+                close();
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+}
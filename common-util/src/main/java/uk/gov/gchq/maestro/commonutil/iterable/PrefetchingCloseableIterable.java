@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A {@code PrefetchingCloseableIterable} is a {@link CloseableIterable} whose
+ * iterators read ahead from the source iterable on a background thread.
+ * This is useful when the source is slow, for example when it is backed by a
+ * remote executor, a persistent cache or a file.
+ *
+ * @param <T> the type of items in the iterable.
+ * @see PrefetchingCloseableIterator
+ */
+public class PrefetchingCloseableIterable<T> implements CloseableIterable<T> {
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Iterable<T> iterable;
+    private final ExecutorService executor;
+    private final int bufferSize;
+    private final int batchSize;
+
+    public PrefetchingCloseableIterable(final Iterable<T> iterable) {
+        this(iterable, DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    public PrefetchingCloseableIterable(final Iterable<T> iterable, final int bufferSize, final int batchSize) {
+        this(iterable, null, bufferSize, batchSize);
+    }
+
+    /**
+     * Constructs a {@code PrefetchingCloseableIterable} with the given parameters
+     *
+     * @param iterable   the source {@link Iterable}
+     * @param executor   the {@link ExecutorService} to prefetch on. If null the
+     *                   shared {@link uk.gov.gchq.maestro.commonutil.ExecutorService} is used.
+     * @param bufferSize the maximum number of items to buffer per iterator
+     * @param batchSize  the number of items handed to the consumer at a time
+     */
+    public PrefetchingCloseableIterable(final Iterable<T> iterable, final ExecutorService executor, final int bufferSize, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (bufferSize < batchSize) {
+            throw new IllegalArgumentException("Buffer size must not be less than the batch size");
+        }
+
+        this.iterable = null == iterable ? new EmptyClosableIterable<>() : iterable;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterable);
+    }
+
+    /**
+     * @return a {@link PrefetchingCloseableIterator}, which starts reading from
+     * the source immediately.
+     * @throws IllegalStateException if no executor was given and the shared
+     *                               {@link uk.gov.gchq.maestro.commonutil.ExecutorService} has not been initialised
+     */
+    @Override
+    public PrefetchingCloseableIterator<T> iterator() {
+        final ExecutorService prefetchExecutor = null == executor
+                ? PrefetchingCloseableIterator.getSharedExecutor() : executor;
+        return new PrefetchingCloseableIterator<>(iterable.iterator(), prefetchExecutor, bufferSize, batchSize);
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code PrefetchingCloseableIterator} reads items from a source
+ * {@link Iterator} on a background thread into a bounded buffer, so that the
+ * latency of a slow source overlaps with the work done by the consumer.
+ * <p>
+ * Items are handed from the producer to the consumer in batches of
+ * {@code batchSize}, and at most {@code bufferSize} items are buffered.
+ * Any exception thrown by the source is rethrown to the consumer once the
+ * items read before it have been consumed. Closing the iterator stops the
+ * producer, and the source is closed by the producer once it has stopped
+ * reading from it, as the source may not be thread safe.
+ * </p>
+ * <p>
+ * The producer holds a thread of the executor until the iterator is
+ * exhausted or closed. Unless an executor is given the shared
+ * {@link ExecutorService} is used, so prefetching is bounded by its pool.
+ * </p>
+ *
+ * @param <T> the type of items in the iterator.
+ */
+public class PrefetchingCloseableIterator<T> implements CloseableIterator<T> {
+    private static final Object END = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final Iterator<T> source;
+    private final int bufferSize;
+    private final int batchSize;
+    private final BlockingQueue<Object> queue;
+    private final Future<?> producer;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger bufferedItems = new AtomicInteger();
+    private final AtomicInteger maxBufferedItems = new AtomicInteger();
+    private final AtomicLong prefetchedItems = new AtomicLong();
+    private final AtomicLong producerStalls = new AtomicLong();
+    private final AtomicLong consumerStalls = new AtomicLong();
+
+    private volatile boolean closed;
+    private List<T> current = Collections.emptyList();
+    private int currentIndex;
+    private boolean finished;
+
+    /**
+     * Constructs a {@code PrefetchingCloseableIterator} which prefetches on
+     * the shared {@link ExecutorService}.
+     *
+     * @param source     the source {@link Iterator}
+     * @param bufferSize the maximum number of items to buffer
+     * @param batchSize  the number of items handed to the consumer at a time
+     * @throws IllegalStateException if the {@link ExecutorService} has not been initialised
+     */
+    public PrefetchingCloseableIterator(final Iterator<T> source, final int bufferSize, final int batchSize) {
+        this(source, getSharedExecutor(), bufferSize, batchSize);
+    }
+
+    public PrefetchingCloseableIterator(final Iterator<T> source, final java.util.concurrent.ExecutorService executor,
+                                        final int bufferSize, final int batchSize) {
+        if (null == executor) {
+            throw new IllegalArgumentException("Executor is required");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (bufferSize < batchSize) {
+            throw new IllegalArgumentException("Buffer size must not be less than the batch size");
+        }
+
+        this.source = null == source ? Collections.emptyIterator() : source;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(bufferSize / batchSize);
+        this.producer = executor.submit(this::produce);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentIndex >= current.size()) {
+            if (finished) {
+                return false;
+            }
+            takeBatch();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Reached the end of the iterator");
+        }
+
+        return current.get(currentIndex++);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            finished = true;
+            producer.cancel(true);
+            queue.clear();
+            bufferedItems.set(0);
+            current = Collections.emptyList();
+            if (started.compareAndSet(false, true)) {
+                // The producer never ran, so the source is not in use
+                CloseableUtil.close(source);
+            }
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Cannot call remove on a " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return the maximum number of items that will be buffered.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of items currently buffered, waiting to be consumed.
+     */
+    public int getBufferedItems() {
+        return Math.max(0, bufferedItems.get());
+    }
+
+    /**
+     * @return the largest number of items that have been buffered at once.
+     * This may briefly include the batch being handed to the consumer.
+     */
+    public int getMaxBufferedItems() {
+        return maxBufferedItems.get();
+    }
+
+    /**
+     * @return the fraction of the buffer that is currently in use, between 0 and 1.
+     */
+    public double getBufferUtilisation() {
+        return Math.min(1.0, (double) getBufferedItems() / bufferSize);
+    }
+
+    /**
+     * @return the total number of items read from the source.
+     */
+    public long getPrefetchedItems() {
+        return prefetchedItems.get();
+    }
+
+    /**
+     * @return the number of times the producer had to wait because the buffer was full.
+     */
+    public long getProducerStalls() {
+        return producerStalls.get();
+    }
+
+    /**
+     * @return the number of times the consumer had to wait because the buffer was empty.
+     */
+    public long getConsumerStalls() {
+        return consumerStalls.get();
+    }
+
+    private void produce() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed && source.hasNext()) {
+                batch.add(source.next());
+                if (batch.size() == batchSize) {
+                    put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(batch);
+            }
+            put(END);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final Throwable e) {
+            try {
+                if (!batch.isEmpty()) {
+                    put(batch);
+                }
+                put(new Failure(e));
+            } catch (final InterruptedException e2) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            CloseableUtil.close(source);
+        }
+    }
+
+    private void put(final Object item) throws InterruptedException {
+        if (!queue.offer(item)) {
+            producerStalls.incrementAndGet();
+            while (!queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return;
+                }
+            }
+        }
+
+        if (item instanceof List) {
+            final int size = ((List) item).size();
+            prefetchedItems.addAndGet(size);
+            maxBufferedItems.accumulateAndGet(bufferedItems.addAndGet(size), Math::max);
+        }
+    }
+
+    private void takeBatch() {
+        Object item = queue.poll();
+        if (null == item) {
+            consumerStalls.incrementAndGet();
+            try {
+                item = queue.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Interrupted whilst waiting for items to be prefetched", e);
+            }
+        }
+
+        if (END == item) {
+            finished = true;
+            close();
+        } else if (item instanceof Failure) {
+            finished = true;
+            close();
+            final Throwable cause = ((Failure) item).cause;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } else {
+            current = (List<T>) item;
+            currentIndex = 0;
+            bufferedItems.addAndGet(-current.size());
+        }
+    }
+
+    static java.util.concurrent.ExecutorService getSharedExecutor() {
+        final java.util.concurrent.ExecutorService executor = ExecutorService.getService();
+        if (null == executor) {
+            throw new IllegalStateException("Unable to prefetch, as no executor was given and the ExecutorService has not been initialised");
+        }
+        return executor;
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(final Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+/**
+ * A {@code SeekableCloseableIterable} is a {@link CloseableIterable} which is
+ * able to start iterating from a given position, ideally without reading the
+ * elements before it. {@link LimitedCloseableIterable} uses this to avoid
+ * reading and discarding the elements before its start position.
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public interface SeekableCloseableIterable<T> extends CloseableIterable<T> {
+
+    /**
+     * Returns an iterator positioned at the given element. If the position is
+     * past the end of the iterable the iterator will be exhausted.
+     *
+     * @param position the index of the first element to return
+     * @return an iterator starting at {@code position}
+     */
+    CloseableIterator<T> iterator(final long position);
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+/**
+ * A {@code SkippableCloseableIterator} is a {@link CloseableIterator} which is
+ * able to skip over elements without returning them.
+ * <p>
+ * The default implementation simply calls {@link #next()} repeatedly;
+ * implementations backed by random access data should override it to skip in
+ * constant time.
+ * </p>
+ *
+ * @param <T> the type of items in the iterator.
+ */
+public interface SkippableCloseableIterator<T> extends CloseableIterator<T> {
+
+    /**
+     * Skips over up to {@code n} elements.
+     *
+     * @param n the number of elements to skip
+     * @return the number of elements actually skipped, which is only less
+     * than {@code n} if the iterator is exhausted.
+     */
+    default long skip(final long n) {
+        long skipped = 0;
+        while (skipped < n && hasNext()) {
+            next();
+            skipped++;
+        }
+        return skipped;
+    }
+}
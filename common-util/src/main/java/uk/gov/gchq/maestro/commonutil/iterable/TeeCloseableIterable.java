@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A {@code TeeCloseableIterable} passes the elements of its input to a sink
+ * as they are consumed, so the input only needs to be iterated once to both
+ * produce the output and feed the sink.
+ * <p>
+ * Elements are handed to the sink in batches of {@code batchSize}. Only the
+ * first iterator feeds the sink. When that iterator is closed before it is
+ * exhausted, or when the iterable is closed without ever being iterated, the
+ * remaining input is read and sent to the sink, so the sink always receives
+ * every element.
+ * </p>
+ * <p>
+ * If an executor is provided the batches are written asynchronously, in
+ * order, and closing waits for all writes to finish. At most
+ * {@code maxPendingBatches} batches are waiting to be written at once; beyond
+ * that the consumer waits for the oldest write, so a slow sink slows the
+ * consumer down rather than the input being buffered in memory. A failure in
+ * the sink is rethrown by the next call on the iterator or by close.
+ * </p>
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public class TeeCloseableIterable<T> implements CloseableIterable<T> {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_MAX_PENDING_BATCHES = 2;
+
+    private final Iterable<T> input;
+    private final Consumer<List<T>> sink;
+    private final int batchSize;
+    private final Executor asyncExecutor;
+    private final int maxPendingBatches;
+    private final AtomicBoolean teeStarted = new AtomicBoolean(false);
+    private TeeIterator tee;
+
+    public TeeCloseableIterable(final Iterable<T> input, final Consumer<List<T>> sink) {
+        this(input, sink, DEFAULT_BATCH_SIZE, false);
+    }
+
+    /**
+     * @param input     the input iterable
+     * @param sink      the sink to pass batches of elements to
+     * @param batchSize the number of elements in each batch
+     * @param async     if true the batches are written on the shared {@link ExecutorService},
+     *                  or on the consuming thread if it has not been initialised
+     */
+    public TeeCloseableIterable(final Iterable<T> input, final Consumer<List<T>> sink, final int batchSize, final boolean async) {
+        this(input, sink, batchSize, async ? ExecutorService.getService() : null);
+    }
+
+    /**
+     * @param input         the input iterable
+     * @param sink          the sink to pass batches of elements to
+     * @param batchSize     the number of elements in each batch
+     * @param asyncExecutor the executor used to write the batches, or null to write them on the consuming thread
+     */
+    public TeeCloseableIterable(final Iterable<T> input, final Consumer<List<T>> sink, final int batchSize, final Executor asyncExecutor) {
+        this(input, sink, batchSize, asyncExecutor, DEFAULT_MAX_PENDING_BATCHES);
+    }
+
+    /**
+     * @param input             the input iterable
+     * @param sink              the sink to pass batches of elements to
+     * @param batchSize         the number of elements in each batch
+     * @param asyncExecutor     the executor used to write the batches, or null to write them on the consuming thread
+     * @param maxPendingBatches the number of batches which may be waiting to be written asynchronously
+     */
+    public TeeCloseableIterable(final Iterable<T> input, final Consumer<List<T>> sink, final int batchSize,
+                                final Executor asyncExecutor, final int maxPendingBatches) {
+        if (null == input) {
+            throw new IllegalArgumentException("Input iterable is required");
+        }
+        if (null == sink) {
+            throw new IllegalArgumentException("A sink is required");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (maxPendingBatches < 1) {
+            throw new IllegalArgumentException("Max pending batches must be positive");
+        }
+        this.input = input;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.asyncExecutor = asyncExecutor;
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        if (teeStarted.compareAndSet(false, true)) {
+            tee = new TeeIterator(input.iterator());
+            return tee;
+        }
+        return new WrappedCloseableIterator<>(input.iterator());
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (teeStarted.compareAndSet(false, true)) {
+                tee = new TeeIterator(input.iterator());
+            }
+            tee.close();
+        } finally {
+            CloseableUtil.close(input);
+        }
+    }
+
+    private final class TeeIterator implements CloseableIterator<T> {
+        private final Iterator<T> inputItr;
+        private List<T> batch = new ArrayList<>(batchSize);
+        private final Deque<CompletableFuture<Void>> pending = new ArrayDeque<>();
+        private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+        private boolean finished;
+
+        private TeeIterator(final Iterator<T> inputItr) {
+            this.inputItr = inputItr;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+            checkForFailure();
+            final boolean hasNext = inputItr.hasNext();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T item = inputItr.next();
+            add(item);
+            return item;
+        }
+
+        @Override
+        public void close() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                while (inputItr.hasNext()) {
+                    add(inputItr.next());
+                }
+                flush();
+                await();
+            } finally {
+                CloseableUtil.close(inputItr);
+            }
+        }
+
+        private void add(final T item) {
+            batch.add(item);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            final List<T> items = batch;
+            batch = new ArrayList<>(batchSize);
+            if (null == asyncExecutor) {
+                sink.accept(items);
+                return;
+            }
+
+            while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                await(pending.removeFirst());
+            }
+            if (pending.size() >= maxPendingBatches) {
+                await(pending.removeFirst());
+            }
+            // Each write follows the previous one, so the batches reach the sink in order
+            last = last.thenRunAsync(() -> sink.accept(items), asyncExecutor);
+            pending.addLast(last);
+        }
+
+        private void checkForFailure() {
+            if (last.isCompletedExceptionally()) {
+                await();
+            }
+        }
+
+        private void await() {
+            pending.clear();
+            await(last);
+        }
+
+        private void await(final CompletableFuture<Void> write) {
+            try {
+                write.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException("Unable to write elements to the sink", e.getCause());
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -90,7 +91,7 @@ public abstract class TransformIterable<I, O> implements CloseableIterable<O> {
      */
     @Override
     public CloseableIterator<O> iterator() {
-        return new CloseableIterator<O>() {
+        return new BatchCloseableIterator<O>() {
             @Override
             public void close() {
                 CloseableUtil.close(inputItr);
@@ -99,48 +100,99 @@ public abstract class TransformIterable<I, O> implements CloseableIterable<O> {
             private final Iterator<? extends I> inputItr = input.iterator();
 
             private O nextElement;
-            private Boolean hasNext;
+            private boolean fetched;
+            private boolean hasNext;
 
             @Override
             public boolean hasNext() {
-                if (null == hasNext) {
+                if (!fetched) {
+                    hasNext = false;
+                    nextElement = null;
                     while (inputItr.hasNext()) {
                         final I possibleNext = inputItr.next();
                         if (validator.validate(possibleNext)) {
                             nextElement = transform(possibleNext);
                             hasNext = true;
-                            return Boolean.TRUE.equals(hasNext);
-                        } else if (skipInvalid) {
-                            continue;
-                        } else {
+                            break;
+                        } else if (!skipInvalid) {
                             handleInvalidItem(possibleNext);
                         }
                     }
-                    hasNext = false;
-                    nextElement = null;
+                    fetched = true;
                 }
 
-                final boolean hasNextResult = Boolean.TRUE.equals(hasNext);
-                if (autoClose && !hasNextResult) {
+                if (autoClose && !hasNext) {
                     close();
                 }
 
-                return hasNextResult;
+                return hasNext;
             }
 
             @Override
             public O next() {
-                if ((null == hasNext) && (!hasNext())) {
+                if (!hasNext()) {
                     throw new NoSuchElementException("Reached the end of the iterator");
                 }
 
                 final O elementToReturn = nextElement;
                 nextElement = null;
-                hasNext = null;
+                fetched = false;
 
                 return elementToReturn;
             }
 
+            @Override
+            public int nextBatch(final O[] buffer, final int offset, final int maxElements) {
+                int count = 0;
+                if (maxElements > 0 && fetched && hasNext) {
+                    buffer[offset + count++] = next();
+                }
+
+                while (count < maxElements && inputItr.hasNext()) {
+                    final I possibleNext = inputItr.next();
+                    if (validator.validate(possibleNext)) {
+                        buffer[offset + count++] = transform(possibleNext);
+                    } else if (!skipInvalid) {
+                        handleInvalidItem(possibleNext);
+                    }
+                }
+
+                if (count < maxElements) {
+                    // The input has been exhausted
+                    fetched = false;
+                    hasNext();
+                }
+
+                return count;
+            }
+
+            @Override
+            public int nextBatch(final Collection<? super O> buffer, final int maxElements) {
+                int count = 0;
+                if (maxElements > 0 && fetched && hasNext) {
+                    buffer.add(next());
+                    count++;
+                }
+
+                while (count < maxElements && inputItr.hasNext()) {
+                    final I possibleNext = inputItr.next();
+                    if (validator.validate(possibleNext)) {
+                        buffer.add(transform(possibleNext));
+                        count++;
+                    } else if (!skipInvalid) {
+                        handleInvalidItem(possibleNext);
+                    }
+                }
+
+                if (count < maxElements) {
+                    // The input has been exhausted
+                    fetched = false;
+                    hasNext();
+                }
+
+                return count;
+            }
+
             @Override
             public void remove() {
                 throw new UnsupportedOperationException("Cannot call remove on a " + getIterableClass().getSimpleName() + " iterator");
@@ -18,6 +18,7 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -93,7 +94,7 @@ public abstract class TransformOneToManyIterable<I, O> implements CloseableItera
      */
     @Override
     public CloseableIterator<O> iterator() {
-        return new CloseableIterator<O>() {
+        return new BatchCloseableIterator<O>() {
             private final Iterator<? extends I> inputItr = input.iterator();
 
             private Iterator<O> nextElements;
@@ -148,19 +149,48 @@ public abstract class TransformOneToManyIterable<I, O> implements CloseableItera
                 }
 
                 final O elementToReturn = nextElements.next();
-                if (!nextElements.hasNext()) {
-                    nextElements = null;
-                    hasNext = null;
-                }
+                releaseExhaustedElements();
 
                 return elementToReturn;
             }
 
+            @Override
+            public int nextBatch(final O[] buffer, final int offset, final int maxElements) {
+                int count = 0;
+                while (count < maxElements && hasNext()) {
+                    do {
+                        buffer[offset + count++] = nextElements.next();
+                    } while (count < maxElements && nextElements.hasNext());
+                    releaseExhaustedElements();
+                }
+                return count;
+            }
+
+            @Override
+            public int nextBatch(final Collection<? super O> buffer, final int maxElements) {
+                int count = 0;
+                while (count < maxElements && hasNext()) {
+                    do {
+                        buffer.add(nextElements.next());
+                        count++;
+                    } while (count < maxElements && nextElements.hasNext());
+                    releaseExhaustedElements();
+                }
+                return count;
+            }
+
             @Override
             public void remove() {
                 throw new UnsupportedOperationException("Cannot call remove on a " + getIterableClass().getSimpleName() + " iterator");
             }
 
+            private void releaseExhaustedElements() {
+                if (!nextElements.hasNext()) {
+                    nextElements = null;
+                    hasNext = null;
+                }
+            }
+
             private boolean _hasNext() {
                 return Boolean.TRUE.equals(hasNext) && null != nextElements && nextElements.hasNext();
             }
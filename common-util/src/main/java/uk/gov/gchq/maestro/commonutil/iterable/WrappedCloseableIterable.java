@@ -19,16 +19,22 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
 
 /**
  * A {@code WrappedCloseableIterable} is an {@link CloseableIterable} which provides
  * a wrapper around any non-closeable iterables.
+ * <p>
+ * Wrapped {@link List}s can be seeked without reading the preceding elements.
+ * </p>
  *
  * @param <T> the type of items in the iterable.
  */
-public class WrappedCloseableIterable<T> implements CloseableIterable<T> {
+public class WrappedCloseableIterable<T> implements SeekableCloseableIterable<T> {
     private final Iterable<T> iterable;
 
     public WrappedCloseableIterable() {
@@ -66,6 +72,35 @@ public class WrappedCloseableIterable<T> implements CloseableIterable<T> {
         return new WrappedCloseableIterator<>(iterator);
     }
 
+    @Override
+    public CloseableIterator<T> iterator(final long position) {
+        if (iterable instanceof List) {
+            final List<T> list = (List<T>) iterable;
+            return new WrappedCloseableIterator<>(list.listIterator((int) Math.min(position, list.size())));
+        }
+
+        final CloseableIterator<T> iterator = iterator();
+        final WrappedCloseableIterator<T> skippable = iterator instanceof WrappedCloseableIterator
+                ? (WrappedCloseableIterator<T>) iterator : new WrappedCloseableIterator<>(iterator);
+        skippable.skip(position);
+        return skippable;
+    }
+
+    /**
+     * Returns the {@link Spliterator} of the wrapped iterable, so a wrapped
+     * {@link Collection} provides a sized spliterator that splits well.
+     *
+     * @return the {@link Spliterator} of the wrapped iterable.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return iterable.spliterator();
+    }
+
+    long getExactSizeIfKnown() {
+        return iterable instanceof Collection ? ((Collection) iterable).size() : -1;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
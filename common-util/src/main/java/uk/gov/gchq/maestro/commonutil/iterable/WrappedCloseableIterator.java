@@ -18,15 +18,18 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 
 import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
  * A {@code WrappedCloseableIterator} is an {@link CloseableIterator} which provides
- * a wrapper around any non-closeable iterables.
+ * a wrapper around any non-closeable iterables. It is also the default
+ * {@link BatchCloseableIterator} and {@link SkippableCloseableIterator}
+ * adapter for plain iterators.
  *
  * @param <T> the type of items in the iterable.
  */
-public class WrappedCloseableIterator<T> implements CloseableIterator<T> {
+public class WrappedCloseableIterator<T> implements BatchCloseableIterator<T>, SkippableCloseableIterator<T> {
     private final Iterator<T> iterator;
 
     public WrappedCloseableIterator() {
@@ -56,6 +59,33 @@ public class WrappedCloseableIterator<T> implements CloseableIterator<T> {
         return iterator.next();
     }
 
+    @Override
+    public int nextBatch(final T[] buffer, final int offset, final int maxElements) {
+        if (iterator instanceof BatchCloseableIterator) {
+            return ((BatchCloseableIterator<T>) iterator).nextBatch(buffer, offset, maxElements);
+        }
+
+        return BatchCloseableIterator.super.nextBatch(buffer, offset, maxElements);
+    }
+
+    @Override
+    public int nextBatch(final Collection<? super T> buffer, final int maxElements) {
+        if (iterator instanceof BatchCloseableIterator) {
+            return ((BatchCloseableIterator<T>) iterator).nextBatch(buffer, maxElements);
+        }
+
+        return BatchCloseableIterator.super.nextBatch(buffer, maxElements);
+    }
+
+    @Override
+    public long skip(final long n) {
+        if (iterator instanceof SkippableCloseableIterator) {
+            return ((SkippableCloseableIterator<T>) iterator).skip(n);
+        }
+
+        return SkippableCloseableIterator.super.skip(n);
+    }
+
     @Override
     public void remove() {
         iterator.remove();
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code ChainedDoubleIterable} is the {@code double} specialisation of
+ * {@link uk.gov.gchq.maestro.commonutil.iterable.ChainedIterable}.
+ * Child iterables that are not {@link DoubleCloseableIterable}s are unboxed as
+ * they are consumed.
+ */
+public class ChainedDoubleIterable implements DoubleCloseableIterable {
+    private final DoubleCloseableIterable[] itrs;
+    private final int n;
+
+    @SafeVarargs
+    public ChainedDoubleIterable(final Iterable<Double>... itrs) {
+        if (null == itrs || 0 == itrs.length) {
+            throw new IllegalArgumentException("At least 1 iterable is required.");
+        }
+        this.itrs = new DoubleCloseableIterable[itrs.length];
+        for (int i = 0; i < itrs.length; i++) {
+            if (itrs[i] instanceof DoubleCloseableIterable) {
+                this.itrs[i] = (DoubleCloseableIterable) itrs[i];
+            } else {
+                this.itrs[i] = new WrappedDoubleCloseableIterable(itrs[i]);
+            }
+        }
+        n = this.itrs.length;
+    }
+
+    @Override
+    public void close() {
+        for (final DoubleCloseableIterable itr : itrs) {
+            CloseableUtil.close(itr);
+        }
+    }
+
+    @Override
+    public DoubleCloseableIterator iterator() {
+        return new IteratorWrapper();
+    }
+
+    private class IteratorWrapper implements DoubleCloseableIterator {
+        private final DoubleCloseableIterator[] iterators = new DoubleCloseableIterator[itrs.length];
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return -1 != getNextIndex();
+        }
+
+        @Override
+        public double nextDouble() {
+            index = getNextIndex();
+            if (-1 == index) {
+                throw new NoSuchElementException();
+            }
+
+            return getIterator(index).nextDouble();
+        }
+
+        private int getNextIndex() {
+            boolean hasNext = getIterator(index).hasNext();
+            int nextIndex = index;
+            while (!hasNext) {
+                nextIndex = nextIndex + 1;
+                if (nextIndex < n) {
+                    hasNext = getIterator(nextIndex).hasNext();
+                } else {
+                    nextIndex = -1;
+                    break;
+                }
+            }
+
+            return nextIndex;
+        }
+
+        @Override
+        public void remove() {
+            getIterator(index).remove();
+        }
+
+        private DoubleCloseableIterator getIterator(final int i) {
+            if (null == iterators[i]) {
+                iterators[i] = itrs[i].iterator();
+            }
+
+            return iterators[i];
+        }
+
+        @Override
+        public void close() {
+            for (final DoubleCloseableIterator itr : iterators) {
+                CloseableUtil.close(itr);
+            }
+            ChainedDoubleIterable.this.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code ChainedLongIterable} is the {@code long} specialisation of
+ * {@link uk.gov.gchq.maestro.commonutil.iterable.ChainedIterable}.
+ * Child iterables that are not {@link LongCloseableIterable}s are unboxed as
+ * they are consumed.
+ */
+public class ChainedLongIterable implements LongCloseableIterable {
+    private final LongCloseableIterable[] itrs;
+    private final int n;
+
+    @SafeVarargs
+    public ChainedLongIterable(final Iterable<Long>... itrs) {
+        if (null == itrs || 0 == itrs.length) {
+            throw new IllegalArgumentException("At least 1 iterable is required.");
+        }
+        this.itrs = new LongCloseableIterable[itrs.length];
+        for (int i = 0; i < itrs.length; i++) {
+            if (itrs[i] instanceof LongCloseableIterable) {
+                this.itrs[i] = (LongCloseableIterable) itrs[i];
+            } else {
+                this.itrs[i] = new WrappedLongCloseableIterable(itrs[i]);
+            }
+        }
+        n = this.itrs.length;
+    }
+
+    @Override
+    public void close() {
+        for (final LongCloseableIterable itr : itrs) {
+            CloseableUtil.close(itr);
+        }
+    }
+
+    @Override
+    public LongCloseableIterator iterator() {
+        return new IteratorWrapper();
+    }
+
+    private class IteratorWrapper implements LongCloseableIterator {
+        private final LongCloseableIterator[] iterators = new LongCloseableIterator[itrs.length];
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return -1 != getNextIndex();
+        }
+
+        @Override
+        public long nextLong() {
+            index = getNextIndex();
+            if (-1 == index) {
+                throw new NoSuchElementException();
+            }
+
+            return getIterator(index).nextLong();
+        }
+
+        private int getNextIndex() {
+            boolean hasNext = getIterator(index).hasNext();
+            int nextIndex = index;
+            while (!hasNext) {
+                nextIndex = nextIndex + 1;
+                if (nextIndex < n) {
+                    hasNext = getIterator(nextIndex).hasNext();
+                } else {
+                    nextIndex = -1;
+                    break;
+                }
+            }
+
+            return nextIndex;
+        }
+
+        @Override
+        public void remove() {
+            getIterator(index).remove();
+        }
+
+        private LongCloseableIterator getIterator(final int i) {
+            if (null == iterators[i]) {
+                iterators[i] = itrs[i].iterator();
+            }
+
+            return iterators[i];
+        }
+
+        @Override
+        public void close() {
+            for (final LongCloseableIterator itr : iterators) {
+                CloseableUtil.close(itr);
+            }
+            ChainedLongIterable.this.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+
+/**
+ * A {@code DoubleCloseableIterable} is a {@link CloseableIterable} of
+ * {@code double} values which provides a {@link DoubleCloseableIterator}.
+ * <p>
+ * As it is also a {@code CloseableIterable<Double>} it can be passed anywhere
+ * a generic iterable is expected.
+ */
+public interface DoubleCloseableIterable extends CloseableIterable<Double> {
+    @Override
+    DoubleCloseableIterator iterator();
+}
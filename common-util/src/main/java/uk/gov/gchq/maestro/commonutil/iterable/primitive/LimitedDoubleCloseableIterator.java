@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.exception.LimitExceededException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code LimitedDoubleCloseableIterator} is the {@code double} specialisation of
+ * {@link uk.gov.gchq.maestro.commonutil.iterable.LimitedCloseableIterator}.
+ */
+public class LimitedDoubleCloseableIterator implements DoubleCloseableIterator {
+    private final DoubleCloseableIterator iterator;
+    private final Integer end;
+    private int index = 0;
+    private boolean truncate = true;
+
+    public LimitedDoubleCloseableIterator(final DoubleCloseableIterator iterator, final int start, final Integer end) {
+        this(iterator, start, end, true);
+    }
+
+    public LimitedDoubleCloseableIterator(final DoubleCloseableIterator iterator, final int start, final Integer end, final boolean truncate) {
+        if (null != end && start > end) {
+            throw new IllegalArgumentException("start should be less than end");
+        }
+
+        if (null == iterator) {
+            this.iterator = new WrappedDoubleCloseableIterator();
+        } else {
+            this.iterator = iterator;
+        }
+        this.end = end;
+        this.truncate = truncate;
+
+        while (index < start && hasNext()) {
+            nextDouble();
+        }
+    }
+
+    @Override
+    public void close() {
+        iterator.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        final boolean withinLimit = (null == end || index < end);
+
+        if (!withinLimit && !truncate && iterator.hasNext()) {
+            // Throw an exception if we are - not within the limit, we don't want to truncate and there are items remaining.
+            throw new LimitExceededException("Limit of " + end + " exceeded.");
+        }
+
+        final boolean hasNext = withinLimit && iterator.hasNext();
+        if (!hasNext) {
+            close();
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    public double nextDouble() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        index++;
+        return iterator.nextDouble();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.iterable.AlwaysValid;
+import uk.gov.gchq.maestro.commonutil.iterable.Validator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code TransformToLongIterable} is the {@code long} specialisation of
+ * {@link uk.gov.gchq.maestro.commonutil.iterable.TransformIterable}. It lazily
+ * validates and transforms each item of the input into a {@code long} without
+ * boxing the result.
+ *
+ * @param <I> The input iterable type.
+ */
+public abstract class TransformToLongIterable<I> implements LongCloseableIterable {
+    private final Iterable<? extends I> input;
+    private final Validator<I> validator;
+    private final boolean skipInvalid;
+    private final boolean autoClose;
+
+    /**
+     * Constructs a {@code TransformToLongIterable} with the given input {@link Iterable} and no validation.
+     *
+     * @param input the input {@link Iterable}
+     */
+    public TransformToLongIterable(final Iterable<? extends I> input) {
+        this(input, new AlwaysValid<>(), false);
+    }
+
+    /**
+     * Constructs a {@code TransformToLongIterable} with the given input {@link Iterable},
+     * {@link Validator} and a skipInvalid flag to determine whether invalid items should be skipped.
+     *
+     * @param input       the input {@link Iterable}
+     * @param validator   the {@link Validator}
+     * @param skipInvalid if true invalid items should be skipped
+     */
+    public TransformToLongIterable(final Iterable<? extends I> input, final Validator<I> validator, final boolean skipInvalid) {
+        this(input, validator, skipInvalid, true);
+    }
+
+    /**
+     * Constructs a {@code TransformToLongIterable} with the given parameters
+     *
+     * @param input       the input {@link Iterable}
+     * @param validator   the {@link Validator}
+     * @param skipInvalid if true invalid items should be skipped
+     * @param autoClose   if true then the input iterable will be closed when any iterators reach the end.
+     */
+    public TransformToLongIterable(final Iterable<? extends I> input, final Validator<I> validator, final boolean skipInvalid, final boolean autoClose) {
+        if (null == input) {
+            throw new IllegalArgumentException("Input iterable is required");
+        }
+        this.input = input;
+        this.validator = validator;
+        this.skipInvalid = skipInvalid;
+        this.autoClose = autoClose;
+    }
+
+    @Override
+    public LongCloseableIterator iterator() {
+        return new LongCloseableIterator() {
+            private final Iterator<? extends I> inputItr = input.iterator();
+
+            private long nextElement;
+            private boolean fetched;
+            private boolean hasNext;
+
+            @Override
+            public void close() {
+                CloseableUtil.close(inputItr);
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    hasNext = false;
+                    while (inputItr.hasNext()) {
+                        final I possibleNext = inputItr.next();
+                        if (validator.validate(possibleNext)) {
+                            nextElement = transform(possibleNext);
+                            hasNext = true;
+                            break;
+                        } else if (!skipInvalid) {
+                            handleInvalidItem(possibleNext);
+                        }
+                    }
+                    fetched = true;
+                }
+
+                if (autoClose && !hasNext) {
+                    close();
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Reached the end of the iterator");
+                }
+
+                fetched = false;
+                return nextElement;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Cannot call remove on a " + getIterableClass().getSimpleName() + " iterator");
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(input);
+    }
+
+    /**
+     * Transforms the I item into a long.
+     *
+     * @param item the I item to be transformed
+     * @return the transformed long value
+     */
+    protected abstract long transform(final I item);
+
+    /**
+     * Handles an invalid item. Simply throws an {@link IllegalArgumentException} explaining that the item is
+     * invalid. Override this method to handle invalid items differently.
+     *
+     * @param item the invalid I item
+     * @throws IllegalArgumentException always thrown unless this method is overridden.
+     */
+    protected void handleInvalidItem(final I item) {
+        final String itemDescription = null != item ? item.toString() : "<unknown>";
+        throw new IllegalArgumentException("Next " + itemDescription + " in iterable is not valid.");
+    }
+
+    private Class<? extends TransformToLongIterable> getIterableClass() {
+        return getClass();
+    }
+}
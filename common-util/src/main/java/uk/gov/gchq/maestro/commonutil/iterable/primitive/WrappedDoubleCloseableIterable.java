@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterators;
+
+/**
+ * A {@code WrappedDoubleCloseableIterable} is a {@link DoubleCloseableIterable}
+ * backed either by a {@code double[]} or by any {@link Iterable} of
+ * {@link Double}s. The latter acts as a bridge from the generic iterables to the
+ * primitive family.
+ */
+public class WrappedDoubleCloseableIterable implements DoubleCloseableIterable {
+    private final double[] values;
+    private final Iterable<Double> iterable;
+
+    public WrappedDoubleCloseableIterable() {
+        this(new double[0]);
+    }
+
+    public WrappedDoubleCloseableIterable(final double... values) {
+        this.values = null == values ? new double[0] : values;
+        this.iterable = null;
+    }
+
+    public WrappedDoubleCloseableIterable(final Iterable<Double> iterable) {
+        if (null == iterable) {
+            this.values = new double[0];
+            this.iterable = null;
+        } else {
+            this.values = null;
+            this.iterable = iterable;
+        }
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterable);
+    }
+
+    @Override
+    public DoubleCloseableIterator iterator() {
+        if (null != values) {
+            return new WrappedDoubleCloseableIterator(Spliterators.iterator(Arrays.spliterator(values)));
+        }
+
+        final Iterator<Double> iterator = iterable.iterator();
+        if (iterator instanceof DoubleCloseableIterator) {
+            return (DoubleCloseableIterator) iterator;
+        }
+
+        return new WrappedDoubleCloseableIterator(iterator);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("values", values)
+                .append("iterable", iterable)
+                .toString();
+    }
+}
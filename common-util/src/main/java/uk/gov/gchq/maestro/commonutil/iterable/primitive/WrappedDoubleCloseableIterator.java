@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.iterable.EmptyCloseableIterator;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * A {@code WrappedDoubleCloseableIterator} is a {@link DoubleCloseableIterator}
+ * which provides a wrapper around any iterator of {@link Double}s.
+ * If the wrapped iterator is already a {@link PrimitiveIterator.OfDouble} then
+ * no boxing takes place, otherwise each element is unboxed as it is read.
+ */
+public class WrappedDoubleCloseableIterator implements DoubleCloseableIterator {
+    private final Iterator<Double> iterator;
+    private final PrimitiveIterator.OfDouble doubleIterator;
+
+    public WrappedDoubleCloseableIterator() {
+        this(null);
+    }
+
+    public WrappedDoubleCloseableIterator(final Iterator<Double> iterator) {
+        if (null == iterator) {
+            this.iterator = new EmptyCloseableIterator<>();
+        } else {
+            this.iterator = iterator;
+        }
+
+        if (this.iterator instanceof PrimitiveIterator.OfDouble) {
+            this.doubleIterator = (PrimitiveIterator.OfDouble) this.iterator;
+        } else {
+            this.doubleIterator = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterator);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public double nextDouble() {
+        if (null != doubleIterator) {
+            return doubleIterator.nextDouble();
+        }
+
+        return iterator.next();
+    }
+
+    @Override
+    public void remove() {
+        iterator.remove();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.iterable.EmptyCloseableIterator;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * A {@code WrappedIntCloseableIterator} is an {@link IntCloseableIterator}
+ * which provides a wrapper around any iterator of {@link Integer}s.
+ * If the wrapped iterator is already a {@link PrimitiveIterator.OfInt} then
+ * no boxing takes place, otherwise each element is unboxed as it is read.
+ */
+public class WrappedIntCloseableIterator implements IntCloseableIterator {
+    private final Iterator<Integer> iterator;
+    private final PrimitiveIterator.OfInt intIterator;
+
+    public WrappedIntCloseableIterator() {
+        this(null);
+    }
+
+    public WrappedIntCloseableIterator(final Iterator<Integer> iterator) {
+        if (null == iterator) {
+            this.iterator = new EmptyCloseableIterator<>();
+        } else {
+            this.iterator = iterator;
+        }
+
+        if (this.iterator instanceof PrimitiveIterator.OfInt) {
+            this.intIterator = (PrimitiveIterator.OfInt) this.iterator;
+        } else {
+            this.intIterator = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterator);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public int nextInt() {
+        if (null != intIterator) {
+            return intIterator.nextInt();
+        }
+
+        return iterator.next();
+    }
+
+    @Override
+    public void remove() {
+        iterator.remove();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.scheduler;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A {@code CronExpression} is a standard five field cron schedule:
+ * minute, hour, day of month, month and day of week.
+ * <p>
+ * Each field may be {@code *}, a value, a range {@code a-b}, a step
+ * {@code *}{@code /n} or {@code a-b/n}, or a comma separated list of these.
+ * Months and days of week may also be given as three letter names, and
+ * Sunday is both 0 and 7. As in cron, if both the day of month and the day
+ * of week are restricted a day matching either of them matches.
+ * </p>
+ */
+public class CronExpression {
+    private static final List<String> MONTH_NAMES = Arrays.asList(
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC");
+    private static final List<String> DAY_NAMES = Arrays.asList(
+            "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT");
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean daysOfMonthRestricted;
+    private final boolean daysOfWeekRestricted;
+
+    public CronExpression(final String expression) {
+        if (null == expression) {
+            throw new IllegalArgumentException("Cron expression is required");
+        }
+        final String[] fields = expression.trim().split("\\s+");
+        if (5 != fields.length) {
+            throw new IllegalArgumentException("Cron expression must have 5 fields (minute hour day-of-month month day-of-week): " + expression);
+        }
+        this.expression = expression;
+        minutes = parseField(fields[0], 0, 59, null);
+        hours = parseField(fields[1], 0, 23, null);
+        daysOfMonth = parseField(fields[2], 1, 31, null);
+        months = parseField(fields[3], 1, 12, MONTH_NAMES);
+        daysOfWeek = parseField(fields[4], 0, 7, DAY_NAMES);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        daysOfMonthRestricted = !fields[2].startsWith("*");
+        daysOfWeekRestricted = !fields[4].startsWith("*");
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @param afterMillis the time to start from, in epoch milliseconds
+     * @return the first matching time after the given time, in UTC
+     */
+    public long next(final long afterMillis) {
+        return next(afterMillis, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param afterMillis the time to start from, in epoch milliseconds
+     * @param zone        the time zone the expression is in
+     * @return the first matching time after the given time, in epoch milliseconds
+     */
+    public long next(final long afterMillis, final ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochMilli(afterMillis).atZone(zone)
+                .truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        final ZonedDateTime limit = time.plusYears(MAX_YEARS_AHEAD);
+        while (time.isBefore(limit)) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).plusMonths(1);
+            } else if (!matchesDay(time)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+            } else {
+                return time.toInstant().toEpochMilli();
+            }
+        }
+        throw new IllegalArgumentException("Cron expression " + expression + " does not match any time in the next " + MAX_YEARS_AHEAD + " years");
+    }
+
+    private boolean matchesDay(final ZonedDateTime time) {
+        final boolean dayOfMonth = daysOfMonth.get(time.getDayOfMonth());
+        final boolean dayOfWeek = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        if (daysOfMonthRestricted && daysOfWeekRestricted) {
+            return dayOfMonth || dayOfWeek;
+        }
+        return dayOfMonth && dayOfWeek;
+    }
+
+    private static BitSet parseField(final String field, final int min, final int max, final List<String> names) {
+        final BitSet values = new BitSet(max + 1);
+        for (final String part : field.split(",")) {
+            try {
+                final String[] rangeAndStep = part.split("/", -1);
+                if (rangeAndStep.length > 2) {
+                    throw new IllegalArgumentException();
+                }
+                final int step = 2 == rangeAndStep.length ? Integer.parseInt(rangeAndStep[1]) : 1;
+                final int start;
+                final int end;
+                if ("*".equals(rangeAndStep[0])) {
+                    start = min;
+                    end = max;
+                } else if (rangeAndStep[0].contains("-")) {
+                    final String[] range = rangeAndStep[0].split("-", -1);
+                    if (2 != range.length) {
+                        throw new IllegalArgumentException();
+                    }
+                    start = parseValue(range[0], min, names);
+                    end = parseValue(range[1], min, names);
+                } else {
+                    start = parseValue(rangeAndStep[0], min, names);
+                    end = 2 == rangeAndStep.length ? max : start;
+                }
+                if (step <= 0 || start < min || end > max || start > end) {
+                    throw new IllegalArgumentException();
+                }
+                for (int value = start; value <= end; value += step) {
+                    values.set(value);
+                }
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cron field: " + field, e);
+            }
+        }
+        return values;
+    }
+
+    private static int parseValue(final String value, final int min, final List<String> names) {
+        if (null != names) {
+            final int index = names.indexOf(value.toUpperCase());
+            if (index >= 0) {
+                return index + min;
+            }
+        }
+        return Integer.parseInt(value);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
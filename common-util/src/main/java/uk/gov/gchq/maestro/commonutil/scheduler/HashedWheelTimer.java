@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code HashedWheelTimer} runs tasks after a delay, with a fixed tick
+ * resolution, using a hashed timing wheel.
+ * <p>
+ * Each timeout is placed in the wheel bucket for the tick it is due in,
+ * together with the number of turns of the wheel still to go. A single
+ * worker thread advances one bucket per tick, so adding and cancelling a
+ * timeout costs O(1) and the per tick cost only depends on the timeouts in
+ * one bucket, however many timeouts are held. This makes it suitable for
+ * tens of thousands of scheduled tasks, where a
+ * {@link java.util.concurrent.ScheduledExecutorService} would keep them all
+ * in a single priority queue.
+ * </p>
+ * <p>
+ * Expired tasks are handed to the provided {@link Executor} to run, so a
+ * slow task does not hold up the wheel. Timeouts fire no earlier than their
+ * delay and up to one tick later.
+ * </p>
+ */
+public class HashedWheelTimer implements Closeable {
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean stopped;
+    private long tick;
+
+    public HashedWheelTimer(final Executor executor) {
+        this(executor, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param executor     the executor to run expired tasks on
+     * @param tickDuration the duration of a tick
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    the number of buckets in the wheel, rounded up to a power of 2
+     */
+    public HashedWheelTimer(final Executor executor, final long tickDuration, final TimeUnit unit, final int wheelSize) {
+        if (null == executor) {
+            throw new IllegalArgumentException("Executor is required");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30");
+        }
+        this.executor = executor;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int buckets = 1;
+        while (buckets < wheelSize) {
+            buckets <<= 1;
+        }
+        this.wheel = new List[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = buckets - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, "maestro-wheel-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task  the task to run
+     * @param delay the delay, a delay of 0 or less runs the task on the next tick
+     * @param unit  the unit of the delay
+     * @return the handle to cancel the task with
+     */
+    public Timeout newTimeout(final Runnable task, final long delay, final TimeUnit unit) {
+        if (null == task) {
+            throw new IllegalArgumentException("Task is required");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Timer has been stopped");
+        }
+        final Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(Math.max(0, delay)));
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts which have neither expired nor been cancelled
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Stops the timer. Timeouts which have not expired are dropped.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!stopped) {
+            final long deadline = waitForNextTick();
+            if (deadline < 0) {
+                break;
+            }
+            transferPending();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+        pending.clear();
+    }
+
+    private long waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        while (true) {
+            final long current = System.nanoTime() - startTime;
+            final long sleepMillis = (deadline - current + 999999) / 1000000;
+            if (sleepMillis <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (final InterruptedException e) {
+                if (stopped) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = pending.poll();
+            if (null == timeout) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long dueTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(final List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            final Timeout timeout = bucket.get(i);
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.remainingRounds <= 0) {
+                if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+                    size.decrementAndGet();
+                    try {
+                        executor.execute(timeout.task);
+                    } catch (final RejectedExecutionException e) {
+                        LOGGER.warn("Unable to run expired timeout: {}", e.getMessage());
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * A handle to a task scheduled on a {@link HashedWheelTimer}.
+     */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        // Only accessed by the worker thread
+        private long remainingRounds;
+
+        private Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task, if it has not already been handed on to run.
+         * The timeout is removed from the wheel when its bucket is next
+         * visited.
+         *
+         * @return true if the task was cancelled
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return CANCELLED == state.get();
+        }
+
+        public boolean isExpired() {
+            return EXPIRED == state.get();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * A {@code WriteAheadLog} is an append only file of records, which are
+ * durable once they have been appended.
+ * <p>
+ * Records are written by a single writer thread using group commit: all of
+ * the records waiting to be written are written together and then synced
+ * to disk with one {@link FileChannel#force(boolean)}, after which each of
+ * their appends completes. Under a high rate of appends each sync covers
+ * many records, so appending costs far less than a sync per record, while
+ * a single append is still written straight away.
+ * </p>
+ * <p>
+ * Each record is stored with its length and a CRC32 checksum. A record which
+ * was only partly written when the process stopped is detected when the log
+ * is opened and truncated, so the log holds only whole records.
+ * {@link #compact(Supplier)} replaces the log with a snapshot of the live
+ * records, so it does not grow forever.
+ * </p>
+ */
+public class WriteAheadLog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final int MAX_BUFFER_BYTES = HEADER_BYTES + MAX_RECORD_BYTES;
+
+    private final Path path;
+    private final BlockingQueue<Write> writes = new LinkedBlockingQueue<>();
+    private final AtomicLong commits = new AtomicLong();
+    private final Thread writer;
+    private FileChannel channel;
+    private volatile long committedLength;
+    private volatile boolean closed;
+
+    /**
+     * Opens a log, creating it if it does not exist. Any partly written
+     * record at the end of the log is removed.
+     *
+     * @param path the path of the log file
+     * @throws IOException if the log cannot be opened
+     */
+    public WriteAheadLog(final Path path) throws IOException {
+        if (null == path) {
+            throw new IllegalArgumentException("A path is required");
+        }
+        this.path = path;
+        if (null != path.getParent()) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final long validLength = read(channel, Long.MAX_VALUE, null);
+        if (validLength < channel.size()) {
+            LOGGER.warn("Truncating {} partly written bytes from the end of write ahead log {}", channel.size() - validLength, path);
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+        committedLength = validLength;
+        writer = new Thread(this::run, "maestro-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Reads the records committed to the log, in the order they were
+     * appended. This should be called before appending, to recover the state
+     * the log records.
+     *
+     * @param consumer the consumer of the records
+     * @throws IOException if the log cannot be read
+     */
+    public void replay(final Consumer<byte[]> consumer) throws IOException {
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(reader, committedLength, consumer);
+        }
+    }
+
+    /**
+     * Appends a record to the log. The returned future completes once the
+     * record has been synced to disk.
+     *
+     * @param record the record
+     * @return the future which completes when the record is durable
+     */
+    public CompletableFuture<Void> appendAsync(final byte[] record) {
+        if (null == record) {
+            throw new IllegalArgumentException("A record is required");
+        }
+        if (record.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes is larger than the maximum of " + MAX_RECORD_BYTES);
+        }
+        return submit(new Write(record, null));
+    }
+
+    /**
+     * Appends a record to the log and waits until it has been synced to disk.
+     *
+     * @param record the record
+     * @throws IOException if the record could not be written
+     */
+    public void append(final byte[] record) throws IOException {
+        await(appendAsync(record));
+    }
+
+    /**
+     * Replaces the log with a snapshot of the live records. The snapshot is
+     * taken by the writer thread once every record appended before this call
+     * has been written, and any records appended after it are written after
+     * the snapshot. The new log is written to a temporary file which then
+     * atomically replaces the log.
+     *
+     * @param snapshot the supplier of the live records
+     * @return the future which completes when the log has been replaced
+     */
+    public CompletableFuture<Void> compact(final Supplier<? extends Collection<byte[]>> snapshot) {
+        if (null == snapshot) {
+            throw new IllegalArgumentException("A snapshot is required");
+        }
+        return submit(new Write(null, snapshot));
+    }
+
+    /**
+     * @return the number of times records have been synced to disk
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * @return the length in bytes of the records synced to disk
+     */
+    public long getCommittedLength() {
+        return committedLength;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Closes the log once the records already appended have been written.
+     */
+    @Override
+    public void close() {
+        synchronized (writes) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writes.add(new Write(null, null));
+        }
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to close write ahead log {}", path, e);
+        }
+    }
+
+    private CompletableFuture<Void> submit(final Write write) {
+        synchronized (writes) {
+            if (closed) {
+                throw new IllegalStateException("Write ahead log has been closed");
+            }
+            writes.add(write);
+        }
+        return write.future;
+    }
+
+    private void run() {
+        final List<Write> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(writes.take());
+            } catch (final InterruptedException e) {
+                // Only closing stops the writer, so waiting appends are not lost
+                continue;
+            }
+            writes.drainTo(batch, MAX_BATCH_SIZE - 1);
+            final List<Write> appends = new ArrayList<>();
+            for (final Write write : batch) {
+                if (null != write.record) {
+                    appends.add(write);
+                    continue;
+                }
+                commit(appends);
+                appends.clear();
+                if (null == write.snapshot) {
+                    running = false;
+                    break;
+                }
+                rewrite(write);
+            }
+            commit(appends);
+            batch.clear();
+        }
+    }
+
+    private void commit(final List<Write> appends) {
+        if (appends.isEmpty()) {
+            return;
+        }
+        try {
+            long size = 0;
+            for (final Write write : appends) {
+                size += HEADER_BYTES + write.record.length;
+            }
+            // A batch can be larger than a buffer can hold, so it is written
+            // in parts which are synced together
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, MAX_BUFFER_BYTES));
+            for (final Write write : appends) {
+                if (buffer.remaining() < HEADER_BYTES + write.record.length) {
+                    writeBuffer(buffer);
+                }
+                putRecord(buffer, write.record);
+            }
+            writeBuffer(buffer);
+            channel.force(false);
+            committedLength = channel.position();
+            commits.incrementAndGet();
+            for (final Write write : appends) {
+                write.future.complete(null);
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("Failed to write {} records to write ahead log {}", appends.size(), path, e);
+            try {
+                // Drop any part of the batch which was written
+                channel.truncate(committedLength);
+                channel.position(committedLength);
+            } catch (final IOException truncateE) {
+                LOGGER.error("Failed to truncate write ahead log {}", path, truncateE);
+            }
+            for (final Write write : appends) {
+                write.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void writeBuffer(final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void rewrite(final Write write) {
+        final Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            final Collection<byte[]> records = write.snapshot.get();
+            try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (final byte[] record : records) {
+                    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + record.length);
+                    putRecord(buffer, record);
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        output.write(buffer);
+                    }
+                }
+                output.force(true);
+            }
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            reopen();
+            write.future.complete(null);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("Failed to compact write ahead log {}", path, e);
+            try {
+                reopen();
+            } catch (final IOException reopenE) {
+                // Later appends fail, as the channel is closed
+                LOGGER.error("Failed to reopen write ahead log {}", path, reopenE);
+            }
+            write.future.completeExceptionally(e);
+        }
+    }
+
+    private void reopen() throws IOException {
+        if (!channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        channel.position(channel.size());
+        committedLength = channel.size();
+    }
+
+    // The rename is only durable once the directory has been synced
+    private void syncDirectory() {
+        if (null == path.toAbsolutePath().getParent()) {
+            return;
+        }
+        try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to sync directory of write ahead log {}", path, e);
+        }
+    }
+
+    private static void putRecord(final ByteBuffer buffer, final byte[] record) {
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        buffer.putInt(record.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(record);
+    }
+
+    // Returns the length of the whole records read, up to the limit
+    private static long read(final FileChannel input, final long limit, final Consumer<byte[]> consumer) throws IOException {
+        final long end = Math.min(limit, input.size());
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        while (position + HEADER_BYTES <= end) {
+            header.clear();
+            readFully(input, header, position);
+            header.flip();
+            final int length = header.getInt();
+            final int checksum = header.getInt();
+            if (length < 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > end) {
+                break;
+            }
+            final ByteBuffer record = ByteBuffer.allocate(length);
+            readFully(input, record, position + HEADER_BYTES);
+            final CRC32 crc = new CRC32();
+            crc.update(record.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            if (null != consumer) {
+                consumer.accept(record.array());
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(final FileChannel input, final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            final int read = input.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+        }
+    }
+
+    private static void await(final CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for the write ahead log", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // A record to append, a snapshot to compact to, or neither to close the log
+    private static final class Write {
+        private final byte[] record;
+        private final Supplier<? extends Collection<byte[]>> snapshot;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Write(final byte[] record, final Supplier<? extends Collection<byte[]>> snapshot) {
+            this.record = record;
+            this.snapshot = snapshot;
+        }
+    }
+}
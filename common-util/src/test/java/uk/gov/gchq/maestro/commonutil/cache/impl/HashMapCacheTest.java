@@ -24,7 +24,15 @@ import org.junit.Test;
 
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -109,6 +117,23 @@ public class HashMapCacheTest {
         Assert.assertThat(cache.getAllKeys(), IsCollectionContaining.hasItems("test1", "test2", "test3"));
     }
 
+    @Test
+    public void shouldIterateKeysWhileCacheIsUpdated() {
+        // Given
+        cache.put("test1", 1);
+        cache.put("test2", 2);
+
+        // When
+        for (final String key : cache.getAllKeys()) {
+            cache.remove(key);
+            cache.put(key + "-new", 1);
+        }
+
+        // Then
+        assertEquals(2, cache.size());
+        Assert.assertThat(cache.getAllKeys(), IsCollectionContaining.hasItems("test1-new", "test2-new"));
+    }
+
     @Test
     public void shouldGetAllValues() {
         cache.put("test1", 1);
@@ -158,4 +183,90 @@ public class HashMapCacheTest {
         TempClass tempClass = new TempClass();
         map.put("test1", tempClass);
     }
+
+    @Test
+    public void shouldOnlyPutIfAbsent() throws Exception {
+        // given
+        cache.put("key", 1);
+
+        // when
+        final Integer existing = cache.putIfAbsent("key", 2);
+        final Integer added = cache.putIfAbsent("other", 3);
+
+        // then
+        assertEquals(new Integer(1), existing);
+        assertNull(added);
+        assertEquals(new Integer(1), cache.get("key"));
+        assertEquals(new Integer(3), cache.get("other"));
+    }
+
+    @Test
+    public void shouldOnlyReplaceExpectedValue() throws Exception {
+        // given
+        cache.put("key", 1);
+
+        // when
+        final boolean wrongValue = cache.replace("key", 2, 3);
+        final boolean rightValue = cache.replace("key", 1, 4);
+        final boolean missing = cache.replace("other", 1, 5);
+
+        // then
+        assertFalse(wrongValue);
+        assertTrue(rightValue);
+        assertFalse(missing);
+        assertEquals(new Integer(4), cache.get("key"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void shouldComputeAndRemoveWhenNull() throws Exception {
+        // given
+        cache.put("key", 1);
+
+        // when
+        cache.compute("key", (k, v) -> v + 10);
+        cache.compute("new", (k, v) -> null == v ? 1 : v);
+        cache.compute("new", (k, v) -> null);
+
+        // then
+        assertEquals(new Integer(11), cache.get("key"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldMergeWithSerialisation() throws Exception {
+        // given
+        final HashMapCache<String, Integer> serialisingCache = new HashMapCache<>(true);
+
+        // when
+        serialisingCache.merge("key", 1, Integer::sum);
+        serialisingCache.merge("key", 2, Integer::sum);
+
+        // then
+        assertEquals(new Integer(3), serialisingCache.get("key"));
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentComputeUpdates() throws Exception {
+        // given
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    cache.merge("counter", 1, Integer::sum);
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(new Integer(4000), cache.get("counter"));
+    }
 }
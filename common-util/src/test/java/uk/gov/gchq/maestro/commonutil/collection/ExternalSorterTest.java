@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.MergedSortedIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalSorterTest {
+    private static final ToBytesSerialiser<String> SERIALISER = (ToBytesSerialiser) new JavaSerialiser();
+
+    @Test
+    public void shouldSortInMemoryWhenInputFitsInOneRun() {
+        // Given
+        final List<String> input = Arrays.asList("c", "a", "b");
+
+        // When
+        final CloseableIterable<String> sorted = new ExternalSorter<String>(Comparator.naturalOrder(), SERIALISER, 10).sort(input);
+
+        // Then
+        assertTrue(sorted instanceof WrappedCloseableIterable);
+        assertEquals(Arrays.asList("a", "b", "c"), Lists.newArrayList(sorted));
+    }
+
+    @Test
+    public void shouldSpillRunsAndMergeThem() {
+        // Given
+        final List<String> input = new ArrayList<>();
+        for (int i = 999; i >= 0; i--) {
+            input.add(String.format("%04d", i));
+        }
+        input.add(null);
+
+        // When
+        final CloseableIterable<String> sorted = new ExternalSorter<String>(Comparator.nullsFirst(Comparator.naturalOrder()), SERIALISER, 100).sort(input);
+
+        // Then
+        assertTrue(sorted instanceof MergedSortedIterable);
+        final List<String> expected = new ArrayList<>(input);
+        expected.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        assertEquals(expected, Lists.newArrayList(sorted));
+    }
+
+    @Test
+    public void shouldKeepEqualItemsInInputOrder() {
+        // Given
+        final List<String> input = Arrays.asList("b1", "a1", "b2", "a2", "b3", "a3");
+
+        // When
+        final CloseableIterable<String> sorted = new ExternalSorter<String>(Comparator.comparing(s -> s.charAt(0)), SERIALISER, 2).sort(input);
+
+        // Then
+        assertEquals(Arrays.asList("a1", "a2", "a3", "b1", "b2", "b3"), Lists.newArrayList(sorted));
+    }
+}
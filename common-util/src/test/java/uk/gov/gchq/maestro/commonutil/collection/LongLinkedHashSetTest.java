@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.iterable.primitive.LongCloseableIterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LongLinkedHashSetTest {
+
+    @Test
+    public void shouldOnlyAddValuesOnce() {
+        // Given
+        final LongLinkedHashSet set = new LongLinkedHashSet();
+
+        // When
+        final boolean first = set.add(5L);
+        final boolean second = set.add(0L);
+        final boolean duplicate = set.add(5L);
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(duplicate);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(0L));
+        assertFalse(set.contains(1L));
+    }
+
+    @Test
+    public void shouldKeepInsertionOrderWhenResizing() {
+        // Given
+        final LongLinkedHashSet set = new LongLinkedHashSet();
+
+        // When
+        for (long i = 10000; i > 0; i--) {
+            assertTrue(set.add(i * 1024));
+        }
+
+        // Then
+        assertEquals(10000, set.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals((10000 - i) * 1024L, set.get(i));
+            assertFalse(set.add((10000 - i) * 1024L));
+        }
+        assertTrue(set.contains(1024L));
+        assertFalse(set.contains(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void shouldIterateFromPosition() {
+        // Given
+        final LongLinkedHashSet set = new LongLinkedHashSet(4);
+        for (long i = 0; i < 10; i++) {
+            set.add(i);
+        }
+
+        // When
+        final LongCloseableIterator itr = set.iterator(7);
+        set.add(10L);
+
+        // Then
+        assertEquals(7L, itr.nextLong());
+        assertEquals(Long.valueOf(8), itr.next());
+        assertEquals(9L, itr.nextLong());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldThrowExceptionForIndexOutOfBounds() {
+        // Given
+        final LongLinkedHashSet set = new LongLinkedHashSet();
+        set.add(1L);
+
+        // When / Then
+        try {
+            set.get(1);
+            fail("Exception expected");
+        } catch (final IndexOutOfBoundsException e) {
+            assertEquals("Index: 1, size: 1", e.getMessage());
+        }
+    }
+}
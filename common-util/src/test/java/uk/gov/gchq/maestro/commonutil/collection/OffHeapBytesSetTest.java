@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapBytesSetTest {
+
+    @Test
+    public void shouldOnlyAddBytesOnce() {
+        // Given
+        try (OffHeapBytesSet set = new OffHeapBytesSet()) {
+            // When
+            final boolean first = set.add(bytes("a"));
+            final boolean second = set.add(bytes("b"));
+            final boolean duplicate = set.add(bytes("a"));
+
+            // Then
+            assertTrue(first);
+            assertTrue(second);
+            assertFalse(duplicate);
+            assertEquals(2, set.size());
+            assertTrue(set.contains(bytes("b")));
+            assertFalse(set.contains(bytes("c")));
+        }
+    }
+
+    @Test
+    public void shouldAllocateNewPagesAndKeepInsertionOrder() {
+        // Given
+        try (OffHeapBytesSet set = new OffHeapBytesSet(64)) {
+            // When
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(set.add(bytes("item" + i)));
+            }
+
+            // Then
+            assertEquals(5000, set.size());
+            assertTrue(set.getAllocatedBytes() > 64);
+            for (int i = 0; i < 5000; i++) {
+                assertArrayEquals(bytes("item" + i), set.get(i));
+                assertFalse(set.add(bytes("item" + i)));
+            }
+            assertFalse(set.contains(bytes("item5000")));
+        }
+    }
+
+    @Test
+    public void shouldStoreEntriesLargerThanPageSize() {
+        // Given
+        try (OffHeapBytesSet set = new OffHeapBytesSet(8)) {
+            final byte[] large = new byte[100];
+            large[99] = 1;
+
+            // When
+            set.add(bytes("a"));
+            set.add(large);
+            set.add(new byte[0]);
+
+            // Then
+            assertArrayEquals(bytes("a"), set.get(0));
+            assertArrayEquals(large, set.get(1));
+            assertArrayEquals(new byte[0], set.get(2));
+            assertTrue(set.contains(large.clone()));
+            assertFalse(set.add(new byte[0]));
+        }
+    }
+
+    @Test
+    public void shouldIterateFromPosition() {
+        // Given
+        try (OffHeapBytesSet set = new OffHeapBytesSet(16)) {
+            for (int i = 0; i < 10; i++) {
+                set.add(bytes("item" + i));
+            }
+
+            // When
+            final List<String> values = new ArrayList<>();
+            try (CloseableIterator<byte[]> itr = set.iterator(6)) {
+                itr.forEachRemaining(value -> values.add(new String(value, StandardCharsets.UTF_8)));
+            }
+
+            // Then
+            assertEquals(4, values.size());
+            assertEquals("item6", values.get(0));
+            assertEquals("item9", values.get(3));
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClose() {
+        // Given
+        final OffHeapBytesSet set = new OffHeapBytesSet();
+        set.add(bytes("a"));
+
+        // When
+        set.close();
+
+        // Then
+        assertEquals(0, set.size());
+        assertEquals(0, set.getAllocatedBytes());
+        assertFalse(set.contains(bytes("a")));
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
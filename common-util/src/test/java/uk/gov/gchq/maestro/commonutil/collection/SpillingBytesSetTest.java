@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.collection;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingBytesSetTest {
+
+    @Test
+    public void shouldOnlyAddBytesOnce() {
+        // Given
+        try (SpillingBytesSet set = new SpillingBytesSet()) {
+            // When
+            final boolean first = set.add(bytes("a"));
+            final boolean second = set.add(bytes("b"));
+            final boolean duplicate = set.add(bytes("a"));
+
+            // Then
+            assertTrue(first);
+            assertTrue(second);
+            assertFalse(duplicate);
+            assertEquals(2, set.size());
+            assertTrue(set.contains(bytes("b")));
+            assertFalse(set.contains(bytes("c")));
+            assertFalse(set.isSpilled());
+        }
+    }
+
+    @Test
+    public void shouldSpillToDiskWhenMemoryBudgetIsExceeded() {
+        // Given
+        try (SpillingBytesSet set = new SpillingBytesSet(100)) {
+            // When
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(set.add(bytes("item" + i)));
+            }
+
+            // Then
+            assertTrue(set.isSpilled());
+            assertEquals(5000, set.size());
+            for (int i = 0; i < 5000; i++) {
+                assertFalse(set.add(bytes("item" + i)));
+            }
+            assertTrue(set.contains(bytes("item0")));
+            assertFalse(set.contains(bytes("item5000")));
+        }
+    }
+
+    @Test
+    public void shouldHandleEmptyBytes() {
+        // Given
+        try (SpillingBytesSet set = new SpillingBytesSet()) {
+            // When / Then
+            assertTrue(set.add(new byte[0]));
+            assertFalse(set.add(new byte[0]));
+        }
+    }
+
+    @Test
+    public void shouldReadEntriesInInsertionOrderFromDiskAndMemory() {
+        // Given
+        try (SpillingBytesSet set = new SpillingBytesSet(100)) {
+            for (int i = 0; i < 1000; i++) {
+                set.add(bytes("item" + i));
+                set.add(bytes("item" + (i / 2)));
+            }
+
+            // When
+            final List<String> fromPosition = new ArrayList<>();
+            try (CloseableIterator<byte[]> itr = set.iterator(990)) {
+                itr.forEachRemaining(entry -> fromPosition.add(new String(entry, StandardCharsets.UTF_8)));
+            }
+
+            // Then
+            assertTrue(set.isSpilled());
+            assertEquals(1000, set.size());
+            assertEquals("item0", new String(set.get(0), StandardCharsets.UTF_8));
+            assertEquals("item500", new String(set.get(500), StandardCharsets.UTF_8));
+            assertEquals("item999", new String(set.get(999), StandardCharsets.UTF_8));
+            final List<String> expected = new ArrayList<>();
+            for (int i = 990; i < 1000; i++) {
+                expected.add("item" + i);
+            }
+            assertEquals(expected, fromPosition);
+        }
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ChainedIterableTest {
+
+    @Test
+    public void shouldIterateThroughChildIterablesInOrder() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 2);
+        final List<Integer> itr2 = Collections.emptyList();
+        final List<Integer> itr3 = Arrays.asList(3, 4, 5);
+
+        // When
+        final ChainedIterable<Integer> chainedIterable = new ChainedIterable<>(itr1, itr2, itr3);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), Lists.newArrayList(chainedIterable));
+    }
+
+    @Test
+    public void shouldSplitSpliteratorAtIterableBoundaries() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 2);
+        final List<Integer> itr2 = Arrays.asList(3, 4, 5);
+        final ChainedIterable<Integer> chainedIterable = new ChainedIterable<>(itr1, itr2);
+
+        // When
+        final Spliterator<Integer> suffix = chainedIterable.spliterator();
+        final Spliterator<Integer> prefix = suffix.trySplit();
+
+        // Then
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(2, prefix.getExactSizeIfKnown());
+        assertEquals(3, suffix.getExactSizeIfKnown());
+        final List<Integer> results = Lists.newArrayList();
+        prefix.forEachRemaining(results::add);
+        suffix.forEachRemaining(results::add);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), results);
+    }
+
+    @Test
+    public void shouldNotReportSizeWhenChildSizeIsUnknown() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 2);
+        final Iterable<Integer> itr2 = () -> Arrays.asList(3, 4).iterator();
+
+        // When
+        final Spliterator<Integer> spliterator = new ChainedIterable<Integer>(itr1, itr2).spliterator();
+
+        // Then
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    }
+
+    @Test
+    public void shouldCollectParallelStreamInOrder() {
+        // Given
+        final ChainedIterable<Integer> chainedIterable = new ChainedIterable<>(Arrays.asList(1, 2, 3), Arrays.asList(4, 5), Arrays.asList(6, 7, 8, 9));
+
+        // When
+        final List<Integer> results = chainedIterable.parallelStream().map(i -> i * 2).collect(Collectors.toList());
+
+        // Then
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10, 12, 14, 16, 18), results);
+    }
+
+    @Test
+    public void shouldCloseChildIterablesWhenStreamIsClosed() {
+        // Given
+        final CloseableIterable<Integer> itr1 = mock(CloseableIterable.class);
+        final CloseableIterable<Integer> itr2 = mock(CloseableIterable.class);
+        given(itr1.spliterator()).willReturn(Arrays.asList(1).spliterator());
+        given(itr2.spliterator()).willReturn(Arrays.asList(2).spliterator());
+        final ChainedIterable<Integer> chainedIterable = new ChainedIterable<>(itr1, itr2);
+
+        // When
+        try (Stream<Integer> stream = chainedIterable.stream()) {
+            assertEquals(2, stream.count());
+        }
+
+        // Then
+        verify(itr1).close();
+        verify(itr2).close();
+    }
+}
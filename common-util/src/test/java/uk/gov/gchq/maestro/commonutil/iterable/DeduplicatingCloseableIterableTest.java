@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class DeduplicatingCloseableIterableTest {
+
+    @Test
+    public void shouldRemoveDuplicatesInExactMode() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 1, 3, 2, 4, null, null);
+
+        // When
+        final DeduplicatingCloseableIterable<Integer> iterable = new DeduplicatingCloseableIterable<>(values, new JavaSerialiser());
+
+        // Then
+        assertEquals(DeduplicatingCloseableIterable.Mode.EXACT, iterable.getMode());
+        assertEquals(Arrays.asList(1, 2, 3, 4, null), Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldRemoveDuplicatesWhenSpillingToDisk() {
+        // Given
+        final List<String> values = new ArrayList<>();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add("item" + i);
+            values.add("item" + (i / 2));
+            expected.add("item" + i);
+        }
+
+        // When
+        final DeduplicatingCloseableIterable<String> iterable = new DeduplicatingCloseableIterable<>(values, new JavaSerialiser(), 1024);
+
+        // Then
+        assertEquals(expected, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldRemoveDuplicatesInApproximateMode() {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+            values.add(i);
+        }
+
+        // When
+        final DeduplicatingCloseableIterable<Integer> iterable = new DeduplicatingCloseableIterable<>(values, new JavaSerialiser(), 1000, 0.01);
+        final List<Integer> results = Lists.newArrayList(iterable);
+
+        // Then
+        assertEquals(DeduplicatingCloseableIterable.Mode.APPROXIMATE, iterable.getMode());
+        assertEquals(results.size(), new HashSet<>(results).size());
+        assertTrue("Too many false positives: " + results.size(), results.size() > 950);
+    }
+
+    @Test
+    public void shouldCloseInputIteratorWhenExhausted() {
+        // Given
+        final CloseableIterable<Integer> values = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> valuesItr = mock(CloseableIterator.class);
+        given(values.iterator()).willReturn(valuesItr);
+        given(valuesItr.hasNext()).willReturn(true, true, false);
+        given(valuesItr.next()).willReturn(1, 1);
+
+        // When
+        final List<Integer> results = Lists.newArrayList(new DeduplicatingCloseableIterable<>(values, new JavaSerialiser()));
+
+        // Then
+        assertEquals(Arrays.asList(1), results);
+        verify(valuesItr).close();
+    }
+}
@@ -21,13 +21,22 @@ import org.junit.Test;
 
 import uk.gov.gchq.maestro.commonutil.exception.LimitExceededException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class LimitedCloseableIterableTest {
 
@@ -150,4 +159,113 @@ public class LimitedCloseableIterableTest {
         assertEquals(values, Lists.newArrayList(equalValues));
 
     }
+
+    @Test
+    public void shouldLimitResultsWhenReadInBatches() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final BatchCloseableIterator<Integer> itr = new LimitedCloseableIterator<>(new WrappedCloseableIterator<>(values.iterator()), 1, 4);
+        final List<Integer> results = new ArrayList<>();
+
+        // When
+        final int read1 = itr.nextBatch(results, 2);
+        final int read2 = itr.nextBatch(results, 2);
+        final int read3 = itr.nextBatch(results, 2);
+
+        // Then
+        assertEquals(2, read1);
+        assertEquals(1, read2);
+        assertEquals(0, read3);
+        assertEquals(values.subList(1, 4), results);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenBatchReadExceedsLimitAndTruncateIsFalse() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3);
+        final BatchCloseableIterator<Integer> itr = new LimitedCloseableIterator<>(new WrappedCloseableIterator<>(values.iterator()), 0, 2, false);
+        final Integer[] buffer = new Integer[4];
+
+        // When
+        final int read = itr.nextBatch(buffer, 0, 4);
+
+        // Then
+        assertEquals(2, read);
+        try {
+            itr.nextBatch(buffer, read, 2);
+            fail("Exception expected");
+        } catch (final LimitExceededException e) {
+            assertEquals("Limit of 2 exceeded.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldProvideSizedSpliteratorForLimitedCollection() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final LimitedCloseableIterable<Integer> limitedValues = new LimitedCloseableIterable<>(values, 1, 4);
+
+        // When
+        final Spliterator<Integer> spliterator = limitedValues.spliterator();
+
+        // Then
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertEquals(values.subList(1, 4), limitedValues.parallelStream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldNotReportSizeWhenLimitWouldBeExceededWithoutTruncating() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final LimitedCloseableIterable<Integer> limitedValues = new LimitedCloseableIterable<>(values, 1, 4, false);
+
+        // When
+        final Spliterator<Integer> spliterator = limitedValues.spliterator();
+
+        // Then
+        assertEquals(-1, spliterator.getExactSizeIfKnown());
+    }
+
+    @Test
+    public void shouldReportSizeWithoutTruncatingWhenWithinLimit() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3);
+        final LimitedCloseableIterable<Integer> limitedValues = new LimitedCloseableIterable<>(values, 1, 4, false);
+
+        // When
+        final Spliterator<Integer> spliterator = limitedValues.spliterator();
+
+        // Then
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertEquals(values.subList(1, 4), limitedValues.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldSeekToStartWithoutReadingPrecedingItems() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final SeekableCloseableIterable<Integer> seekable = mock(SeekableCloseableIterable.class);
+        given(seekable.iterator(4)).willReturn(new WrappedCloseableIterator<>(values.subList(4, 6).iterator()));
+
+        // When
+        final CloseableIterable<Integer> limitedValues = new LimitedCloseableIterable<>(seekable, 4, 5);
+
+        // Then
+        assertEquals(Collections.singletonList(4), Lists.newArrayList(limitedValues));
+        verify(seekable, never()).iterator();
+    }
+
+    @Test
+    public void shouldSkipToStartOfWrappedList() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final WrappedCloseableIterable<Integer> wrapped = new WrappedCloseableIterable<>(values);
+
+        // When
+        final CloseableIterator<Integer> itr = wrapped.iterator(3);
+
+        // Then
+        assertEquals(values.subList(3, 6), Lists.newArrayList(itr));
+        assertFalse(wrapped.iterator(10).hasNext());
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class MergedSortedIterableTest {
+
+    @Test
+    public void shouldMergeSortedIterables() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 4, 7, 10);
+        final List<Integer> itr2 = Arrays.asList(2, 5, 8);
+        final List<Integer> itr3 = Collections.emptyList();
+        final List<Integer> itr4 = Arrays.asList(3, 6, 9, 11, 12);
+
+        // When
+        final MergedSortedIterable<Integer> merged = new MergedSortedIterable<>(Comparator.naturalOrder(), itr1, itr2, itr3, itr4);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldKeepEqualElementsInSourceOrder() {
+        // Given
+        final List<String> itr1 = Arrays.asList("a1", "b1");
+        final List<String> itr2 = Arrays.asList("a2", "b2");
+        final Comparator<String> comparator = Comparator.comparing(s -> s.charAt(0));
+
+        // When
+        final MergedSortedIterable<String> merged = new MergedSortedIterable<>(comparator, itr1, itr2);
+
+        // Then
+        assertEquals(Arrays.asList("a1", "a2", "b1", "b2"), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldDeduplicateEqualElements() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 1, 2, 3);
+        final List<Integer> itr2 = Arrays.asList(1, 3, 4);
+
+        // When
+        final MergedSortedIterable<Integer> merged = new MergedSortedIterable<>(Comparator.naturalOrder(), true, itr1, itr2);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldCombineEqualElements() {
+        // Given
+        final List<String> itr1 = Arrays.asList("a:1", "b:2");
+        final List<String> itr2 = Arrays.asList("a:3", "c:1");
+        final List<String> itr3 = Arrays.asList("b:5");
+        final Comparator<String> comparator = Comparator.comparing(s -> s.charAt(0));
+
+        // When
+        final MergedSortedIterable<String> merged = new MergedSortedIterable<>(comparator,
+                (a, b) -> a.charAt(0) + ":" + (Integer.parseInt(a.substring(2)) + Integer.parseInt(b.substring(2))),
+                Arrays.asList(itr1, itr2, itr3));
+
+        // Then
+        assertEquals(Arrays.asList("a:4", "b:7", "c:1"), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldCloseAllSourcesWhenIteratorIsClosed() {
+        // Given
+        final CloseableIterable<Integer> itr1 = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> iterator1 = mock(CloseableIterator.class);
+        given(itr1.iterator()).willReturn(iterator1);
+        given(iterator1.hasNext()).willReturn(true, false);
+        given(iterator1.next()).willReturn(1);
+        final CloseableIterable<Integer> itr2 = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> iterator2 = mock(CloseableIterator.class);
+        given(itr2.iterator()).willReturn(iterator2);
+        given(iterator2.hasNext()).willReturn(true, false);
+        given(iterator2.next()).willReturn(2);
+        final MergedSortedIterable<Integer> merged = new MergedSortedIterable<>(Comparator.naturalOrder(), itr1, itr2);
+
+        // When
+        final CloseableIterator<Integer> itr = merged.iterator();
+        assertEquals(Integer.valueOf(1), itr.next());
+        itr.close();
+
+        // Then
+        verify(iterator1).close();
+        verify(iterator2).close();
+        verify(itr1).close();
+        verify(itr2).close();
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoIterablesProvided() {
+        // When / Then
+        try {
+            new MergedSortedIterable<Integer>(Comparator.naturalOrder());
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("At least 1 iterable is required.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ParallelTransformIterableTest {
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldTransformItemsInInputOrder() {
+        // Given
+        final List<Integer> items = createItems(1000);
+        final List<String> expected = new ArrayList<>();
+        for (final Integer item : items) {
+            expected.add("item" + item);
+        }
+
+        // When
+        final List<String> results = Lists.newArrayList(new ParallelTransformIterableImpl(items, executor, 7, 3, true));
+
+        // Then
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void shouldTransformAllItemsWhenUnordered() {
+        // Given
+        final List<Integer> items = createItems(1000);
+        final List<String> expected = new ArrayList<>();
+        for (final Integer item : items) {
+            expected.add("item" + item);
+        }
+
+        // When
+        final List<String> results = Lists.newArrayList(new ParallelTransformIterableImpl(items, executor, 7, 3, false));
+
+        // Then
+        Collections.sort(expected);
+        Collections.sort(results);
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void shouldSkipInvalidItems() {
+        // Given
+        final List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6);
+        final Validator<Integer> validator = item -> 0 == item % 2;
+
+        // When
+        final ParallelTransformIterable<Integer, String> iterable = new ParallelTransformIterableImpl(items, validator, true, executor, 2, 2, true);
+
+        // Then
+        assertEquals(Arrays.asList("item2", "item4", "item6"), Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldRethrowExceptionFromTransformOnConsumingThread() {
+        // Given
+        final List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6);
+        final Validator<Integer> validator = item -> 4 != item;
+        final ParallelTransformIterable<Integer, String> iterable = new ParallelTransformIterableImpl(items, validator, false, executor, 2, 2, true);
+
+        // When / Then
+        try {
+            Lists.newArrayList(iterable);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Next 4 in iterable is not valid.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldCloseInputIteratorWhenIteratorIsClosed() {
+        // Given
+        final CloseableIterable<Integer> items = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> itemsIterator = mock(CloseableIterator.class);
+        given(items.iterator()).willReturn(itemsIterator);
+        given(itemsIterator.hasNext()).willReturn(true);
+        given(itemsIterator.next()).willReturn(1);
+        final ParallelTransformIterable<Integer, String> iterable = new ParallelTransformIterableImpl(items, executor, 10, 2, true);
+
+        // When
+        final CloseableIterator<String> itr = iterable.iterator();
+        itr.next();
+        itr.close();
+
+        // Then
+        verify(itemsIterator).close();
+        assertFalse(itr.hasNext());
+    }
+
+    private static List<Integer> createItems(final int size) {
+        final List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    private static class ParallelTransformIterableImpl extends ParallelTransformIterable<Integer, String> {
+        ParallelTransformIterableImpl(final Iterable<Integer> input, final ExecutorService executor, final int chunkSize, final int readAhead, final boolean ordered) {
+            super(input, executor, chunkSize, readAhead, ordered);
+        }
+
+        ParallelTransformIterableImpl(final Iterable<Integer> input, final Validator<Integer> validator, final boolean skipInvalid,
+                                      final ExecutorService executor, final int chunkSize, final int readAhead, final boolean ordered) {
+            super(input, validator, skipInvalid, true, executor, chunkSize, readAhead, ordered);
+        }
+
+        @Override
+        protected String transform(final Integer item) {
+            return "item" + item;
+        }
+    }
+}
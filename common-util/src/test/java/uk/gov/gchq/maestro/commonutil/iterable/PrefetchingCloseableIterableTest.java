@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class PrefetchingCloseableIterableTest {
+
+    @Before
+    public void before() {
+        ExecutorService.initialise(4);
+    }
+
+    @After
+    public void after() {
+        ExecutorService.shutdown();
+    }
+
+    @Test
+    public void shouldReturnAllItemsInOrder() {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1005; i++) {
+            values.add(i);
+        }
+
+        // When
+        final PrefetchingCloseableIterable<Integer> iterable = new PrefetchingCloseableIterable<>(values, 100, 10);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldNotBufferMoreThanBufferSize() {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        final PrefetchingCloseableIterator<Integer> itr = new PrefetchingCloseableIterable<>(values, 20, 5).iterator();
+
+        // When
+        int count = 0;
+        while (itr.hasNext()) {
+            itr.next();
+            count++;
+        }
+
+        // Then
+        assertEquals(1000, count);
+        assertEquals(1000, itr.getPrefetchedItems());
+        // the metric may briefly include the batch being handed to the consumer
+        assertTrue(itr.getMaxBufferedItems() <= 20 + 5);
+        assertEquals(0, itr.getBufferedItems());
+        assertEquals(0.0, itr.getBufferUtilisation(), 0.0);
+    }
+
+    @Test
+    public void shouldRethrowSourceExceptionAfterPrecedingItems() {
+        // Given
+        final Iterable<Integer> source = () -> new Iterator<Integer>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (3 == count) {
+                    throw new IllegalStateException("Source failed");
+                }
+                return count++;
+            }
+        };
+        final CloseableIterator<Integer> itr = new PrefetchingCloseableIterable<>(source, 10, 2).iterator();
+        final List<Integer> results = new ArrayList<>();
+
+        // When
+        try {
+            while (itr.hasNext()) {
+                results.add(itr.next());
+            }
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            // Then
+            assertEquals("Source failed", e.getMessage());
+        }
+        assertEquals(Arrays.asList(0, 1, 2), results);
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldStopProducerAndCloseSourceWhenClosed() throws InterruptedException {
+        // Given
+        final AtomicInteger reads = new AtomicInteger();
+        final CloseableIterable<Integer> source = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> sourceItr = mock(CloseableIterator.class);
+        given(source.iterator()).willReturn(sourceItr);
+        given(sourceItr.hasNext()).willReturn(true);
+        given(sourceItr.next()).willAnswer(invocation -> reads.incrementAndGet());
+        final CloseableIterator<Integer> itr = new PrefetchingCloseableIterable<>(source, 10, 5).iterator();
+
+        // When
+        assertEquals(Integer.valueOf(1), itr.next());
+        itr.close();
+        Thread.sleep(300);
+        final int readsAfterClose = reads.get();
+        Thread.sleep(300);
+
+        // Then
+        verify(sourceItr).close();
+        assertEquals(readsAfterClose, reads.get());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldNotCloseSourceWhileProducerIsReadingFromIt() throws InterruptedException {
+        // Given
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch sourceClosed = new CountDownLatch(1);
+        final AtomicBoolean inNext = new AtomicBoolean();
+        final AtomicBoolean closedWhileReading = new AtomicBoolean();
+        final CloseableIterator<Integer> sourceItr = new CloseableIterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                inNext.set(true);
+                reading.countDown();
+                boolean released = false;
+                while (!released) {
+                    try {
+                        released = release.await(10, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        // keep reading, like a source which ignores interrupts
+                    }
+                }
+                inNext.set(false);
+                return 1;
+            }
+
+            @Override
+            public void close() {
+                closedWhileReading.set(inNext.get());
+                sourceClosed.countDown();
+            }
+        };
+        final PrefetchingCloseableIterator<Integer> itr = new PrefetchingCloseableIterator<>(sourceItr, 10, 5);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+        // When
+        itr.close();
+        release.countDown();
+
+        // Then
+        assertTrue(sourceClosed.await(10, TimeUnit.SECONDS));
+        assertFalse(closedWhileReading.get());
+    }
+
+    @Test
+    public void shouldRequireAnExecutorWhenTheSharedExecutorServiceIsNotInitialised() {
+        // Given
+        ExecutorService.shutdown();
+        final PrefetchingCloseableIterable<Integer> iterable = new PrefetchingCloseableIterable<>(Arrays.asList(1, 2, 3));
+
+        // When / Then
+        try {
+            iterable.iterator();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Unable to prefetch, as no executor was given and the ExecutorService has not been initialised", e.getMessage());
+        }
+    }
+}
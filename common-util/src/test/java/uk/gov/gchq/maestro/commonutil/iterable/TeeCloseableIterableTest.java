@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TeeCloseableIterableTest {
+
+    @Test
+    public void shouldPassElementsToSinkInBatchesAsTheyAreConsumed() {
+        // Given
+        final List<List<Integer>> batches = new ArrayList<>();
+        final List<Integer> input = Arrays.asList(1, 2, 3, 4, 5);
+
+        // When
+        final List<Integer> output = new ArrayList<>();
+        try (TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(input, batches::add, 2, false);
+             CloseableIterator<Integer> itr = tee.iterator()) {
+            output.add(itr.next());
+            output.add(itr.next());
+            output.add(itr.next());
+
+            // Then
+            assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+            itr.forEachRemaining(output::add);
+        }
+        assertEquals(input, output);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Collections.singletonList(5)), batches);
+    }
+
+    @Test
+    public void shouldFlushRemainingElementsWhenIteratorIsClosedEarly() {
+        // Given
+        final List<Integer> exported = new ArrayList<>();
+        final TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(Arrays.asList(1, 2, 3, 4, 5), exported::addAll, 2, false);
+
+        // When
+        try (CloseableIterator<Integer> itr = tee.iterator()) {
+            itr.next();
+        }
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), exported);
+    }
+
+    @Test
+    public void shouldExportInputWhenClosedWithoutIterating() {
+        // Given
+        final List<Integer> exported = new ArrayList<>();
+        final TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(Arrays.asList(1, 2, 3), exported::addAll);
+
+        // When
+        tee.close();
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3), exported);
+    }
+
+    @Test
+    public void shouldOnlyFeedSinkFromFirstIterator() {
+        // Given
+        final List<Integer> exported = new ArrayList<>();
+        final TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(Arrays.asList(1, 2, 3), exported::addAll);
+
+        // When
+        final List<Integer> first = Lists.newArrayList(tee);
+        final List<Integer> second = Lists.newArrayList(tee);
+        tee.close();
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(Arrays.asList(1, 2, 3), exported);
+    }
+
+    @Test
+    public void shouldWriteBatchesInOrderAsynchronously() {
+        // Given
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            input.add(i);
+        }
+        final List<Integer> exported = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            // When
+            final List<Integer> output;
+            try (TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(input, exported::addAll, 7, executor)) {
+                output = Lists.newArrayList(tee);
+            }
+
+            // Then
+            assertEquals(input, output);
+            assertEquals(input, exported);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldWaitForSlowSinkOnceMaxPendingBatchesAreQueued() throws Exception {
+        // Given
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger read = new AtomicInteger();
+        final Iterable<Integer> input = () -> IntStream.range(0, 100).peek(i -> read.incrementAndGet()).iterator();
+        final List<Integer> exported = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            // When
+            final Future<List<Integer>> output = executor.submit(() -> {
+                try (TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(input, batch -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    exported.addAll(batch);
+                }, 1, executor, 2)) {
+                    return Lists.newArrayList(tee);
+                }
+            });
+            Thread.sleep(200);
+
+            // Then - one batch is being written, one is waiting and the third waits for the first
+            assertEquals(3, read.get());
+
+            // When
+            release.countDown();
+
+            // Then
+            assertEquals(100, output.get(5, TimeUnit.SECONDS).size());
+            assertEquals(100, exported.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRethrowSinkFailureOnClose() {
+        // Given
+        final TeeCloseableIterable<Integer> tee = new TeeCloseableIterable<>(Arrays.asList(1, 2, 3), batch -> {
+            throw new IllegalStateException("Sink failed");
+        }, 10, true);
+
+        // When / Then
+        try {
+            Lists.newArrayList(tee);
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Sink failed", e.getMessage());
+        }
+    }
+}
@@ -21,11 +21,16 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -202,6 +207,31 @@ public class TransformIterableTest {
         verify(itemsIterator, never()).close();
     }
 
+    @Test
+    public void shouldReadTransformedItemsInBatches() {
+        // Given
+        final List<String> items = Arrays.asList("a", "b", "c", "d", "e");
+        final TransformIterable<String, String> iterable = new TransformIterableImpl(items);
+        final BatchCloseableIterator<String> itr = (BatchCloseableIterator<String>) iterable.iterator();
+        final String[] buffer = new String[3];
+
+        // When
+        final String first = itr.next();
+        final int read1 = itr.nextBatch(buffer, 0, 3);
+        final List<String> remaining = new ArrayList<>();
+        final int read2 = itr.nextBatch(remaining, 3);
+        final int read3 = itr.nextBatch(remaining, 3);
+
+        // Then
+        assertEquals("A", first);
+        assertEquals(3, read1);
+        assertArrayEquals(new String[]{"B", "C", "D"}, buffer);
+        assertEquals(1, read2);
+        assertEquals(0, read3);
+        assertEquals(Collections.singletonList("E"), remaining);
+        assertFalse(itr.hasNext());
+    }
+
     private class TransformIterableImpl extends TransformIterable<String, String> {
         TransformIterableImpl() {
             super(null);
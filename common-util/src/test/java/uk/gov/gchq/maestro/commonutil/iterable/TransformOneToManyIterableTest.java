@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -200,6 +201,26 @@ public class TransformOneToManyIterableTest {
         verify(itemsIterator, never()).close();
     }
 
+    @Test
+    public void shouldReadTransformedItemsInBatchesAcrossGroups() {
+        // Given
+        final List<String> items = Arrays.asList("a,b", "c", "d,e,f");
+        final TransformOneToManyIterable<String, String> iterable = new TransformOneToManyIterableImpl(items, true);
+        final BatchCloseableIterator<String> itr = (BatchCloseableIterator<String>) iterable.iterator();
+        final String[] buffer = new String[6];
+
+        // When
+        final int read1 = itr.nextBatch(buffer, 0, 4);
+        final int read2 = itr.nextBatch(buffer, read1, 4);
+        final int read3 = itr.nextBatch(buffer, read1 + read2, 4);
+
+        // Then
+        assertEquals(4, read1);
+        assertEquals(2, read2);
+        assertEquals(0, read3);
+        assertArrayEquals(new String[]{"A", "B", "C", "D", "E", "F"}, buffer);
+    }
+
     private class TransformOneToManyIterableImpl extends TransformOneToManyIterable<String, String> {
         TransformOneToManyIterableImpl(final Iterable<String> input, final boolean autoClose) {
             super(input, new AlwaysValid<>(), false, autoClose);
@@ -19,10 +19,16 @@ package uk.gov.gchq.maestro.commonutil.iterable;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -179,4 +185,34 @@ public class WrappedCloseableIterableTest {
         verify(iterator1, Mockito.atLeastOnce()).close();
         verify(iterator2, Mockito.atLeastOnce()).close();
     }
+
+    @Test
+    public void shouldProvideSizedSpliteratorForWrappedCollection() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4);
+        final WrappedCloseableIterable<Integer> wrappedIterable = new WrappedCloseableIterable<>(values);
+
+        // When
+        final Spliterator<Integer> spliterator = wrappedIterable.spliterator();
+
+        // Then
+        assertEquals(4, spliterator.getExactSizeIfKnown());
+        assertNotNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void shouldCloseWrappedIterableWhenStreamIsClosed() {
+        // Given
+        final CloseableIterable<Object> closeableIterable = mock(CloseableIterable.class);
+        given(closeableIterable.spliterator()).willReturn(Spliterators.emptySpliterator());
+        final WrappedCloseableIterable<Object> wrappedIterable = new WrappedCloseableIterable<>(closeableIterable);
+
+        // When
+        try (Stream<Object> stream = wrappedIterable.parallelStream()) {
+            assertEquals(0, stream.count());
+        }
+
+        // Then
+        verify(closeableIterable).close();
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ChainedIntIterableTest {
+
+    @Test
+    public void shouldChainPrimitiveAndGenericIterables() {
+        // Given
+        final IntCloseableIterable itr1 = new WrappedIntCloseableIterable(0, 1);
+        final Iterable<Integer> emptyItr = Collections.emptyList();
+        final Iterable<Integer> itr2 = Arrays.asList(2, 3);
+
+        // When
+        final ChainedIntIterable chained = new ChainedIntIterable(itr1, emptyItr, itr2);
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3), Lists.newArrayList(chained));
+    }
+
+    @Test
+    public void shouldIterateUsingPrimitiveAccessor() {
+        // Given
+        final ChainedIntIterable chained = new ChainedIntIterable(
+                new WrappedIntCloseableIterable(1), new WrappedIntCloseableIterable(2));
+
+        // When
+        final IntCloseableIterator itr = chained.iterator();
+
+        // Then
+        assertEquals(1, itr.nextInt());
+        assertEquals(2, itr.nextInt());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoIterablesProvided() {
+        // When / Then
+        try {
+            new ChainedIntIterable();
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("At least 1 iterable is required.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ChainedLongIterableTest {
+
+    @Test
+    public void shouldChainPrimitiveAndGenericIterables() {
+        // Given
+        final LongCloseableIterable itr1 = new WrappedLongCloseableIterable(0L, 1L);
+        final Iterable<Long> emptyItr = Collections.emptyList();
+        final Iterable<Long> itr2 = Arrays.asList(2L, 3L);
+
+        // When
+        final ChainedLongIterable chained = new ChainedLongIterable(itr1, emptyItr, itr2);
+
+        // Then
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L), Lists.newArrayList(chained));
+    }
+
+    @Test
+    public void shouldIterateUsingPrimitiveAccessor() {
+        // Given
+        final ChainedLongIterable chained = new ChainedLongIterable(
+                new WrappedLongCloseableIterable(1L), new WrappedLongCloseableIterable(2L));
+
+        // When
+        final LongCloseableIterator itr = chained.iterator();
+
+        // Then
+        assertEquals(1L, itr.nextLong());
+        assertEquals(2L, itr.nextLong());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoIterablesProvided() {
+        // When / Then
+        try {
+            new ChainedLongIterable();
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("At least 1 iterable is required.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.exception.LimitExceededException;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LimitedIntCloseableIterableTest {
+
+    @Test
+    public void shouldLimitResults() {
+        // Given
+        final IntCloseableIterable values = new WrappedIntCloseableIterable(0, 1, 2, 3);
+
+        // When
+        final IntCloseableIterable limitedValues = new LimitedIntCloseableIterable(values, 1, 3);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2), Lists.newArrayList(limitedValues));
+    }
+
+    @Test
+    public void shouldNotLimitResultsWithNullEnd() {
+        // Given
+        final IntCloseableIterable values = new WrappedIntCloseableIterable(0, 1, 2, 3);
+
+        // When
+        final IntCloseableIterable limitedValues = new LimitedIntCloseableIterable(values, 0, null);
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3), Lists.newArrayList(limitedValues));
+    }
+
+    @Test
+    public void shouldReturnNoValuesIfStartIsBiggerThanSize() {
+        // Given
+        final IntCloseableIterable values = new WrappedIntCloseableIterable(0, 1, 2, 3);
+
+        // When
+        final IntCloseableIterable limitedValues = new LimitedIntCloseableIterable(values, 5, null);
+
+        // Then
+        assertTrue(Lists.newArrayList(limitedValues).isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfStartIsBiggerThanEnd() {
+        // Given
+        final IntCloseableIterable values = new WrappedIntCloseableIterable(0, 1, 2, 3);
+
+        // When / Then
+        try {
+            new LimitedIntCloseableIterable(values, 3, 1);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionIfDataIsTruncated() {
+        // Given
+        final IntCloseableIterable values = new WrappedIntCloseableIterable(0, 1, 2, 3);
+        final IntCloseableIterator itr = new LimitedIntCloseableIterable(values, 0, 2, false).iterator();
+
+        // When / Then
+        try {
+            while (itr.hasNext()) {
+                itr.nextInt();
+            }
+            fail("Exception expected");
+        } catch (final LimitExceededException e) {
+            assertEquals("Limit of 2 exceeded.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.iterable.Validator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransformToDoubleIterableTest {
+
+    @Test
+    public void shouldTransformItemsToDoubles() {
+        // Given
+        final Iterable<String> items = Arrays.asList("a", "bb", "ccc");
+
+        // When
+        final TransformToDoubleIterable<String> iterable = new StringLengthIterable(items);
+
+        // Then
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0), Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldSkipInvalidItems() {
+        // Given
+        final Iterable<String> items = Arrays.asList("a", "", "ccc");
+        final Validator<String> validator = s -> !s.isEmpty();
+
+        // When
+        final DoubleCloseableIterator itr = new StringLengthIterable(items, validator, true).iterator();
+
+        // Then
+        assertEquals(1.0, itr.nextDouble(), 0);
+        assertTrue(itr.hasNext());
+        assertEquals(3.0, itr.nextDouble(), 0);
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldThrowExceptionOnInvalidItem() {
+        // Given
+        final Iterable<String> items = Arrays.asList("a", "", "ccc");
+        final Validator<String> validator = s -> !s.isEmpty();
+        final Iterator<Double> itr = new StringLengthIterable(items, validator, false).iterator();
+        itr.next();
+
+        // When / Then
+        try {
+            itr.hasNext();
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Next  in iterable is not valid.", e.getMessage());
+        }
+    }
+
+    private static final class StringLengthIterable extends TransformToDoubleIterable<String> {
+        private StringLengthIterable(final Iterable<String> input) {
+            super(input);
+        }
+
+        private StringLengthIterable(final Iterable<String> input, final Validator<String> validator, final boolean skipInvalid) {
+            super(input, validator, skipInvalid);
+        }
+
+        @Override
+        protected double transform(final String item) {
+            return item.length();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WrappedDoubleCloseableIterableTest {
+
+    @Test
+    public void shouldIterateOverPrimitiveArray() {
+        // Given
+        final WrappedDoubleCloseableIterable iterable = new WrappedDoubleCloseableIterable(1.0, 2.0, 3.0);
+
+        // When
+        final DoubleCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertEquals(1.0, itr.nextDouble(), 0);
+        assertEquals(2.0, itr.nextDouble(), 0);
+        assertEquals(3.0, itr.nextDouble(), 0);
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldBridgeFromGenericIterable() {
+        // Given
+        final List<Double> values = Arrays.asList(5.0, 6.0, 7.0);
+
+        // When
+        final WrappedDoubleCloseableIterable iterable = new WrappedDoubleCloseableIterable(values);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldBeUsableAsGenericIterable() {
+        // Given
+        final Iterable<Double> iterable = new WrappedDoubleCloseableIterable(10.0, 20.0);
+
+        // When
+        double total = 0;
+        for (final Double value : iterable) {
+            total += value;
+        }
+
+        // Then
+        assertEquals(30.0, total, 0);
+    }
+
+    @Test
+    public void shouldHandleEmptyIterable() {
+        // Given
+        final WrappedDoubleCloseableIterable iterable = new WrappedDoubleCloseableIterable();
+
+        // When
+        final DoubleCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertFalse(itr.hasNext());
+        try {
+            itr.nextDouble();
+            fail("Exception expected");
+        } catch (final NoSuchElementException e) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void shouldHandleNullIterable() {
+        // Given
+        final WrappedDoubleCloseableIterable iterable = new WrappedDoubleCloseableIterable((Iterable<Double>) null);
+
+        // Then
+        assertTrue(Lists.newArrayList(iterable).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WrappedIntCloseableIterableTest {
+
+    @Test
+    public void shouldIterateOverPrimitiveArray() {
+        // Given
+        final WrappedIntCloseableIterable iterable = new WrappedIntCloseableIterable(1, 2, 3);
+
+        // When
+        final IntCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertEquals(1, itr.nextInt());
+        assertEquals(2, itr.nextInt());
+        assertEquals(3, itr.nextInt());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldBridgeFromGenericIterable() {
+        // Given
+        final List<Integer> values = Arrays.asList(5, 6, 7);
+
+        // When
+        final WrappedIntCloseableIterable iterable = new WrappedIntCloseableIterable(values);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldBeUsableAsGenericIterable() {
+        // Given
+        final Iterable<Integer> iterable = new WrappedIntCloseableIterable(10, 20);
+
+        // When
+        int total = 0;
+        for (final Integer value : iterable) {
+            total += value;
+        }
+
+        // Then
+        assertEquals(30, total);
+    }
+
+    @Test
+    public void shouldHandleEmptyIterable() {
+        // Given
+        final WrappedIntCloseableIterable iterable = new WrappedIntCloseableIterable();
+
+        // When
+        final IntCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertFalse(itr.hasNext());
+        try {
+            itr.nextInt();
+            fail("Exception expected");
+        } catch (final NoSuchElementException e) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void shouldHandleNullIterable() {
+        // Given
+        final WrappedIntCloseableIterable iterable = new WrappedIntCloseableIterable((Iterable<Integer>) null);
+
+        // Then
+        assertTrue(Lists.newArrayList(iterable).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.iterable.primitive;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WrappedLongCloseableIterableTest {
+
+    @Test
+    public void shouldIterateOverPrimitiveArray() {
+        // Given
+        final WrappedLongCloseableIterable iterable = new WrappedLongCloseableIterable(1L, 2L, 3L);
+
+        // When
+        final LongCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertEquals(1L, itr.nextLong());
+        assertEquals(2L, itr.nextLong());
+        assertEquals(3L, itr.nextLong());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldBridgeFromGenericIterable() {
+        // Given
+        final List<Long> values = Arrays.asList(5L, 6L, 7L);
+
+        // When
+        final WrappedLongCloseableIterable iterable = new WrappedLongCloseableIterable(values);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldBeUsableAsGenericIterable() {
+        // Given
+        final Iterable<Long> iterable = new WrappedLongCloseableIterable(10L, 20L);
+
+        // When
+        long total = 0;
+        for (final Long value : iterable) {
+            total += value;
+        }
+
+        // Then
+        assertEquals(30L, total);
+    }
+
+    @Test
+    public void shouldHandleEmptyIterable() {
+        // Given
+        final WrappedLongCloseableIterable iterable = new WrappedLongCloseableIterable();
+
+        // When
+        final LongCloseableIterator itr = iterable.iterator();
+
+        // Then
+        assertFalse(itr.hasNext());
+        try {
+            itr.nextLong();
+            fail("Exception expected");
+        } catch (final NoSuchElementException e) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void shouldHandleNullIterable() {
+        // Given
+        final WrappedLongCloseableIterable iterable = new WrappedLongCloseableIterable((Iterable<Long>) null);
+
+        // Then
+        assertTrue(Lists.newArrayList(iterable).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.scheduler;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CronExpressionTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @Test
+    public void shouldFindNextMatchingMinute() {
+        // Given
+        final CronExpression cron = new CronExpression("*/15 * * * *");
+
+        // When / Then
+        assertEquals(millis("2019-06-01T10:15"), cron.next(millis("2019-06-01T10:00")));
+        assertEquals(millis("2019-06-01T10:15"), cron.next(millis("2019-06-01T10:07:30")));
+        assertEquals(millis("2019-06-01T11:00"), cron.next(millis("2019-06-01T10:45")));
+    }
+
+    @Test
+    public void shouldRollOverHoursDaysMonthsAndYears() {
+        // Given
+        final CronExpression cron = new CronExpression("30 2 1 JAN,jul *");
+
+        // When / Then
+        assertEquals(millis("2019-07-01T02:30"), cron.next(millis("2019-01-01T02:30")));
+        assertEquals(millis("2020-01-01T02:30"), cron.next(millis("2019-07-01T02:30")));
+    }
+
+    @Test
+    public void shouldMatchEitherDayOfMonthOrDayOfWeekWhenBothAreRestricted() {
+        // Given - 2019-06-03 is a Monday
+        final CronExpression cron = new CronExpression("0 0 15 * MON");
+
+        // When / Then
+        assertEquals(millis("2019-06-03T00:00"), cron.next(millis("2019-06-01T00:00")));
+        assertEquals(millis("2019-06-10T00:00"), cron.next(millis("2019-06-03T00:00")));
+        assertEquals(millis("2019-06-15T00:00"), cron.next(millis("2019-06-14T00:00")));
+    }
+
+    @Test
+    public void shouldTreatSevenAsSundayAndSupportRangesWithSteps() {
+        // Given - 2019-06-02 is a Sunday
+        final CronExpression sunday = new CronExpression("0 12 * * 7");
+        final CronExpression weekdayHours = new CronExpression("0 9-17/4 * * 1-5");
+
+        // When / Then
+        assertEquals(millis("2019-06-02T12:00"), sunday.next(millis("2019-06-01T00:00")));
+        assertEquals(millis("2019-06-03T09:00"), weekdayHours.next(millis("2019-06-01T00:00")));
+        assertEquals(millis("2019-06-03T13:00"), weekdayHours.next(millis("2019-06-03T09:00")));
+        assertEquals(millis("2019-06-03T17:00"), weekdayHours.next(millis("2019-06-03T13:00")));
+        assertEquals(millis("2019-06-04T09:00"), weekdayHours.next(millis("2019-06-03T17:00")));
+    }
+
+    @Test
+    public void shouldRejectInvalidExpressions() {
+        for (final String expression : new String[]{"* * * *", "60 * * * *", "* * 0 * *", "*/0 * * * *", "5-1 * * * *", "* * * FOO *"}) {
+            try {
+                new CronExpression(expression);
+                fail("Exception expected for " + expression);
+            } catch (final IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectExpressionsThatNeverMatch() {
+        // Given
+        final CronExpression cron = new CronExpression("0 0 30 2 *");
+
+        // When / Then
+        try {
+            cron.next(millis("2019-01-01T00:00"));
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Cron expression 0 0 30 2 * does not match any time in the next 5 years", e.getMessage());
+        }
+    }
+
+    private static long millis(final String localDateTime) {
+        return ZonedDateTime.of(LocalDateTime.parse(localDateTime), UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.scheduler;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer.Timeout;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashedWheelTimerTest {
+    private final HashedWheelTimer timer = new HashedWheelTimer(Runnable::run, 10, TimeUnit.MILLISECONDS, 8);
+
+    @After
+    public void after() {
+        timer.close();
+    }
+
+    @Test
+    public void shouldRunTaskNoEarlierThanItsDelay() throws InterruptedException {
+        // Given
+        final CountDownLatch ran = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        // When
+        final Timeout timeout = timer.newTimeout(ran::countDown, 50, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    public void shouldNotRunCancelledTask() throws InterruptedException {
+        // Given
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch later = new CountDownLatch(1);
+        final Timeout timeout = timer.newTimeout(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        timer.newTimeout(later::countDown, 100, TimeUnit.MILLISECONDS);
+
+        // When
+        assertTrue(timeout.cancel());
+
+        // Then
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    public void shouldRunTimeoutsSpanningSeveralTurnsOfTheWheel() throws InterruptedException {
+        // Given
+        final int count = 20000;
+        final CountDownLatch ran = new CountDownLatch(count);
+        final Random random = new Random(1);
+
+        // When - the wheel turns every 80ms
+        for (int i = 0; i < count; i++) {
+            timer.newTimeout(ran::countDown, random.nextInt(400), TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    public void shouldRunTimeoutsInDeadlineOrderAcrossTicks() throws InterruptedException {
+        // Given
+        final StringBuffer order = new StringBuffer();
+        final CountDownLatch ran = new CountDownLatch(3);
+
+        // When
+        timer.newTimeout(() -> {
+            order.append("c");
+            ran.countDown();
+        }, 250, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> {
+            order.append("a");
+            ran.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> {
+            order.append("b");
+            ran.countDown();
+        }, 90, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals("abc", order.toString());
+    }
+
+    @Test
+    public void shouldRejectTimeoutsOnceStopped() {
+        // Given
+        timer.close();
+
+        // When / Then
+        try {
+            timer.newTimeout(() -> { }, 10, TimeUnit.MILLISECONDS);
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Timer has been stopped", e.getMessage());
+        }
+    }
+}
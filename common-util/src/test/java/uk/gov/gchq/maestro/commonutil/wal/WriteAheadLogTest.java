@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.commonutil.wal;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WriteAheadLogTest {
+    @Rule
+    public final TemporaryFolder testFolder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setup() {
+        path = testFolder.getRoot().toPath().resolve("jobs").resolve("jobs.wal");
+    }
+
+    @Test
+    public void shouldReplayAppendedRecordsAfterReopening() throws IOException {
+        // Given
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.append(bytes("a"));
+            log.append(bytes("b"));
+        }
+
+        // When
+        final List<String> records = replay();
+
+        // Then
+        assertEquals(Arrays.asList("a", "b"), records);
+    }
+
+    @Test
+    public void shouldTruncatePartlyWrittenRecord() throws IOException {
+        // Given
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.append(bytes("a"));
+        }
+        final long validLength = Files.size(path);
+        Files.write(path, new byte[]{0, 0, 0, 10, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            assertEquals(validLength, log.getCommittedLength());
+            log.append(bytes("b"));
+        }
+
+        // Then
+        assertEquals(Arrays.asList("a", "b"), replay());
+    }
+
+    @Test
+    public void shouldStopReplayingAtCorruptRecord() throws IOException {
+        // Given
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.append(bytes("a"));
+            log.append(bytes("b"));
+        }
+        final byte[] contents = Files.readAllBytes(path);
+        contents[contents.length - 1] ^= 1;
+        Files.write(path, contents);
+
+        // When
+        final List<String> records = replay();
+
+        // Then
+        assertEquals(Collections.singletonList("a"), records);
+    }
+
+    @Test
+    public void shouldCommitConcurrentAppendsTogether() throws IOException {
+        // Given
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        final long commits;
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            // When
+            for (int i = 0; i < 1000; i++) {
+                futures.add(log.appendAsync(bytes(String.valueOf(i))));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            commits = log.getCommits();
+        }
+
+        // Then
+        assertTrue("Expected fewer commits than records but was " + commits, commits < 1000);
+        final List<String> records = replay();
+        assertEquals(1000, records.size());
+        assertEquals("0", records.get(0));
+        assertEquals("999", records.get(999));
+    }
+
+    @Test
+    public void shouldCommitAppendsLargerThanOneBufferTogether() throws IOException {
+        // Given
+        final byte[] record = new byte[25 * 1024 * 1024];
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            // When
+            for (int i = 0; i < 4; i++) {
+                record[0] = (byte) i;
+                futures.add(log.appendAsync(record.clone()));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        // Then
+        final List<byte[]> records = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.replay(records::add);
+        }
+        assertEquals(4, records.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(record.length, records.get(i).length);
+            assertEquals(i, records.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void shouldCompactToSnapshotAndKeepLaterAppends() throws IOException {
+        // Given
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.append(bytes("a"));
+            log.append(bytes("b"));
+
+            // When
+            log.compact(() -> Collections.singletonList(bytes("b"))).join();
+            log.append(bytes("c"));
+        }
+
+        // Then
+        assertEquals(Arrays.asList("b", "c"), replay());
+    }
+
+    @Test
+    public void shouldRejectAppendsOnceClosed() throws IOException {
+        // Given
+        final WriteAheadLog log = new WriteAheadLog(path);
+        log.close();
+
+        // When / Then
+        try {
+            log.append(bytes("a"));
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Write ahead log has been closed", e.getMessage());
+        }
+    }
+
+    private List<String> replay() throws IOException {
+        final List<String> records = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(path)) {
+            log.replay(record -> records.add(new String(record, StandardCharsets.UTF_8)));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
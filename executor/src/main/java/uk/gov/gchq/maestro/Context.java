@@ -18,19 +18,28 @@ package uk.gov.gchq.maestro;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.OperationChain;
 import uk.gov.gchq.maestro.operation.export.Exporter;
 import uk.gov.gchq.maestro.user.User;
 
+import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class Context {
+public class Context implements Closeable {
     private final User user;
     private final String jobId;
     private final Map<String, Object> config;
@@ -42,6 +51,35 @@ public class Context {
      */
     private final Map<Class<? extends Exporter>, Exporter> exporters = new HashMap<>();
 
+    /**
+     * The exporters added to this context, rather than inherited from the
+     * context it was cloned from. These are closed when this context is closed.
+     */
+    private final List<Exporter> ownedExporters = new ArrayList<>();
+
+    /**
+     * Writes to exporters which are still in progress, keyed by exporter and
+     * export key. Writes to the same exporter are chained so they run one at
+     * a time and in order.
+     */
+    private final Map<Exporter, CompletableFuture<Void>> exporterWrites = new HashMap<>();
+    private final Map<Exporter, Map<String, CompletableFuture<Void>>> pendingExports = new HashMap<>();
+
+    /**
+     * The cancellation token. The token of a cloned context is linked to the
+     * token of the context it was cloned from, so cancelling a job also
+     * cancels the requests it is running, but cancelling a clone does not
+     * cancel the context it was cloned from or its other clones.
+     */
+    private CancellationToken cancellation = new CancellationToken(null);
+
+    /**
+     * The progress counters, shared with the cloned contexts so the requests
+     * run for a job count towards its progress. Each job is given its own
+     * counters with {@link #resetProgress()}.
+     */
+    private Progress progress = new Progress();
+
     public Context() {
         this(new User());
     }
@@ -59,6 +97,8 @@ public class Context {
     public Context(final Context context) {
         this(null != context ? context.user : null, null != context ? context.config : null);
         exporters.putAll(context.exporters);
+        cancellation = new CancellationToken(context.cancellation);
+        progress = context.progress;
         if (null != context.originalOperation) {
             originalOperation = context.originalOperation.shallowClone();
         }
@@ -158,6 +198,132 @@ public class Context {
             throw new IllegalArgumentException("Exporter of type " + exporter.getClass() + " has already been registered");
         }
         exporters.put(exporter.getClass(), exporter);
+        ownedExporters.add(exporter);
+    }
+
+    /**
+     * Queues a write to an exporter, to be run in the background after any
+     * other queued writes to the same exporter.
+     *
+     * @param exporter the exporter being written to
+     * @param key      the export key being written to
+     * @param write    the write
+     * @param executor the executor to run the write on
+     */
+    public synchronized void addPendingExport(final Exporter exporter, final String key,
+                                              final Runnable write, final java.util.concurrent.Executor executor) {
+        final CompletableFuture<Void> previous = exporterWrites.getOrDefault(exporter, CompletableFuture.completedFuture(null));
+        // A failed write should only fail the reads of its own key
+        final CompletableFuture<Void> future = previous.handle((result, e) -> result).thenRunAsync(write, executor);
+        exporterWrites.put(exporter, future);
+        pendingExports.computeIfAbsent(exporter, k -> new HashMap<>())
+                .merge(key, future, CompletableFuture::allOf);
+    }
+
+    /**
+     * Waits for the queued writes to an export key to finish.
+     *
+     * @param exporterClass the class of the exporter
+     * @param key           the export key
+     * @throws OperationException if any of the writes failed
+     */
+    public void awaitPendingExports(final Class<? extends Exporter> exporterClass, final String key) throws OperationException {
+        final Exporter exporter = getExporter(exporterClass);
+        final CompletableFuture<Void> future;
+        synchronized (this) {
+            final Map<String, CompletableFuture<Void>> keyWrites = pendingExports.get(exporter);
+            future = null == keyWrites ? null : keyWrites.remove(key);
+        }
+        await(future, key);
+    }
+
+    /**
+     * Waits for all queued writes to finish.
+     *
+     * @throws OperationException if any of the writes failed
+     */
+    public void awaitPendingExports() throws OperationException {
+        final List<Map.Entry<String, CompletableFuture<Void>>> futures = new ArrayList<>();
+        synchronized (this) {
+            for (final Map<String, CompletableFuture<Void>> keyWrites : pendingExports.values()) {
+                futures.addAll(keyWrites.entrySet());
+            }
+            pendingExports.clear();
+        }
+        for (final Map.Entry<String, CompletableFuture<Void>> entry : futures) {
+            await(entry.getValue(), entry.getKey());
+        }
+    }
+
+    private static void await(final CompletableFuture<Void> future, final String key) throws OperationException {
+        if (null != future) {
+            try {
+                future.join();
+            } catch (final CompletionException e) {
+                throw new OperationException("Asynchronous export to key " + key + " failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Closes the exporters added to this context, releasing any resources
+     * they hold, such as temporary files. Exporters inherited from the context
+     * this one was cloned from are left open. Pending asynchronous exports
+     * are waited for first.
+     */
+    @Override
+    public void close() {
+        try {
+            awaitPendingExports();
+        } catch (final OperationException e) {
+            // Closing must still release the exporters if a write failed
+        }
+        for (final Exporter exporter : ownedExporters) {
+            CloseableUtil.close(exporter);
+        }
+        ownedExporters.clear();
+    }
+
+    /**
+     * Requests cancellation of the work using this context. Cancellation is
+     * cooperative: operation chains stop before their next operation, and
+     * long running handlers and iterables should call
+     * {@link #checkCancelled()} as they go.
+     */
+    public void cancel() {
+        cancellation.cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancellation.isCancelled();
+    }
+
+    /**
+     * Checks whether cancellation has been requested.
+     *
+     * @throws CancellationException if this context has been cancelled
+     */
+    public void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("The request has been cancelled");
+        }
+    }
+
+    /**
+     * Gives this context new, empty, progress counters, which the contexts
+     * cloned from it afterwards share. The work using this context is then
+     * counted separately from the context it was cloned from and from its
+     * other clones.
+     */
+    public void resetProgress() {
+        progress = new Progress();
+    }
+
+    /**
+     * @return the progress counters of the work using this context
+     */
+    public Progress getProgress() {
+        return progress;
     }
 
     public <E> E getExporter(final Class<? extends E> exporterClass) {
@@ -302,4 +468,17 @@ public class Context {
             return new Context(user, config, jobId);
         }
     }
+
+    private static final class CancellationToken {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final CancellationToken parent;
+
+        private CancellationToken(final CancellationToken parent) {
+            this.parent = parent;
+        }
+
+        private boolean isCancelled() {
+            return cancelled.get() || (null != parent && parent.isCancelled());
+        }
+    }
 }
@@ -32,11 +32,17 @@ import uk.gov.gchq.maestro.commonutil.ExecutorService;
 import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
 import uk.gov.gchq.maestro.operation.DefaultOperation;
 import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 import uk.gov.gchq.maestro.operation.handler.OperationHandler;
+import uk.gov.gchq.maestro.operation.handler.export.resultcache.ExportToResultCacheHandler;
+import uk.gov.gchq.maestro.operation.handler.job.DurableJobQueue;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
 import uk.gov.gchq.maestro.operation.impl.job.Job;
 import uk.gov.gchq.maestro.operation.validator.OperationValidation;
 import uk.gov.gchq.maestro.user.User;
@@ -58,6 +64,7 @@ public class Executor {
     @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "class")
     private Config config;
     private static final Logger LOGGER = LoggerFactory.getLogger(Executor.class);
+    private volatile boolean started;
 
     public Executor() {
         this(new Config());
@@ -69,6 +76,34 @@ public class Executor {
         addExecutorService(config.getProperties());
     }
 
+    /**
+     * Starts the executor, recovering any jobs in the durable job queue
+     * configured by {@link ExecutorProperties#JOB_QUEUE_WAL} and scheduling
+     * the removal of expired results from the result cache. This is done
+     * before the first request is executed, so only needs to be called to
+     * recover jobs without waiting for a request.
+     */
+    public void start() {
+        if (!started) {
+            synchronized (this) {
+                if (!started) {
+                    DurableJobQueue.initialise(this);
+                    scheduleRemoveExpiredResults();
+                    started = true;
+                }
+            }
+        }
+    }
+
+    private void scheduleRemoveExpiredResults() {
+        final ExecutorProperties properties = config.getProperties();
+        if (null != properties && null != ExecutorService.getTimer()
+                && config.getOperationHandler(ExportToResultCache.class) instanceof ExportToResultCacheHandler) {
+            ExportToResultCacheHandler.scheduleRemoveExpired(ExecutorService.getTimer(),
+                    properties.getResultCacheExpiryInterval());
+        }
+    }
+
     protected void startCacheServiceLoader(final ExecutorProperties properties) {
         if (null != properties) {
             CacheServiceLoader.initialise(properties.getProperties());
@@ -111,6 +146,12 @@ public class Executor {
 
     /**
      * Executes a given operation and returns the result.
+     * <p>
+     * The request runs with a clone of its context, which is closed once the
+     * result has been produced, deleting any temporary exports. If the
+     * result is a {@link CloseableIterable} it is closed when the result is
+     * closed instead, so the result should be closed once it has been read.
+     * </p>
      *
      * @param request the request to execute.
      * @param <O>     the output type of the operation
@@ -127,6 +168,7 @@ public class Executor {
             throw new IllegalArgumentException("A context is required");
         }
 
+        start();
         request.setConfig(config);
         request.getContext().setOriginalOperation(request.getOperation());
         final Request clonedRequest = request.fullClone();
@@ -152,9 +194,25 @@ public class Executor {
             }
             CloseableUtil.close(operation);
             CloseableUtil.close(result);
+            CloseableUtil.close(context);
             throw e;
         }
-        return new Result(result, clonedRequest.getContext());
+        return new Result(closeContextWhenDone(result, context), context);
+    }
+
+    // Closes the context, releasing its exporters, once the result no longer
+    // needs it. A lazy result may still read from the exporters, so the
+    // context is closed when the result is closed.
+    private static Object closeContextWhenDone(final Object result, final Context context) {
+        if (result instanceof ExportPage) {
+            final ExportPage<?> page = (ExportPage<?>) result;
+            return new ExportPage<>(new ContextClosingIterable<>(page, context), 0, null, page.getNextCursor());
+        }
+        if (result instanceof CloseableIterable) {
+            return new ContextClosingIterable<>((CloseableIterable<?>) result, context);
+        }
+        CloseableUtil.close(context);
+        return result;
     }
 
 
@@ -252,6 +310,7 @@ public class Executor {
                         LOGGER.warn("Error in operationHook " + operationHook.getClass().getSimpleName() + ": " + operationHookE.getMessage(), operationHookE);
                     }
                 }
+                throw e;
             } catch (final Throwable t) {
                 throw t;
             }
@@ -296,4 +355,34 @@ public class Executor {
                 .append(config)
                 .toHashCode();
     }
+
+    /**
+     * A {@code ContextClosingIterable} closes the {@link Context} a lazy
+     * result was produced with, once the result has been closed.
+     *
+     * @param <T> the type of items in the iterable
+     */
+    private static final class ContextClosingIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> iterable;
+        private final Context context;
+
+        private ContextClosingIterable(final CloseableIterable<T> iterable, final Context context) {
+            this.iterable = iterable;
+            this.context = context;
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            return iterable.iterator();
+        }
+
+        @Override
+        public void close() {
+            try {
+                iterable.close();
+            } finally {
+                context.close();
+            }
+        }
+    }
 }
@@ -60,6 +60,26 @@ public class ExecutorProperties implements Cloneable {
     public static final String EXECUTOR_SERVICE_THREAD_COUNT = "maestro.executor.job.executor.threads";
     public static final String EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT = "50";
 
+    /**
+     * The minimum time in milliseconds between publishing the progress of a
+     * running job to the JobTracker.
+     */
+    public static final String JOB_PROGRESS_INTERVAL = "maestro.executor.job.progress.interval";
+    public static final String JOB_PROGRESS_INTERVAL_DEFAULT = "1000";
+
+    /**
+     * The path of the write ahead log file of the durable job queue. If it is
+     * not set, jobs are only queued in memory and are lost on a restart.
+     */
+    public static final String JOB_QUEUE_WAL = "maestro.executor.job.queue.wal";
+
+    /**
+     * The time in milliseconds between removing expired results from the
+     * result cache, or 0 to only remove them when they are read.
+     */
+    public static final String RESULT_CACHE_EXPIRY_INTERVAL = "maestro.executor.result.cache.expiry.interval";
+    public static final String RESULT_CACHE_EXPIRY_INTERVAL_DEFAULT = "600000";
+
     public static final String JSON_SERIALISER_CLASS = JSONSerialiser.JSON_SERIALISER_CLASS_KEY;
     public static final String JSON_SERIALISER_MODULES = JSONSerialiser.JSON_SERIALISER_MODULES;
     public static final String STRICT_JSON = JSONSerialiser.STRICT_JSON;
@@ -247,6 +267,30 @@ public class ExecutorProperties implements Cloneable {
         return Integer.parseInt(get(EXECUTOR_SERVICE_THREAD_COUNT, EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT));
     }
 
+    public Long getJobProgressInterval() {
+        return Long.parseLong(get(JOB_PROGRESS_INTERVAL, JOB_PROGRESS_INTERVAL_DEFAULT));
+    }
+
+    public void setJobProgressInterval(final long interval) {
+        set(JOB_PROGRESS_INTERVAL, String.valueOf(interval));
+    }
+
+    public String getJobQueueWal() {
+        return get(JOB_QUEUE_WAL);
+    }
+
+    public void setJobQueueWal(final String path) {
+        set(JOB_QUEUE_WAL, path);
+    }
+
+    public Long getResultCacheExpiryInterval() {
+        return Long.parseLong(get(RESULT_CACHE_EXPIRY_INTERVAL, RESULT_CACHE_EXPIRY_INTERVAL_DEFAULT));
+    }
+
+    public void setResultCacheExpiryInterval(final long interval) {
+        set(RESULT_CACHE_EXPIRY_INTERVAL, String.valueOf(interval));
+    }
+
     public void addOperationDeclarationPaths(final String... newPaths) {
         final String newPathsCsv = StringUtils.join(newPaths, ",");
         String combinedPaths = getOperationDeclarationPaths();
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code Progress} holds named counters showing how far along a job is,
+ * such as the number of records processed. It is shared by a
+ * {@link Context} and the contexts cloned from it, and each job run is given
+ * its own with {@link Context#resetProgress()}.
+ * <p>
+ * Updating a counter is a map lookup and an atomic add, so handlers and
+ * iterables can update counters as they go. For tight loops the counter
+ * itself can be fetched once with {@link #getCounter(String)}. The counters
+ * of a running job are published to the JobTracker periodically, rather
+ * than on every update.
+ * </p>
+ */
+public final class Progress {
+    /**
+     * The number of records processed.
+     */
+    public static final String RECORDS = "records";
+
+    /**
+     * The number of bytes read, such as from file exports.
+     */
+    public static final String BYTES = "bytes";
+
+    /**
+     * The index of the operation being run in the operation chain.
+     */
+    public static final String OPERATION_INDEX = "operationIndex";
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public AtomicLong getCounter(final String name) {
+        if (null == name) {
+            throw new IllegalArgumentException("Counter name is required");
+        }
+        return counters.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    public void increment(final String name) {
+        getCounter(name).incrementAndGet();
+    }
+
+    public void add(final String name, final long delta) {
+        getCounter(name).addAndGet(delta);
+    }
+
+    public void set(final String name, final long value) {
+        getCounter(name).set(value);
+    }
+
+    public long get(final String name) {
+        final AtomicLong counter = counters.get(name);
+        return null == counter ? 0 : counter.get();
+    }
+
+    /**
+     * @return a copy of the current counter values, sorted by name
+     */
+    public Map<String, Long> snapshot() {
+        final Map<String, Long> snapshot = new TreeMap<>();
+        for (final Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+}
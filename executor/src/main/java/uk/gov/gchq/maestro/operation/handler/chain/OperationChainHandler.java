@@ -18,6 +18,7 @@ package uk.gov.gchq.maestro.operation.handler.chain;
 import uk.gov.gchq.koryphe.ValidationResult;
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.Progress;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.OperationChain;
@@ -47,7 +48,10 @@ public class OperationChainHandler<OUT> implements OutputOperationHandler<Operat
     public OUT doOperation(final OperationChain<OUT> operationChain,
                            final Context context, final Executor executor) throws OperationException {
         Object result = null;
+        int index = 0;
         for (final Operation op : operationChain.getOperations()) {
+            context.checkCancelled();
+            context.getProgress().set(Progress.OPERATION_INDEX, index++);
             updateOperationInput(op, result);
             result = executor.execute(op, context);
         }
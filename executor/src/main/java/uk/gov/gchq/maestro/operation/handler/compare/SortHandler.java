@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.handler.compare;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.collection.ExternalSorter;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.maestro.operation.impl.compare.Sort;
+
+/**
+ * A {@code SortHandler} handles {@link Sort} operations using an
+ * {@link ExternalSorter}, so inputs larger than the configured number of
+ * in memory items are spilled to disk in sorted runs and merged lazily.
+ */
+public class SortHandler<T> implements OutputOperationHandler<Sort<T>, Iterable<? extends T>> {
+    @Override
+    public Iterable<? extends T> doOperation(final Sort<T> operation, final Context context, final Executor executor) throws OperationException {
+        if (null == operation.getInput()) {
+            return null;
+        }
+        if (null == operation.getComparator()) {
+            throw new OperationException("A comparator is required to sort the input");
+        }
+
+        final ToBytesSerialiser<T> serialiser = null != operation.getSerialiser() ? operation.getSerialiser() : (ToBytesSerialiser) new JavaSerialiser();
+        final int maxItemsInMemory = null != operation.getMaxItemsInMemory() ? operation.getMaxItemsInMemory() : ExternalSorter.DEFAULT_MAX_ITEMS_IN_MEMORY;
+        try {
+            return new ExternalSorter<T>(operation.getComparator(), serialiser, maxItemsInMemory).sort(operation.getInput());
+        } catch (final IllegalArgumentException e) {
+            throw new OperationException("Unable to sort input: " + e.getMessage(), e);
+        }
+    }
+}
@@ -18,29 +18,145 @@ package uk.gov.gchq.maestro.operation.handler.export;
 
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.iterable.BatchCloseableIterator;
+import uk.gov.gchq.maestro.commonutil.iterable.TeeCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.TransformIterable;
 import uk.gov.gchq.maestro.operation.export.ExportTo;
 import uk.gov.gchq.maestro.operation.export.Exporter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * Abstract class describing how to handle {@link ExportTo} operations.
+ * When the {@link ExportTo#STREAMING_OPTION} option is set an iterable input
+ * is wrapped in a {@link TeeCloseableIterable}, which exports the elements in
+ * batches as they are consumed. When the {@link ExportTo#WRITE_BEHIND_OPTION}
+ * option is set the input is returned straight away and exported in batches
+ * by a background writer on the executor's {@link ExecutorService}, or on
+ * the calling thread if it has none; the write is registered with the {@link Context}
+ * so reads of the export can wait for it. As the input is then iterated
+ * twice, an iterable which is not a {@link Collection} is read into memory
+ * first, so a source which can only be iterated once is only read once. The number of records exported
+ * is counted in the {@link Progress#RECORDS} counter of the context.
  *
  * @param <EXPORT>   the {@link ExportTo} operation
  * @param <EXPORTER> the {@link Exporter} instance
  */
 public abstract class ExportToHandler<EXPORT extends ExportTo, EXPORTER extends Exporter> extends ExportOperationHandler<EXPORT, EXPORTER> {
+    private static final int BATCH_SIZE = 1000;
+
     @Override
     public Object doOperation(final EXPORT operation,
                               final Context context,
                               final Executor executor,
                               final EXPORTER exporter)
             throws OperationException {
-        final Iterable<?> inputItr = wrapInIterable(operation.getInput());
-        exporter.add(operation.getKeyOrDefault(), inputItr);
-        return operation.getInput();
+        final Object input = operation.getInput();
+        if (input instanceof Iterable && operation.isStreaming()) {
+            return new TeeCloseableIterable<>((Iterable<Object>) input,
+                    batch -> addBatch(operation, exporter, batch, context),
+                    TeeCloseableIterable.DEFAULT_BATCH_SIZE, operation.isAsync() ? getWriteExecutor(executor) : null);
+        }
+
+        if (operation.isWriteBehind()) {
+            final Object output = input instanceof Iterable && !(input instanceof Collection)
+                    ? materialise((Iterable<?>) input) : input;
+            final Iterable<?> results = wrapInIterable(output);
+            context.addPendingExport(exporter, operation.getKeyOrDefault(),
+                    () -> addInBatches(operation, exporter, results, context), getWriteBehindExecutor(executor));
+            return output;
+        }
+
+        final Iterable<?> results = wrapInIterable(input);
+        if (results instanceof Collection) {
+            add(operation, exporter, results);
+            context.getProgress().add(Progress.RECORDS, ((Collection) results).size());
+        } else {
+            add(operation, exporter, countRecords(results, context));
+        }
+        return input;
+    }
+
+    /**
+     * Adds the results to the exporter.
+     *
+     * @param operation the export operation
+     * @param exporter  the exporter
+     * @param results   the results to add
+     * @throws OperationException if the results could not be added
+     */
+    protected void add(final EXPORT operation, final EXPORTER exporter, final Iterable<?> results) throws OperationException {
+        exporter.add(operation.getKeyOrDefault(), results);
+    }
+
+    private void addBatch(final EXPORT operation, final EXPORTER exporter, final List<Object> batch, final Context context) {
+        try {
+            add(operation, exporter, batch);
+            context.getProgress().add(Progress.RECORDS, batch.size());
+        } catch (final OperationException e) {
+            throw new RuntimeException("Unable to export results: " + e.getMessage(), e);
+        }
+    }
+
+    private void addInBatches(final EXPORT operation, final EXPORTER exporter, final Iterable<?> results, final Context context) {
+        try (BatchCloseableIterator<?> itr = BatchCloseableIterator.wrap(results.iterator())) {
+            List<Object> batch = new ArrayList<>(BATCH_SIZE);
+            while (0 < itr.nextBatch(batch, BATCH_SIZE)) {
+                addBatch(operation, exporter, batch, context);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+
+    // Counts the records as the exporter reads them, as the number is not known up front
+    private static Iterable<?> countRecords(final Iterable<?> results, final Context context) {
+        return new TransformIterable<Object, Object>(results) {
+            @Override
+            protected Object transform(final Object item) {
+                context.getProgress().increment(Progress.RECORDS);
+                return item;
+            }
+        };
+    }
+
+    private static List<Object> materialise(final Iterable<?> input) {
+        final List<Object> items = new ArrayList<>();
+        try {
+            final Iterator<?> itr = input.iterator();
+            try {
+                while (itr.hasNext()) {
+                    items.add(itr.next());
+                }
+            } finally {
+                CloseableUtil.close(itr);
+            }
+        } finally {
+            CloseableUtil.close(input);
+        }
+        return items;
+    }
+
+    // The writes share the executor's bounded pool, or run on the calling
+    // thread if there is no pool, rather than starting threads of their own
+    private static java.util.concurrent.Executor getWriteExecutor(final Executor executor) {
+        if (null != executor && null != executor.getExecutorService()) {
+            return executor.getExecutorService();
+        }
+        return ExecutorService.getService();
+    }
+
+    private static java.util.concurrent.Executor getWriteBehindExecutor(final Executor executor) {
+        final java.util.concurrent.Executor writeExecutor = getWriteExecutor(executor);
+        return null != writeExecutor ? writeExecutor : Runnable::run;
     }
 
     private Iterable<?> wrapInIterable(final Object input) {
@@ -18,14 +18,20 @@ package uk.gov.gchq.maestro.operation.handler.export;
 
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.Progress;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.TransformIterable;
 import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 import uk.gov.gchq.maestro.operation.export.Exporter;
 import uk.gov.gchq.maestro.operation.export.GetExport;
 
 /**
  * Abstract class describing how to handle {@link GetExport} operations.
+ * Any asynchronous writes to the export key are waited for before it is read.
+ * Each record read from the export is counted in the {@link Progress#RECORDS}
+ * counter of the context as it is iterated.
  *
  * @param <EXPORT>   the {@link GetExport} operation
  * @param <EXPORTER> the {@link Exporter} instance
@@ -37,10 +43,29 @@ public abstract class GetExportHandler<EXPORT extends GetExport & Operation, EXP
                                             final Executor executor,
                                             final EXPORTER exporter)
             throws OperationException {
-        return getExport(operation, exporter);
+        context.awaitPendingExports(getExporterClass(), operation.getKeyOrDefault());
+        return countRecords(getExport(operation, exporter), context);
     }
 
     protected CloseableIterable<?> getExport(final EXPORT export, final EXPORTER exporter) throws OperationException {
         return exporter.get(export.getKeyOrDefault());
     }
+
+    // A page keeps its cursor, so the following page can still be requested
+    private static CloseableIterable<?> countRecords(final CloseableIterable<?> export, final Context context) {
+        if (null == export) {
+            return null;
+        }
+        final CloseableIterable<?> counted = new TransformIterable<Object, Object>(export) {
+            @Override
+            protected Object transform(final Object item) {
+                context.getProgress().increment(Progress.RECORDS);
+                return item;
+            }
+        };
+        if (export instanceof ExportPage) {
+            return new ExportPage<>(counted, 0, null, ((ExportPage<?>) export).getNextCursor());
+        }
+        return counted;
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.export.file;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.operation.handler.export.ExportToHandler;
+import uk.gov.gchq.maestro.operation.impl.export.file.ExportToFile;
+import uk.gov.gchq.maestro.operation.impl.export.file.FileExporter;
+
+/**
+ * Implementation of the {@link ExportToHandler} abstract class to export objects
+ * to a temporary file via a {@link FileExporter}.
+ */
+public class ExportToFileHandler extends ExportToHandler<ExportToFile, FileExporter> {
+    private String directory;
+
+    /**
+     * @return the directory export files are written to, or null to use the
+     * default temporary directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected Class<FileExporter> getExporterClass() {
+        return FileExporter.class;
+    }
+
+    @Override
+    protected FileExporter createExporter(final ExportToFile export,
+                                          final Context context,
+                                          final Executor executor) {
+        final FileExporter exporter = new FileExporter(directory);
+        exporter.setBytesRead(bytes -> context.getProgress().add(Progress.BYTES, bytes));
+        return exporter;
+    }
+}
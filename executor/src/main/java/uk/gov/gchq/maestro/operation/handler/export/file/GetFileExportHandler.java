@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.export.file;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.handler.export.GetExportHandler;
+import uk.gov.gchq.maestro.operation.impl.export.file.FileExporter;
+import uk.gov.gchq.maestro.operation.impl.export.file.GetFileExport;
+
+/**
+ * Implementation of the {@link GetExportHandler} to retrieve exported created by
+ * a {@link FileExporter}. The bytes read from the export file are counted
+ * in the {@link Progress#BYTES} counter of the context.
+ */
+public class GetFileExportHandler extends GetExportHandler<GetFileExport, FileExporter> {
+    private String directory;
+
+    /**
+     * @return the directory export files are written to, or null to use the
+     * default temporary directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected CloseableIterable<?> getExport(final GetFileExport export, final FileExporter exporter) throws OperationException {
+        final String key = export.getKeyOrDefault();
+        if (null == export.getCursor()) {
+            return exporter.get(key, export.getStart(), export.getEnd());
+        }
+
+        final int start;
+        try {
+            start = Math.toIntExact(ExportCursor.decode(export.getCursor(), key));
+        } catch (final IllegalArgumentException | ArithmeticException e) {
+            throw new OperationException("Unable to read export cursor: " + e.getMessage(), e);
+        }
+        final Integer end = null == export.getEnd() ? null : start + export.getEnd() - export.getStart();
+        return exporter.get(key, start, end);
+    }
+
+    @Override
+    protected Class<FileExporter> getExporterClass() {
+        return FileExporter.class;
+    }
+
+    @Override
+    public FileExporter createExporter(final GetFileExport export,
+                                       final Context context,
+                                       final Executor executor) {
+        final FileExporter exporter = new FileExporter(directory);
+        exporter.setBytesRead(bytes -> context.getProgress().add(Progress.BYTES, bytes));
+        return exporter;
+    }
+}
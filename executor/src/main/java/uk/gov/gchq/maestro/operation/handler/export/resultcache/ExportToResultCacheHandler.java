@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.export.resultcache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.handler.export.ExportToHandler;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link ExportToHandler} abstract class to export objects
+ * to the result cache via a {@link ResultCacheExporter}.
+ * <p>
+ * Expired results are only removed when they are read, so the executor also
+ * removes them periodically with {@link #scheduleRemoveExpired(HashedWheelTimer, long)}.
+ * </p>
+ */
+public class ExportToResultCacheHandler extends ExportToHandler<ExportToResultCache, ResultCacheExporter> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportToResultCacheHandler.class);
+    private static final Object REMOVAL_LOCK = new Object();
+    private static HashedWheelTimer.Timeout removal;
+    private static long removalGeneration;
+
+    private Integer chunkSize;
+    private Long timeToLive;
+
+    /**
+     * @return the number of elements stored in each cache entry, or null to
+     * use {@link ResultCacheExporter#DEFAULT_CHUNK_SIZE}
+     */
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the time in milliseconds results are kept for, or null to use
+     * {@link ResultCacheExporter#DEFAULT_TIME_TO_LIVE}
+     */
+    public Long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(final Long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    protected void add(final ExportToResultCache export,
+                       final ResultCacheExporter exporter,
+                       final Iterable<?> results)
+            throws OperationException {
+        exporter.add(export.getKeyOrDefault(), results, export.getOpAuths());
+    }
+
+    @Override
+    protected Class<ResultCacheExporter> getExporterClass() {
+        return ResultCacheExporter.class;
+    }
+
+    @Override
+    protected ResultCacheExporter createExporter(final ExportToResultCache export,
+                                                 final Context context,
+                                                 final Executor executor) {
+        return createExporter(context, chunkSize, timeToLive);
+    }
+
+    /**
+     * Creates an exporter for the results of the work using a context, with
+     * this handler's settings. The exporter keeps the job ID of the context,
+     * so it can be added to a context which will be cloned, such as the
+     * context of a job.
+     *
+     * @param context the context
+     * @return the exporter
+     */
+    public ResultCacheExporter createExporter(final Context context) {
+        return createExporter(context, chunkSize, timeToLive);
+    }
+
+    static ResultCacheExporter createExporter(final Context context, final Integer chunkSize, final Long timeToLive) {
+        return new ResultCacheExporter(context.getJobId(), context.getUser(),
+                null == chunkSize ? ResultCacheExporter.DEFAULT_CHUNK_SIZE : chunkSize,
+                null == timeToLive ? ResultCacheExporter.DEFAULT_TIME_TO_LIVE : timeToLive,
+                new JavaSerialiser());
+    }
+
+    /**
+     * Removes expired results from the result cache periodically, so results
+     * which are never read again do not stay in the cache. Only one removal
+     * is scheduled per JVM, so calling this again replaces the previous one.
+     *
+     * @param timer    the timer to run the removals on
+     * @param interval the time in milliseconds between removals, or 0 to stop removing expired results
+     */
+    public static void scheduleRemoveExpired(final HashedWheelTimer timer, final long interval) {
+        synchronized (REMOVAL_LOCK) {
+            if (null != removal) {
+                removal.cancel();
+                removal = null;
+            }
+            removalGeneration++;
+            if (interval > 0) {
+                scheduleRemoval(timer, interval, removalGeneration);
+            }
+        }
+    }
+
+    // Each removal schedules the next, until it is replaced or the timer is stopped
+    private static void scheduleRemoval(final HashedWheelTimer timer, final long interval, final long generation) {
+        if (generation != removalGeneration || timer.isStopped()) {
+            return;
+        }
+        removal = timer.newTimeout(() -> {
+            try {
+                ResultCacheExporter.removeExpired();
+            } catch (final OperationException | RuntimeException e) {
+                LOGGER.warn("Unable to remove expired results from the result cache: {}", e.getMessage());
+            }
+            synchronized (REMOVAL_LOCK) {
+                scheduleRemoval(timer, interval, generation);
+            }
+        }, interval, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.export.resultcache;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.operation.handler.export.GetExportHandler;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
+
+/**
+ * Implementation of the {@link GetExportHandler} to retrieve results exported
+ * by a {@link ResultCacheExporter}. Only the requested range is read from the
+ * cache.
+ */
+public class GetResultCacheExportHandler extends GetExportHandler<GetResultCacheExport, ResultCacheExporter> {
+    @Override
+    protected CloseableIterable<?> getExport(final GetResultCacheExport export, final ResultCacheExporter exporter) throws OperationException {
+        final String jobId = null == export.getJobId() ? exporter.getJobId() : export.getJobId();
+        return exporter.get(jobId, export.getKeyOrDefault(), export.getStart(), export.getEnd());
+    }
+
+    @Override
+    protected Class<ResultCacheExporter> getExporterClass() {
+        return ResultCacheExporter.class;
+    }
+
+    @Override
+    protected ResultCacheExporter createExporter(final GetResultCacheExport export,
+                                                 final Context context,
+                                                 final Executor executor) {
+        return ExportToResultCacheHandler.createExporter(context, null, null);
+    }
+}
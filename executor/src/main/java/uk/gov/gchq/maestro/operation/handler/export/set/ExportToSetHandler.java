@@ -18,15 +18,52 @@ package uk.gov.gchq.maestro.operation.handler.export.set;
 
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.operation.handler.export.ExportToHandler;
 import uk.gov.gchq.maestro.operation.impl.export.set.ExportToSet;
 import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
 
+import static uk.gov.gchq.maestro.commonutil.exception.Status.BAD_REQUEST;
+
 /**
  * Implementation of the {@link ExportToHandler} abstract class to export objects
- * to a {@link java.util.Set} via a {@link SetExporter}.
+ * to a {@link java.util.Set} via a {@link SetExporter}. The storage of a new
+ * export is taken from the {@link ExportToSet#STORAGE_OPTION} option.
  */
 public class ExportToSetHandler extends ExportToHandler<ExportToSet, SetExporter> {
+    private Integer maxItemsInMemory;
+
+    /**
+     * @return the number of values each export may hold in memory before it is
+     * moved to disk, or null to use {@link SetExporter#DEFAULT_MAX_ITEMS_IN_MEMORY}
+     */
+    public Integer getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    public void setMaxItemsInMemory(final Integer maxItemsInMemory) {
+        this.maxItemsInMemory = maxItemsInMemory;
+    }
+
+    @Override
+    protected void add(final ExportToSet export,
+                       final SetExporter exporter,
+                       final Iterable<?> results)
+            throws OperationException {
+        final SetExporter.Storage storage;
+        try {
+            storage = export.getStorage();
+        } catch (final IllegalArgumentException e) {
+            throw new OperationException("Unknown export storage: " + export.getOption(ExportToSet.STORAGE_OPTION), e, BAD_REQUEST);
+        }
+
+        try {
+            exporter.add(export.getKeyOrDefault(), results, storage);
+        } catch (final IllegalArgumentException e) {
+            throw new OperationException(e.getMessage(), e, BAD_REQUEST);
+        }
+    }
+
     @Override
     protected Class<SetExporter> getExporterClass() {
         return SetExporter.class;
@@ -36,6 +73,6 @@ public class ExportToSetHandler extends ExportToHandler<ExportToSet, SetExporter
     protected SetExporter createExporter(final ExportToSet export,
                                          final Context context,
                                          final Executor executor) {
-        return new SetExporter();
+        return null == maxItemsInMemory ? new SetExporter() : new SetExporter(maxItemsInMemory);
     }
 }
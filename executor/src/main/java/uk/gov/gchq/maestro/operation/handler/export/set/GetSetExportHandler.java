@@ -20,6 +20,7 @@ import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
 import uk.gov.gchq.maestro.operation.handler.export.GetExportHandler;
 import uk.gov.gchq.maestro.operation.impl.export.set.GetSetExport;
 import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
@@ -29,9 +30,35 @@ import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
  * a {@link SetExporter}.
  */
 public class GetSetExportHandler extends GetExportHandler<GetSetExport, SetExporter> {
+    private Integer maxItemsInMemory;
+
+    /**
+     * @return the number of values each export may hold in memory before it is
+     * moved to disk, or null to use {@link SetExporter#DEFAULT_MAX_ITEMS_IN_MEMORY}
+     */
+    public Integer getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    public void setMaxItemsInMemory(final Integer maxItemsInMemory) {
+        this.maxItemsInMemory = maxItemsInMemory;
+    }
+
     @Override
     protected CloseableIterable<?> getExport(final GetSetExport export, final SetExporter exporter) throws OperationException {
-        return exporter.get(export.getKeyOrDefault(), export.getStart(), export.getEnd());
+        final String key = export.getKeyOrDefault();
+        if (null == export.getCursor()) {
+            return exporter.get(key, export.getStart(), export.getEnd());
+        }
+
+        final int start;
+        try {
+            start = Math.toIntExact(ExportCursor.decode(export.getCursor(), key));
+        } catch (final IllegalArgumentException | ArithmeticException e) {
+            throw new OperationException("Unable to read export cursor: " + e.getMessage(), e);
+        }
+        final Integer end = null == export.getEnd() ? null : start + export.getEnd() - export.getStart();
+        return exporter.get(key, start, end);
     }
 
     @Override
@@ -43,6 +70,6 @@ public class GetSetExportHandler extends GetExportHandler<GetSetExport, SetExpor
     public SetExporter createExporter(final GetSetExport export,
                                       final Context context,
                                       final Executor executor) {
-        return new SetExporter();
+        return null == maxItemsInMemory ? new SetExporter() : new SetExporter(maxItemsInMemory);
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.operation.handler.OperationHandler;
+import uk.gov.gchq.maestro.operation.impl.job.CancelJob;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@code CancelJobHandler} cancels a job. A job running in this JVM is
+ * stopped, releasing its thread, and a scheduled job, or a job waiting to be
+ * retried, will not be run again. Only the user who submitted the job, or
+ * an admin, may cancel it.
+ */
+public class CancelJobHandler implements OperationHandler<CancelJob> {
+    @Override
+    public Void doOperation(final CancelJob operation,
+                            final Context context, final Executor executor) throws OperationException {
+        if (!JobTracker.isCacheEnabled()) {
+            throw new OperationException("JobTracker not enabled");
+        }
+        if (null == operation.getJobId()) {
+            throw new OperationException("job id must be specified");
+        }
+
+        JobHandler.checkCanCancel(operation.getJobId(), context, executor);
+        final boolean wasRunning = JobHandler.cancelJob(operation.getJobId())
+                | JobHandler.cancelScheduledJob(operation.getJobId());
+
+        final JobDetail cancelled = new JobDetail();
+        cancelled.setStatus(JobStatus.CANCELLED);
+        final AtomicBoolean wasCancelled = new AtomicBoolean();
+        JobTracker.updateJob(operation.getJobId(), current -> {
+            wasCancelled.set(JobStatus.RUNNING == current.getStatus()
+                    || JobStatus.RETRYING == current.getStatus()
+                    || JobStatus.SCHEDULED_PARENT == current.getStatus());
+            return wasCancelled.get() ? new JobDetail(current, cancelled) : current;
+        }, context.getUser());
+        if (!wasRunning && !wasCancelled.get()) {
+            throw new OperationException("Job with jobId: " + operation.getJobId() + " is not running or scheduled and cannot be cancelled.");
+        }
+        return null;
+    }
+}
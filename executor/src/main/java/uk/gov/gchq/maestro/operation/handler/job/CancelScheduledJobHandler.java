@@ -19,11 +19,14 @@ package uk.gov.gchq.maestro.operation.handler.job;
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
 import uk.gov.gchq.maestro.jobtracker.JobStatus;
 import uk.gov.gchq.maestro.jobtracker.JobTracker;
 import uk.gov.gchq.maestro.operation.handler.OperationHandler;
 import uk.gov.gchq.maestro.operation.impl.job.CancelScheduledJob;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class CancelScheduledJobHandler implements OperationHandler<CancelScheduledJob> {
     @Override
     public Void doOperation(final CancelScheduledJob operation,
@@ -35,9 +38,16 @@ public class CancelScheduledJobHandler implements OperationHandler<CancelSchedul
             throw new OperationException("job id must be specified");
         }
 
-        if (JobTracker.getJob(operation.getJobId(), context.getUser()).getStatus().equals(JobStatus.SCHEDULED_PARENT)) {
-            JobTracker.getJob(operation.getJobId(), context.getUser()).setStatus(JobStatus.CANCELLED);
-        } else {
+        JobHandler.checkCanCancel(operation.getJobId(), context, executor);
+        final JobDetail cancelled = new JobDetail();
+        cancelled.setStatus(JobStatus.CANCELLED);
+        final AtomicBoolean wasScheduled = new AtomicBoolean();
+        JobTracker.updateJob(operation.getJobId(), current -> {
+            wasScheduled.set(JobStatus.SCHEDULED_PARENT == current.getStatus());
+            return wasScheduled.get() ? new JobDetail(current, cancelled) : current;
+        }, context.getUser());
+        final boolean wasScheduledHere = JobHandler.cancelScheduledJob(operation.getJobId());
+        if (!wasScheduled.get() && !wasScheduledHere) {
             throw new OperationException("Job with jobId: " + operation.getJobId() + " is not a scheduled job and cannot be cancelled.");
         }
         return null;
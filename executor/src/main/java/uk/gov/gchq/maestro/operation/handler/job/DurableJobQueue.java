@@ -0,0 +1,316 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.commonutil.wal.WriteAheadLog;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.user.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The {@code DurableJobQueue} records the jobs run by the {@link JobHandler}
+ * in a {@link WriteAheadLog}, so they survive a restart. It is enabled by
+ * setting {@link ExecutorProperties#JOB_QUEUE_WAL} to the path of the log.
+ * <p>
+ * Submitting or scheduling a job waits until its record has been synced to
+ * disk. Records written at the same time are synced together, so the cost
+ * of the sync is shared when many jobs are submitted at once. A job starting
+ * or finishing is recorded without waiting.
+ * </p>
+ * <p>
+ * When an {@link Executor} is started it opens the log and replays it. Pending jobs are run
+ * again with their original job IDs, repeating jobs are scheduled again and
+ * jobs which were running are marked {@link uk.gov.gchq.maestro.jobtracker.JobStatus#INTERRUPTED},
+ * or retried if their retry policy allows it. A job may therefore be run more
+ * than once, so jobs should be idempotent.
+ * </p>
+ */
+public final class DurableJobQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurableJobQueue.class);
+
+    /**
+     * The fewest records written before the log is compacted.
+     */
+    static final int MIN_COMPACTION_RECORDS = 10000;
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * The latest state of each queued job, in the order they were queued.
+     */
+    private static final Map<String, QueuedJob> JOBS = new LinkedHashMap<>();
+
+    private static WriteAheadLog log;
+    private static long recordsSinceCompaction;
+
+    private DurableJobQueue() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Opens the log configured for the executor and recovers the jobs in it.
+     * Nothing is done if no log is configured or the log is already open, as
+     * its jobs are already running in this JVM. Only one log can be open in
+     * a JVM, so it must be shut down before a different log is opened.
+     *
+     * @param executor the executor to recover the jobs with
+     * @throws IllegalStateException if a different log is already open
+     */
+    public static void initialise(final Executor executor) {
+        final ExecutorProperties properties = executor.getConfig().getProperties();
+        final String walPath = null != properties ? properties.getJobQueueWal() : null;
+        if (null == walPath) {
+            return;
+        }
+
+        final Path path = Paths.get(walPath);
+        final List<QueuedJob> recovered;
+        synchronized (LOCK) {
+            if (null != log) {
+                if (log.getPath().equals(path)) {
+                    return;
+                }
+                throw new IllegalStateException("The durable job queue " + log.getPath()
+                        + " is already open, so " + path + " cannot be opened");
+            }
+
+            try {
+                log = new WriteAheadLog(path);
+                log.replay(DurableJobQueue::replay);
+            } catch (final IOException e) {
+                shutdown();
+                throw new IllegalArgumentException("Unable to open the durable job queue: " + path, e);
+            }
+            recovered = new ArrayList<>(JOBS.values());
+            compact();
+        }
+
+        LOGGER.info("Recovering {} jobs from the durable job queue {}", recovered.size(), walPath);
+        final JobHandler handler = new JobHandler();
+        for (final QueuedJob queuedJob : recovered) {
+            try {
+                handler.recover(queuedJob, executor);
+            } catch (final Exception e) {
+                LOGGER.error("Failed to recover job {} from the durable job queue", queuedJob.getJobId(), e);
+                removed(queuedJob.getJobId());
+            }
+        }
+    }
+
+    /**
+     * Closes the log, once the records already written have been synced.
+     */
+    public static void shutdown() {
+        synchronized (LOCK) {
+            if (null != log) {
+                log.close();
+                log = null;
+            }
+            JOBS.clear();
+            recordsSinceCompaction = 0;
+        }
+    }
+
+    public static boolean isEnabled() {
+        synchronized (LOCK) {
+            return null != log;
+        }
+    }
+
+    /**
+     * Records a job which has been submitted, or is about to be retried,
+     * and waits until the record is durable.
+     *
+     * @param jobDetail the job
+     * @param user      the user running the job
+     * @param attempt   the attempt which will run next
+     * @throws OperationException if the job could not be recorded
+     */
+    static void submitted(final JobDetail jobDetail, final User user, final int attempt) throws OperationException {
+        if (!isEnabled()) {
+            return;
+        }
+        final QueuedJob queuedJob = newQueuedJob(jobDetail, user, QueuedJob.State.PENDING);
+        queuedJob.setAttempt(attempt);
+        await(write(queuedJob), jobDetail.getJobId());
+    }
+
+    /**
+     * Records the parent of a repeating job and waits until the record is
+     * durable.
+     *
+     * @param jobDetail the parent job
+     * @param user      the user running the job
+     * @throws OperationException if the job could not be recorded
+     */
+    static void scheduled(final JobDetail jobDetail, final User user) throws OperationException {
+        if (!isEnabled()) {
+            return;
+        }
+        final QueuedJob queuedJob = newQueuedJob(jobDetail, user, QueuedJob.State.SCHEDULED);
+        queuedJob.setRepeat(jobDetail.getRepeat());
+        await(write(queuedJob), jobDetail.getJobId());
+    }
+
+    static void rescheduled(final String jobId, final long nextRunTime) {
+        final QueuedJob queuedJob = new QueuedJob(jobId, QueuedJob.State.SCHEDULED);
+        queuedJob.setNextRunTime(nextRunTime);
+        writeAsync(queuedJob);
+    }
+
+    static void started(final String jobId) {
+        writeAsync(new QueuedJob(jobId, QueuedJob.State.RUNNING));
+    }
+
+    static void retrying(final String jobId, final int attempt) {
+        final QueuedJob queuedJob = new QueuedJob(jobId, QueuedJob.State.PENDING);
+        queuedJob.setAttempt(attempt);
+        writeAsync(queuedJob);
+    }
+
+    static void finished(final String jobId) {
+        writeAsync(new QueuedJob(jobId, QueuedJob.State.DONE));
+    }
+
+    /**
+     * Removes a cancelled job from the queue, waiting until the record is
+     * durable so the job is not recovered after a restart.
+     *
+     * @param jobId the ID of the job
+     */
+    static void removed(final String jobId) {
+        try {
+            await(write(new QueuedJob(jobId, QueuedJob.State.DONE)), jobId);
+        } catch (final OperationException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    private static QueuedJob newQueuedJob(final JobDetail jobDetail, final User user, final QueuedJob.State state) {
+        final QueuedJob queuedJob = new QueuedJob(jobDetail.getJobId(), state);
+        queuedJob.setParentJobId(jobDetail.getParentJobId());
+        queuedJob.setOperation(jobDetail.getOperation());
+        queuedJob.setRetryPolicy(jobDetail.getRetryPolicy());
+        queuedJob.setUser(user);
+        return queuedJob;
+    }
+
+    private static void writeAsync(final QueuedJob queuedJob) {
+        final CompletableFuture<Void> future = write(queuedJob);
+        if (null != future) {
+            future.whenComplete((result, e) -> {
+                if (null != e) {
+                    LOGGER.warn("Failed to record job {} in the durable job queue", queuedJob.getJobId(), e);
+                }
+            });
+        }
+    }
+
+    // The queue is updated and the record appended under the lock, so the
+    // records are written in the order the queue changed
+    private static CompletableFuture<Void> write(final QueuedJob queuedJob) {
+        synchronized (LOCK) {
+            if (null == log || (null == queuedJob.getOperation() && !JOBS.containsKey(queuedJob.getJobId()))) {
+                return null;
+            }
+
+            final byte[] record;
+            try {
+                record = JSONSerialiser.serialise(queuedJob);
+            } catch (final SerialisationException e) {
+                final CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+            apply(queuedJob);
+            final CompletableFuture<Void> future = log.appendAsync(record);
+            if (++recordsSinceCompaction > Math.max(MIN_COMPACTION_RECORDS, 2L * JOBS.size())) {
+                compact();
+            }
+            return future;
+        }
+    }
+
+    private static void replay(final byte[] record) {
+        try {
+            apply(JSONSerialiser.deserialise(record, QueuedJob.class));
+        } catch (final SerialisationException e) {
+            LOGGER.warn("Skipping unreadable record in the durable job queue", e);
+        }
+    }
+
+    private static void apply(final QueuedJob queuedJob) {
+        final QueuedJob current = JOBS.get(queuedJob.getJobId());
+        if (QueuedJob.State.DONE == queuedJob.getState()) {
+            JOBS.remove(queuedJob.getJobId());
+        } else if (null != current) {
+            current.merge(queuedJob);
+        } else if (null != queuedJob.getOperation()) {
+            final QueuedJob copy = new QueuedJob();
+            copy.merge(queuedJob);
+            copy.setJobId(queuedJob.getJobId());
+            JOBS.put(copy.getJobId(), copy);
+        }
+    }
+
+    // The snapshot is taken now, as the records appended after this call
+    // are written to the compacted log after it
+    private static void compact() {
+        final List<byte[]> snapshot = new ArrayList<>(JOBS.size());
+        for (final QueuedJob queuedJob : JOBS.values()) {
+            try {
+                snapshot.add(JSONSerialiser.serialise(queuedJob));
+            } catch (final SerialisationException e) {
+                LOGGER.warn("Dropping job {} from the durable job queue, as it could not be serialised", queuedJob.getJobId(), e);
+            }
+        }
+        recordsSinceCompaction = snapshot.size();
+        log.compact(() -> snapshot).whenComplete((result, e) -> {
+            if (null != e) {
+                LOGGER.warn("Failed to compact the durable job queue", e);
+            }
+        });
+    }
+
+    private static void await(final CompletableFuture<Void> future, final String jobId) throws OperationException {
+        if (null == future) {
+            return;
+        }
+        try {
+            future.join();
+        } catch (final CompletionException e) {
+            throw new OperationException("Failed to record job " + jobId + " in the durable job queue", e.getCause());
+        }
+    }
+}
@@ -20,16 +20,25 @@ import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.TransformIterable;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobFilter;
 import uk.gov.gchq.maestro.jobtracker.JobTracker;
 import uk.gov.gchq.maestro.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.maestro.operation.impl.job.GetAllJobDetails;
 
+import java.util.List;
+
+import static uk.gov.gchq.maestro.commonutil.exception.Status.BAD_REQUEST;
 import static uk.gov.gchq.maestro.commonutil.exception.Status.SERVICE_UNAVAILABLE;
 
 /**
  * A {@code GetAllJobDetailsHandler} handles {@link GetAllJobDetails} operations
- * by querying the configured store's job tracker for all job information.
+ * by querying the configured store's job tracker for the jobs matching the
+ * operation's filters, which are looked up in the job tracker's indexes.
+ * The jobs are streamed lazily from the job tracker, limited to the requested
+ * page and projected onto the requested fields.
  */
 public class GetAllJobDetailsHandler implements OutputOperationHandler<GetAllJobDetails, CloseableIterable<JobDetail>> {
     @Override
@@ -37,6 +46,42 @@ public class GetAllJobDetailsHandler implements OutputOperationHandler<GetAllJob
         if (!JobTracker.isCacheEnabled()) {
             throw new OperationException("The Job Tracker has not been configured", SERVICE_UNAVAILABLE);
         }
-        return JobTracker.getAllJobs(context.getUser());
+        final JobFilter filter = new JobFilter.Builder()
+                .userId(operation.getUserId())
+                .status(operation.getStatus())
+                .parentJobId(operation.getParentJobId())
+                .startedAfter(operation.getStartedAfter())
+                .startedBefore(operation.getStartedBefore())
+                .build();
+
+        CloseableIterable<JobDetail> jobs;
+        try {
+            jobs = JobTracker.getJobs(filter, operation.getOrder(), operation.getCursor(), context.getUser());
+        } catch (final IllegalArgumentException e) {
+            throw new OperationException(e.getMessage(), e, BAD_REQUEST);
+        }
+
+        if (null != operation.getPageSize()) {
+            if (operation.getPageSize() < 0) {
+                throw new OperationException("pageSize must not be negative", BAD_REQUEST);
+            }
+            jobs = new LimitedCloseableIterable<>(jobs, 0, operation.getPageSize());
+        }
+
+        final List<String> fields = operation.getFields();
+        if (null != fields) {
+            try {
+                new JobDetail().project(fields);
+            } catch (final IllegalArgumentException e) {
+                throw new OperationException(e.getMessage(), e, BAD_REQUEST);
+            }
+            jobs = new TransformIterable<JobDetail, JobDetail>(jobs) {
+                @Override
+                protected JobDetail transform(final JobDetail jobDetail) {
+                    return jobDetail.project(fields);
+                }
+            };
+        }
+        return jobs;
     }
 }
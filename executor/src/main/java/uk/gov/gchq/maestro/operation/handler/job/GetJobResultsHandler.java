@@ -21,28 +21,61 @@ import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
 import uk.gov.gchq.maestro.operation.OperationChain;
 import uk.gov.gchq.maestro.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheEntry;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
 import uk.gov.gchq.maestro.operation.impl.job.GetJobResults;
+import uk.gov.gchq.maestro.operation.impl.job.JobResults;
 
 /**
  * A {@code GetJobResultsHandler} handles {@link GetJobResults} operations by querying
  * the configured store's job tracker for the required job results.
+ * <p>
+ * The results of a running job are those published so far. The job status
+ * is read before the results, so if the job has finished all of its
+ * results are returned.
+ * </p>
  */
-public class GetJobResultsHandler implements OutputOperationHandler<GetJobResults, CloseableIterable<?>> {
+public class GetJobResultsHandler implements OutputOperationHandler<GetJobResults, JobResults<?>> {
     @Override
-    public CloseableIterable<?> doOperation(final GetJobResults operation,
-                                            final Context context,
-                                            final Executor executor) throws OperationException {
+    public JobResults<?> doOperation(final GetJobResults operation,
+                                     final Context context,
+                                     final Executor executor) throws OperationException {
         if (!executor.isSupported(GetResultCacheExport.class)) {
             throw new OperationException("Getting job results is not supported as the " + GetResultCacheExport.class.getSimpleName() + " operation has not been configured for this Maestro instance.");
         }
 
+        final String jobId = null == operation.getJobId() ? context.getJobId() : operation.getJobId();
+        final boolean finished = isFinished(jobId, context);
+
+        // Only return the results available now, so they match the cursor
+        final ResultCacheEntry entry = new ResultCacheExporter(jobId, context.getUser())
+                .getEntry(jobId, operation.getKeyOrDefault());
+        final long available = null == entry ? 0 : entry.getElementCount();
+        final long cursor = Math.max(operation.getStart(),
+                null == operation.getEnd() ? available : Math.min(operation.getEnd(), available));
+
         // Delegates the operation to the GetResultCacheExport operation handler.
-        return executor.execute(new OperationChain<>(new GetResultCacheExport.Builder()
-                .jobId(operation.getJobId())
+        final CloseableIterable<?> results = executor.execute(new OperationChain<>(new GetResultCacheExport.Builder()
+                .jobId(jobId)
                 .key(operation.getKeyOrDefault())
+                .start(operation.getStart())
+                .end((int) cursor)
                 .build()), context);
+        return new JobResults<>(results, cursor, finished);
+    }
+
+    private static boolean isFinished(final String jobId, final Context context) {
+        if (!JobTracker.isCacheEnabled()) {
+            return true;
+        }
+        final JobDetail jobDetail = JobTracker.getJob(jobId, context.getUser());
+        return null == jobDetail
+                || (JobStatus.RUNNING != jobDetail.getStatus() && JobStatus.RETRYING != jobDetail.getStatus());
     }
 }
@@ -17,39 +17,96 @@ package uk.gov.gchq.maestro.operation.handler.job;
 
 import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
 import uk.gov.gchq.maestro.commonutil.ExecutorService;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.jobtracker.DeadLetterStore;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
 import uk.gov.gchq.maestro.jobtracker.JobStatus;
 import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.OperationChain;
 import uk.gov.gchq.maestro.operation.Operations;
+import uk.gov.gchq.maestro.operation.handler.OperationHandler;
 import uk.gov.gchq.maestro.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.maestro.operation.handler.export.resultcache.ExportToResultCacheHandler;
 import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
 import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Request;
+import uk.gov.gchq.maestro.util.Result;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static uk.gov.gchq.maestro.commonutil.exception.Status.BAD_REQUEST;
+import static uk.gov.gchq.maestro.commonutil.exception.Status.FORBIDDEN;
+
+/**
+ * A {@code JobHandler} runs a {@link Job} asynchronously, or schedules it if
+ * it repeats, and records its progress in the {@link JobTracker}.
+ * <p>
+ * A job with a {@link RetryPolicy} is run again after a backoff when it
+ * fails with a retryable exception, until it succeeds or uses up its
+ * attempts. While it waits to be retried its status is
+ * {@link JobStatus#RETRYING}. A job which still fails is added to the
+ * {@link DeadLetterStore}, from where it can be requeued.
+ * </p>
+ * <p>
+ * If the {@link DurableJobQueue} is enabled, jobs are recorded in it so they
+ * can be recovered after a restart.
+ * </p>
+ */
 public class JobHandler implements OutputOperationHandler<Job, JobDetail> {
+    /**
+     * The jobs running in this JVM, keyed by job ID, so they can be cancelled.
+     */
+    private static final Map<String, RunningJob> RUNNING_JOBS = new ConcurrentHashMap<>();
+
+    /**
+     * The repeating jobs scheduled in this JVM, keyed by parent job ID.
+     */
+    private static final Map<String, ScheduledJob> SCHEDULED_JOBS = new ConcurrentHashMap<>();
+
     @Override
     public JobDetail doOperation(final Job operation, final Context context,
                                  final Executor executor) throws OperationException {
-        JobDetail jobDetail = addOrUpdateJobDetail(operation.getOpAsOperation(), context, null, JobStatus.RUNNING);
+        validateRetryPolicy(operation.getRetryPolicy());
+        final JobDetail jobDetail = newJobDetail(operation.getOpAsOperation(), context, null, null, JobStatus.RUNNING);
         jobDetail.setRepeat(operation.getRepeat());
+        if (null == operation.getRepeat()) {
+            setRetryPolicy(jobDetail, operation.getRetryPolicy());
+        } else {
+            // Each run of a repeating job is retried, rather than the schedule
+            jobDetail.setRetryPolicy(operation.getRetryPolicy());
+        }
 
-        return executeJob(jobDetail, context, executor);
+        return executeJob(addOrUpdateJobDetail(jobDetail, context), context, executor, null);
     }
 
     private JobDetail executeJob(final Operation operation,
                                  final Context context,
                                  final String parentJobId,
-                                 final Executor executor) throws OperationException {
-        JobDetail childJobDetail = addOrUpdateJobDetail(operation, context, null, JobStatus.RUNNING);
-        childJobDetail.setParentJobId(parentJobId);
-        return executeJob(childJobDetail, context, executor);
+                                 final RetryPolicy retryPolicy,
+                                 final Executor executor,
+                                 final Runnable onFinish) throws OperationException {
+        final JobDetail childJobDetail = newJobDetail(operation, context, parentJobId, null, JobStatus.RUNNING);
+        setRetryPolicy(childJobDetail, retryPolicy);
+        return executeJob(addOrUpdateJobDetail(childJobDetail, context), context, executor, onFinish);
     }
 
     private JobDetail executeJob(final JobDetail jobDetail,
-                                 final Context context, final Executor executor) throws OperationException {
+                                 final Context context, final Executor executor,
+                                 final Runnable onFinish) throws OperationException {
         if (!JobTracker.isCacheEnabled()) {
             throw new OperationException("JobTracker has not been configured.");
         }
@@ -61,33 +118,47 @@ public class JobHandler implements OutputOperationHandler<Job, JobDetail> {
         if (null != jobDetail.getRepeat()) {
             return scheduleJob(jobDetail, context, executor);
         } else {
-            return runJob(jobDetail, context, executor);
+            return runJob(jobDetail, context, executor, onFinish, 1);
         }
     }
 
     private JobDetail scheduleJob(final JobDetail parentJobDetail,
-                                  final Context context, final Executor executor) {
-        executor.getExecutorService().scheduleAtFixedRate(() -> {
-            if ((JobTracker.getJob(parentJobDetail.getJobId(),
-                    context.getUser()).getStatus().equals(JobStatus.CANCELLED))) {
-                Thread.currentThread().interrupt();
-                return;
-            }
-            final Operation operation =
-                    parentJobDetail.getOpAsOperation().shallowClone();
-            final Context newContext = context.shallowClone();
-            try {
-                executeJob(operation, newContext, parentJobDetail.getJobId(),
-                        executor);
-            } catch (final OperationException e) {
-                throw new RuntimeException("Exception within scheduled job", e);
-            }
-        }, parentJobDetail.getRepeat().getInitialDelay(), parentJobDetail.getRepeat().getRepeatPeriod(), parentJobDetail.getRepeat().getTimeUnit());
+                                  final Context context, final Executor executor) throws OperationException {
+        final ScheduledJob scheduledJob;
+        try {
+            scheduledJob = new ScheduledJob(parentJobDetail.getJobId(), parentJobDetail.getRepeat(), onFinish -> {
+                final Operation operation =
+                        parentJobDetail.getOpAsOperation().shallowClone();
+                final Context newContext = context.shallowClone();
+                try {
+                    executeJob(operation, newContext, parentJobDetail.getJobId(),
+                            parentJobDetail.getRetryPolicy(), executor, onFinish);
+                } catch (final OperationException e) {
+                    throw new RuntimeException("Exception within scheduled job", e);
+                }
+            }, reason -> addOrUpdateJobDetail(parentJobDetail.getOpAsOperation(), context.shallowClone(),
+                    parentJobDetail.getJobId(), reason, JobStatus.SKIPPED),
+                    nextRunTime -> {
+                        DurableJobQueue.rescheduled(parentJobDetail.getJobId(), nextRunTime);
+                        JobTracker.updateJob(parentJobDetail.getJobId(),
+                                current -> current.withNextRunTime(nextRunTime), context.getUser());
+                    },
+                    ExecutorService.getTimer());
+        } catch (final IllegalArgumentException e) {
+            throw new OperationException(e.getMessage(), e, BAD_REQUEST);
+        }
 
-        return addOrUpdateJobDetail(parentJobDetail.getOpAsOperation(), context, null, JobStatus.SCHEDULED_PARENT);
+        DurableJobQueue.scheduled(parentJobDetail, context.getUser());
+        SCHEDULED_JOBS.put(parentJobDetail.getJobId(), scheduledJob);
+        final JobDetail jobDetail = addOrUpdateJobDetail(parentJobDetail.getOpAsOperation(), context, null, JobStatus.SCHEDULED_PARENT);
+        scheduledJob.start(parentJobDetail.getNextRunTime());
+        return jobDetail;
     }
 
-    private JobDetail runJob(final JobDetail jobDetail, final Context context, final Executor executor) {
+    private JobDetail runJob(final JobDetail jobDetail, final Context context,
+                             final Executor executor, final Runnable onFinish,
+                             final int attempt) throws OperationException {
+        DurableJobQueue.submitted(jobDetail, context.getUser(), attempt);
         Operation operation = jobDetail.getOpAsOperation();
         final OperationChain<?> opChain;
 
@@ -110,42 +181,364 @@ public class JobHandler implements OutputOperationHandler<Job, JobDetail> {
                 opChain.getOperations()
                         .add(new ExportToResultCache<>());
             }
+
+            // The request runs with a clone of the context, which has a new
+            // job ID, so the job's results must be exported under its own ID
+            final OperationHandler exportHandler = executor.getConfig().getOperationHandler(ExportToResultCache.class);
+            if (exportHandler instanceof ExportToResultCacheHandler
+                    && null == context.getExporter(ResultCacheExporter.class)) {
+                context.addExporter(((ExportToResultCacheHandler) exportHandler).createExporter(context));
+            }
         }
 
-        executor.runAsync(() -> {
+        // Runs cloned from the same context, such as the runs of a repeating
+        // job, must not add to each other's progress
+        context.resetProgress();
+        runAttempt(jobDetail.getRetryPolicy(), opChain, context, executor, onFinish, attempt, 0);
+        return jobDetail;
+    }
+
+    private void runAttempt(final RetryPolicy retryPolicy, final OperationChain<?> opChain,
+                            final Context context, final Executor executor,
+                            final Runnable onFinish, final int attempt, final long delay) {
+        final AtomicBoolean started = new AtomicBoolean();
+        final FutureTask<Void> task = new FutureTask<>(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // The job was cancelled before it started
+                return;
+            }
+            boolean retrying = false;
             try {
-                executor.execute(opChain, context);
-                addOrUpdateJobDetail(opChain, context, null,
-                        JobStatus.FINISHED);
+                DurableJobQueue.started(context.getJobId());
+                if (attempt > 1) {
+                    startRetry(context, attempt);
+                }
+                final ProgressPublisher progressPublisher = new ProgressPublisher(context.getJobId(), context.getUser(),
+                        context.getProgress(), ExecutorService.getTimer(), executor.getConfig().getProperties().getJobProgressInterval());
+                progressPublisher.start();
+                try {
+                    final Result<?> result = executor.execute(new Request(opChain, context));
+                    // The job has finished once its exports have been written,
+                    // after which any temporary exports can be released
+                    try {
+                        result.getContext().awaitPendingExports();
+                    } finally {
+                        CloseableUtil.close(result.getContext());
+                    }
+                } finally {
+                    progressPublisher.stop();
+                }
+                completeJob(opChain, context, null, JobStatus.FINISHED);
             } catch (final Error e) {
-                addOrUpdateJobDetail(opChain, context, e.getMessage(),
-                        JobStatus.FAILED);
+                completeJob(opChain, context, e.getMessage(), JobStatus.FAILED);
                 throw e;
             } catch (final Exception e) {
-                addOrUpdateJobDetail(opChain, context, e.getMessage(),
-                        JobStatus.FAILED);
+                retrying = retryOrFail(retryPolicy, opChain, context, executor, onFinish, attempt, e);
+            } finally {
+                if (!retrying) {
+                    DurableJobQueue.finished(context.getJobId());
+                    RUNNING_JOBS.remove(context.getJobId());
+                    if (null != onFinish) {
+                        onFinish.run();
+                    }
+                }
+            }
+        }, null);
+        RUNNING_JOBS.put(context.getJobId(), new RunningJob(context, task, started, onFinish));
+        if (delay > 0) {
+            ExecutorService.getTimer().newTimeout(task, delay, TimeUnit.MILLISECONDS);
+        } else {
+            executor.runAsync(task);
+        }
+    }
+
+    // Returns true if the failed attempt will be retried
+    private boolean retryOrFail(final RetryPolicy retryPolicy, final OperationChain<?> opChain,
+                                final Context context, final Executor executor,
+                                final Runnable onFinish, final int attempt, final Exception failure) {
+        if (!context.isCancelled() && null != retryPolicy
+                && attempt < retryPolicy.getMaxAttempts() && retryPolicy.isRetryable(failure)) {
+            final long delay = retryPolicy.getDelay(attempt, ThreadLocalRandom.current());
+            final String msg = "Attempt " + attempt + " of " + retryPolicy.getMaxAttempts()
+                    + " failed, retrying in " + delay + "ms: " + failure.getMessage();
+            final JobDetail retrying = JobTracker.updateJob(context.getJobId(),
+                    current -> JobStatus.RUNNING == current.getStatus() ? current.withAttempts(attempt, JobStatus.RETRYING, msg) : current,
+                    context.getUser());
+            if (null != retrying && JobStatus.RETRYING == retrying.getStatus()) {
+                DurableJobQueue.retrying(context.getJobId(), attempt + 1);
+                runAttempt(retryPolicy, opChain, context, executor, onFinish, attempt + 1, delay);
+                return true;
             }
-        });
+        }
+
+        // The job is dead lettered first, so it is there once it is seen to have failed
+        if (null != retryPolicy && !context.isCancelled() && JobTracker.isCacheEnabled()) {
+            final JobDetail current = JobTracker.getJob(context.getJobId(), context.getUser());
+            if (null != current && JobStatus.CANCELLED != current.getStatus()) {
+                DeadLetterStore.add(new JobDetail(current, new JobDetail(context.getJobId(), context.getUser().getUserId(),
+                        OperationChain.wrap(opChain), JobStatus.FAILED, failure.getMessage())), context.getUser());
+            }
+        }
+        completeJob(opChain, context, failure.getMessage(), JobStatus.FAILED);
+        return false;
+    }
+
+    // The results and progress of the failed attempt are removed, so they are not repeated
+    private void startRetry(final Context context, final int attempt) throws OperationException {
+        context.resetProgress();
+        JobTracker.updateJob(context.getJobId(),
+                current -> JobStatus.RETRYING == current.getStatus() ? current.withAttempts(attempt, JobStatus.RUNNING, null) : current,
+                context.getUser());
+        final ResultCacheExporter exporter = context.getExporter(ResultCacheExporter.class);
+        if (null != exporter) {
+            exporter.removeAll();
+        }
+    }
+
+    /**
+     * Checks that a user may cancel a job. Only the user who submitted the
+     * job, or a user holding the admin auth set by
+     * {@link uk.gov.gchq.maestro.ExecutorProperties#ADMIN_AUTH}, may cancel it.
+     *
+     * @param jobId    the ID of the job to cancel
+     * @param context  the context of the cancel request
+     * @param executor the executor, or null if there is no admin auth
+     * @throws OperationException if the user may not cancel the job
+     */
+    static void checkCanCancel(final String jobId, final Context context, final Executor executor) throws OperationException {
+        final User user = context.getUser();
+        final String ownerId = getOwnerId(jobId, user);
+        if (null == ownerId || ownerId.equals(user.getUserId()) || isAdmin(user, executor)) {
+            return;
+        }
+        throw new OperationException("User " + user.getUserId() + " is not permitted to cancel job: " + jobId, FORBIDDEN);
+    }
+
+    // A job which is not tracked can only be found among the jobs running in this JVM
+    private static String getOwnerId(final String jobId, final User user) {
+        final JobDetail jobDetail = JobTracker.isCacheEnabled() ? JobTracker.getJob(jobId, user) : null;
+        if (null != jobDetail) {
+            return jobDetail.getUserId();
+        }
+        final RunningJob runningJob = RUNNING_JOBS.get(jobId);
+        return null == runningJob ? null : runningJob.context.getUser().getUserId();
+    }
+
+    private static boolean isAdmin(final User user, final Executor executor) {
+        if (null == executor || null == executor.getConfig() || null == executor.getConfig().getProperties()) {
+            return false;
+        }
+        final String adminAuth = executor.getConfig().getProperties().getAdminAuth();
+        return !adminAuth.isEmpty() && null != user.getOpAuths() && user.getOpAuths().contains(adminAuth);
+    }
+
+    /**
+     * Stops a repeating job scheduled in this JVM from running again. Runs
+     * which have already started are not cancelled.
+     *
+     * @param jobId the ID of the parent job
+     * @return true if the job was scheduled in this JVM
+     */
+    static boolean cancelScheduledJob(final String jobId) {
+        final ScheduledJob scheduledJob = SCHEDULED_JOBS.remove(jobId);
+        if (null == scheduledJob) {
+            return false;
+        }
+        DurableJobQueue.removed(jobId);
+        scheduledJob.cancel();
+        return true;
+    }
+
+    /**
+     * Cancels a job running in this JVM. The job's context is cancelled, so
+     * its operations stop at the next cancellation check, and the thread
+     * running it is interrupted. A job which has not yet started will not
+     * be run. The callback for the end of the job is run once the job has
+     * stopped, so a running job reports finishing when its thread returns.
+     *
+     * @param jobId the ID of the job to cancel
+     * @return true if the job was running in this JVM
+     */
+    static boolean cancelJob(final String jobId) {
+        final RunningJob runningJob = RUNNING_JOBS.remove(jobId);
+        if (null == runningJob) {
+            return false;
+        }
+        DurableJobQueue.removed(jobId);
+        runningJob.context.cancel();
+        final boolean neverStarted = runningJob.started.compareAndSet(false, true);
+        runningJob.future.cancel(true);
+        if (neverStarted && null != runningJob.onFinish) {
+            // A job cancelled before it started would never report finishing
+            runningJob.onFinish.run();
+        }
+        return true;
+    }
+
+    /**
+     * Recovers a job from the {@link DurableJobQueue} after a restart. A
+     * pending job is run, a repeating job is scheduled and a job which was
+     * running is retried if its retry policy allows, otherwise it is marked
+     * as interrupted.
+     *
+     * @param queuedJob the job to recover
+     * @param executor  the executor to run the job with
+     * @throws OperationException if the job could not be recovered
+     */
+    @SuppressWarnings("deprecation")
+    void recover(final QueuedJob queuedJob, final Executor executor) throws OperationException {
+        final Context context = new Context.Builder()
+                .user(queuedJob.getUser())
+                .jobId(queuedJob.getJobId())
+                .build();
+        final JobDetail current = JobTracker.isCacheEnabled()
+                ? JobTracker.getJob(queuedJob.getJobId(), context.getUser()) : null;
+        if (null != current && isComplete(current.getStatus())) {
+            // The job completed, but the record of it did not reach the log
+            DurableJobQueue.removed(queuedJob.getJobId());
+            return;
+        }
+
+        final Operation operation;
+        try {
+            operation = JSONSerialiser.deserialise(queuedJob.getOperation(), Operation.class);
+        } catch (final SerialisationException e) {
+            throw new OperationException("Unable to deserialise the operation of job " + queuedJob.getJobId(), e);
+        }
+        final int attempt = null != queuedJob.getAttempt() ? queuedJob.getAttempt() : 1;
+        final RetryPolicy retryPolicy = queuedJob.getRetryPolicy();
+
+        switch (queuedJob.getState()) {
+            case SCHEDULED:
+                final JobDetail parentJobDetail = newJobDetail(operation, context, null, null, JobStatus.SCHEDULED_PARENT);
+                parentJobDetail.setRepeat(queuedJob.getRepeat());
+                parentJobDetail.setRetryPolicy(retryPolicy);
+                // Runs missed while the executor was stopped are handled by the misfire policy
+                parentJobDetail.setNextRunTime(null != queuedJob.getNextRunTime() || null == current
+                        ? queuedJob.getNextRunTime() : current.getNextRunTime());
+                executeJob(addOrUpdateJobDetail(parentJobDetail, context), context, executor, null);
+                break;
+            case PENDING:
+                // A job waiting to be retried must be left as retrying, so the
+                // results of its failed attempt are removed when it starts
+                runJob(addOrUpdateJobDetail(newRecoveredJobDetail(operation, context, queuedJob, attempt,
+                        attempt > 1 ? JobStatus.RETRYING : JobStatus.RUNNING, null), context), context, executor, null, attempt);
+                break;
+            case RUNNING:
+                if (null != retryPolicy && attempt < retryPolicy.getMaxAttempts()) {
+                    final String msg = "Attempt " + attempt + " of " + retryPolicy.getMaxAttempts()
+                            + " was interrupted by a restart, retrying";
+                    runJob(addOrUpdateJobDetail(newRecoveredJobDetail(operation, context, queuedJob, attempt,
+                            JobStatus.RETRYING, msg), context), context, executor, null, attempt + 1);
+                } else {
+                    final JobDetail interrupted = addOrUpdateJobDetail(newRecoveredJobDetail(operation, context, queuedJob,
+                            attempt, JobStatus.INTERRUPTED, "Interrupted by a restart"), context);
+                    if (null != retryPolicy && JobTracker.isCacheEnabled()) {
+                        DeadLetterStore.add(JobTracker.getJob(interrupted.getJobId(), context.getUser()), context.getUser());
+                    }
+                    DurableJobQueue.removed(queuedJob.getJobId());
+                }
+                break;
+            default:
+                DurableJobQueue.removed(queuedJob.getJobId());
+        }
+    }
+
+    private JobDetail newRecoveredJobDetail(final Operation operation, final Context context,
+                                            final QueuedJob queuedJob, final int attempt,
+                                            final JobStatus jobStatus, final String msg) {
+        final JobDetail jobDetail = newJobDetail(operation, context, queuedJob.getParentJobId(), msg, jobStatus);
+        if (null != queuedJob.getRetryPolicy()) {
+            jobDetail.setRetryPolicy(queuedJob.getRetryPolicy());
+            jobDetail.setAttempts(attempt);
+        }
         return jobDetail;
     }
 
+    private static boolean isComplete(final JobStatus jobStatus) {
+        return JobStatus.FINISHED == jobStatus || JobStatus.FAILED == jobStatus || JobStatus.CANCELLED == jobStatus;
+    }
+
+    // A cancelled job stays cancelled, whatever it finished with
+    private void completeJob(final Operation operation, final Context context,
+                             final String msg, final JobStatus jobStatus) {
+        if (context.isCancelled()) {
+            addOrUpdateJobDetail(operation, context, null, JobStatus.CANCELLED);
+        } else if (JobTracker.isCacheEnabled()) {
+            final JobDetail completed = new JobDetail(context.getJobId(), context.getUser().getUserId(),
+                    OperationChain.wrap(operation), jobStatus, msg);
+            JobTracker.updateJob(context.getJobId(),
+                    current -> JobStatus.CANCELLED == current.getStatus() ? current : new JobDetail(current, completed),
+                    context.getUser());
+        }
+    }
+
     private JobDetail addOrUpdateJobDetail(final Operation operation,
                                            final Context context, final String msg, final JobStatus jobStatus) {
-        final JobDetail newJobDetail = new JobDetail(context.getJobId(), context
-                .getUser()
-                .getUserId(), OperationChain.wrap(operation), jobStatus, msg);
+        return addOrUpdateJobDetail(operation, context, null, msg, jobStatus);
+    }
+
+    private JobDetail addOrUpdateJobDetail(final Operation operation,
+                                           final Context context, final String parentJobId,
+                                           final String msg, final JobStatus jobStatus) {
+        return addOrUpdateJobDetail(newJobDetail(operation, context, parentJobId, msg, jobStatus), context);
+    }
+
+    private JobDetail addOrUpdateJobDetail(final JobDetail newJobDetail, final Context context) {
         if (JobTracker.isCacheEnabled()) {
-            final JobDetail oldJobDetail =
-                    JobTracker.getJob(newJobDetail.getJobId(),
-                            context
-                                    .getUser());
-            if (null == oldJobDetail) {
-                JobTracker.addOrUpdateJob(newJobDetail, context.getUser());
-            } else {
-                JobTracker.addOrUpdateJob(new JobDetail(oldJobDetail, newJobDetail), context
-                        .getUser());
-            }
+            JobTracker.mergeJob(newJobDetail, context.getUser());
         }
         return newJobDetail;
     }
+
+    private JobDetail newJobDetail(final Operation operation,
+                                   final Context context, final String parentJobId,
+                                   final String msg, final JobStatus jobStatus) {
+        return new JobDetail(context.getJobId(), parentJobId, context
+                .getUser()
+                .getUserId(), OperationChain.wrap(operation), jobStatus, msg);
+    }
+
+    private static void setRetryPolicy(final JobDetail jobDetail, final RetryPolicy retryPolicy) {
+        if (null != retryPolicy) {
+            jobDetail.setRetryPolicy(retryPolicy);
+            jobDetail.setAttempts(1);
+        }
+    }
+
+    private static void validateRetryPolicy(final RetryPolicy retryPolicy) throws OperationException {
+        if (null == retryPolicy) {
+            return;
+        }
+        if (retryPolicy.getMaxAttempts() < 1) {
+            throw new OperationException("Retry policy max attempts must be at least 1", BAD_REQUEST);
+        }
+        if (retryPolicy.getInitialDelay() < 0 || retryPolicy.getMaxDelay() < 0) {
+            throw new OperationException("Retry policy delays must not be negative", BAD_REQUEST);
+        }
+        if (retryPolicy.getMultiplier() < 1) {
+            throw new OperationException("Retry policy multiplier must be at least 1", BAD_REQUEST);
+        }
+        if (retryPolicy.getJitter() < 0 || retryPolicy.getJitter() > 1) {
+            throw new OperationException("Retry policy jitter must be between 0 and 1", BAD_REQUEST);
+        }
+        if (null == retryPolicy.getTimeUnit()) {
+            throw new OperationException("Retry policy time unit is required", BAD_REQUEST);
+        }
+    }
+
+    private static final class RunningJob {
+        private final Context context;
+        private final Future<?> future;
+        private final AtomicBoolean started;
+        private final Runnable onFinish;
+
+        private RunningJob(final Context context, final Future<?> future,
+                           final AtomicBoolean started, final Runnable onFinish) {
+            this.context = context;
+            this.future = future;
+            this.started = started;
+            this.onFinish = onFinish;
+        }
+    }
 }
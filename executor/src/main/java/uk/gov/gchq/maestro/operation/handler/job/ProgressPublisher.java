@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer;
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer.Timeout;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ProgressPublisher} copies the progress counters of a running job
+ * to the {@link JobTracker} at a fixed interval, using a
+ * {@link HashedWheelTimer}. The JobTracker is only written to when the
+ * counters have changed, and only while the job is running.
+ */
+final class ProgressPublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressPublisher.class);
+
+    private final String jobId;
+    private final User user;
+    private final Progress progress;
+    private final HashedWheelTimer timer;
+    private final long interval;
+    private Map<String, Long> published;
+    private Timeout timeout;
+    private boolean stopped;
+
+    ProgressPublisher(final String jobId, final User user, final Progress progress,
+                      final HashedWheelTimer timer, final long interval) {
+        this.jobId = jobId;
+        this.user = user;
+        this.progress = progress;
+        this.timer = timer;
+        this.interval = interval;
+    }
+
+    synchronized void start() {
+        scheduleNext();
+    }
+
+    /**
+     * Stops publishing and publishes the final counters.
+     */
+    void stop() {
+        synchronized (this) {
+            stopped = true;
+            if (null != timeout) {
+                timeout.cancel();
+            }
+        }
+        publish();
+    }
+
+    private synchronized void scheduleNext() {
+        if (!stopped && !timer.isStopped()) {
+            timeout = timer.newTimeout(this::run, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run() {
+        publish();
+        scheduleNext();
+    }
+
+    private synchronized void publish() {
+        final Map<String, Long> snapshot = progress.snapshot();
+        if (snapshot.isEmpty() || snapshot.equals(published)) {
+            return;
+        }
+        try {
+            JobTracker.updateJob(jobId, current -> JobStatus.RUNNING == current.getStatus()
+                    ? current.withProgress(snapshot, System.currentTimeMillis()) : current, user);
+            published = snapshot;
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to publish the progress of job {}: {}", jobId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.maestro.jobtracker.Repeat;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.Set;
+
+/**
+ * A {@code QueuedJob} is a record of the {@link DurableJobQueue}. A record
+ * which submits or schedules a job holds everything needed to run it again,
+ * and a record of a later change of state only holds the job ID and the
+ * fields which changed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueuedJob {
+    private String jobId;
+    private String parentJobId;
+    private State state;
+    private String operation;
+    private Repeat repeat;
+    private RetryPolicy retryPolicy;
+    private Integer attempt;
+    private Long nextRunTime;
+    private String userId;
+    private Set<String> dataAuths;
+    private Set<String> opAuths;
+
+    public QueuedJob() {
+    }
+
+    public QueuedJob(final String jobId, final State state) {
+        this.jobId = jobId;
+        this.state = state;
+    }
+
+    /**
+     * Updates this record with the fields set in a later record of the same
+     * job.
+     *
+     * @param update the later record
+     */
+    public void merge(final QueuedJob update) {
+        if (null != update.parentJobId) {
+            parentJobId = update.parentJobId;
+        }
+        if (null != update.state) {
+            state = update.state;
+        }
+        if (null != update.operation) {
+            operation = update.operation;
+        }
+        if (null != update.repeat) {
+            repeat = update.repeat;
+        }
+        if (null != update.retryPolicy) {
+            retryPolicy = update.retryPolicy;
+        }
+        if (null != update.attempt) {
+            attempt = update.attempt;
+        }
+        if (null != update.nextRunTime) {
+            nextRunTime = update.nextRunTime;
+        }
+        if (null != update.userId) {
+            userId = update.userId;
+            dataAuths = update.dataAuths;
+            opAuths = update.opAuths;
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getParentJobId() {
+        return parentJobId;
+    }
+
+    public void setParentJobId(final String parentJobId) {
+        this.parentJobId = parentJobId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(final State state) {
+        this.state = state;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(final String operation) {
+        this.operation = operation;
+    }
+
+    public Repeat getRepeat() {
+        return repeat;
+    }
+
+    public void setRepeat(final Repeat repeat) {
+        this.repeat = repeat;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public Integer getAttempt() {
+        return attempt;
+    }
+
+    public void setAttempt(final Integer attempt) {
+        this.attempt = attempt;
+    }
+
+    /**
+     * @return when the next run of a repeating job is due, in epoch
+     * milliseconds, so its schedule is resumed rather than restarted
+     */
+    public Long getNextRunTime() {
+        return nextRunTime;
+    }
+
+    public void setNextRunTime(final Long nextRunTime) {
+        this.nextRunTime = nextRunTime;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(final String userId) {
+        this.userId = userId;
+    }
+
+    public Set<String> getDataAuths() {
+        return dataAuths;
+    }
+
+    public void setDataAuths(final Set<String> dataAuths) {
+        this.dataAuths = dataAuths;
+    }
+
+    public Set<String> getOpAuths() {
+        return opAuths;
+    }
+
+    public void setOpAuths(final Set<String> opAuths) {
+        this.opAuths = opAuths;
+    }
+
+    @JsonIgnore
+    public User getUser() {
+        return new User(userId, dataAuths, opAuths);
+    }
+
+    @JsonIgnore
+    public void setUser(final User user) {
+        userId = user.getUserId();
+        dataAuths = user.getDataAuths();
+        opAuths = user.getOpAuths();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("jobId", jobId)
+                .append("parentJobId", parentJobId)
+                .append("state", state)
+                .append("operation", operation)
+                .append("repeat", repeat)
+                .append("retryPolicy", retryPolicy)
+                .append("attempt", attempt)
+                .append("nextRunTime", nextRunTime)
+                .append("userId", userId)
+                .toString();
+    }
+
+    /**
+     * The state of a job in the {@link DurableJobQueue}.
+     */
+    public enum State {
+        /**
+         * The job has been submitted, or is waiting to be retried, but has
+         * not started.
+         */
+        PENDING,
+
+        /**
+         * The job has started running.
+         */
+        RUNNING,
+
+        /**
+         * The job is the parent of a repeating job.
+         */
+        SCHEDULED,
+
+        /**
+         * The job has finished, failed or been cancelled, so it is no
+         * longer queued.
+         */
+        DONE
+    }
+}
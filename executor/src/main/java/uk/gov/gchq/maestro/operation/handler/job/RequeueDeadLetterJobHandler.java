@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.jobtracker.DeadLetterStore;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.operation.impl.job.RequeueDeadLetterJob;
+
+import static uk.gov.gchq.maestro.commonutil.exception.Status.BAD_REQUEST;
+import static uk.gov.gchq.maestro.commonutil.exception.Status.NOT_FOUND;
+import static uk.gov.gchq.maestro.commonutil.exception.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * A {@code RequeueDeadLetterJobHandler} handles {@link RequeueDeadLetterJob}
+ * operations by removing the job from the {@link DeadLetterStore} and
+ * submitting its operation as a new {@link Job}, with the same retry policy.
+ * If the new job cannot be submitted the job is returned to the dead letter
+ * store.
+ */
+public class RequeueDeadLetterJobHandler implements OutputOperationHandler<RequeueDeadLetterJob, JobDetail> {
+    @Override
+    public JobDetail doOperation(final RequeueDeadLetterJob operation, final Context context, final Executor executor) throws OperationException {
+        if (!JobTracker.isCacheEnabled()) {
+            throw new OperationException("The Job Tracker has not been configured", SERVICE_UNAVAILABLE);
+        }
+        if (null == operation.getJobId()) {
+            throw new OperationException("job id must be specified", BAD_REQUEST);
+        }
+
+        final JobDetail deadLetter = DeadLetterStore.remove(operation.getJobId(), context.getUser());
+        if (null == deadLetter) {
+            throw new OperationException("Job with jobId: " + operation.getJobId() + " is not in the dead letter store.", NOT_FOUND);
+        }
+
+        try {
+            return executor.execute(new Job.Builder()
+                    .operation(deadLetter.getOpAsOperation())
+                    .retryPolicy(deadLetter.getRetryPolicy())
+                    .build(), context);
+        } catch (final OperationException | RuntimeException e) {
+            DeadLetterStore.add(deadLetter, context.getUser());
+            throw e;
+        }
+    }
+}
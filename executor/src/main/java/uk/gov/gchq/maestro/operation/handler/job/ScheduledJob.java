@@ -0,0 +1,277 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.maestro.commonutil.scheduler.CronExpression;
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer;
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer.Timeout;
+import uk.gov.gchq.maestro.jobtracker.MisfirePolicy;
+import uk.gov.gchq.maestro.jobtracker.OverlapPolicy;
+import uk.gov.gchq.maestro.jobtracker.Repeat;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@code ScheduledJob} runs the child jobs of a scheduled parent job
+ * using a {@link HashedWheelTimer}. Only the next run of each job is held
+ * on the timer, and is replaced by the following run when it fires.
+ * <p>
+ * Runs are due at fixed times, measured from the initial delay, so jitter
+ * and late runs do not make the schedule drift. A run which is due while
+ * earlier runs are still going is handled by the {@link OverlapPolicy}, and
+ * runs which were missed altogether by the {@link MisfirePolicy}. Skipped
+ * runs are counted and reported.
+ * </p>
+ * <p>
+ * The time each run is due is reported as it is scheduled, so that it can be
+ * persisted. A schedule started again from that time, for example after a
+ * restart, applies the {@link MisfirePolicy} to the runs missed meanwhile.
+ * </p>
+ * <p>
+ * Whether the job has been cancelled is held in memory, so a job can only
+ * be cancelled in the JVM that scheduled it.
+ * </p>
+ */
+final class ScheduledJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledJob.class);
+
+    private final String jobId;
+    private final Repeat repeat;
+    private final CronExpression cron;
+    private final Consumer<Runnable> run;
+    private final Consumer<String> skip;
+    private final LongConsumer scheduled;
+    private final HashedWheelTimer timer;
+    private final LongSupplier clock;
+    private final int maxRuns;
+    private long nextRunTime;
+    private Timeout timeout;
+    private int runs;
+    private boolean queuedRun;
+    private long skippedRuns;
+    private volatile boolean cancelled;
+
+    /**
+     * @param jobId     the ID of the parent job
+     * @param repeat    the schedule
+     * @param run       starts a run of the job, given the callback to call once the run has finished
+     * @param skip      records skipped runs, given the reason they were skipped
+     * @param scheduled records when the next run is due, in milliseconds
+     * @param timer     the timer to schedule the runs on
+     * @throws IllegalArgumentException if the schedule is invalid
+     */
+    ScheduledJob(final String jobId, final Repeat repeat, final Consumer<Runnable> run,
+                 final Consumer<String> skip, final LongConsumer scheduled, final HashedWheelTimer timer) {
+        this(jobId, repeat, run, skip, scheduled, timer, System::currentTimeMillis);
+    }
+
+    /**
+     * @param jobId     the ID of the parent job
+     * @param repeat    the schedule
+     * @param run       starts a run of the job, given the callback to call once the run has finished
+     * @param skip      records skipped runs, given the reason they were skipped
+     * @param scheduled records when the next run is due, in milliseconds
+     * @param timer     the timer to schedule the runs on
+     * @param clock     supplies the current time in milliseconds, which the schedule is measured against
+     * @throws IllegalArgumentException if the schedule is invalid
+     */
+    ScheduledJob(final String jobId, final Repeat repeat, final Consumer<Runnable> run,
+                 final Consumer<String> skip, final LongConsumer scheduled,
+                 final HashedWheelTimer timer, final LongSupplier clock) {
+        if (null == repeat.getCron() && repeat.getRepeatPeriod() <= 0) {
+            throw new IllegalArgumentException("A repeating job requires a positive repeat period or a cron expression");
+        }
+        if (repeat.getJitter() < 0) {
+            throw new IllegalArgumentException("Repeat jitter must not be negative");
+        }
+        if (OverlapPolicy.CONCURRENT == repeat.getOverlapPolicy() && repeat.getMaxConcurrentRuns() < 1) {
+            throw new IllegalArgumentException("Repeat max concurrent runs must be at least 1");
+        }
+        this.jobId = jobId;
+        this.repeat = repeat;
+        this.cron = null == repeat.getCron() ? null : new CronExpression(repeat.getCron());
+        this.run = run;
+        this.skip = skip;
+        this.scheduled = scheduled;
+        this.timer = timer;
+        this.clock = clock;
+        this.maxRuns = OverlapPolicy.CONCURRENT == repeat.getOverlapPolicy() ? repeat.getMaxConcurrentRuns() : 1;
+    }
+
+    /**
+     * Starts the schedule. A schedule resumed from a run which was due while
+     * it was stopped runs straight away, and any later runs which were
+     * missed are handled by the {@link MisfirePolicy}.
+     *
+     * @param resumeTime when the next run is due, in milliseconds, or null to
+     *                   start the schedule after its initial delay
+     */
+    void start(final Long resumeTime) {
+        synchronized (this) {
+            if (null != resumeTime) {
+                nextRunTime = resumeTime;
+            } else {
+                final long startTime = clock.getAsLong() + toMillis(repeat.getInitialDelay());
+                nextRunTime = null == cron ? startTime : cron.next(startTime - 1);
+            }
+        }
+        scheduleNextRun();
+    }
+
+    void cancel() {
+        cancelled = true;
+        final Timeout current;
+        synchronized (this) {
+            current = timeout;
+            queuedRun = false;
+        }
+        if (null != current) {
+            current.cancel();
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized long getSkippedRuns() {
+        return skippedRuns;
+    }
+
+    private void scheduleNextRun() {
+        final long runTime;
+        synchronized (this) {
+            if (cancelled || timer.isStopped()) {
+                return;
+            }
+            final long jitter = toMillis(repeat.getJitter());
+            final long delay = nextRunTime - clock.getAsLong()
+                    + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+            timeout = timer.newTimeout(this::fire, delay, TimeUnit.MILLISECONDS);
+            runTime = nextRunTime;
+        }
+        try {
+            scheduled.accept(runTime);
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to record next run time of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void fire() {
+        if (cancelled) {
+            return;
+        }
+        long missedRuns = 0;
+        final boolean runNow;
+        synchronized (this) {
+            nextRunTime = next(nextRunTime);
+            // Runs are missed if a later run is already due, allowing for jitter
+            final long now = clock.getAsLong() - toMillis(repeat.getJitter());
+            if (nextRunTime > now || MisfirePolicy.RUN_ALL == repeat.getMisfirePolicy()) {
+                runNow = true;
+            } else {
+                runNow = MisfirePolicy.RUN_ONCE == repeat.getMisfirePolicy();
+                missedRuns = runNow ? 0 : 1;
+                while (nextRunTime <= now) {
+                    nextRunTime = next(nextRunTime);
+                    missedRuns++;
+                }
+            }
+        }
+        if (missedRuns > 0) {
+            skipped(missedRuns, "Skipped " + missedRuns + " missed run(s)");
+        }
+        if (runNow) {
+            runOrQueue();
+        }
+        scheduleNextRun();
+    }
+
+    private void runOrQueue() {
+        final boolean start;
+        synchronized (this) {
+            if (runs < maxRuns) {
+                runs++;
+                start = true;
+            } else if (OverlapPolicy.QUEUE_ONE == repeat.getOverlapPolicy() && !queuedRun) {
+                queuedRun = true;
+                return;
+            } else {
+                start = false;
+            }
+        }
+        if (start) {
+            startRun();
+        } else {
+            skipped(1, "Skipped run as " + runs + " earlier run(s) still running");
+        }
+    }
+
+    private void startRun() {
+        final AtomicBoolean finished = new AtomicBoolean();
+        final Runnable onFinish = () -> {
+            if (finished.compareAndSet(false, true)) {
+                runFinished();
+            }
+        };
+        try {
+            run.accept(onFinish);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Scheduled run of job {} failed: {}", jobId, e.getMessage(), e);
+            onFinish.run();
+        }
+    }
+
+    private void runFinished() {
+        synchronized (this) {
+            if (!queuedRun || cancelled) {
+                runs--;
+                return;
+            }
+            // The queued run takes over the finished run's place
+            queuedRun = false;
+        }
+        startRun();
+    }
+
+    private void skipped(final long count, final String reason) {
+        synchronized (this) {
+            skippedRuns += count;
+        }
+        try {
+            skip.accept(reason);
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to record skipped run of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private long next(final long runTime) {
+        return null == cron ? runTime + Math.max(1, toMillis(repeat.getRepeatPeriod())) : cron.next(runTime);
+    }
+
+    private long toMillis(final long duration) {
+        return repeat.getTimeUnit().toMillis(duration);
+    }
+}
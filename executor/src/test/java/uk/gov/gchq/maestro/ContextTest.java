@@ -20,9 +20,14 @@ import org.junit.Test;
 
 import uk.gov.gchq.maestro.operation.OperationChain;
 import uk.gov.gchq.maestro.operation.export.Exporter;
+import uk.gov.gchq.maestro.operation.impl.export.file.FileExporter;
+import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
 import uk.gov.gchq.maestro.user.User;
 
+import java.util.concurrent.CancellationException;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -30,6 +35,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class ContextTest {
     @Test
@@ -129,6 +136,24 @@ public class ContextTest {
         assertSame(exporter, context.getExporter(Exporter.class));
     }
 
+    @Test
+    public void shouldOnlyCloseExportersAddedToContext() {
+        // Given
+        final SetExporter inheritedExporter = mock(SetExporter.class);
+        final FileExporter ownedExporter = mock(FileExporter.class);
+        final Context parent = new Context();
+        parent.addExporter(inheritedExporter);
+        final Context context = parent.shallowClone();
+        context.addExporter(ownedExporter);
+
+        // When
+        context.close();
+
+        // Then
+        verify(ownedExporter).close();
+        verify(inheritedExporter, never()).close();
+    }
+
     @Test
     public void shouldSetAndGetOriginalOpChain() {
         // Given
@@ -141,4 +166,64 @@ public class ContextTest {
         // Then
         assertSame(opChain, context.getOriginalOpChain());
     }
+
+    @Test
+    public void shouldShareCancellationWithClonedContexts() {
+        // Given
+        final Context context = new Context(new User());
+        final Context clone = context.shallowClone();
+        assertFalse(clone.isCancelled());
+        clone.checkCancelled();
+
+        // When
+        context.cancel();
+
+        // Then
+        assertTrue(context.isCancelled());
+        assertTrue(clone.isCancelled());
+        assertFalse(new Context(new User()).isCancelled());
+        try {
+            clone.checkCancelled();
+            fail("Exception expected");
+        } catch (final CancellationException e) {
+            assertEquals("The request has been cancelled", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldNotCancelContextOrOtherClonesWhenCloneIsCancelled() {
+        // Given
+        final Context context = new Context(new User());
+        final Context clone = context.shallowClone();
+        final Context otherClone = context.shallowClone();
+        final Context cloneOfClone = clone.shallowClone();
+
+        // When
+        clone.cancel();
+
+        // Then
+        assertTrue(clone.isCancelled());
+        assertTrue(cloneOfClone.isCancelled());
+        assertFalse(context.isCancelled());
+        assertFalse(otherClone.isCancelled());
+        assertFalse(context.shallowClone().isCancelled());
+    }
+
+    @Test
+    public void shouldShareProgressWithClonedContexts() {
+        // Given
+        final Context context = new Context(new User());
+        final Context clone = context.shallowClone();
+
+        // When
+        clone.getProgress().add(Progress.RECORDS, 3);
+        context.getProgress().increment(Progress.RECORDS);
+        clone.getProgress().set(Progress.OPERATION_INDEX, 2);
+
+        // Then
+        assertEquals(4, context.getProgress().get(Progress.RECORDS));
+        assertEquals(0, context.getProgress().get(Progress.BYTES));
+        assertEquals(2, context.getProgress().snapshot().size());
+        assertEquals(Long.valueOf(2), context.getProgress().snapshot().get(Progress.OPERATION_INDEX));
+    }
 }
@@ -16,21 +16,45 @@
 
 package uk.gov.gchq.maestro;
 
+import com.google.common.collect.Lists;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.helper.MaestroObjectTest;
 import uk.gov.gchq.maestro.helper.TestHandler;
 import uk.gov.gchq.maestro.helper.TestOperation;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.handler.export.file.ExportToFileHandler;
+import uk.gov.gchq.maestro.operation.handler.export.resultcache.ExportToResultCacheHandler;
+import uk.gov.gchq.maestro.operation.impl.export.file.ExportToFile;
+import uk.gov.gchq.maestro.operation.impl.export.file.FileExporter;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
+import uk.gov.gchq.maestro.user.User;
 import uk.gov.gchq.maestro.util.Config;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 import static java.util.Objects.requireNonNull;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 
 public class ExecutorTest extends MaestroObjectTest<Executor> {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
 
     @Override
     protected String getJSONString() {
@@ -84,6 +108,90 @@ public class ExecutorTest extends MaestroObjectTest<Executor> {
         assertEquals("handlerFieldValue1,opFieldValue1", execute);
     }
 
+    @Test
+    public void shouldDeleteExportFilesOnceRequestHasSucceeded() throws OperationException {
+        // Given
+        final ExportToFileHandler handler = new ExportToFileHandler();
+        handler.setDirectory(folder.getRoot().getPath());
+        final Executor executor = new Executor(new Config.Builder()
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(ExportToFile.class)
+                        .handler(handler)
+                        .build())
+                .build());
+
+        // When
+        final Object result = executor.execute(new ExportToFile.Builder<List<Integer>>()
+                .input(Arrays.asList(1, 2, 3))
+                .build(), new User());
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3), result);
+        assertArrayEquals(new File[0], folder.getRoot().listFiles());
+    }
+
+    @Test
+    public void shouldDeleteExportFilesOnceLazyResultHasBeenClosed() throws OperationException {
+        // Given
+        final Executor executor = new Executor(new Config.Builder()
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(TestOperation.class)
+                        .handler((operation, context, exec) -> {
+                            final FileExporter exporter = new FileExporter(folder.getRoot().getPath());
+                            context.addExporter(exporter);
+                            exporter.add("key", Arrays.asList(1, 2, 3));
+                            return exporter.get("key");
+                        })
+                        .build())
+                .build());
+
+        // When
+        final CloseableIterable<?> result = executor.execute(new TestOperation(), new User());
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(result));
+        assertEquals(1, folder.getRoot().listFiles().length);
+
+        // When
+        result.close();
+
+        // Then
+        assertArrayEquals(new File[0], folder.getRoot().listFiles());
+    }
+
+    @Test
+    public void shouldRemoveExpiredResultsPeriodically() throws Exception {
+        // Given
+        final ExecutorProperties properties = new ExecutorProperties();
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        properties.setResultCacheExpiryInterval(10);
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(ExportToResultCache.class)
+                        .handler(new ExportToResultCacheHandler())
+                        .build())
+                .build());
+        new ResultCacheExporter("jobId", new User(), 2, 1, new JavaSerialiser()).add("key", Arrays.asList(1, 2, 3));
+
+        // When
+        executor.start();
+
+        // Then
+        try {
+            for (int i = 0; i < 100 && !getResultCacheKeys().isEmpty(); i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(Collections.emptySet(), getResultCacheKeys());
+        } finally {
+            ExportToResultCacheHandler.scheduleRemoveExpired(ExecutorService.getTimer(), 0);
+        }
+    }
+
+    private Set<?> getResultCacheKeys() {
+        return CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.CACHE_NAME);
+    }
+
     @Override
     protected Class<Executor> getTestObjectClass() {
         return Executor.class;
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.handler.compare;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.operation.impl.compare.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SortHandlerTest {
+
+    @Test
+    public void shouldSortInputInMemory() throws Exception {
+        // Given
+        final Sort<Integer> sort = new Sort.Builder<Integer>()
+                .input(3, 1, 2)
+                .comparator(Comparator.naturalOrder())
+                .build();
+
+        // When
+        final Iterable<?> result = new SortHandler<Integer>().doOperation(sort, new Context(), null);
+
+        // Then
+        assertEquals(Lists.newArrayList(1, 2, 3), Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldSortInputLargerThanMemoryLimit() throws Exception {
+        // Given
+        final List<Integer> input = new ArrayList<>();
+        final Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            input.add(random.nextInt(100));
+        }
+        final Sort<Integer> sort = new Sort.Builder<Integer>()
+                .input(input)
+                .comparator(Comparator.reverseOrder())
+                .maxItemsInMemory(64)
+                .build();
+
+        // When
+        final Iterable<?> result = new SortHandler<Integer>().doOperation(sort, new Context(), null);
+
+        // Then
+        final List<Integer> expected = new ArrayList<>(input);
+        expected.sort(Collections.reverseOrder());
+        assertEquals(expected, Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldReturnNullForNullInput() throws Exception {
+        // Given
+        final Sort<Integer> sort = new Sort.Builder<Integer>()
+                .comparator(Comparator.naturalOrder())
+                .build();
+
+        // When
+        final Iterable<?> result = new SortHandler<Integer>().doOperation(sort, new Context(), null);
+
+        // Then
+        assertNull(result);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.export.resultcache;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.util.CacheProperties;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class GetResultCacheExportHandlerTest {
+
+    @Before
+    public void setUp() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        CacheServiceLoader.initialise(properties);
+    }
+
+    @After
+    public void tearDown() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldGetRangeOfResultsExportedByAnotherJob() throws Exception {
+        // Given
+        final User user = new User("user01");
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6);
+        final Context exportContext = new Context(user);
+        final ExportToResultCacheHandler exportHandler = new ExportToResultCacheHandler();
+        exportHandler.setChunkSize(4);
+        final ExportToResultCache<List<Integer>> export = new ExportToResultCache.Builder<List<Integer>>()
+                .input(values)
+                .build();
+        final GetResultCacheExport getExport = new GetResultCacheExport.Builder()
+                .jobId(exportContext.getJobId())
+                .start(3)
+                .end(5)
+                .build();
+
+        // When
+        final Object exportResult = exportHandler.doOperation(export, exportContext, null);
+        final Iterable<?> results = (Iterable<?>) new GetResultCacheExportHandler().doOperation(getExport, new Context(user), null);
+
+        // Then
+        assertSame(values, exportResult);
+        assertEquals(values.subList(3, 5), Lists.newArrayList(results));
+    }
+}
@@ -15,18 +15,51 @@
  */
 package uk.gov.gchq.maestro.operation.handler.export.set;
 
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.commonutil.ExecutorService;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.operation.export.ExportTo;
 import uk.gov.gchq.maestro.operation.impl.export.set.ExportToSet;
+import uk.gov.gchq.maestro.operation.impl.export.set.GetSetExport;
 import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class ExportToSetHandlerTest {
 
+    @Before
+    public void before() {
+        ExecutorService.initialise(2);
+    }
+
+    @After
+    public void after() {
+        ExecutorService.shutdown();
+    }
+
     @Test
     public void shouldHandleNullInput() throws Exception {
         // Given
@@ -46,4 +79,215 @@ public class ExportToSetHandlerTest {
         // Then
         assertThat(result, is(nullValue()));
     }
+
+    @Test
+    public void shouldExportElementsAsTheyAreConsumedWhenStreaming() throws Exception {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4);
+        final ExportToSet<List<Integer>> exportToSet = new ExportToSet.Builder<List<Integer>>()
+                .input(values)
+                .key("elements")
+                .option(ExportTo.STREAMING_OPTION, "true")
+                .build();
+        final SetExporter exporter = new SetExporter();
+        final Context context = new Context();
+        context.addExporter(exporter);
+
+        // When
+        final CloseableIterable<?> result = (CloseableIterable<?>) new ExportToSetHandler().doOperation(exportToSet, context, null);
+
+        // Then
+        assertEquals(Collections.emptyList(), Lists.newArrayList(exporter.get("elements")));
+        try (CloseableIterator<?> itr = result.iterator()) {
+            assertEquals(1, itr.next());
+        }
+        assertEquals(values, Lists.newArrayList(exporter.get("elements")));
+    }
+
+    @Test
+    public void shouldReturnImmediatelyAndWaitForWriteBehindExportWhenReading() throws Exception {
+        // Given
+        final List<Integer> values = IntStream.range(0, 2500).boxed().collect(Collectors.toList());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Integer> slowInput = new ArrayList<Integer>(values) {
+            @Override
+            public Iterator<Integer> iterator() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.iterator();
+            }
+        };
+        final ExportToSet<List<Integer>> exportToSet = new ExportToSet.Builder<List<Integer>>()
+                .input(slowInput)
+                .key("elements")
+                .option(ExportTo.WRITE_BEHIND_OPTION, "true")
+                .build();
+        final SetExporter exporter = new SetExporter();
+        final Context context = new Context();
+        context.addExporter(exporter);
+
+        // When
+        final Object result = new ExportToSetHandler().doOperation(exportToSet, context, null);
+        started.await();
+        release.countDown();
+        final Iterable<?> export = (Iterable<?>) new GetSetExportHandler().doOperation(new GetSetExport.Builder()
+                .key("elements")
+                .build(), context, null);
+
+        // Then
+        assertSame(slowInput, result);
+        assertEquals(values, Lists.newArrayList(export));
+    }
+
+    @Test
+    public void shouldWriteBehindExportOnCallingThreadWithoutExecutorService() throws Exception {
+        // Given
+        ExecutorService.shutdown();
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+        final ExportToSet<List<Integer>> exportToSet = new ExportToSet.Builder<List<Integer>>()
+                .input(values)
+                .key("elements")
+                .option(ExportTo.WRITE_BEHIND_OPTION, "true")
+                .build();
+        final SetExporter exporter = new SetExporter();
+        final Context context = new Context();
+        context.addExporter(exporter);
+
+        // When
+        new ExportToSetHandler().doOperation(exportToSet, context, null);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(exporter.get("elements")));
+    }
+
+    @Test
+    public void shouldReportFailedWriteBehindExportWhenReading() throws Exception {
+        // Given
+        final List<Integer> failingInput = new ArrayList<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                throw new IllegalStateException("Source failed");
+            }
+        };
+        final ExportToSet<List<Integer>> exportToSet = new ExportToSet.Builder<List<Integer>>()
+                .input(failingInput)
+                .key("elements")
+                .option(ExportTo.WRITE_BEHIND_OPTION, "true")
+                .build();
+        final Context context = new Context();
+        context.addExporter(new SetExporter());
+        new ExportToSetHandler().doOperation(exportToSet, context, null);
+
+        // When / Then
+        try {
+            new GetSetExportHandler().doOperation(new GetSetExport.Builder().key("elements").build(), context, null);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Asynchronous export to key elements failed: Source failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldCountRecordsExportedAndRead() throws Exception {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+        final Iterable<Integer> input = values::iterator;
+        final ExportToSet<Iterable<Integer>> exportToSet = new ExportToSet.Builder<Iterable<Integer>>()
+                .input(input)
+                .key("elements")
+                .build();
+        final Context context = new Context();
+        context.addExporter(new SetExporter());
+
+        // When
+        new ExportToSetHandler().doOperation(exportToSet, context, null);
+        final long exported = context.getProgress().get(Progress.RECORDS);
+        final Iterable<?> export = (Iterable<?>) new GetSetExportHandler().doOperation(new GetSetExport.Builder()
+                .key("elements")
+                .build(), context, null);
+        final long beforeRead = context.getProgress().get(Progress.RECORDS);
+        final List<?> read = Lists.newArrayList(export);
+
+        // Then
+        assertEquals(values, read);
+        assertEquals(3, exported);
+        assertEquals(3, beforeRead);
+        assertEquals(6, context.getProgress().get(Progress.RECORDS));
+    }
+
+    @Test
+    public void shouldUseStorageOption() throws Exception {
+        // Given
+        final ExportToSet<List<Long>> exportToSet = new ExportToSet.Builder<List<Long>>()
+                .input(Arrays.asList(1L, 2L))
+                .key("elements")
+                .option(ExportToSet.STORAGE_OPTION, "auto")
+                .build();
+        final SetExporter exporter = new SetExporter();
+        final Context context = new Context();
+        context.addExporter(exporter);
+
+        // When
+        new ExportToSetHandler().doOperation(exportToSet, context, null);
+
+        // Then
+        assertEquals(SetExporter.Storage.LONG, exporter.getStorage("elements"));
+        assertEquals(Arrays.asList(1L, 2L), Lists.newArrayList(exporter.get("elements")));
+    }
+
+    @Test
+    public void shouldRejectUnknownStorageOption() throws Exception {
+        // Given
+        final ExportToSet<List<Long>> exportToSet = new ExportToSet.Builder<List<Long>>()
+                .input(Arrays.asList(1L, 2L))
+                .key("elements")
+                .option(ExportToSet.STORAGE_OPTION, "bitmap")
+                .build();
+        final Context context = new Context();
+        context.addExporter(new SetExporter());
+
+        // When / Then
+        try {
+            new ExportToSetHandler().doOperation(exportToSet, context, null);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Unknown export storage: bitmap", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldOnlyIterateOneShotInputOnceForWriteBehindExport() throws Exception {
+        // Given
+        final List<Integer> values = IntStream.range(0, 2500).boxed().collect(Collectors.toList());
+        final AtomicInteger iterations = new AtomicInteger();
+        final Iterable<Integer> oneShotInput = () -> {
+            if (iterations.incrementAndGet() > 1) {
+                throw new IllegalStateException("Input can only be iterated once");
+            }
+            return values.iterator();
+        };
+        final ExportToSet<Iterable<Integer>> exportToSet = new ExportToSet.Builder<Iterable<Integer>>()
+                .input(oneShotInput)
+                .key("elements")
+                .option(ExportTo.WRITE_BEHIND_OPTION, "true")
+                .build();
+        final Context context = new Context();
+        context.addExporter(new SetExporter());
+
+        // When
+        final Object result = new ExportToSetHandler().doOperation(exportToSet, context, null);
+        final Iterable<?> export = (Iterable<?>) new GetSetExportHandler().doOperation(new GetSetExport.Builder()
+                .key("elements")
+                .build(), context, null);
+
+        // Then
+        assertEquals(values, Lists.newArrayList((Iterable<?>) result));
+        assertEquals(values, Lists.newArrayList(export));
+        assertEquals(1, iterations.get());
+    }
 }
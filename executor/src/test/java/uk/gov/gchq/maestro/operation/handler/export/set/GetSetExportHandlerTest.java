@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.handler.export.set;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
+import uk.gov.gchq.maestro.operation.impl.export.set.GetSetExport;
+import uk.gov.gchq.maestro.operation.impl.export.set.SetExporter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class GetSetExportHandlerTest {
+
+    @Test
+    public void shouldGetPageUsingCursor() throws Exception {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6);
+        final SetExporter exporter = new SetExporter();
+        exporter.add("key", values);
+        final Context context = new Context();
+        context.addExporter(exporter);
+        final GetSetExportHandler handler = new GetSetExportHandler();
+        final GetSetExport firstPage = new GetSetExport.Builder()
+                .key("key")
+                .start(0)
+                .end(2)
+                .build();
+
+        // When
+        final ExportPage<?> page1 = (ExportPage<?>) handler.doOperation(firstPage, context, null);
+        final GetSetExport nextPage = new GetSetExport.Builder()
+                .key("key")
+                .start(0)
+                .end(2)
+                .cursor(page1.getNextCursor())
+                .build();
+        final Iterable<?> page2 = (Iterable<?>) handler.doOperation(nextPage, context, null);
+
+        // Then
+        assertEquals(values.subList(0, 2), Lists.newArrayList(page1));
+        assertEquals(values.subList(2, 4), Lists.newArrayList(page2));
+    }
+
+    @Test
+    public void shouldRejectCursorForDifferentKey() {
+        // Given
+        final Context context = new Context();
+        context.addExporter(new SetExporter());
+        final GetSetExportHandler handler = new GetSetExportHandler();
+        final GetSetExport getSetExport = new GetSetExport.Builder()
+                .key("key")
+                .cursor(ExportCursor.encode("otherKey", 2))
+                .build();
+
+        // When / Then
+        try {
+            handler.doOperation(getSetExport, context, null);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Unable to read export cursor: Export cursor does not belong to export key: key", e.getMessage());
+        }
+    }
+}
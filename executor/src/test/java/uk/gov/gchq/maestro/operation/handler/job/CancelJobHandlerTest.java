@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.Status;
+import uk.gov.gchq.maestro.helper.TestOperation;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.OperationChain;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.handler.chain.OperationChainHandler;
+import uk.gov.gchq.maestro.operation.impl.job.CancelJob;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Config;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class CancelJobHandlerTest {
+    private final ExecutorProperties properties = new ExecutorProperties();
+    private final User user = new User();
+    private final CancelJobHandler handler = new CancelJobHandler();
+
+    @Before
+    public void setup() {
+        properties.setJobTrackerEnabled(true);
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+    }
+
+    @Test
+    public void shouldThrowExceptionWithNoJobId() {
+        // Given
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .build());
+
+        // When / Then
+        try {
+            handler.doOperation(new CancelJob(), new Context(user), executor);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("job id must be specified", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionIfJobTrackerIsNotConfigured() {
+        // Given
+        CacheServiceLoader.shutdown();
+
+        // When / Then
+        try {
+            handler.doOperation(new CancelJob.Builder().jobId("job1").build(), new Context(user), mock(Executor.class));
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("JobTracker not enabled", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldInterruptRunningJobAndSkipItsRemainingOperations() throws Exception {
+        // Given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(Job.class)
+                        .handler(new JobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(OperationChain.class)
+                        .handler(new OperationChainHandler<>())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(TestOperation.class)
+                        .handler((operation, context, exec) -> {
+                            runs.incrementAndGet();
+                            started.countDown();
+                            try {
+                                new CountDownLatch(1).await();
+                            } catch (final InterruptedException e) {
+                                interrupted.countDown();
+                            }
+                            return null;
+                        })
+                        .build())
+                .build());
+        JobTracker.clear();
+        final Operation opChain = new OperationChain<>(new TestOperation(), new TestOperation());
+        final JobDetail jobDetail = executor.execute(new Job.Builder().operation(opChain).build(), user);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // When
+        handler.doOperation(new CancelJob.Builder().jobId(jobDetail.getJobId()).build(), new Context(user), executor);
+
+        // Then
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        assertEquals(1, runs.get());
+        assertEquals(JobStatus.CANCELLED, JobTracker.getJob(jobDetail.getJobId(), user).getStatus());
+    }
+
+    @Test
+    public void shouldNotCancelJobOfAnotherUser() throws OperationException {
+        // Given
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .build());
+        JobTracker.addOrUpdateJob(new JobDetail("running", "user01", (Operation) null, JobStatus.RUNNING, null), user);
+
+        // When / Then
+        try {
+            handler.doOperation(new CancelJob.Builder().jobId("running").build(), new Context(new User("user02")), executor);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("User user02 is not permitted to cancel job: running", e.getMessage());
+            assertEquals(Status.FORBIDDEN, e.getStatus());
+        }
+        assertEquals(JobStatus.RUNNING, JobTracker.getJob("running", user).getStatus());
+    }
+
+    @Test
+    public void shouldAllowAdminToCancelJobOfAnotherUser() throws OperationException {
+        // Given
+        properties.setAdminAuth("admin");
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .build());
+        JobTracker.addOrUpdateJob(new JobDetail("running", "user01", (Operation) null, JobStatus.RUNNING, null), user);
+        final User admin = new User("user02", Collections.emptySet(), Collections.singleton("admin"));
+
+        // When
+        handler.doOperation(new CancelJob.Builder().jobId("running").build(), new Context(admin), executor);
+
+        // Then
+        assertEquals(JobStatus.CANCELLED, JobTracker.getJob("running", user).getStatus());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfJobIsNotRunning() throws OperationException {
+        // Given
+        final Executor executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .build());
+        JobTracker.addOrUpdateJob(new JobDetail("finished", user.getUserId(), (Operation) null, JobStatus.FINISHED, null), user);
+
+        // When / Then
+        try {
+            handler.doOperation(new CancelJob.Builder().jobId("finished").build(), new Context(user), executor);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Job with jobId: finished is not running or scheduled and cannot be cancelled.", e.getMessage());
+        }
+        assertEquals(JobStatus.FINISHED, JobTracker.getJob("finished", user).getStatus());
+    }
+}
@@ -23,12 +23,20 @@ import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.ExecutorProperties;
 import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService;
+import uk.gov.gchq.maestro.commonutil.cache.util.CacheProperties;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
 import uk.gov.gchq.maestro.operation.impl.job.CancelScheduledJob;
 import uk.gov.gchq.maestro.user.User;
 import uk.gov.gchq.maestro.util.Config;
 
+import java.util.Properties;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -36,7 +44,7 @@ import static org.mockito.Mockito.mock;
 
 public class CancelScheduledJobHandlerTest {
     private final ExecutorProperties properties = new ExecutorProperties();
-    private final User user = mock(User.class);
+    private final User user = new User("user01");
     private final CancelScheduledJobHandler handler = new CancelScheduledJobHandler();
 
     @Before
@@ -87,4 +95,32 @@ public class CancelScheduledJobHandlerTest {
             assertEquals("JobTracker not enabled", e.getMessage());
         }
     }
+
+    @Test
+    public void shouldCancelScheduledJobInSerialisingCache() throws OperationException {
+        // Given
+        final Properties cacheProperties = new Properties();
+        cacheProperties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        cacheProperties.setProperty(HashMapCacheService.JAVA_SERIALISATION_CACHE, "true");
+        CacheServiceLoader.initialise(cacheProperties);
+        JobTracker.addOrUpdateJob(new JobDetail("scheduled", "user01", (Operation) null, JobStatus.SCHEDULED_PARENT, null), user);
+        JobTracker.addOrUpdateJob(new JobDetail("running", "user01", (Operation) null, JobStatus.RUNNING, null), user);
+
+        try {
+            // When
+            handler.doOperation(new CancelScheduledJob.Builder().jobId("scheduled").build(), new Context(user), null);
+
+            // Then
+            assertEquals(JobStatus.CANCELLED, JobTracker.getJob("scheduled", user).getStatus());
+            try {
+                handler.doOperation(new CancelScheduledJob.Builder().jobId("running").build(), new Context(user), null);
+                fail("Exception expected");
+            } catch (final OperationException e) {
+                assertEquals("Job with jobId: running is not a scheduled job and cannot be cancelled.", e.getMessage());
+            }
+            assertEquals(JobStatus.RUNNING, JobTracker.getJob("running", user).getStatus());
+        } finally {
+            CacheServiceLoader.shutdown();
+        }
+    }
 }
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.commonutil.wal.WriteAheadLog;
+import uk.gov.gchq.maestro.helper.TestOperation;
+import uk.gov.gchq.maestro.jobtracker.DeadLetterStore;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.jobtracker.MisfirePolicy;
+import uk.gov.gchq.maestro.jobtracker.Repeat;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
+import uk.gov.gchq.maestro.operation.OperationChain;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.handler.chain.OperationChainHandler;
+import uk.gov.gchq.maestro.operation.impl.job.CancelScheduledJob;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Config;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DurableJobQueueTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorProperties properties = new ExecutorProperties();
+    private final User user = new User("user01");
+    private final AtomicInteger runs = new AtomicInteger();
+    private CountDownLatch release = new CountDownLatch(0);
+    private Path walPath;
+
+    @Before
+    public void setup() {
+        DurableJobQueue.shutdown();
+        walPath = folder.getRoot().toPath().resolve("jobs.wal");
+        properties.setJobTrackerEnabled(true);
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        properties.setJobQueueWal(walPath.toString());
+        CacheServiceLoader.initialise(properties.getProperties());
+        JobTracker.clear();
+        DeadLetterStore.clear();
+    }
+
+    @After
+    public void after() {
+        release.countDown();
+        DurableJobQueue.shutdown();
+    }
+
+    @Test
+    public void shouldNotRecoverJobsWhichFinished() throws Exception {
+        // Given
+        final JobDetail jobDetail = createExecutor().execute(new Job.Builder()
+                .operation(new TestOperation())
+                .build(), user);
+        assertEquals(JobStatus.FINISHED, waitForJob(jobDetail.getJobId()).getStatus());
+
+        // When
+        restart();
+
+        // Then
+        Thread.sleep(200);
+        assertEquals(1, runs.get());
+        assertNull(JobTracker.getJob(jobDetail.getJobId(), user));
+    }
+
+    @Test
+    public void shouldRunPendingJobAfterRestart() throws Exception {
+        // Given
+        write(queuedJob("job1", QueuedJob.State.PENDING));
+
+        // When
+        createExecutor();
+
+        // Then
+        final JobDetail jobDetail = waitForJob("job1");
+        assertEquals(JobStatus.FINISHED, jobDetail.getStatus());
+        assertEquals(user.getUserId(), jobDetail.getUserId());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void shouldNotRecoverJobsUntilExecutorIsStarted() throws Exception {
+        // Given
+        write(queuedJob("job1", QueuedJob.State.PENDING));
+        final Executor executor = newExecutor();
+        assertFalse(DurableJobQueue.isEnabled());
+        assertEquals(0, runs.get());
+
+        // When
+        executor.start();
+
+        // Then
+        assertEquals(JobStatus.FINISHED, waitForJob("job1").getStatus());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void shouldRejectDifferentLogWhileOneIsOpen() throws Exception {
+        // Given
+        createExecutor();
+        final Path otherWalPath = folder.getRoot().toPath().resolve("other.wal");
+        properties.setJobQueueWal(otherWalPath.toString());
+
+        // When / Then
+        try {
+            createExecutor();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("The durable job queue " + walPath + " is already open, so "
+                    + otherWalPath + " cannot be opened", e.getMessage());
+        }
+        assertTrue(DurableJobQueue.isEnabled());
+
+        // When
+        properties.setJobQueueWal(walPath.toString());
+        final JobDetail jobDetail = createExecutor().execute(new Job.Builder()
+                .operation(new TestOperation())
+                .build(), user);
+
+        // Then
+        assertEquals(JobStatus.FINISHED, waitForJob(jobDetail.getJobId()).getStatus());
+    }
+
+    @Test
+    public void shouldMarkRunningJobInterruptedAfterRestart() throws Exception {
+        // Given
+        release = new CountDownLatch(1);
+        final JobDetail jobDetail = createExecutor().execute(new Job.Builder()
+                .operation(new TestOperation())
+                .build(), user);
+        waitForRuns(1);
+
+        // When
+        restart();
+
+        // Then
+        final JobDetail interrupted = JobTracker.getJob(jobDetail.getJobId(), user);
+        assertEquals(JobStatus.INTERRUPTED, interrupted.getStatus());
+        assertEquals("Interrupted by a restart", interrupted.getDescription());
+    }
+
+    @Test
+    public void shouldRetryInterruptedJobWithAttemptsLeft() throws Exception {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setInitialDelay(0);
+        final QueuedJob queuedJob = queuedJob("job1", QueuedJob.State.PENDING);
+        queuedJob.setRetryPolicy(retryPolicy);
+        queuedJob.setAttempt(1);
+        write(queuedJob, new QueuedJob("job1", QueuedJob.State.RUNNING));
+
+        // When
+        createExecutor();
+
+        // Then
+        final JobDetail jobDetail = waitForJob("job1");
+        assertEquals(JobStatus.FINISHED, jobDetail.getStatus());
+        assertEquals(Integer.valueOf(2), jobDetail.getAttempts());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void shouldDeadLetterInterruptedJobWithoutAttemptsLeft() throws Exception {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setMaxAttempts(1);
+        final QueuedJob queuedJob = queuedJob("job1", QueuedJob.State.PENDING);
+        queuedJob.setRetryPolicy(retryPolicy);
+        queuedJob.setAttempt(1);
+        write(queuedJob, new QueuedJob("job1", QueuedJob.State.RUNNING));
+
+        // When
+        createExecutor();
+
+        // Then
+        assertEquals(JobStatus.INTERRUPTED, JobTracker.getJob("job1", user).getStatus());
+        assertEquals(JobStatus.INTERRUPTED, DeadLetterStore.get("job1", user).getStatus());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void shouldScheduleRepeatingJobAgainAfterRestart() throws Exception {
+        // Given
+        final QueuedJob queuedJob = queuedJob("parent1", QueuedJob.State.SCHEDULED);
+        queuedJob.setRepeat(new Repeat(0, 100, TimeUnit.MILLISECONDS));
+        write(queuedJob);
+
+        // When
+        final Executor executor = createExecutor();
+
+        // Then
+        assertEquals(JobStatus.SCHEDULED_PARENT, JobTracker.getJob("parent1", user).getStatus());
+        waitForRuns(2);
+
+        executor.execute(new CancelScheduledJob.Builder().jobId("parent1").build(), user);
+        restart();
+        final int runsAfterCancel = runs.get();
+        Thread.sleep(300);
+        assertEquals(runsAfterCancel, runs.get());
+    }
+
+    @Test
+    public void shouldApplyMisfirePolicyToRunsMissedBeforeRestart() throws Exception {
+        // Given - an hourly job whose next run was due three and a half hours ago
+        final long nextRunTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(210);
+        final Repeat repeat = new Repeat(0, 1, TimeUnit.HOURS);
+        repeat.setMisfirePolicy(MisfirePolicy.RUN_ONCE);
+        final QueuedJob queuedJob = queuedJob("parent1", QueuedJob.State.SCHEDULED);
+        queuedJob.setRepeat(repeat);
+        queuedJob.setNextRunTime(nextRunTime);
+        write(queuedJob);
+
+        // When
+        createExecutor();
+
+        // Then - the overdue run runs, the later missed runs are skipped and the schedule keeps its phase
+        waitForRuns(1);
+        final long resumedRunTime = nextRunTime + TimeUnit.HOURS.toMillis(4);
+        assertEquals(Long.valueOf(resumedRunTime), JobTracker.getJob("parent1", user).getNextRunTime());
+        final List<String> skipped = new ArrayList<>();
+        try (CloseableIterable<JobDetail> jobs = JobTracker.getAllJobs(user)) {
+            for (final JobDetail jobDetail : jobs) {
+                if (JobStatus.SKIPPED == jobDetail.getStatus()) {
+                    skipped.add(jobDetail.getDescription());
+                }
+            }
+        }
+        assertEquals(Collections.singletonList("Skipped 3 missed run(s)"), skipped);
+
+        // When - restarted again, from the durable job queue alone
+        JobTracker.clear();
+        restart();
+
+        // Then
+        assertEquals(Long.valueOf(resumedRunTime), JobTracker.getJob("parent1", user).getNextRunTime());
+        Thread.sleep(200);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void shouldSkipTornRecordAfterCrash() throws Exception {
+        // Given
+        write(queuedJob("job1", QueuedJob.State.PENDING), queuedJob("job2", QueuedJob.State.PENDING));
+        final long length = walPath.toFile().length();
+        try (RandomAccessFile file = new RandomAccessFile(walPath.toFile(), "rw")) {
+            file.setLength(length - 3);
+        }
+
+        // When
+        createExecutor();
+
+        // Then
+        assertEquals(JobStatus.FINISHED, waitForJob("job1").getStatus());
+        Thread.sleep(200);
+        assertEquals(1, runs.get());
+        assertNull(JobTracker.getJob("job2", user));
+    }
+
+    @Test
+    public void shouldCompactLogOnStartup() throws Exception {
+        // Given
+        final List<QueuedJob> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(queuedJob("job" + i, QueuedJob.State.PENDING));
+            records.add(new QueuedJob("job" + i, QueuedJob.State.DONE));
+        }
+        write(records.toArray(new QueuedJob[0]));
+        final long length = walPath.toFile().length();
+
+        // When
+        createExecutor();
+        DurableJobQueue.shutdown();
+
+        // Then
+        assertTrue(walPath.toFile().length() < length);
+        assertEquals(0, runs.get());
+    }
+
+    private Executor restart() {
+        DurableJobQueue.shutdown();
+        return createExecutor();
+    }
+
+    private Executor createExecutor() {
+        final Executor executor = newExecutor();
+        executor.start();
+        return executor;
+    }
+
+    private Executor newExecutor() {
+        return new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(Job.class)
+                        .handler(new JobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(OperationChain.class)
+                        .handler(new OperationChainHandler<>())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(CancelScheduledJob.class)
+                        .handler(new CancelScheduledJobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(TestOperation.class)
+                        .handler((operation, context, exec) -> {
+                            runs.incrementAndGet();
+                            try {
+                                release.await();
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        })
+                        .build())
+                .build());
+    }
+
+    private QueuedJob queuedJob(final String jobId, final QueuedJob.State state) throws Exception {
+        final QueuedJob queuedJob = new QueuedJob(jobId, state);
+        queuedJob.setOperation(new String(JSONSerialiser.serialise(new TestOperation())));
+        queuedJob.setUser(user);
+        return queuedJob;
+    }
+
+    private void write(final QueuedJob... queuedJobs) throws Exception {
+        try (WriteAheadLog log = new WriteAheadLog(walPath)) {
+            for (final QueuedJob queuedJob : queuedJobs) {
+                log.append(JSONSerialiser.serialise(queuedJob));
+            }
+        }
+    }
+
+    private void waitForRuns(final int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && runs.get() < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(runs.get() >= expected);
+    }
+
+    private JobDetail waitForJob(final String jobId) throws InterruptedException {
+        JobDetail jobDetail = JobTracker.getJob(jobId, user);
+        for (int i = 0; i < 100 && (null == jobDetail || JobStatus.RUNNING == jobDetail.getStatus()
+                || JobStatus.RETRYING == jobDetail.getStatus()); i++) {
+            Thread.sleep(50);
+            jobDetail = JobTracker.getJob(jobId, user);
+        }
+        return jobDetail;
+    }
+}
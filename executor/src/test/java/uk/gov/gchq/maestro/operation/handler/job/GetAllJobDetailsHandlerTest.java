@@ -23,9 +23,12 @@ import uk.gov.gchq.maestro.Context;
 import uk.gov.gchq.maestro.Executor;
 import uk.gov.gchq.maestro.ExecutorProperties;
 import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.util.CacheProperties;
 import uk.gov.gchq.maestro.commonutil.exception.OperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobOrder;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
 import uk.gov.gchq.maestro.jobtracker.JobTracker;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
@@ -34,8 +37,14 @@ import uk.gov.gchq.maestro.operation.impl.job.Job;
 import uk.gov.gchq.maestro.user.User;
 import uk.gov.gchq.maestro.util.Config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
@@ -110,4 +119,59 @@ public class GetAllJobDetailsHandlerTest {
             }
         }
     }
+
+    @Test
+    public void shouldPageAndProjectJobDetails() throws OperationException {
+        // Given
+        final Properties cacheProperties = new Properties();
+        cacheProperties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        CacheServiceLoader.initialise(cacheProperties);
+        for (int i = 0; i < 5; i++) {
+            final JobDetail jobDetail = new JobDetail("job" + i, "user01", op1, JobStatus.FINISHED, null);
+            jobDetail.setStartTime((long) i);
+            JobTracker.addOrUpdateJob(jobDetail, user);
+        }
+        final Context context = new Context(user);
+
+        // When
+        final List<JobDetail> page1 = new ArrayList<>();
+        handler.doOperation(new GetAllJobDetails.Builder()
+                .order(JobOrder.NEWEST_FIRST)
+                .pageSize(2)
+                .fields("status")
+                .build(), context, null).forEach(page1::add);
+        final List<JobDetail> page2 = new ArrayList<>();
+        handler.doOperation(new GetAllJobDetails.Builder()
+                .order(JobOrder.NEWEST_FIRST)
+                .pageSize(2)
+                .cursor(page1.get(1).getJobId())
+                .build(), context, null).forEach(page2::add);
+
+        // Then
+        assertEquals(Arrays.asList("job4", "job3"), Arrays.asList(page1.get(0).getJobId(), page1.get(1).getJobId()));
+        assertEquals(JobStatus.FINISHED, page1.get(0).getStatus());
+        assertNull(page1.get(0).getOpAsOperation());
+        assertNull(page1.get(0).getUserId());
+        assertEquals(Arrays.asList("job2", "job1"), Arrays.asList(page2.get(0).getJobId(), page2.get(1).getJobId()));
+        assertEquals(op1, page2.get(0).getOpAsOperation());
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnknownCursor() {
+        // Given
+        final Properties cacheProperties = new Properties();
+        cacheProperties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        CacheServiceLoader.initialise(cacheProperties);
+
+        // When / Then
+        try {
+            handler.doOperation(new GetAllJobDetails.Builder().cursor("unknown").build(), new Context(user), null);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Unknown job cursor: unknown", e.getMessage());
+        } finally {
+            CacheServiceLoader.shutdown();
+        }
+    }
 }
@@ -15,5 +15,129 @@
  */
 package uk.gov.gchq.maestro.operation.handler.job;
 
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.operation.OperationChain;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.export.Export;
+import uk.gov.gchq.maestro.operation.handler.chain.OperationChainHandler;
+import uk.gov.gchq.maestro.operation.handler.export.resultcache.ExportToResultCacheHandler;
+import uk.gov.gchq.maestro.operation.handler.export.resultcache.GetResultCacheExportHandler;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ExportToResultCache;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport;
+import uk.gov.gchq.maestro.operation.impl.export.resultcache.ResultCacheExporter;
+import uk.gov.gchq.maestro.operation.impl.job.GetJobResults;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.operation.impl.job.JobResults;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class GetJobResultsHandlerTest {
+    private final User user = new User("user01");
+    private Executor executor;
+
+    @Before
+    public void setup() {
+        final ExecutorProperties properties = new ExecutorProperties();
+        properties.setJobTrackerEnabled(true);
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        final ExportToResultCacheHandler exportHandler = new ExportToResultCacheHandler();
+        exportHandler.setChunkSize(2);
+        executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(Job.class)
+                        .handler(new JobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(OperationChain.class)
+                        .handler(new OperationChainHandler<>())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(ExportToResultCache.class)
+                        .handler(exportHandler)
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(GetResultCacheExport.class)
+                        .handler(new GetResultCacheExportHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(GetJobResults.class)
+                        .handler(new GetJobResultsHandler())
+                        .build())
+                .build());
+        JobTracker.clear();
+    }
+
+    @Test
+    public void shouldReturnPublishedResultsOfRunningJobAndResumeFromCursor() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = new ResultCacheExporter("job1", user, 2,
+                ResultCacheExporter.DEFAULT_TIME_TO_LIVE, new JavaSerialiser());
+        JobTracker.addOrUpdateJob(new JobDetail("job1", user.getUserId(), new GetJobResults(), JobStatus.RUNNING, null), user);
+        exporter.add(Export.DEFAULT_KEY, Arrays.asList(0, 1, 2));
+
+        // When
+        final JobResults<?> partial = (JobResults<?>) executor.execute(new GetJobResults.Builder()
+                .jobId("job1")
+                .build(), user);
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2), Lists.newArrayList(partial.getResults()));
+        assertEquals(3, partial.getCursor());
+        assertFalse(partial.isFinished());
+
+        // When
+        exporter.add(Export.DEFAULT_KEY, Arrays.asList(3, 4));
+        JobTracker.addOrUpdateJob(new JobDetail("job1", user.getUserId(), new GetJobResults(), JobStatus.FINISHED, null), user);
+        final JobResults<?> rest = (JobResults<?>) executor.execute(new GetJobResults.Builder()
+                .jobId("job1")
+                .start((int) partial.getCursor())
+                .build(), user);
+
+        // Then
+        assertEquals(Arrays.asList(3, 4), Lists.newArrayList(rest.getResults()));
+        assertEquals(5, rest.getCursor());
+        assertTrue(rest.isFinished());
+    }
+
+    @Test
+    public void shouldGetResultsExportedByAsyncJob() throws Exception {
+        // Given
+        final JobDetail jobDetail = executor.execute(new Job.Builder()
+                .operation(new ExportToResultCache.Builder<List<Integer>>()
+                        .input(Arrays.asList(1, 2, 3))
+                        .build())
+                .build(), user);
+
+        // When
+        JobResults<?> results = null;
+        for (int i = 0; i < 100 && (null == results || !results.isFinished()); i++) {
+            Thread.sleep(50);
+            results = (JobResults<?>) executor.execute(new GetJobResults.Builder()
+                    .jobId(jobDetail.getJobId())
+                    .build(), user);
+        }
+
+        // Then
+        assertTrue(results.isFinished());
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(results.getResults()));
+        assertEquals(3, results.getCursor());
+    }
 }
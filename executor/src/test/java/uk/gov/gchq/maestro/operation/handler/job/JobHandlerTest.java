@@ -13,7 +13,437 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package uk.gov.gchq.maestro.operation.handler.job;
 
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.Progress;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.Status;
+import uk.gov.gchq.maestro.helper.TestOperation;
+import uk.gov.gchq.maestro.jobtracker.DeadLetterStore;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobFilter;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.jobtracker.MisfirePolicy;
+import uk.gov.gchq.maestro.jobtracker.OverlapPolicy;
+import uk.gov.gchq.maestro.jobtracker.Repeat;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
+import uk.gov.gchq.maestro.operation.OperationChain;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.handler.chain.OperationChainHandler;
+import uk.gov.gchq.maestro.operation.impl.job.CancelScheduledJob;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Config;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 public class JobHandlerTest {
+    private final ExecutorProperties properties = new ExecutorProperties();
+    private final User user = new User();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private CountDownLatch started = new CountDownLatch(0);
+    private CountDownLatch release = new CountDownLatch(0);
+    private volatile boolean ignoreInterrupts;
+    private Executor executor;
+
+    @Before
+    public void setup() {
+        properties.setJobTrackerEnabled(true);
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        properties.setJobProgressInterval(50);
+        executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(Job.class)
+                        .handler(new JobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(OperationChain.class)
+                        .handler(new OperationChainHandler<>())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(CancelScheduledJob.class)
+                        .handler(new CancelScheduledJobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(TestOperation.class)
+                        .handler((operation, context, exec) -> {
+                            runs.incrementAndGet();
+                            context.getProgress().add(Progress.RECORDS, 5);
+                            if (failures.getAndDecrement() > 0) {
+                                throw new OperationException("Transient failure", new IOException("Connection reset"));
+                            }
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            started.countDown();
+                            try {
+                                awaitRelease();
+                            } finally {
+                                running.decrementAndGet();
+                            }
+                            return null;
+                        })
+                        .build())
+                .build());
+        JobTracker.clear();
+        DeadLetterStore.clear();
+    }
+
+    @Test
+    public void shouldRunRepeatingJobUntilCancelled() throws Exception {
+        // Given
+        final Repeat repeat = new Repeat(0, 100, TimeUnit.MILLISECONDS);
+        repeat.setJitter(20);
+        final JobDetail parent = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .repeat(repeat)
+                .build(), user);
+        assertEquals(JobStatus.SCHEDULED_PARENT, parent.getStatus());
+        waitForRuns(3);
+
+        // When
+        executor.execute(new CancelScheduledJob.Builder().jobId(parent.getJobId()).build(), user);
+        Thread.sleep(300);
+        final int runsAfterCancel = runs.get();
+        Thread.sleep(500);
+
+        // Then
+        assertEquals(runsAfterCancel, runs.get());
+        assertEquals(JobStatus.CANCELLED, JobTracker.getJob(parent.getJobId(), user).getStatus());
+        assertTrue(runsAfterCancel >= 3);
+    }
+
+    @Test
+    public void shouldRunNextRepeatAfterOneRunIsCancelled() throws Exception {
+        // Given
+        release = new CountDownLatch(1);
+        final JobDetail parent = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .repeat(new Repeat(0, 100, TimeUnit.MILLISECONDS))
+                .build(), user);
+        waitForRuns(1);
+        final JobDetail firstRun = Lists.newArrayList(JobTracker.getJobs(new JobFilter.Builder()
+                .parentJobId(parent.getJobId())
+                .build(), user)).get(0);
+
+        // When
+        assertTrue(JobHandler.cancelJob(firstRun.getJobId()));
+        release.countDown();
+        waitForRuns(3);
+        JobHandler.cancelScheduledJob(parent.getJobId());
+
+        // Then
+        assertEquals(JobStatus.CANCELLED, waitForJob(firstRun.getJobId()).getStatus());
+        boolean laterRunFinished = false;
+        for (final JobDetail child : JobTracker.getJobs(new JobFilter.Builder()
+                .parentJobId(parent.getJobId())
+                .build(), user)) {
+            if (!child.getJobId().equals(firstRun.getJobId())) {
+                laterRunFinished |= JobStatus.FINISHED == waitForJob(child.getJobId()).getStatus();
+            }
+        }
+        assertTrue(laterRunFinished);
+    }
+
+    @Test
+    public void shouldNotStartNextRunUntilCancelledRunHasStopped() throws Exception {
+        // Given
+        ignoreInterrupts = true;
+        release = new CountDownLatch(1);
+        final Repeat repeat = new Repeat(0, 100, TimeUnit.MILLISECONDS);
+        repeat.setOverlapPolicy(OverlapPolicy.SKIP);
+        final JobDetail parent = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .repeat(repeat)
+                .build(), user);
+        waitForRuns(1);
+        final JobDetail firstRun = Lists.newArrayList(JobTracker.getJobs(new JobFilter.Builder()
+                .parentJobId(parent.getJobId())
+                .build(), user)).get(0);
+
+        // When
+        assertTrue(JobHandler.cancelJob(firstRun.getJobId()));
+        Thread.sleep(300);
+
+        // Then - the cancelled run has not stopped, so the later runs overlap it
+        assertEquals(1, runs.get());
+
+        // When
+        release.countDown();
+
+        // Then
+        waitForRuns(2);
+        JobHandler.cancelScheduledJob(parent.getJobId());
+    }
+
+    @Test
+    public void shouldRunJobOnCronSchedule() throws OperationException {
+        // Given
+        final Repeat repeat = new Repeat();
+        repeat.setCron("0 0 1 1 *");
+
+        // When
+        final JobDetail parent = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .repeat(repeat)
+                .build(), user);
+
+        // Then
+        assertEquals(JobStatus.SCHEDULED_PARENT, JobTracker.getJob(parent.getJobId(), user).getStatus());
+        assertTrue(JobHandler.cancelScheduledJob(parent.getJobId()));
+    }
+
+    @Test
+    public void shouldSkipAndRecordRunsWhileASlowRunIsStillRunning() throws Exception {
+        // Given
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        final Repeat repeat = new Repeat(0, 100, TimeUnit.MILLISECONDS);
+        // Runs the timer fires late are still overlapping runs, rather than missed runs
+        repeat.setMisfirePolicy(MisfirePolicy.RUN_ALL);
+        final JobDetail parent = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .repeat(repeat)
+                .build(), user);
+
+        try {
+            // When
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final List<JobDetail> skipped = waitForSkippedRuns(parent.getJobId(), 3);
+
+            // Then
+            assertEquals(1, runs.get());
+            assertEquals(1, maxRunning.get());
+            for (final JobDetail child : skipped) {
+                assertEquals("Skipped run as 1 earlier run(s) still running", child.getDescription());
+            }
+        } finally {
+            executor.execute(new CancelScheduledJob.Builder().jobId(parent.getJobId()).build(), user);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldCountProgressOfJobsFromSameContextSeparately() throws Exception {
+        // Given
+        release = new CountDownLatch(1);
+        final Context context = new Context(user);
+        final JobDetail job1 = executor.execute(new Job.Builder().operation(new TestOperation()).build(), context);
+        final JobDetail job2 = executor.execute(new Job.Builder().operation(new TestOperation()).build(), context);
+        waitForRuns(2);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertEquals(Long.valueOf(5), waitForJob(job1.getJobId()).getProgress().get(Progress.RECORDS));
+        assertEquals(Long.valueOf(5), waitForJob(job2.getJobId()).getProgress().get(Progress.RECORDS));
+        assertEquals(0, context.getProgress().get(Progress.RECORDS));
+    }
+
+    @Test
+    public void shouldPublishProgressOfRunningJob() throws Exception {
+        // Given
+        release = new CountDownLatch(1);
+        final JobDetail jobDetail = executor.execute(new Job.Builder()
+                .operation(new OperationChain<>(new TestOperation(), new TestOperation()))
+                .build(), user);
+
+        // When
+        waitForRuns(1);
+        Thread.sleep(300);
+        final JobDetail running = JobTracker.getJob(jobDetail.getJobId(), user);
+        release.countDown();
+        for (int i = 0; i < 100 && JobStatus.RUNNING == JobTracker.getJob(jobDetail.getJobId(), user).getStatus(); i++) {
+            Thread.sleep(50);
+        }
+        final JobDetail finished = JobTracker.getJob(jobDetail.getJobId(), user);
+
+        // Then
+        assertEquals(JobStatus.RUNNING, running.getStatus());
+        assertEquals(Long.valueOf(5), running.getProgress().get(Progress.RECORDS));
+        assertEquals(Long.valueOf(0), running.getProgress().get(Progress.OPERATION_INDEX));
+        assertNotNull(running.getProgressTime());
+        assertEquals(JobStatus.FINISHED, finished.getStatus());
+        assertEquals(Long.valueOf(10), finished.getProgress().get(Progress.RECORDS));
+        assertEquals(Long.valueOf(1), finished.getProgress().get(Progress.OPERATION_INDEX));
+    }
+
+    @Test
+    public void shouldRetryFailedJobUntilItSucceeds() throws Exception {
+        // Given
+        failures.set(2);
+        final RetryPolicy retryPolicy = new RetryPolicy(3, 10, 100, TimeUnit.MILLISECONDS);
+
+        // When
+        final JobDetail jobDetail = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .retryPolicy(retryPolicy)
+                .build(), user);
+        final JobDetail finished = waitForJob(jobDetail.getJobId());
+
+        // Then
+        assertEquals(JobStatus.FINISHED, finished.getStatus());
+        assertEquals(Integer.valueOf(3), finished.getAttempts());
+        assertEquals(retryPolicy, finished.getRetryPolicy());
+        assertEquals(3, runs.get());
+        assertEquals(Long.valueOf(5), finished.getProgress().get(Progress.RECORDS));
+        assertNull(DeadLetterStore.get(jobDetail.getJobId(), user));
+    }
+
+    @Test
+    public void shouldMoveJobToDeadLetterStoreWhenRetriesAreUsedUp() throws Exception {
+        // Given
+        failures.set(Integer.MAX_VALUE);
+
+        // When
+        final JobDetail jobDetail = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .retryPolicy(new RetryPolicy(2, 10, 100, TimeUnit.MILLISECONDS))
+                .build(), user);
+        final JobDetail failed = waitForJob(jobDetail.getJobId());
+
+        // Then
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals(Integer.valueOf(2), failed.getAttempts());
+        assertEquals(2, runs.get());
+        final JobDetail deadLetter = DeadLetterStore.get(jobDetail.getJobId(), user);
+        assertEquals(JobStatus.FAILED, deadLetter.getStatus());
+        assertEquals(Integer.valueOf(2), deadLetter.getAttempts());
+        assertEquals(failed.getDescription(), deadLetter.getDescription());
+    }
+
+    @Test
+    public void shouldNotRetryFailureWhichIsNotRetryable() throws Exception {
+        // Given
+        failures.set(1);
+        final RetryPolicy retryPolicy = new RetryPolicy(3, 10, 100, TimeUnit.MILLISECONDS);
+        retryPolicy.setRetryableExceptions(Collections.singleton(TimeoutException.class.getName()));
+
+        // When
+        final JobDetail jobDetail = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .retryPolicy(retryPolicy)
+                .build(), user);
+        final JobDetail failed = waitForJob(jobDetail.getJobId());
+
+        // Then
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals("Transient failure", failed.getDescription());
+        assertEquals(Integer.valueOf(1), failed.getAttempts());
+        assertEquals(1, runs.get());
+        assertNotNull(DeadLetterStore.get(jobDetail.getJobId(), user));
+    }
+
+    @Test
+    public void shouldRejectInvalidRetryPolicy() {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setMaxAttempts(0);
+
+        // When
+        try {
+            new JobHandler().doOperation(new Job.Builder()
+                    .operation(new TestOperation())
+                    .retryPolicy(retryPolicy)
+                    .build(), new Context(user), executor);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            // Then
+            assertEquals(Status.BAD_REQUEST, e.getStatus());
+            assertEquals("Retry policy max attempts must be at least 1", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidSchedules() {
+        for (final Repeat repeat : new Repeat[]{new Repeat(0, 0, TimeUnit.SECONDS), cron("* * *")}) {
+            try {
+                new JobHandler().doOperation(new Job.Builder()
+                        .operation(new TestOperation())
+                        .repeat(repeat)
+                        .build(), new Context(user), executor);
+                fail("Exception expected");
+            } catch (final OperationException e) {
+                assertEquals(Status.BAD_REQUEST, e.getStatus());
+            }
+        }
+    }
+
+    private void awaitRelease() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                release.await();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+                if (!ignoreInterrupts) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitForRuns(final int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && runs.get() < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(runs.get() >= expected);
+    }
+
+    private List<JobDetail> waitForSkippedRuns(final String parentJobId, final int expected) throws InterruptedException {
+        final JobFilter filter = new JobFilter.Builder()
+                .parentJobId(parentJobId)
+                .status(JobStatus.SKIPPED)
+                .build();
+        List<JobDetail> skipped = Lists.newArrayList(JobTracker.getJobs(filter, user));
+        for (int i = 0; i < 100 && skipped.size() < expected; i++) {
+            Thread.sleep(50);
+            skipped = Lists.newArrayList(JobTracker.getJobs(filter, user));
+        }
+        assertTrue(skipped.size() >= expected);
+        return skipped;
+    }
+
+    private JobDetail waitForJob(final String jobId) throws InterruptedException {
+        JobDetail jobDetail = JobTracker.getJob(jobId, user);
+        for (int i = 0; i < 100 && (JobStatus.RUNNING == jobDetail.getStatus() || JobStatus.RETRYING == jobDetail.getStatus()); i++) {
+            Thread.sleep(50);
+            jobDetail = JobTracker.getJob(jobId, user);
+        }
+        return jobDetail;
+    }
+
+    private static Repeat cron(final String expression) {
+        final Repeat repeat = new Repeat();
+        repeat.setCron(expression);
+        return repeat;
+    }
 }
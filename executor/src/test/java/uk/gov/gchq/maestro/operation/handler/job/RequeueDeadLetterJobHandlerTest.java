@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.Context;
+import uk.gov.gchq.maestro.Executor;
+import uk.gov.gchq.maestro.ExecutorProperties;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.Status;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.helper.TestOperation;
+import uk.gov.gchq.maestro.jobtracker.DeadLetterStore;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
+import uk.gov.gchq.maestro.jobtracker.JobTracker;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
+import uk.gov.gchq.maestro.operation.OperationChain;
+import uk.gov.gchq.maestro.operation.declaration.OperationDeclaration;
+import uk.gov.gchq.maestro.operation.handler.chain.OperationChainHandler;
+import uk.gov.gchq.maestro.operation.impl.job.GetDeadLetterJobs;
+import uk.gov.gchq.maestro.operation.impl.job.Job;
+import uk.gov.gchq.maestro.operation.impl.job.RequeueDeadLetterJob;
+import uk.gov.gchq.maestro.user.User;
+import uk.gov.gchq.maestro.util.Config;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequeueDeadLetterJobHandlerTest {
+    private final User user = new User("user01");
+    private final AtomicBoolean failing = new AtomicBoolean(true);
+    private Executor executor;
+
+    @Before
+    public void setup() {
+        final ExecutorProperties properties = new ExecutorProperties();
+        properties.setJobTrackerEnabled(true);
+        properties.set("maestro.cache.service.class", "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        executor = new Executor(new Config.Builder()
+                .executorProperties(properties)
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(Job.class)
+                        .handler(new JobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(OperationChain.class)
+                        .handler(new OperationChainHandler<>())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(GetDeadLetterJobs.class)
+                        .handler(new GetDeadLetterJobsHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(RequeueDeadLetterJob.class)
+                        .handler(new RequeueDeadLetterJobHandler())
+                        .build())
+                .operationHandler(new OperationDeclaration.Builder()
+                        .operation(TestOperation.class)
+                        .handler((operation, context, exec) -> {
+                            if (failing.get()) {
+                                throw new OperationException("Service unavailable");
+                            }
+                            return null;
+                        })
+                        .build())
+                .build());
+        JobTracker.clear();
+        DeadLetterStore.clear();
+    }
+
+    @Test
+    public void shouldRequeueDeadLetterJobAsNewJob() throws Exception {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy(2, 10, 100, TimeUnit.MILLISECONDS);
+        final JobDetail submitted = executor.execute(new Job.Builder()
+                .operation(new TestOperation())
+                .retryPolicy(retryPolicy)
+                .build(), user);
+        final JobDetail deadLetter = waitForJob(submitted.getJobId());
+        assertEquals(Collections.singletonList(deadLetter.getJobId()),
+                getDeadLetterJobs().stream().map(JobDetail::getJobId).collect(Collectors.toList()));
+        failing.set(false);
+
+        // When
+        final JobDetail requeued = executor.execute(new RequeueDeadLetterJob.Builder()
+                .jobId(deadLetter.getJobId())
+                .build(), user);
+        final JobDetail finished = waitForJob(requeued.getJobId());
+
+        // Then
+        assertNotEquals(deadLetter.getJobId(), requeued.getJobId());
+        assertEquals(JobStatus.FINISHED, finished.getStatus());
+        assertEquals(retryPolicy, finished.getRetryPolicy());
+        assertEquals(Integer.valueOf(1), finished.getAttempts());
+        assertTrue(getDeadLetterJobs().isEmpty());
+    }
+
+    @Test
+    public void shouldRejectRequeueOfJobNotInDeadLetterStore() {
+        try {
+            new RequeueDeadLetterJobHandler().doOperation(new RequeueDeadLetterJob.Builder()
+                    .jobId("unknown")
+                    .build(), new Context(user), executor);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals(Status.NOT_FOUND, e.getStatus());
+            assertEquals("Job with jobId: unknown is not in the dead letter store.", e.getMessage());
+        }
+    }
+
+    private List<JobDetail> getDeadLetterJobs() throws OperationException {
+        final CloseableIterable<JobDetail> jobs = executor.execute(new GetDeadLetterJobs(), user);
+        return Lists.newArrayList(jobs);
+    }
+
+    private JobDetail waitForJob(final String jobId) throws InterruptedException {
+        JobDetail jobDetail = JobTracker.getJob(jobId, user);
+        for (int i = 0; i < 100 && (JobStatus.RUNNING == jobDetail.getStatus() || JobStatus.RETRYING == jobDetail.getStatus()); i++) {
+            Thread.sleep(50);
+            jobDetail = JobTracker.getJob(jobId, user);
+        }
+        return jobDetail;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.handler.job;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.scheduler.HashedWheelTimer;
+import uk.gov.gchq.maestro.jobtracker.MisfirePolicy;
+import uk.gov.gchq.maestro.jobtracker.OverlapPolicy;
+import uk.gov.gchq.maestro.jobtracker.Repeat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class ScheduledJobTest {
+    // Fires are held here until the test runs them, so the test controls when runs are due
+    private final BlockingQueue<Runnable> fires = new LinkedBlockingQueue<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(fires::add, 5, TimeUnit.MILLISECONDS, 8);
+    // The schedule is measured against this clock, so the test controls which runs have been missed
+    private final AtomicLong now = new AtomicLong(1000);
+    private final List<Runnable> running = new ArrayList<>();
+    private final List<String> skipped = new ArrayList<>();
+    private final List<Long> scheduled = new ArrayList<>();
+    private int runs;
+
+    @After
+    public void after() {
+        timer.close();
+    }
+
+    @Test
+    public void shouldSkipRunsWhileThePreviousRunIsStillRunning() throws InterruptedException {
+        // Given
+        final ScheduledJob job = start(repeat(OverlapPolicy.SKIP, 1));
+
+        // When
+        fire();
+        fire();
+        fire();
+
+        // Then
+        assertEquals(1, runs);
+        assertEquals(2, job.getSkippedRuns());
+        assertEquals("Skipped run as 1 earlier run(s) still running", skipped.get(0));
+
+        // When
+        finish(0);
+        fire();
+
+        // Then
+        assertEquals(2, runs);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldQueueAtMostOneRun() throws InterruptedException {
+        // Given
+        final ScheduledJob job = start(repeat(OverlapPolicy.QUEUE_ONE, 1));
+
+        // When
+        fire();
+        fire();
+        fire();
+
+        // Then
+        assertEquals(1, runs);
+        assertEquals(1, job.getSkippedRuns());
+
+        // When
+        finish(0);
+
+        // Then - the queued run starts straight away
+        assertEquals(2, runs);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldAllowConcurrentRunsUpToTheMaximum() throws InterruptedException {
+        // Given
+        final ScheduledJob job = start(repeat(OverlapPolicy.CONCURRENT, 2));
+
+        // When
+        fire();
+        fire();
+        fire();
+
+        // Then
+        assertEquals(2, runs);
+        assertEquals(1, job.getSkippedRuns());
+
+        // When
+        finish(1);
+        fire();
+
+        // Then
+        assertEquals(3, runs);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldRunOnceAfterMissedRuns() throws InterruptedException {
+        // Given
+        final Repeat repeat = repeat(OverlapPolicy.CONCURRENT, 100);
+        repeat.setMisfirePolicy(MisfirePolicy.RUN_ONCE);
+        final ScheduledJob job = start(repeat);
+
+        // When
+        final Runnable fire = fires.poll(5, TimeUnit.SECONDS);
+        now.addAndGet(500);
+        fire.run();
+
+        // Then
+        assertEquals(1, runs);
+        assertEquals(5, job.getSkippedRuns());
+        assertEquals("Skipped 5 missed run(s)", skipped.get(0));
+        job.cancel();
+    }
+
+    @Test
+    public void shouldSkipMissedRuns() throws InterruptedException {
+        // Given
+        final Repeat repeat = repeat(OverlapPolicy.CONCURRENT, 100);
+        repeat.setMisfirePolicy(MisfirePolicy.SKIP);
+        final ScheduledJob job = start(repeat);
+
+        // When
+        final Runnable fire = fires.poll(5, TimeUnit.SECONDS);
+        now.addAndGet(500);
+        fire.run();
+
+        // Then
+        assertEquals(0, runs);
+        assertEquals(6, job.getSkippedRuns());
+        job.cancel();
+    }
+
+    @Test
+    public void shouldRunAllMissedRuns() throws InterruptedException {
+        // Given
+        final Repeat repeat = repeat(OverlapPolicy.CONCURRENT, 100);
+        repeat.setMisfirePolicy(MisfirePolicy.RUN_ALL);
+        final ScheduledJob job = start(repeat);
+
+        // When
+        final Runnable fire = fires.poll(5, TimeUnit.SECONDS);
+        now.addAndGet(500);
+        fire.run();
+        for (int i = 0; i < 3; i++) {
+            fire();
+        }
+
+        // Then - the missed runs are due straight away
+        assertEquals(4, runs);
+        assertEquals(0, job.getSkippedRuns());
+        job.cancel();
+    }
+
+    @Test
+    public void shouldRecordWhenEachRunIsDue() throws InterruptedException {
+        // Given
+        final ScheduledJob job = start(repeat(OverlapPolicy.CONCURRENT, 100));
+
+        // When
+        fire();
+        fire();
+
+        // Then
+        assertEquals(Arrays.asList(1000L, 1100L, 1200L), scheduled);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldRunOnceAfterRunsMissedWhileStopped() throws InterruptedException {
+        // Given
+        final Repeat repeat = repeat(OverlapPolicy.CONCURRENT, 100);
+        repeat.setMisfirePolicy(MisfirePolicy.RUN_ONCE);
+
+        // When - resumed from a run which was due before the schedule was stopped
+        final ScheduledJob job = start(repeat, 500L);
+        fire();
+
+        // Then
+        assertEquals(1, runs);
+        assertEquals(5, job.getSkippedRuns());
+        assertEquals("Skipped 5 missed run(s)", skipped.get(0));
+        assertEquals(Arrays.asList(500L, 1100L), scheduled);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldSkipRunsMissedWhileStopped() throws InterruptedException {
+        // Given
+        final Repeat repeat = repeat(OverlapPolicy.CONCURRENT, 100);
+        repeat.setMisfirePolicy(MisfirePolicy.SKIP);
+
+        // When
+        final ScheduledJob job = start(repeat, 500L);
+        fire();
+
+        // Then
+        assertEquals(0, runs);
+        assertEquals(6, job.getSkippedRuns());
+        assertEquals(Arrays.asList(500L, 1100L), scheduled);
+        job.cancel();
+    }
+
+    @Test
+    public void shouldRejectInvalidConcurrency() {
+        try {
+            new ScheduledJob("job", repeat(OverlapPolicy.CONCURRENT, 0), onFinish -> { }, reason -> { },
+                    runTime -> { }, timer);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Repeat max concurrent runs must be at least 1", e.getMessage());
+        }
+    }
+
+    private Repeat repeat(final OverlapPolicy overlapPolicy, final int maxConcurrentRuns) {
+        final Repeat repeat = new Repeat(0, 100, TimeUnit.MILLISECONDS);
+        repeat.setOverlapPolicy(overlapPolicy);
+        repeat.setMaxConcurrentRuns(maxConcurrentRuns);
+        return repeat;
+    }
+
+    private ScheduledJob start(final Repeat repeat) {
+        return start(repeat, null);
+    }
+
+    private ScheduledJob start(final Repeat repeat, final Long resumeTime) {
+        final ScheduledJob job = new ScheduledJob("job", repeat, onFinish -> {
+            runs++;
+            running.add(onFinish);
+        }, skipped::add, scheduled::add, timer, now::get);
+        job.start(resumeTime);
+        return job;
+    }
+
+    private void fire() throws InterruptedException {
+        final Runnable fire = fires.poll(5, TimeUnit.SECONDS);
+        assertNotNull(fire);
+        fire.run();
+    }
+
+    private void finish(final int run) {
+        running.get(run).run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.exception.CacheOperationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@code DeadLetterStore} is an entry in a Maestro cache service which holds
+ * the details of jobs which failed after using up the attempts allowed by
+ * their {@link RetryPolicy}. The details include the job's operation, so a
+ * dead letter job can be inspected and requeued once the cause of the
+ * failure has been fixed.
+ */
+public final class DeadLetterStore {
+    private static final String CACHE_NAME = "JobDeadLetters";
+
+    private DeadLetterStore() {
+        // private constructor to prevent instantiation
+    }
+
+    /**
+     * Add the details of a failed job to the dead letter store, replacing any
+     * previous details of the job.
+     *
+     * @param jobDetail the details of the failed job
+     * @param user      the user making the request
+     */
+    public static void add(final JobDetail jobDetail, final User user) {
+        if (null == jobDetail || null == jobDetail.getJobId()) {
+            throw new IllegalArgumentException("A job detail with a job ID is required");
+        }
+        try {
+            CacheServiceLoader.getService().putInCache(CACHE_NAME, jobDetail.getJobId(), jobDetail);
+        } catch (final CacheOperationException e) {
+            throw new RuntimeException("Failed to add job " + jobDetail.getJobId() + " to the dead letter store", e);
+        }
+    }
+
+    /**
+     * Get the details of a dead letter job.
+     *
+     * @param jobId the ID of the job
+     * @param user  the user making the request
+     * @return the details of the job, or null if it is not in the dead letter store
+     */
+    public static JobDetail get(final String jobId, final User user) {
+        return CacheServiceLoader.getService().getFromCache(CACHE_NAME, jobId);
+    }
+
+    /**
+     * Get all of the dead letter jobs, oldest first.
+     *
+     * @param user the user making the request
+     * @return a {@link CloseableIterable} containing the details of the jobs
+     */
+    public static CloseableIterable<JobDetail> getAll(final User user) {
+        final List<JobDetail> jobs = new ArrayList<>(CacheServiceLoader.getService().<String, JobDetail>getAllValuesFromCache(CACHE_NAME));
+        jobs.removeIf(Objects::isNull);
+        jobs.sort(Comparator.comparing(JobDetail::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(JobDetail::getJobId));
+        return new WrappedCloseableIterable<>(jobs);
+    }
+
+    /**
+     * Remove a job from the dead letter store. The job is read and removed in
+     * a single atomic cache update, so only one request can remove it.
+     *
+     * @param jobId the ID of the job
+     * @param user  the user making the request
+     * @return the details of the removed job, or null if it was not in the dead letter store
+     */
+    public static JobDetail remove(final String jobId, final User user) {
+        final JobDetail[] removed = new JobDetail[1];
+        try {
+            CacheServiceLoader.getService().<String, JobDetail>computeInCache(CACHE_NAME, jobId, (id, current) -> {
+                removed[0] = current;
+                return null;
+            });
+        } catch (final CacheOperationException e) {
+            throw new RuntimeException("Failed to remove job " + jobId + " from the dead letter store", e);
+        }
+        return removed[0];
+    }
+
+    /**
+     * Clear the dead letter store.
+     */
+    public static void clear() {
+        try {
+            CacheServiceLoader.getService().clearCache(CACHE_NAME);
+        } catch (final CacheOperationException e) {
+            throw new RuntimeException("Failed to clear the dead letter store", e);
+        }
+    }
+}
@@ -27,6 +27,11 @@ import uk.gov.gchq.maestro.operation.Operation;
 
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * POJO containing details of a Maestro job.
@@ -34,6 +39,8 @@ import java.nio.charset.Charset;
 public class JobDetail implements Serializable {
     private static final long serialVersionUID = -1677432285205724269L;
     private static final String CHARSET_NAME = CommonConstants.UTF_8;
+    private static final List<String> FIELDS = Arrays.asList("parentJobId", "repeat", "userId", "status",
+            "startTime", "endTime", "operation", "description", "progress", "progressTime", "retryPolicy", "attempts", "nextRunTime");
     private String parentJobId;
     private Repeat repeat;
     private String jobId;
@@ -43,6 +50,11 @@ public class JobDetail implements Serializable {
     private Long endTime;
     private Operation operation;
     private String description;
+    private Map<String, Long> progress;
+    private Long progressTime;
+    private RetryPolicy retryPolicy;
+    private Integer attempts;
+    private Long nextRunTime;
 
     public JobDetail() {
     }
@@ -55,6 +67,11 @@ public class JobDetail implements Serializable {
         this.status = getNewOrOld(oldJobDetail.status, newJobDetail.status);
         this.parentJobId = getNewOrOld(oldJobDetail.parentJobId, newJobDetail.parentJobId);
         this.repeat = getNewOrOld(oldJobDetail.repeat, newJobDetail.repeat);
+        this.progress = getNewOrOld(oldJobDetail.progress, newJobDetail.progress);
+        this.progressTime = getNewOrOld(oldJobDetail.progressTime, newJobDetail.progressTime);
+        this.retryPolicy = getNewOrOld(oldJobDetail.retryPolicy, newJobDetail.retryPolicy);
+        this.attempts = getNewOrOld(oldJobDetail.attempts, newJobDetail.attempts);
+        this.nextRunTime = getNewOrOld(oldJobDetail.nextRunTime, newJobDetail.nextRunTime);
 
         if (null == oldJobDetail.startTime) {
             this.startTime = System.currentTimeMillis();
@@ -133,6 +150,10 @@ public class JobDetail implements Serializable {
     }
 
     public String getOperation() {
+        if (null == operation) {
+            return null;
+        }
+
         try {
             return new String(JSONSerialiser.serialise(operation),
                     Charset.forName(CHARSET_NAME));
@@ -172,6 +193,75 @@ public class JobDetail implements Serializable {
         this.description = description;
     }
 
+    /**
+     * @return the progress counters of the job, such as the number of
+     * records processed, as at the progress time
+     */
+    public Map<String, Long> getProgress() {
+        return progress;
+    }
+
+    public void setProgress(final Map<String, Long> progress) {
+        this.progress = null == progress ? null : new TreeMap<>(progress);
+    }
+
+    /**
+     * @return when the progress was last published, in epoch milliseconds
+     */
+    public Long getProgressTime() {
+        return progressTime;
+    }
+
+    public void setProgressTime(final Long progressTime) {
+        this.progressTime = progressTime;
+    }
+
+    /**
+     * Creates a copy of this job detail with new progress counters. Unlike
+     * merging job details, the end time is left unchanged.
+     *
+     * @param progress     the progress counters
+     * @param progressTime when the counters were read, in epoch milliseconds
+     * @return the updated copy
+     */
+    public JobDetail withProgress(final Map<String, Long> progress, final long progressTime) {
+        final JobDetail copy = project(FIELDS);
+        copy.setProgress(progress);
+        copy.progressTime = progressTime;
+        return copy;
+    }
+
+    /**
+     * Creates a copy of this job detail for an attempt at running the job.
+     * Unlike merging job details, the end time is left unchanged.
+     *
+     * @param attempts    the number of attempts made, including the current one
+     * @param status      the status of the job
+     * @param description the description of the job, or null for none
+     * @return the updated copy
+     */
+    public JobDetail withAttempts(final int attempts, final JobStatus status, final String description) {
+        final JobDetail copy = project(FIELDS);
+        copy.attempts = attempts;
+        copy.status = status;
+        copy.description = description;
+        return copy;
+    }
+
+    /**
+     * Creates a copy of this job detail with the time the next run of a
+     * repeating job is due. Unlike merging job details, the end time is left
+     * unchanged.
+     *
+     * @param nextRunTime when the next run is due, in epoch milliseconds
+     * @return the updated copy
+     */
+    public JobDetail withNextRunTime(final long nextRunTime) {
+        final JobDetail copy = project(FIELDS);
+        copy.nextRunTime = nextRunTime;
+        return copy;
+    }
+
     public Repeat getRepeat() {
         return repeat;
     }
@@ -180,6 +270,99 @@ public class JobDetail implements Serializable {
         this.repeat = repeat;
     }
 
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * @return the number of attempts made at running the job, if it has a {@link RetryPolicy}
+     */
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(final Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * @return when the next run of a repeating job is due, in epoch
+     * milliseconds, so the schedule can be resumed with its missed runs
+     * handled by its {@link MisfirePolicy}
+     */
+    public Long getNextRunTime() {
+        return nextRunTime;
+    }
+
+    public void setNextRunTime(final Long nextRunTime) {
+        this.nextRunTime = nextRunTime;
+    }
+
+    /**
+     * Creates a copy of this job detail holding only the given fields. The
+     * jobId is always kept.
+     *
+     * @param fields the names of the fields to keep, e.g. "status" or "startTime"
+     * @return the projected copy
+     * @throws IllegalArgumentException if a field name is not recognised
+     */
+    public JobDetail project(final Collection<String> fields) {
+        final JobDetail projection = new JobDetail();
+        projection.jobId = jobId;
+        for (final String field : fields) {
+            switch (field) {
+                case "jobId":
+                    break;
+                case "parentJobId":
+                    projection.parentJobId = parentJobId;
+                    break;
+                case "repeat":
+                    projection.repeat = repeat;
+                    break;
+                case "userId":
+                    projection.userId = userId;
+                    break;
+                case "status":
+                    projection.status = status;
+                    break;
+                case "startTime":
+                    projection.startTime = startTime;
+                    break;
+                case "endTime":
+                    projection.endTime = endTime;
+                    break;
+                case "operation":
+                    projection.operation = operation;
+                    break;
+                case "description":
+                    projection.description = description;
+                    break;
+                case "progress":
+                    projection.progress = progress;
+                    break;
+                case "progressTime":
+                    projection.progressTime = progressTime;
+                    break;
+                case "retryPolicy":
+                    projection.retryPolicy = retryPolicy;
+                    break;
+                case "attempts":
+                    projection.attempts = attempts;
+                    break;
+                case "nextRunTime":
+                    projection.nextRunTime = nextRunTime;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown JobDetail field: " + field);
+            }
+        }
+        return projection;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -199,6 +382,11 @@ public class JobDetail implements Serializable {
                 .append(description, jobDetail.description)
                 .append(parentJobId, jobDetail.parentJobId)
                 .append(repeat, jobDetail.repeat)
+                .append(progress, jobDetail.progress)
+                .append(progressTime, jobDetail.progressTime)
+                .append(retryPolicy, jobDetail.retryPolicy)
+                .append(attempts, jobDetail.attempts)
+                .append(nextRunTime, jobDetail.nextRunTime)
                 .isEquals();
     }
 
@@ -214,6 +402,11 @@ public class JobDetail implements Serializable {
                 .append(description)
                 .append(parentJobId)
                 .append(repeat)
+                .append(progress)
+                .append(progressTime)
+                .append(retryPolicy)
+                .append(attempts)
+                .append(nextRunTime)
                 .toHashCode();
     }
 
@@ -229,6 +422,11 @@ public class JobDetail implements Serializable {
                 .append("description", description)
                 .append("parentJobId", parentJobId)
                 .append("repeat", repeat)
+                .append("progress", progress)
+                .append("progressTime", progressTime)
+                .append("retryPolicy", retryPolicy)
+                .append("attempts", attempts)
+                .append("nextRunTime", nextRunTime)
                 .toString();
     }
 
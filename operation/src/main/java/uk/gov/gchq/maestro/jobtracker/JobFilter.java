@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+
+import java.util.function.Predicate;
+
+/**
+ * A {@code JobFilter} selects {@link JobDetail}s by user, status, parent job
+ * and start time. Fields which are not set match every job. The
+ * {@link JobTracker} answers filters from its secondary indexes, so only the
+ * matching jobs are read from the cache.
+ */
+public class JobFilter implements Predicate<JobDetail> {
+    private String userId;
+    private JobStatus status;
+    private String parentJobId;
+    private Long startedAfter;
+    private Long startedBefore;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public String getParentJobId() {
+        return parentJobId;
+    }
+
+    /**
+     * @return the inclusive lower bound on the job start time, in milliseconds
+     */
+    public Long getStartedAfter() {
+        return startedAfter;
+    }
+
+    /**
+     * @return the exclusive upper bound on the job start time, in milliseconds
+     */
+    public Long getStartedBefore() {
+        return startedBefore;
+    }
+
+    /**
+     * @return true if no fields are set, so every job matches
+     */
+    public boolean isEmpty() {
+        return null == userId && null == status && null == parentJobId
+                && null == startedAfter && null == startedBefore;
+    }
+
+    @Override
+    public boolean test(final JobDetail jobDetail) {
+        if (null == jobDetail) {
+            return false;
+        }
+        if (null != userId && !userId.equals(jobDetail.getUserId())) {
+            return false;
+        }
+        if (null != status && status != jobDetail.getStatus()) {
+            return false;
+        }
+        if (null != parentJobId && !parentJobId.equals(jobDetail.getParentJobId())) {
+            return false;
+        }
+        if (null != startedAfter || null != startedBefore) {
+            final Long startTime = jobDetail.getStartTime();
+            if (null == startTime
+                    || (null != startedAfter && startTime < startedAfter)
+                    || (null != startedBefore && startTime >= startedBefore)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("userId", userId)
+                .append("status", status)
+                .append("parentJobId", parentJobId)
+                .append("startedAfter", startedAfter)
+                .append("startedBefore", startedBefore)
+                .toString();
+    }
+
+    public static class Builder {
+        private final JobFilter filter = new JobFilter();
+
+        public Builder userId(final String userId) {
+            filter.userId = userId;
+            return this;
+        }
+
+        public Builder status(final JobStatus status) {
+            filter.status = status;
+            return this;
+        }
+
+        public Builder parentJobId(final String parentJobId) {
+            filter.parentJobId = parentJobId;
+            return this;
+        }
+
+        public Builder startedAfter(final Long startedAfter) {
+            filter.startedAfter = startedAfter;
+            return this;
+        }
+
+        public Builder startedBefore(final Long startedBefore) {
+            filter.startedBefore = startedBefore;
+            return this;
+        }
+
+        public JobFilter build() {
+            return filter;
+        }
+    }
+}
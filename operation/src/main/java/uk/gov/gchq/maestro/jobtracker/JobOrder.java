@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import uk.gov.gchq.koryphe.Summary;
+
+/**
+ * The order in which the {@link JobTracker} lists jobs. Jobs are ordered by
+ * start time, then by jobId.
+ */
+@Summary("The order in which jobs are listed")
+public enum JobOrder {
+
+    /**
+     * The earliest started jobs are listed first.
+     */
+    OLDEST_FIRST,
+
+    /**
+     * The most recently started jobs are listed first.
+     */
+    NEWEST_FIRST
+}
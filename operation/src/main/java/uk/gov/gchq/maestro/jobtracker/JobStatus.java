@@ -46,5 +46,23 @@ public enum JobStatus {
     /**
      * The Maestro job is cancelled (to be used for scheduled jobs).
      */
-    CANCELLED
+    CANCELLED,
+
+    /**
+     * A run of a scheduled job which was skipped, because earlier runs were
+     * still running or the run was missed.
+     */
+    SKIPPED,
+
+    /**
+     * An attempt to run the Maestro job failed and it is waiting to be
+     * retried.
+     */
+    RETRYING,
+
+    /**
+     * The Maestro job was running when the Maestro instance stopped, so it
+     * did not finish.
+     */
+    INTERRUPTED
 }
@@ -19,21 +19,69 @@ package uk.gov.gchq.maestro.jobtracker;
 import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
 import uk.gov.gchq.maestro.commonutil.exception.CacheOperationException;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.maestro.user.User;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * A {@code JobTracker} is an entry in a Maestro cache service which is used to store
  * details of jobs submitted to the Executor.
+ * <p>
+ * Alongside the job details the tracker maintains secondary indexes, in a
+ * second cache, from each userId, {@link JobStatus}, parentJobId and hour of
+ * start time to the ids of the matching jobs. The indexes are updated with
+ * each job detail, so {@link #getJobs(JobFilter, JobOrder, String, User)}
+ * only reads the jobs which match the filter rather than every job in the
+ * cache, and can list them in start time order a bucket at a time.
+ * </p>
+ * <p>
+ * Each index set is updated in place, so an update costs the same however
+ * many jobs share the key. Updates to the same job are ordered by a lock
+ * striped by job id, which only holds within a JVM. With a distributed cache
+ * the indexes may briefly disagree with the job details, so the filter is
+ * always checked against each job read.
+ * </p>
  */
 public final class JobTracker {
+    /**
+     * The width in milliseconds of the start time index buckets.
+     */
+    public static final long START_TIME_BUCKET_SIZE = 60 * 60 * 1000L;
 
     private static final String CACHE_NAME = "JobTracker";
+    private static final String INDEX_CACHE_NAME = "JobTrackerIndex";
+    private static final String USER_ID_INDEX = "userId/";
+    private static final String STATUS_INDEX = "status/";
+    private static final String PARENT_JOB_ID_INDEX = "parentJobId/";
+    private static final String START_TIME_INDEX = "startTime/";
+    // Larger start time ranges are filtered while reading rather than looked up bucket by bucket
+    private static final long MAX_START_TIME_BUCKETS = 24 * 31;
+    // Smaller sets of candidate jobs are read and sorted in one go rather than by walking the start time buckets
+    private static final int MAX_SORTED_CANDIDATES = 1000;
+    private static final int LOCK_STRIPES = 64;
+    private static final Object[] LOCKS = new Object[LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
 
     private JobTracker() {
         // private constructor to prevent instantiation
@@ -48,11 +96,41 @@ public final class JobTracker {
     public static void addOrUpdateJob(final JobDetail jobDetail,
                                       final User user) {
         validateJobDetail(jobDetail);
-        try {
-            CacheServiceLoader.getService().putInCache(CACHE_NAME, jobDetail.getJobId(), jobDetail);
-        } catch (final CacheOperationException e) {
-            throw new RuntimeException("Failed to add jobDetail " + jobDetail.toString() + " to the cache", e);
-        }
+        computeJob(jobDetail.getJobId(), oldJobDetail -> jobDetail);
+    }
+
+    /**
+     * Add the job details to the job tracker cache, or merge them with the
+     * existing details of the job, in a single atomic cache update. Fields
+     * which are set on the given details replace the existing values, see
+     * {@link JobDetail#JobDetail(JobDetail, JobDetail)}.
+     *
+     * @param jobDetail the job details to add or merge
+     * @param user      the user making the request
+     * @return the job details now held in the cache
+     */
+    public static JobDetail mergeJob(final JobDetail jobDetail,
+                                     final User user) {
+        validateJobDetail(jobDetail);
+        return computeJob(jobDetail.getJobId(),
+                oldJobDetail -> null == oldJobDetail ? jobDetail : new JobDetail(oldJobDetail, jobDetail));
+    }
+
+    /**
+     * Update the details of an existing job in a single atomic cache update.
+     * The update function is given the current details, which it must not
+     * modify, and returns the new details; returning the current details
+     * leaves the job unchanged.
+     *
+     * @param jobId  the ID of the job to update
+     * @param update the function to compute the new job details
+     * @param user   the user making the request
+     * @return the job details now held in the cache, or null if the job does not exist
+     */
+    public static JobDetail updateJob(final String jobId,
+                                      final UnaryOperator<JobDetail> update,
+                                      final User user) {
+        return computeJob(jobId, oldJobDetail -> null == oldJobDetail ? null : update.apply(oldJobDetail));
     }
 
     /**
@@ -76,20 +154,68 @@ public final class JobTracker {
     }
 
     /**
-     * Get all jobs from the job tracker cache.
+     * Get all jobs from the job tracker cache. The jobs are read from the
+     * cache lazily as the result is iterated.
      *
      * @param user the user making the request to the job tracker
      * @return a {@link CloseableIterable} containing all of the job details
      */
     public static CloseableIterable<JobDetail> getAllJobs(final User user) {
-        final Set<String> jobIds = CacheServiceLoader.getService().getAllKeysFromCache(CACHE_NAME);
-        final List<JobDetail> jobs = jobIds.stream()
+        final List<String> jobIds = new ArrayList<>(CacheServiceLoader.getService().<String, JobDetail>getAllKeysFromCache(CACHE_NAME));
+        return new WrappedCloseableIterable<>(() -> jobIds.stream()
                 .filter(Objects::nonNull)
                 .map(jobId -> getJob(jobId, user))
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+                .iterator());
+    }
 
-        return new WrappedCloseableIterable<>(jobs);
+    /**
+     * Get the jobs matching a filter, oldest first.
+     *
+     * @param filter the filter to apply, or null for all jobs
+     * @param user   the user making the request to the job tracker
+     * @return a {@link CloseableIterable} containing the matching job details
+     * @see #getJobs(JobFilter, JobOrder, String, User)
+     */
+    public static CloseableIterable<JobDetail> getJobs(final JobFilter filter, final User user) {
+        return getJobs(filter, JobOrder.OLDEST_FIRST, null, user);
+    }
+
+    /**
+     * Get the jobs matching a filter, ordered by start time and then jobId.
+     * <p>
+     * The candidate jobs are found from the secondary indexes for each field
+     * set on the filter, starting with the smallest, so only jobs which match
+     * every indexed field are read from the cache. A small set of candidates
+     * is read and sorted in one go. Otherwise the start time buckets are
+     * walked in order and the jobs are read lazily one bucket at a time, so
+     * only a bucket of jobs is held in memory and a page of results only reads
+     * the buckets it needs.
+     * </p>
+     *
+     * @param filter     the filter to apply, or null for all jobs
+     * @param order      the order to list the jobs in, or null for {@link JobOrder#OLDEST_FIRST}
+     * @param afterJobId the id of the last job of the previous page, or null to start with the first job
+     * @param user       the user making the request to the job tracker
+     * @return a {@link CloseableIterable} containing the matching job details
+     * @throws IllegalArgumentException if afterJobId is not a tracked job
+     */
+    public static CloseableIterable<JobDetail> getJobs(final JobFilter filter, final JobOrder order,
+                                                       final String afterJobId, final User user) {
+        final JobFilter jobFilter = null == filter ? new JobFilter.Builder().build() : filter;
+        final boolean newestFirst = JobOrder.NEWEST_FIRST == order;
+
+        JobDetail after = null;
+        if (null != afterJobId) {
+            after = getJob(afterJobId, user);
+            if (null == after) {
+                throw new IllegalArgumentException("Unknown job cursor: " + afterJobId);
+            }
+        }
+
+        final Set<String> candidates = jobFilter.isEmpty() ? null : findCandidateJobIds(jobFilter);
+        final JobDetail lastJob = after;
+        return new WrappedCloseableIterable<>(() -> new SortedJobIterator(jobFilter, newestFirst, lastJob, candidates, user));
     }
 
     /**
@@ -98,11 +224,218 @@ public final class JobTracker {
     public static void clear() {
         try {
             CacheServiceLoader.getService().clearCache(CACHE_NAME);
+            CacheServiceLoader.getService().clearCache(INDEX_CACHE_NAME);
         } catch (final CacheOperationException e) {
             throw new RuntimeException("Failed to clear job tracker cache", e);
         }
     }
 
+    private static Set<String> findCandidateJobIds(final JobFilter filter) {
+        final List<Set<String>> matches = new ArrayList<>();
+        if (null != filter.getUserId()) {
+            matches.add(getIndex(USER_ID_INDEX + filter.getUserId()));
+        }
+        if (null != filter.getStatus()) {
+            matches.add(getIndex(STATUS_INDEX + filter.getStatus()));
+        }
+        if (null != filter.getParentJobId()) {
+            matches.add(getIndex(PARENT_JOB_ID_INDEX + filter.getParentJobId()));
+        }
+        if (null != filter.getStartedAfter()) {
+            final long firstBucket = getStartTimeBucket(filter.getStartedAfter());
+            final long lastBucket = getStartTimeBucket(null != filter.getStartedBefore()
+                    ? filter.getStartedBefore() - 1 : System.currentTimeMillis());
+            if (lastBucket < firstBucket) {
+                return Collections.emptySet();
+            }
+            if (lastBucket - firstBucket < MAX_START_TIME_BUCKETS) {
+                final Set<String> jobIds = new LinkedHashSet<>();
+                for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                    jobIds.addAll(getIndex(START_TIME_INDEX + bucket));
+                }
+                matches.add(jobIds);
+            }
+        }
+
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        matches.sort(Comparator.comparingInt(Set::size));
+        final Set<String> jobIds = new LinkedHashSet<>(matches.get(0));
+        for (int i = 1; i < matches.size() && !jobIds.isEmpty(); i++) {
+            jobIds.retainAll(matches.get(i));
+        }
+        return jobIds;
+    }
+
+    private static Set<String> getIndexKeys(final JobDetail jobDetail) {
+        final Set<String> keys = new HashSet<>();
+        if (null != jobDetail) {
+            if (null != jobDetail.getUserId()) {
+                keys.add(USER_ID_INDEX + jobDetail.getUserId());
+            }
+            if (null != jobDetail.getStatus()) {
+                keys.add(STATUS_INDEX + jobDetail.getStatus());
+            }
+            if (null != jobDetail.getParentJobId()) {
+                keys.add(PARENT_JOB_ID_INDEX + jobDetail.getParentJobId());
+            }
+            keys.add(START_TIME_INDEX + getStartTimeBucket(getSortTime(jobDetail)));
+        }
+        return keys;
+    }
+
+    private static JobDetail computeJob(final String jobId, final UnaryOperator<JobDetail> update) {
+        // The lock keeps the indexes in step with the order of the job's updates
+        synchronized (LOCKS[Math.floorMod(jobId.hashCode(), LOCK_STRIPES)]) {
+            final JobDetail[] oldJobDetail = new JobDetail[1];
+            try {
+                final JobDetail newJobDetail = CacheServiceLoader.getService().<String, JobDetail>computeInCache(CACHE_NAME, jobId,
+                        (id, current) -> {
+                            oldJobDetail[0] = current;
+                            final JobDetail updated = update.apply(current);
+                            if (null != updated) {
+                                validateJobDetail(updated);
+                            }
+                            return updated;
+                        });
+                if (oldJobDetail[0] != newJobDetail) {
+                    updateIndexes(jobId, getIndexKeys(oldJobDetail[0]), getIndexKeys(newJobDetail));
+                }
+                return newJobDetail;
+            } catch (final CacheOperationException e) {
+                throw new RuntimeException("Failed to update job " + jobId + " in the cache", e);
+            }
+        }
+    }
+
+    private static void updateIndexes(final String jobId, final Set<String> oldKeys, final Set<String> newKeys)
+            throws CacheOperationException {
+        for (final String key : oldKeys) {
+            if (!newKeys.contains(key)) {
+                updateIndex(key, jobIds -> jobIds.remove(jobId));
+            }
+        }
+        for (final String key : newKeys) {
+            if (!oldKeys.contains(key)) {
+                updateIndex(key, jobIds -> jobIds.add(jobId));
+            }
+        }
+    }
+
+    private static void updateIndex(final String key, final Consumer<Set<String>> update) throws CacheOperationException {
+        CacheServiceLoader.getService().<String, Set<String>>computeInCache(INDEX_CACHE_NAME, key, (k, jobIds) -> {
+            // Index sets are concurrent, so they can be read while they are updated in place
+            final Set<String> updated = null == jobIds ? ConcurrentHashMap.newKeySet() : jobIds;
+            update.accept(updated);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private static Set<String> getIndex(final String key) {
+        final Set<String> jobIds = CacheServiceLoader.getService().getFromCache(INDEX_CACHE_NAME, key);
+        return null == jobIds ? new LinkedHashSet<>() : jobIds;
+    }
+
+    private static long getStartTimeBucket(final long startTime) {
+        return Math.floorDiv(startTime, START_TIME_BUCKET_SIZE);
+    }
+
+    private static long getSortTime(final JobDetail jobDetail) {
+        // Jobs without a start time are indexed and sorted as the oldest
+        return null == jobDetail.getStartTime() ? Long.MIN_VALUE : jobDetail.getStartTime();
+    }
+
+    private static List<Long> getStartTimeBuckets(final JobFilter filter, final boolean newestFirst, final JobDetail after) {
+        long first = null == filter.getStartedAfter() ? Long.MIN_VALUE : getStartTimeBucket(filter.getStartedAfter());
+        long last = null == filter.getStartedBefore() ? Long.MAX_VALUE : getStartTimeBucket(filter.getStartedBefore() - 1);
+        if (null != after) {
+            if (newestFirst) {
+                last = Math.min(last, getStartTimeBucket(getSortTime(after)));
+            } else {
+                first = Math.max(first, getStartTimeBucket(getSortTime(after)));
+            }
+        }
+
+        final List<Long> buckets = new ArrayList<>();
+        for (final Object key : new ArrayList<>(CacheServiceLoader.getService().getAllKeysFromCache(INDEX_CACHE_NAME))) {
+            final String indexKey = (String) key;
+            if (indexKey.startsWith(START_TIME_INDEX)) {
+                final long bucket = Long.parseLong(indexKey.substring(START_TIME_INDEX.length()));
+                if (bucket >= first && bucket <= last) {
+                    buckets.add(bucket);
+                }
+            }
+        }
+        buckets.sort(newestFirst ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        return buckets;
+    }
+
+    private static final class SortedJobIterator implements CloseableIterator<JobDetail> {
+        private final JobFilter filter;
+        private final Comparator<JobDetail> comparator;
+        private final JobDetail after;
+        private final Set<String> candidates;
+        private final User user;
+        private final Iterator<Long> buckets;
+        private Iterator<JobDetail> current;
+
+        private SortedJobIterator(final JobFilter filter, final boolean newestFirst, final JobDetail after,
+                                  final Set<String> candidates, final User user) {
+            final Comparator<JobDetail> oldestFirst = Comparator.comparingLong(JobTracker::getSortTime)
+                    .thenComparing(JobDetail::getJobId);
+            this.filter = filter;
+            this.comparator = newestFirst ? oldestFirst.reversed() : oldestFirst;
+            this.after = after;
+            this.candidates = candidates;
+            this.user = user;
+            if (null != candidates && candidates.size() <= MAX_SORTED_CANDIDATES) {
+                buckets = Collections.emptyIterator();
+                current = read(candidates).iterator();
+            } else {
+                buckets = getStartTimeBuckets(filter, newestFirst, after).iterator();
+                current = Collections.emptyIterator();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && buckets.hasNext()) {
+                final Set<String> jobIds = getIndex(START_TIME_INDEX + buckets.next());
+                current = read(null == candidates ? jobIds : jobIds.stream()
+                        .filter(candidates::contains)
+                        .collect(Collectors.toList())).iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public JobDetail next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            current = Collections.emptyIterator();
+            while (buckets.hasNext()) {
+                buckets.next();
+            }
+        }
+
+        private List<JobDetail> read(final Collection<String> jobIds) {
+            return jobIds.stream()
+                    .map(jobId -> getJob(jobId, user))
+                    .filter(filter)
+                    .filter(jobDetail -> null == after || comparator.compare(jobDetail, after) > 0)
+                    .sorted(comparator)
+                    .collect(Collectors.toList());
+        }
+    }
+
     private static void validateJobDetail(final JobDetail jobDetail) {
         if (null == jobDetail) {
             throw new IllegalArgumentException("JobDetail is required");
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import uk.gov.gchq.koryphe.Summary;
+
+/**
+ * What a scheduled job does when it has missed runs. Runs are missed when the
+ * scheduler was held up for longer than the time between runs, or when the
+ * schedule is resumed from its persisted next run time after the executor was
+ * stopped, for example after a restart.
+ */
+@Summary("What a scheduled job does when it has missed runs")
+public enum MisfirePolicy {
+
+    /**
+     * The job runs once, and the other missed runs are skipped.
+     */
+    RUN_ONCE,
+
+    /**
+     * Every missed run is run, one after another.
+     */
+    RUN_ALL,
+
+    /**
+     * The missed runs are skipped and the job waits for its next run.
+     */
+    SKIP
+}
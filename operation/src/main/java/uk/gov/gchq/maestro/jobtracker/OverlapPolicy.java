@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import uk.gov.gchq.koryphe.Summary;
+
+/**
+ * What a scheduled job does when a run is due while earlier runs are still
+ * running.
+ */
+@Summary("What a scheduled job does when a run is due while earlier runs are still running")
+public enum OverlapPolicy {
+
+    /**
+     * The run is skipped.
+     */
+    SKIP,
+
+    /**
+     * The run waits for the previous run to finish. At most one run waits,
+     * any further runs are skipped.
+     */
+    QUEUE_ONE,
+
+    /**
+     * The run starts alongside the earlier runs, up to the maximum number
+     * of concurrent runs. Any further runs are skipped.
+     */
+    CONCURRENT
+}
@@ -23,10 +23,29 @@ import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * A {@code Repeat} is the schedule of a repeating job. The job runs every
+ * {@code repeatPeriod}, or at the times matching the {@code cron}
+ * expression if one is set, starting after the {@code initialDelay}. A
+ * {@code jitter} delays each run by a random amount up to the jitter, so
+ * jobs on the same schedule do not all run at once. Durations are in the
+ * {@code timeUnit} and cron expressions are in UTC.
+ * <p>
+ * The {@link OverlapPolicy} controls what happens when a run is due while
+ * earlier runs are still running, and the {@link MisfirePolicy} what
+ * happens to runs which were missed. By default an overlapping run is
+ * skipped and missed runs are caught up with a single run.
+ * </p>
+ */
 public class Repeat {
     private long initialDelay;
     private long repeatPeriod;
     private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private String cron;
+    private long jitter;
+    private OverlapPolicy overlapPolicy = OverlapPolicy.SKIP;
+    private int maxConcurrentRuns = 1;
+    private MisfirePolicy misfirePolicy = MisfirePolicy.RUN_ONCE;
 
     public Repeat() {
     }
@@ -61,6 +80,49 @@ public class Repeat {
         this.timeUnit = timeUnit;
     }
 
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(final String cron) {
+        this.cron = cron;
+    }
+
+    public long getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(final long jitter) {
+        this.jitter = jitter;
+    }
+
+    public OverlapPolicy getOverlapPolicy() {
+        return overlapPolicy;
+    }
+
+    public void setOverlapPolicy(final OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+    }
+
+    /**
+     * @return the maximum number of runs at once, when using {@link OverlapPolicy#CONCURRENT}
+     */
+    public int getMaxConcurrentRuns() {
+        return maxConcurrentRuns;
+    }
+
+    public void setMaxConcurrentRuns(final int maxConcurrentRuns) {
+        this.maxConcurrentRuns = maxConcurrentRuns;
+    }
+
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    public void setMisfirePolicy(final MisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -74,6 +136,11 @@ public class Repeat {
                 .append(initialDelay, repeat.initialDelay)
                 .append(repeatPeriod, repeat.repeatPeriod)
                 .append(timeUnit, repeat.timeUnit)
+                .append(cron, repeat.cron)
+                .append(jitter, repeat.jitter)
+                .append(overlapPolicy, repeat.overlapPolicy)
+                .append(maxConcurrentRuns, repeat.maxConcurrentRuns)
+                .append(misfirePolicy, repeat.misfirePolicy)
                 .isEquals();
     }
 
@@ -83,6 +150,11 @@ public class Repeat {
                 .append(initialDelay)
                 .append(repeatPeriod)
                 .append(timeUnit)
+                .append(cron)
+                .append(jitter)
+                .append(overlapPolicy)
+                .append(maxConcurrentRuns)
+                .append(misfirePolicy)
                 .toHashCode();
     }
 
@@ -92,6 +164,11 @@ public class Repeat {
                 .append("initialDelay", initialDelay)
                 .append("repeatPeriod", repeatPeriod)
                 .append("timeUnit", timeUnit)
+                .append("cron", cron)
+                .append("jitter", jitter)
+                .append("overlapPolicy", overlapPolicy)
+                .append("maxConcurrentRuns", maxConcurrentRuns)
+                .append("misfirePolicy", misfirePolicy)
                 .toString();
     }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code RetryPolicy} controls how a failed job is retried. The job is run
+ * up to {@code maxAttempts} times. The delay before each retry starts at
+ * {@code initialDelay} and is multiplied by the {@code multiplier} after each
+ * attempt, up to {@code maxDelay}. Durations are in the {@code timeUnit}.
+ * <p>
+ * The {@code jitter} is the fraction of each delay which is randomised, so
+ * jobs which failed together are not all retried at once. Only failures
+ * caused by one of the {@code retryableExceptions}, or a subclass of one,
+ * are retried; if none are set every failure is retried.
+ * </p>
+ */
+public class RetryPolicy implements Serializable {
+    private static final long serialVersionUID = 4503591186532624107L;
+    private int maxAttempts = 3;
+    private long initialDelay = 1;
+    private long maxDelay = 60;
+    private double multiplier = 2;
+    private double jitter = 0.5;
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private Set<String> retryableExceptions;
+
+    public RetryPolicy() {
+    }
+
+    public RetryPolicy(final int maxAttempts, final long initialDelay, final long maxDelay, final TimeUnit timeUnit) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * @return the maximum number of times the job is run, including the first attempt
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(final long initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(final long maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(final double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * @return the fraction of each delay, between 0 and 1, which is randomised
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(final double jitter) {
+        this.jitter = jitter;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * @return the class names of the exceptions which are retried, or null to retry every failure
+     */
+    public Set<String> getRetryableExceptions() {
+        return retryableExceptions;
+    }
+
+    public void setRetryableExceptions(final Set<String> retryableExceptions) {
+        this.retryableExceptions = null == retryableExceptions ? null : new HashSet<>(retryableExceptions);
+    }
+
+    /**
+     * Gets the delay before retrying a failed attempt.
+     *
+     * @param attempt the number of the attempt which failed, starting at 1
+     * @param random  the source of the jitter
+     * @return the delay in milliseconds
+     */
+    public long getDelay(final int attempt, final Random random) {
+        final double backoff = Math.min(timeUnit.toMillis(maxDelay),
+                timeUnit.toMillis(initialDelay) * Math.pow(multiplier, Math.max(0, attempt - 1)));
+        return Math.round(backoff * (1 - jitter * random.nextDouble()));
+    }
+
+    /**
+     * Checks whether a failure should be retried. The failure is retryable if
+     * it, or any of its causes, is an instance of one of the retryable
+     * exceptions.
+     *
+     * @param failure the failure
+     * @return true if the failure is retryable
+     */
+    public boolean isRetryable(final Throwable failure) {
+        if (null == retryableExceptions || retryableExceptions.isEmpty()) {
+            return true;
+        }
+        Throwable cause = failure;
+        while (null != cause) {
+            for (Class<?> type = cause.getClass(); null != type; type = type.getSuperclass()) {
+                if (retryableExceptions.contains(type.getName())) {
+                    return true;
+                }
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+        final RetryPolicy retryPolicy = (RetryPolicy) obj;
+        return new EqualsBuilder()
+                .append(maxAttempts, retryPolicy.maxAttempts)
+                .append(initialDelay, retryPolicy.initialDelay)
+                .append(maxDelay, retryPolicy.maxDelay)
+                .append(multiplier, retryPolicy.multiplier)
+                .append(jitter, retryPolicy.jitter)
+                .append(timeUnit, retryPolicy.timeUnit)
+                .append(retryableExceptions, retryPolicy.retryableExceptions)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(19, 43)
+                .append(maxAttempts)
+                .append(initialDelay)
+                .append(maxDelay)
+                .append(multiplier)
+                .append(jitter)
+                .append(timeUnit)
+                .append(retryableExceptions)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("maxAttempts", maxAttempts)
+                .append("initialDelay", initialDelay)
+                .append("maxDelay", maxDelay)
+                .append("multiplier", multiplier)
+                .append("jitter", jitter)
+                .append("timeUnit", timeUnit)
+                .append("retryableExceptions", retryableExceptions)
+                .toString();
+    }
+}
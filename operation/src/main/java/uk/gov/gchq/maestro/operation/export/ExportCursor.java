@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.export;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility methods for creating and reading the opaque cursor tokens used to
+ * page through an export. A cursor records the export key and the position
+ * of the next item to read, so a page can be fetched without the client
+ * tracking numeric offsets.
+ */
+public final class ExportCursor {
+    private static final String SEPARATOR = "\u0000";
+
+    private ExportCursor() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Creates a cursor token.
+     *
+     * @param key      the export key
+     * @param position the position of the next item to read
+     * @return the cursor token
+     */
+    public static String encode(final String key, final long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Cursor position must not be negative");
+        }
+
+        final String value = position + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the position from a cursor token.
+     *
+     * @param cursor the cursor token
+     * @param key    the export key the cursor is expected to belong to
+     * @return the position of the next item to read
+     * @throws IllegalArgumentException if the cursor is invalid or belongs to a different export key
+     */
+    public static long decode(final String cursor, final String key) {
+        final String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export cursor: " + cursor, e);
+        }
+
+        final int separatorIndex = value.indexOf(SEPARATOR);
+        if (separatorIndex < 1) {
+            throw new IllegalArgumentException("Invalid export cursor: " + cursor);
+        }
+        if (!value.substring(separatorIndex + 1).equals(key)) {
+            throw new IllegalArgumentException("Export cursor does not belong to export key: " + key);
+        }
+
+        try {
+            return Long.parseLong(value.substring(0, separatorIndex));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid export cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.export;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+
+import java.util.List;
+
+/**
+ * An {@code ExportPage} is a page of items from an export, which also holds
+ * the cursor token for the following page. It is serialised to JSON as an
+ * object holding both the items and the cursor token, so the token reaches
+ * remote clients.
+ *
+ * @param <T> the type of items in the page.
+ * @see ExportCursor
+ */
+@JsonPropertyOrder(value = {"items", "nextCursor"})
+public class ExportPage<T> extends LimitedCloseableIterable<T> {
+    private final String nextCursor;
+
+    public ExportPage(final CloseableIterable<T> iterable, final int start, final Integer end, final String nextCursor) {
+        super(iterable, start, end);
+        this.nextCursor = nextCursor;
+    }
+
+    @JsonCreator
+    public ExportPage(@JsonProperty("items") final List<T> items,
+                      @JsonProperty("nextCursor") final String nextCursor) {
+        this(new WrappedCloseableIterable<>(items), 0, null, nextCursor);
+    }
+
+    /**
+     * @return the items in the page, as a plain iterable so they are serialised as a JSON array
+     */
+    @JsonProperty("items")
+    Iterable<T> getItems() {
+        return this::iterator;
+    }
+
+    /**
+     * @return the cursor token for the following page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
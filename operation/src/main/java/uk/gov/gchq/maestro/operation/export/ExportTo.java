@@ -16,17 +16,54 @@
 
 package uk.gov.gchq.maestro.operation.export;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import uk.gov.gchq.maestro.operation.io.InputOutput;
 
 /**
  * An {@code ExportTo} is an operation which exports data from a source to a specified
  * output.
+ * <p>
+ * By default the whole input is exported before it is passed on. When the
+ * {@link #STREAMING_OPTION} option is set to true and the input is an
+ * {@link Iterable}, it is instead exported as the next operation consumes it,
+ * so the input is only iterated once. The remainder is exported when the
+ * output is closed, so the output must be iterated to the end or closed.
+ * With {@link #ASYNC_OPTION} also set to true the elements are exported on a
+ * background thread.
+ * </p>
+ * <p>
+ * When the {@link #WRITE_BEHIND_OPTION} option is set to true the input is
+ * passed on immediately and exported in batches by a background writer.
+ * An input which is not a {@link java.util.Collection} may only be iterable
+ * once, so it is first read into memory. Reading the export, and the end of
+ * the job, wait for the outstanding writes to finish.
+ * </p>
  *
  * @param <T> the type of object to export
  */
 public interface ExportTo<T> extends
         Export,
         InputOutput<T, T> {
+    String STREAMING_OPTION = "maestro.export.streaming";
+    String ASYNC_OPTION = "maestro.export.streaming.async";
+    String WRITE_BEHIND_OPTION = "maestro.export.writeBehind";
+
+    @JsonIgnore
+    default boolean isStreaming() {
+        return Boolean.parseBoolean(getOption(STREAMING_OPTION));
+    }
+
+    @JsonIgnore
+    default boolean isAsync() {
+        return Boolean.parseBoolean(getOption(ASYNC_OPTION));
+    }
+
+    @JsonIgnore
+    default boolean isWriteBehind() {
+        return Boolean.parseBoolean(getOption(WRITE_BEHIND_OPTION));
+    }
+
     interface Builder<OP extends ExportTo<T>, T, B extends Builder<OP, T, ?>>
             extends Export.Builder<OP, B>,
             InputOutput.Builder<OP, T, T, B> {
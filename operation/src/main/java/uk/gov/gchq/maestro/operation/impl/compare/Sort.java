@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.impl.compare;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.maestro.commonutil.Required;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.io.InputOutput;
+import uk.gov.gchq.maestro.operation.io.MultiInput;
+import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * A {@code Sort} operation sorts its input using the provided {@link Comparator}.
+ * <p>
+ * At most {@code maxItemsInMemory} items are held in memory at once. Larger
+ * inputs are sorted in runs which are written to temporary files using the
+ * {@link ToBytesSerialiser} and then merged as the output is read. If no
+ * serialiser is set, Java serialisation is used.
+ * </p>
+ *
+ * @param <T> the type of items to sort
+ */
+@JsonPropertyOrder(value = {"class", "input", "comparator"}, alphabetic = true)
+@Since("1.0.0")
+@Summary("Sorts items using a comparator")
+public class Sort<T> implements
+        InputOutput<Iterable<? extends T>, Iterable<? extends T>>,
+        MultiInput<T> {
+    private Iterable<? extends T> input;
+    @Required
+    private Comparator<T> comparator;
+    private ToBytesSerialiser<T> serialiser;
+    private Integer maxItemsInMemory;
+    private Map<String, String> options;
+
+    @Override
+    public Iterable<? extends T> getInput() {
+        return input;
+    }
+
+    @Override
+    public void setInput(final Iterable<? extends T> input) {
+        this.input = input;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    public Comparator<T> getComparator() {
+        return comparator;
+    }
+
+    public void setComparator(final Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    public ToBytesSerialiser<T> getSerialiser() {
+        return serialiser;
+    }
+
+    public void setSerialiser(final ToBytesSerialiser<T> serialiser) {
+        this.serialiser = serialiser;
+    }
+
+    public Integer getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    public void setMaxItemsInMemory(final Integer maxItemsInMemory) {
+        this.maxItemsInMemory = maxItemsInMemory;
+    }
+
+    @Override
+    public TypeReference<Iterable<? extends T>> getOutputTypeReference() {
+        return TypeReferenceImpl.createIterableT();
+    }
+
+    @Override
+    public Sort<T> shallowClone() {
+        return new Sort.Builder<T>()
+                .input(input)
+                .comparator(comparator)
+                .serialiser(serialiser)
+                .maxItemsInMemory(maxItemsInMemory)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public Operation options(final Map<String, String> options) {
+        this.options = options;
+        return this;
+    }
+
+    public static final class Builder<T>
+            extends Operation.BaseBuilder<Sort<T>, Builder<T>>
+            implements InputOutput.Builder<Sort<T>, Iterable<? extends T>, Iterable<? extends T>, Builder<T>>,
+            MultiInput.Builder<Sort<T>, T, Builder<T>> {
+        public Builder() {
+            super(new Sort<>());
+        }
+
+        public Builder<T> comparator(final Comparator<T> comparator) {
+            _getOp().setComparator(comparator);
+            return _self();
+        }
+
+        public Builder<T> serialiser(final ToBytesSerialiser<T> serialiser) {
+            _getOp().setSerialiser(serialiser);
+            return _self();
+        }
+
+        public Builder<T> maxItemsInMemory(final Integer maxItemsInMemory) {
+            _getOp().setMaxItemsInMemory(maxItemsInMemory);
+            return _self();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.file;
+
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.commonutil.iterable.SeekableCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
+import uk.gov.gchq.maestro.operation.export.Exporter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@code FileExporter} is a temporary {@link Exporter} which writes each
+ * export to its own append-only file, so large exports do not use heap space.
+ * <p>
+ * Values are serialised and written as length-prefixed records into
+ * memory-mapped regions of the file. The offset of every
+ * {@value #INDEX_INTERVAL}th record is kept in a sparse index, so reading
+ * from any position only scans a bounded number of records, and a page can be
+ * read without reading the values before it.
+ * </p>
+ * <p>
+ * The number of bytes read back from the files can be counted by setting
+ * {@link #setBytesRead(LongConsumer)}.
+ * </p>
+ * <p>
+ * The files are deleted when the exporter is closed, which happens when the
+ * {@link uk.gov.gchq.maestro.Context} that holds it is closed. Any remaining
+ * files are deleted when the JVM exits.
+ * </p>
+ */
+public class FileExporter implements Exporter, Closeable {
+    public static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+    public static final int INDEX_INTERVAL = 32;
+
+    private final File directory;
+    private final int regionSize;
+    private final ToBytesSerialiser<Object> serialiser;
+    private final Map<String, FileExport> exports = new HashMap<>();
+    private File exportDirectory;
+    private LongConsumer bytesRead;
+
+    public FileExporter() {
+        this(null);
+    }
+
+    /**
+     * @param directory the directory to create export files in, or null to use the default temporary directory
+     */
+    public FileExporter(final String directory) {
+        this(directory, DEFAULT_REGION_SIZE, new JavaSerialiser());
+    }
+
+    /**
+     * @param directory  the directory to create export files in, or null to use the default temporary directory
+     * @param regionSize the size in bytes of each memory-mapped region of an export file
+     * @param serialiser the serialiser used to write the values
+     */
+    public FileExporter(final String directory, final int regionSize, final ToBytesSerialiser<Object> serialiser) {
+        if (regionSize < 1) {
+            throw new IllegalArgumentException("Region size must be positive");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("A serialiser is required");
+        }
+        this.directory = null == directory ? null : new File(directory);
+        this.regionSize = regionSize;
+        this.serialiser = serialiser;
+    }
+
+    @Override
+    public void add(final String key, final Iterable<?> results) throws OperationException {
+        final FileExport export = getExport(key);
+        try {
+            for (final Object result : results) {
+                export.append(serialiser.serialise(result));
+            }
+        } catch (final IOException e) {
+            throw new OperationException("Unable to write to file export " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CloseableIterable<?> get(final String key) throws OperationException {
+        return get(key, 0, null);
+    }
+
+    /**
+     * Gets a page of the export. Reading the page costs time proportional to
+     * its length, not its start position.
+     *
+     * @param key   the export key
+     * @param start the position of the first item in the page
+     * @param end   the position after the last item in the page, or null for all remaining items
+     * @return the page, which holds a cursor for the following page
+     * @throws OperationException if the export file could not be created
+     */
+    public ExportPage<?> get(final String key, final int start, final Integer end) throws OperationException {
+        final FileExport export = getExport(key);
+        final String nextCursor = null != end && end < export.size ? ExportCursor.encode(key, end) : null;
+        return new ExportPage<>(new FileExportIterable(export), start, end, nextCursor);
+    }
+
+    /**
+     * @param key the export key
+     * @return the file the export is written to, or null if there is no export for the key
+     */
+    public File getFile(final String key) {
+        final FileExport export = exports.get(key);
+        return null == export ? null : export.file;
+    }
+
+    /**
+     * @param bytesRead called with the size in bytes of each record as it is
+     *                  read from an export file, or null to not count them
+     */
+    public void setBytesRead(final LongConsumer bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public void close() {
+        for (final FileExport export : exports.values()) {
+            export.delete();
+        }
+        exports.clear();
+        if (null != exportDirectory) {
+            exportDirectory.delete();
+            exportDirectory = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("directory", exportDirectory)
+                .append("exports", exports.keySet())
+                .toString();
+    }
+
+    private FileExport getExport(final String key) throws OperationException {
+        FileExport export = exports.get(key);
+        if (null == export) {
+            try {
+                export = new FileExport(Files.createTempFile(getExportDirectory(), "export", ".bin").toFile());
+            } catch (final IOException e) {
+                throw new OperationException("Unable to create file export " + key + ": " + e.getMessage(), e);
+            }
+            exports.put(key, export);
+        }
+        return export;
+    }
+
+    private Path getExportDirectory() throws IOException {
+        if (null == exportDirectory) {
+            final Path path = null == directory
+                    ? Files.createTempDirectory("maestro-export")
+                    : Files.createTempDirectory(Paths.get(directory.getPath()), "maestro-export");
+            exportDirectory = path.toFile();
+            exportDirectory.deleteOnExit();
+        }
+        return exportDirectory.toPath();
+    }
+
+    private Object deserialise(final byte[] bytes) {
+        try {
+            return serialiser.deserialise(bytes);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise file export value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * An append-only export file, mapped into memory one region at a time.
+     * Regions are contiguous in the file; a record never spans two regions.
+     */
+    private final class FileExport {
+        private final File file;
+        private final List<Region> regions = new ArrayList<>();
+        private long[] index = new long[16];
+        private int size;
+        private long length;
+
+        private FileExport(final File file) {
+            this.file = file;
+            file.deleteOnExit();
+        }
+
+        private void append(final byte[] bytes) throws IOException {
+            final int recordLength = 4 + bytes.length;
+            Region region = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+            if (null == region || region.buffer.remaining() < recordLength) {
+                region = map(Math.max(regionSize, recordLength));
+            }
+
+            final long offset = region.start + region.buffer.position();
+            region.buffer.putInt(bytes.length);
+            region.buffer.put(bytes);
+            if (0 == size % INDEX_INTERVAL) {
+                final int indexPosition = size / INDEX_INTERVAL;
+                if (indexPosition == index.length) {
+                    index = Arrays.copyOf(index, index.length * 2);
+                }
+                index[indexPosition] = offset;
+            }
+            size++;
+        }
+
+        private Region map(final int capacity) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                final Region region = new Region(length, channel.map(FileChannel.MapMode.READ_WRITE, length, capacity));
+                length += capacity;
+                regions.add(region);
+                return region;
+            }
+        }
+
+        private int regionFor(final long offset) {
+            int low = 0;
+            int high = regions.size() - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (regions.get(mid).start <= offset) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        private void delete() {
+            regions.clear();
+            size = 0;
+            file.delete();
+        }
+    }
+
+    private static final class Region {
+        private final long start;
+        private final MappedByteBuffer buffer;
+
+        private Region(final long start, final MappedByteBuffer buffer) {
+            this.start = start;
+            this.buffer = buffer;
+        }
+    }
+
+    private final class FileExportIterable implements SeekableCloseableIterable<Object> {
+        private final FileExport export;
+
+        private FileExportIterable(final FileExport export) {
+            this.export = export;
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator() {
+            return iterator(0);
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator(final long position) {
+            return new FileExportIterator(export, position);
+        }
+
+        @Override
+        public void close() {
+            // The export file is owned by the exporter.
+        }
+    }
+
+    private final class FileExportIterator implements CloseableIterator<Object> {
+        private final FileExport export;
+        private final int end;
+        private int position;
+        private int regionIndex;
+        private int regionOffset;
+
+        private FileExportIterator(final FileExport export, final long start) {
+            this.export = export;
+            this.end = export.size;
+            this.position = (int) Math.min(end, Math.max(0, start));
+            if (position < end) {
+                final long offset = export.index[position / INDEX_INTERVAL];
+                regionIndex = export.regionFor(offset);
+                regionOffset = (int) (offset - export.regions.get(regionIndex).start);
+                for (int i = position - position % INDEX_INTERVAL; i < position; i++) {
+                    skipRecord();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            moveToRecord();
+            final ByteBuffer buffer = export.regions.get(regionIndex).buffer.duplicate();
+            buffer.position(regionOffset);
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            regionOffset += 4 + bytes.length;
+            position++;
+            if (null != bytesRead) {
+                bytesRead.accept(4 + bytes.length);
+            }
+            return deserialise(bytes);
+        }
+
+        @Override
+        public void close() {
+            position = end;
+        }
+
+        private void skipRecord() {
+            moveToRecord();
+            regionOffset += 4 + export.regions.get(regionIndex).buffer.getInt(regionOffset);
+        }
+
+        private void moveToRecord() {
+            // Records do not span regions, so the next record starts the
+            // following region once the written part of this one is used up.
+            if (regionOffset >= export.regions.get(regionIndex).buffer.position()) {
+                regionIndex++;
+                regionOffset = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.file;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
+import uk.gov.gchq.maestro.operation.export.GetExport;
+import uk.gov.gchq.maestro.operation.io.Output;
+import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
+
+import java.util.Map;
+
+/**
+ * A {@code GetFileExport} GetExport operation gets results exported to a file.
+ * The file export is maintained per single Job or
+ * {@link uk.gov.gchq.maestro.operation.Operation} only.
+ * It cannot be used across multiple separate operation requests.
+ * So ExportToFile and GetFileExport must be used inside a single operation chain.
+ * <p>
+ * A page can be requested either with start and end positions, or with a
+ * cursor token taken from the previous {@link ExportPage}.
+ * When a cursor is set it replaces the start position, and the page length
+ * is still given by end - start.
+ * </p>
+ */
+@JsonPropertyOrder(value = {"class", "start", "end"}, alphabetic = true)
+@Since("1.0.0")
+@Summary("Fetches data from a temporary file export")
+public class GetFileExport implements
+        GetExport,
+        Output<ExportPage<?>> {
+    private String jobId;
+    private String key;
+    private int start = 0;
+    private Integer end = null;
+    private String cursor;
+    private Map<String, String> options;
+
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(final int start) {
+        this.start = start;
+    }
+
+    public Integer getEnd() {
+        return end;
+    }
+
+    public void setEnd(final Integer end) {
+        this.end = end;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public void setKey(final String key) {
+        this.key = key;
+    }
+
+    @Override
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public TypeReference<ExportPage<?>> getOutputTypeReference() {
+        return new TypeReferenceImpl.ExportPage();
+    }
+
+    @Override
+    public GetFileExport shallowClone() {
+        return new GetFileExport.Builder()
+                .jobId(jobId)
+                .key(key)
+                .start(start)
+                .end(end)
+                .cursor(cursor)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public Operation options(final Map<String, String> options) {
+        this.options = options;
+        return this;
+    }
+
+    public static class Builder
+            extends Operation.BaseBuilder<GetFileExport, Builder>
+            implements GetExport.Builder<GetFileExport, Builder>,
+            Output.Builder<GetFileExport, ExportPage<?>, Builder> {
+        public Builder() {
+            super(new GetFileExport());
+        }
+
+        public Builder start(final int start) {
+            _getOp().setStart(start);
+            return _self();
+        }
+
+        public Builder end(final Integer end) {
+            _getOp().setEnd(end);
+            return _self();
+        }
+
+        public Builder cursor(final String cursor) {
+            _getOp().setCursor(cursor);
+            return _self();
+        }
+    }
+}
@@ -31,8 +31,9 @@ import java.util.Set;
 
 /**
  * An {@code ExportToResultCache} Export operation exports results into
- * a cache. The cache is backed by a simple Maestro instance that can be configured.
- * The results can be of any type - as long as they are json serialisable.
+ * a cache. The cache is provided by the configured cache service.
+ * The results can be of any type - as long as they can be serialised by the
+ * {@link ResultCacheExporter}. Users holding any of the opAuths may read the results.
  */
 @JsonPropertyOrder(value = {"class", "input", "key"}, alphabetic = true)
 @Since("1.0.0")
@@ -32,11 +32,12 @@ import java.util.Map;
 
 /**
  * A {@code GetResultCacheExport} operation is used to retrieve data which
- * has previously been exported to a results cache.
+ * has previously been exported to a results cache. A range of the results
+ * can be requested with start and end positions.
  *
  * @see ExportToResultCache
  */
-@JsonPropertyOrder(value = {"class"}, alphabetic = true)
+@JsonPropertyOrder(value = {"class", "start", "end"}, alphabetic = true)
 @Since("1.0.0")
 @Summary("Fetches data from a result cache")
 public class GetResultCacheExport implements
@@ -44,8 +45,26 @@ public class GetResultCacheExport implements
         Output<CloseableIterable<?>> {
     private String jobId;
     private String key = Export.DEFAULT_KEY;
+    private int start = 0;
+    private Integer end = null;
     private Map<String, String> options;
 
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(final int start) {
+        this.start = start;
+    }
+
+    public Integer getEnd() {
+        return end;
+    }
+
+    public void setEnd(final Integer end) {
+        this.end = end;
+    }
+
     @Override
     public String getKey() {
         return key;
@@ -76,6 +95,8 @@ public class GetResultCacheExport implements
         return new GetResultCacheExport.Builder()
                 .jobId(jobId)
                 .key(key)
+                .start(start)
+                .end(end)
                 .options(options)
                 .build();
     }
@@ -98,5 +119,15 @@ public class GetResultCacheExport implements
         public Builder() {
             super(new GetResultCacheExport());
         }
+
+        public Builder start(final int start) {
+            _getOp().setStart(start);
+            return _self();
+        }
+
+        public Builder end(final Integer end) {
+            _getOp().setEnd(end);
+            return _self();
+        }
     }
 }
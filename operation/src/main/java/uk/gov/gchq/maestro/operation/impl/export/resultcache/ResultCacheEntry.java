@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.resultcache;
+
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@code ResultCacheEntry} describes a result stored by a
+ * {@link ResultCacheExporter}. The result itself is held in separate chunks,
+ * each containing up to {@code chunkSize} serialised elements.
+ */
+public class ResultCacheEntry implements Serializable {
+    private static final long serialVersionUID = -3584227612375311847L;
+
+    private final String jobId;
+    private final String key;
+    private final String userId;
+    private final HashSet<String> opAuths;
+    private final int chunkSize;
+    private long elementCount;
+    private long totalBytes;
+    private long expiryTime;
+
+    public ResultCacheEntry(final String jobId, final String key, final String userId,
+                            final Set<String> opAuths, final int chunkSize) {
+        this.jobId = jobId;
+        this.key = key;
+        this.userId = userId;
+        this.opAuths = null == opAuths ? new HashSet<>() : new HashSet<>(opAuths);
+        this.chunkSize = chunkSize;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Set<String> getOpAuths() {
+        return Collections.unmodifiableSet(opAuths);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of elements in the result
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @return the total size of the serialised elements, in bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return the number of chunks holding the result
+     */
+    public long getChunkCount() {
+        return (elementCount + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * @return the time the result expires, in milliseconds since the epoch
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    public boolean isExpired(final long now) {
+        return now >= expiryTime;
+    }
+
+    void update(final long elementCount, final long totalBytes, final long expiryTime) {
+        this.elementCount = elementCount;
+        this.totalBytes = totalBytes;
+        this.expiryTime = expiryTime;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("jobId", jobId)
+                .append("key", key)
+                .append("userId", userId)
+                .append("opAuths", opAuths)
+                .append("chunkSize", chunkSize)
+                .append("elementCount", elementCount)
+                .append("totalBytes", totalBytes)
+                .append("expiryTime", expiryTime)
+                .toString();
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.resultcache;
+
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.ICacheService;
+import uk.gov.gchq.maestro.commonutil.exception.CacheOperationException;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.exception.Status;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.SeekableCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.export.Exporter;
+import uk.gov.gchq.maestro.user.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ResultCacheExporter} is an {@link Exporter} which stores results in
+ * the cache provided by the {@link CacheServiceLoader}, so they outlive the
+ * operation chain which created them and can be fetched later, for example
+ * with {@link uk.gov.gchq.maestro.operation.impl.job.GetJobResults}.
+ * <p>
+ * Each result is written as it is iterated, in chunks of {@code chunkSize}
+ * serialised elements stored under {@code jobId/key/chunkIndex}. A
+ * {@link ResultCacheEntry} stored under {@code jobId/key} records the owner,
+ * the opAuths allowed to read the result, its size and its expiry time.
+ * Reads only fetch the chunks covering the requested range.
+ * </p>
+ * <p>
+ * The entry is updated as each chunk is completed, so the results of a
+ * running job can be read while they are still being added. Readers only
+ * see whole chunks until the final, partial, chunk is written.
+ * </p>
+ * <p>
+ * A result can be read by the user who created it or by any user holding one
+ * of its opAuths, but only the user who created it can add to it. Expired
+ * results are removed when they are next read, or by {@link #removeExpired()},
+ * which the executor runs periodically.
+ * The keys exported by each job are indexed, so a job's results can be
+ * removed without scanning the whole cache.
+ * </p>
+ */
+public class ResultCacheExporter implements Exporter {
+    public static final String CACHE_NAME = "ResultCache";
+    public static final String INDEX_CACHE_NAME = "ResultCacheIndex";
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
+
+    private static final String SEPARATOR = "/";
+
+    private final String jobId;
+    private final User user;
+    private final int chunkSize;
+    private final long timeToLive;
+    private final ToBytesSerialiser<Object> serialiser;
+
+    public ResultCacheExporter(final String jobId, final User user) {
+        this(jobId, user, DEFAULT_CHUNK_SIZE, DEFAULT_TIME_TO_LIVE, new JavaSerialiser());
+    }
+
+    /**
+     * @param jobId      the job id results are added under, and read from by default
+     * @param user       the user adding and reading results
+     * @param chunkSize  the number of elements stored in each chunk
+     * @param timeToLive the time, in milliseconds, results are kept after they were last added to
+     * @param serialiser the serialiser used to write the elements
+     */
+    public ResultCacheExporter(final String jobId, final User user, final int chunkSize,
+                               final long timeToLive, final ToBytesSerialiser<Object> serialiser) {
+        if (null == jobId) {
+            throw new IllegalArgumentException("A jobId is required");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("A serialiser is required");
+        }
+        this.jobId = jobId;
+        this.user = null == user ? new User() : user;
+        this.chunkSize = chunkSize;
+        this.timeToLive = timeToLive;
+        this.serialiser = serialiser;
+    }
+
+    @Override
+    public void add(final String key, final Iterable<?> results) throws OperationException {
+        add(key, results, null);
+    }
+
+    /**
+     * Adds the results to the export, after any results previously added
+     * under the same key. The results are written in chunks as they are
+     * iterated, so they are never held in memory as a whole.
+     *
+     * @param key     the export key
+     * @param results the results to add
+     * @param opAuths the opAuths allowing other users to read the results.
+     *                These replace any opAuths previously set on the export.
+     * @throws OperationException if the results could not be written
+     */
+    public void add(final String key, final Iterable<?> results, final Set<String> opAuths) throws OperationException {
+        final ICacheService service = getService();
+        final String entryKey = getEntryKey(jobId, key);
+        ResultCacheEntry entry = service.getFromCache(CACHE_NAME, entryKey);
+        if (null != entry && !isOwner(entry)) {
+            throw new OperationException("User " + user.getUserId() + " is not permitted to add to result cache export: " + entryKey, Status.FORBIDDEN);
+        }
+        if (null != entry && entry.isExpired(System.currentTimeMillis())) {
+            remove(service, entry);
+            entry = null;
+        }
+        final Set<String> entryOpAuths = null != opAuths || null == entry ? opAuths : entry.getOpAuths();
+        final ResultCacheEntry newEntry = new ResultCacheEntry(jobId, key,
+                null == entry ? user.getUserId() : entry.getUserId(), entryOpAuths,
+                null == entry ? chunkSize : entry.getChunkSize());
+
+        long elementCount = null == entry ? 0 : entry.getElementCount();
+        long totalBytes = null == entry ? 0 : entry.getTotalBytes();
+        long chunkIndex = elementCount / newEntry.getChunkSize();
+        int chunkElements = (int) (elementCount % newEntry.getChunkSize());
+
+        final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        final DataOutputStream chunkOutput = new DataOutputStream(chunk);
+        try {
+            if (null == entry) {
+                index(service, jobId, key);
+            }
+            if (chunkElements > 0) {
+                // Append to the last partial chunk. If it has gone, its
+                // elements are lost, so the export continues from the last
+                // whole chunk
+                final byte[] lastChunk = service.getFromCache(CACHE_NAME, getChunkKey(entryKey, chunkIndex));
+                if (null == lastChunk) {
+                    elementCount -= chunkElements;
+                    chunkElements = 0;
+                } else {
+                    chunkOutput.write(lastChunk);
+                }
+            }
+
+            for (final Object result : results) {
+                final byte[] bytes = serialiser.serialise(result);
+                chunkOutput.writeInt(bytes.length);
+                chunkOutput.write(bytes);
+                totalBytes += bytes.length;
+                elementCount++;
+                chunkElements++;
+                if (chunkElements == newEntry.getChunkSize()) {
+                    service.putInCache(CACHE_NAME, getChunkKey(entryKey, chunkIndex), chunk.toByteArray());
+                    // Publish the completed chunk to readers
+                    publish(service, entryKey, newEntry, elementCount, totalBytes);
+                    chunk.reset();
+                    chunkIndex++;
+                    chunkElements = 0;
+                }
+            }
+            if (chunkElements > 0) {
+                service.putInCache(CACHE_NAME, getChunkKey(entryKey, chunkIndex), chunk.toByteArray());
+            }
+
+            publish(service, entryKey, newEntry, elementCount, totalBytes);
+        } catch (final IOException | CacheOperationException e) {
+            throw new OperationException("Unable to add results to the result cache: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CloseableIterable<?> get(final String key) throws OperationException {
+        return get(jobId, key, 0, null);
+    }
+
+    /**
+     * Gets a range of a result. Only the chunks covering the range are read
+     * from the cache.
+     *
+     * @param jobId the id of the job which exported the result
+     * @param key   the export key
+     * @param start the position of the first element to return
+     * @param end   the position after the last element to return, or null for all remaining elements
+     * @return the elements, or an empty iterable if there is no result visible to the user
+     * @throws OperationException if the result cache is not available
+     */
+    public CloseableIterable<?> get(final String jobId, final String key, final int start, final Integer end) throws OperationException {
+        final ResultCacheEntry entry = getEntry(jobId, key);
+        if (null == entry) {
+            return new EmptyClosableIterable<>();
+        }
+
+        return new LimitedCloseableIterable<>(new ChunkedResult(entry), start, end);
+    }
+
+    /**
+     * @param jobId the id of the job which exported the result
+     * @param key   the export key
+     * @return the details of the result, or null if there is no result visible to the user
+     * @throws OperationException if the result cache is not available
+     */
+    public ResultCacheEntry getEntry(final String jobId, final String key) throws OperationException {
+        final ICacheService service = getService();
+        final ResultCacheEntry entry = service.getFromCache(CACHE_NAME, getEntryKey(jobId, key));
+        if (null == entry || !isVisible(entry)) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            remove(service, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Removes all of the results exported by this exporter's job, for example
+     * before the job is run again.
+     *
+     * @throws OperationException if the result cache is not available
+     */
+    public void removeAll() throws OperationException {
+        final ICacheService service = getService();
+        for (final String key : getIndex(service, jobId)) {
+            final ResultCacheEntry entry = service.getFromCache(CACHE_NAME, getEntryKey(jobId, key));
+            if (null == entry) {
+                unindex(service, jobId, key);
+            } else if (isVisible(entry)) {
+                remove(service, entry);
+            }
+        }
+    }
+
+    /**
+     * Removes all expired results from the cache.
+     *
+     * @throws OperationException if the result cache is not available
+     */
+    public static void removeExpired() throws OperationException {
+        final ICacheService service = getService();
+        final long now = System.currentTimeMillis();
+        for (final Object jobId : new ArrayList<>(service.getAllKeysFromCache(INDEX_CACHE_NAME))) {
+            for (final String key : getIndex(service, (String) jobId)) {
+                final ResultCacheEntry entry = service.getFromCache(CACHE_NAME, getEntryKey((String) jobId, key));
+                if (null == entry) {
+                    unindex(service, (String) jobId, key);
+                } else if (entry.isExpired(now)) {
+                    remove(service, entry);
+                }
+            }
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("jobId", jobId)
+                .append("chunkSize", chunkSize)
+                .append("timeToLive", timeToLive)
+                .toString();
+    }
+
+    // A new entry object is stored each time, as readers may hold the previous one
+    private void publish(final ICacheService service, final String entryKey, final ResultCacheEntry template,
+                         final long elementCount, final long totalBytes) throws CacheOperationException {
+        final ResultCacheEntry entry = new ResultCacheEntry(template.getJobId(), template.getKey(),
+                template.getUserId(), template.getOpAuths(), template.getChunkSize());
+        entry.update(elementCount, totalBytes, System.currentTimeMillis() + timeToLive);
+        service.putInCache(CACHE_NAME, entryKey, entry);
+    }
+
+    private boolean isOwner(final ResultCacheEntry entry) {
+        return null != entry.getUserId() && entry.getUserId().equals(user.getUserId());
+    }
+
+    private boolean isVisible(final ResultCacheEntry entry) {
+        if (isOwner(entry)) {
+            return true;
+        }
+        return null != user.getOpAuths() && !Collections.disjoint(user.getOpAuths(), entry.getOpAuths());
+    }
+
+    private static void remove(final ICacheService service, final ResultCacheEntry entry) {
+        final String entryKey = getEntryKey(entry.getJobId(), entry.getKey());
+        service.removeFromCache(CACHE_NAME, entryKey);
+        for (long i = 0; i < entry.getChunkCount(); i++) {
+            service.removeFromCache(CACHE_NAME, getChunkKey(entryKey, i));
+        }
+        unindex(service, entry.getJobId(), entry.getKey());
+    }
+
+    private static Set<String> getIndex(final ICacheService service, final String jobId) {
+        final Set<String> keys = service.getFromCache(INDEX_CACHE_NAME, jobId);
+        return null == keys ? Collections.emptySet() : new HashSet<>(keys);
+    }
+
+    private static void index(final ICacheService service, final String jobId, final String key)
+            throws CacheOperationException {
+        service.<String, Set<String>>computeInCache(INDEX_CACHE_NAME, jobId, (id, keys) -> {
+            final Set<String> updated = null == keys ? new HashSet<>() : new HashSet<>(keys);
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    // The index is only tidied up, so a failure to update it is ignored
+    private static void unindex(final ICacheService service, final String jobId, final String key) {
+        try {
+            service.<String, Set<String>>computeInCache(INDEX_CACHE_NAME, jobId, (id, keys) -> {
+                if (null == keys || !keys.contains(key)) {
+                    return keys;
+                }
+                final Set<String> updated = new HashSet<>(keys);
+                updated.remove(key);
+                return updated.isEmpty() ? null : updated;
+            });
+        } catch (final CacheOperationException e) {
+            // The key is removed from the index when it is next found missing
+        }
+    }
+
+    private static ICacheService getService() throws OperationException {
+        final ICacheService service = CacheServiceLoader.getService();
+        if (null == service) {
+            throw new OperationException("The result cache is not available as no cache service has been configured", Status.SERVICE_UNAVAILABLE);
+        }
+        return service;
+    }
+
+    private static String getEntryKey(final String jobId, final String key) {
+        return jobId + SEPARATOR + key;
+    }
+
+    private static String getChunkKey(final String entryKey, final long chunkIndex) {
+        return entryKey + SEPARATOR + chunkIndex;
+    }
+
+    private final class ChunkedResult implements SeekableCloseableIterable<Object> {
+        private final ResultCacheEntry entry;
+
+        private ChunkedResult(final ResultCacheEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator() {
+            return iterator(0);
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator(final long position) {
+            return new ChunkIterator(entry, position);
+        }
+
+        @Override
+        public void close() {
+            // The result is owned by the cache.
+        }
+    }
+
+    private final class ChunkIterator implements CloseableIterator<Object> {
+        private final String entryKey;
+        private final ResultCacheEntry entry;
+        private long position;
+        private byte[] chunk;
+        private int chunkOffset;
+
+        private ChunkIterator(final ResultCacheEntry entry, final long position) {
+            this.entry = entry;
+            this.entryKey = getEntryKey(entry.getJobId(), entry.getKey());
+            this.position = Math.max(0, position);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < entry.getElementCount();
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (null == chunk || chunkOffset >= chunk.length) {
+                loadChunk();
+            }
+            final int length = readLength();
+            final byte[] bytes = new byte[length];
+            System.arraycopy(chunk, chunkOffset + 4, bytes, 0, length);
+            chunkOffset += 4 + length;
+            position++;
+            try {
+                return serialiser.deserialise(bytes);
+            } catch (final SerialisationException e) {
+                throw new RuntimeException("Unable to deserialise result from the result cache", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            chunk = null;
+        }
+
+        private void loadChunk() {
+            final long chunkIndex = position / entry.getChunkSize();
+            chunk = CacheServiceLoader.getService().getFromCache(CACHE_NAME, getChunkKey(entryKey, chunkIndex));
+            if (null == chunk) {
+                throw new IllegalStateException("Result cache chunk " + chunkIndex + " is missing for " + entryKey);
+            }
+            chunkOffset = 0;
+            // Skip the elements before the position without deserialising them
+            for (long i = chunkIndex * entry.getChunkSize(); i < position; i++) {
+                chunkOffset += 4 + readLength();
+            }
+        }
+
+        private int readLength() {
+            return ((chunk[chunkOffset] & 0xFF) << 24) | ((chunk[chunkOffset + 1] & 0xFF) << 16)
+                    | ((chunk[chunkOffset + 2] & 0xFF) << 8) | (chunk[chunkOffset + 3] & 0xFF);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.maestro.operation.impl.export.set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.core.type.TypeReference;
 
@@ -25,6 +26,7 @@ import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.export.ExportTo;
 import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
 
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -33,12 +35,20 @@ import java.util.Map;
  * {@link uk.gov.gchq.maestro.operation.Operation} only.
  * It cannot be used across multiple separate operation requests.
  * So ExportToSet and GetSetExport must be used inside a single operation chain.
+ * <p>
+ * The {@link #STORAGE_OPTION} option sets how the values of a new export are
+ * held, as one of the {@link SetExporter.Storage} names. By default values
+ * are held as objects, and exports of longs or strings can opt in to compact
+ * typed stores with {@code auto}, {@code long} or {@code string}.
+ * </p>
  */
 @JsonPropertyOrder(value = {"class", "input", "key"}, alphabetic = true)
 @Since("1.0.0")
 @Summary("Exports results to a Set")
 public class ExportToSet<T> implements
         ExportTo<T> {
+    public static final String STORAGE_OPTION = "maestro.export.set.storage";
+
     private String key;
     private T input;
     private Map<String, String> options;
@@ -63,6 +73,16 @@ public class ExportToSet<T> implements
         this.input = input;
     }
 
+    /**
+     * @return the storage requested by the {@link #STORAGE_OPTION} option,
+     * or {@link SetExporter.Storage#OBJECT} if it is not set
+     */
+    @JsonIgnore
+    public SetExporter.Storage getStorage() {
+        final String storage = getOption(STORAGE_OPTION);
+        return null == storage ? SetExporter.Storage.OBJECT : SetExporter.Storage.valueOf(storage.toUpperCase(Locale.ENGLISH));
+    }
+
     @Override
     public TypeReference<T> getOutputTypeReference() {
         return (TypeReference) new TypeReferenceImpl.Object();
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 import uk.gov.gchq.maestro.operation.export.GetExport;
 import uk.gov.gchq.maestro.operation.io.Output;
 import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
@@ -34,17 +35,24 @@ import java.util.Map;
  * {@link uk.gov.gchq.maestro.operation.Operation} only.
  * It cannot be used across multiple separate operation requests.
  * So ExportToSet and GetSetExport must be used inside a single operation chain.
+ * <p>
+ * A page can be requested either with start and end positions, or with a
+ * cursor token taken from the previous {@link ExportPage}.
+ * When a cursor is set it replaces the start position, and the page length
+ * is still given by end - start.
+ * </p>
  */
 @JsonPropertyOrder(value = {"class", "start", "end"}, alphabetic = true)
 @Since("1.0.0")
 @Summary("Fetches data from a Set cache")
 public class GetSetExport implements
         GetExport,
-        Output<Iterable<?>> {
+        Output<ExportPage<?>> {
     private String jobId;
     private String key;
     private int start = 0;
     private Integer end = null;
+    private String cursor;
     private Map<String, String> options;
 
     public int getStart() {
@@ -63,6 +71,14 @@ public class GetSetExport implements
         this.end = end;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
     @Override
     public String getKey() {
         return key;
@@ -84,8 +100,8 @@ public class GetSetExport implements
     }
 
     @Override
-    public TypeReference<Iterable<?>> getOutputTypeReference() {
-        return new TypeReferenceImpl.IterableObj();
+    public TypeReference<ExportPage<?>> getOutputTypeReference() {
+        return new TypeReferenceImpl.ExportPage();
     }
 
     @Override
@@ -95,6 +111,7 @@ public class GetSetExport implements
                 .key(key)
                 .start(start)
                 .end(end)
+                .cursor(cursor)
                 .options(options)
                 .build();
     }
@@ -113,7 +130,7 @@ public class GetSetExport implements
     public static class Builder
             extends Operation.BaseBuilder<GetSetExport, Builder>
             implements GetExport.Builder<GetSetExport, Builder>,
-            Output.Builder<GetSetExport, Iterable<?>, Builder> {
+            Output.Builder<GetSetExport, ExportPage<?>, Builder> {
         public Builder() {
             super(new GetSetExport());
         }
@@ -127,5 +144,10 @@ public class GetSetExport implements
             _getOp().setEnd(end);
             return _self();
         }
+
+        public Builder cursor(final String cursor) {
+            _getOp().setCursor(cursor);
+            return _self();
+        }
     }
 }
@@ -16,30 +16,143 @@
 
 package uk.gov.gchq.maestro.operation.impl.export.set;
 
-import com.google.common.collect.Iterables;
-
 import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+import uk.gov.gchq.maestro.commonutil.collection.LongLinkedHashSet;
+import uk.gov.gchq.maestro.commonutil.collection.OffHeapBytesSet;
+import uk.gov.gchq.maestro.commonutil.collection.SpillingBytesSet;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.BatchCloseableIterator;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
-import uk.gov.gchq.maestro.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.commonutil.iterable.SeekableCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 import uk.gov.gchq.maestro.operation.export.Exporter;
 
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * A {@code SetExporter} is an in memory temporary {@link Exporter}
  * using a {@link Set}.
- * The values are stored in a {@link LinkedHashSet} in order to ensure there is
- * a predictable iteration order.
+ * The values are also stored in a {@link List} in the order they were added,
+ * in order to ensure there is a predictable iteration order and so a page
+ * can be read without iterating over the values before it.
+ * <p>
+ * Once an export holds more than {@code maxItemsInMemory} values they are
+ * serialised and moved to a {@link SpillingBytesSet}, which writes them to an
+ * append-only file on disk. Spilled exports keep their insertion order, are
+ * paged directly from disk and are de-duplicated by their serialised form
+ * rather than by {@link Object#equals(Object)}, so the serialiser must write
+ * equal values to equal bytes. Closing the exporter deletes the spill files.
+ * </p>
+ * <p>
+ * Exports of {@link Long}s or {@link String}s can instead be held in compact
+ * typed stores, chosen by the {@link Storage} of the export: longs in an
+ * insertion ordered primitive {@link LongLinkedHashSet} and strings as UTF-8
+ * bytes in an {@link OffHeapBytesSet}. These cost a few bytes of heap per
+ * value rather than a boxed object plus a hash entry and a list slot, so
+ * they are not moved to disk. With {@link Storage#AUTO} the store is chosen
+ * from the first value, and the export falls back to the object store if a
+ * value of another type is added later. Exports use {@link Storage#OBJECT}
+ * unless another storage is requested, as falling back copies every value
+ * already held.
+ * </p>
  */
-public class SetExporter implements Exporter {
-    private Map<String, Set<Object>> exports = new HashMap<>();
+public class SetExporter implements Exporter, Closeable {
+    public static final int DEFAULT_MAX_ITEMS_IN_MEMORY = 100000;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long SPILL_BUFFER_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * How the values of an export are held.
+     */
+    public enum Storage {
+        /**
+         * Use a typed store if the first value is a {@link Long} or {@link String},
+         * falling back to the object store if a value of another type is added.
+         * This must be requested, as the fall back copies the values already held.
+         */
+        AUTO,
+        /**
+         * Hold the values as objects, moving them to disk once there are more
+         * than {@code maxItemsInMemory}. This is the default.
+         */
+        OBJECT,
+        /**
+         * Hold the values in a primitive long set. Only {@link Long}s can be added.
+         */
+        LONG,
+        /**
+         * Hold the values as UTF-8 bytes off the heap. Only {@link String}s can be added.
+         */
+        STRING
+    }
+
+    private final int maxItemsInMemory;
+    private final ToBytesSerialiser<Object> serialiser;
+    private Map<String, ExportSet> exports = new HashMap<>();
+
+    public SetExporter() {
+        this(DEFAULT_MAX_ITEMS_IN_MEMORY);
+    }
+
+    public SetExporter(final int maxItemsInMemory) {
+        this(maxItemsInMemory, new JavaSerialiser());
+    }
+
+    /**
+     * @param maxItemsInMemory the number of values each export may hold in memory before it is moved to disk
+     * @param serialiser       the serialiser used to write the values of spilled exports
+     */
+    public SetExporter(final int maxItemsInMemory, final ToBytesSerialiser<Object> serialiser) {
+        if (maxItemsInMemory < 0) {
+            throw new IllegalArgumentException("maxItemsInMemory must not be negative");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("A serialiser is required");
+        }
+        this.maxItemsInMemory = maxItemsInMemory;
+        this.serialiser = serialiser;
+    }
 
     @Override
     public void add(final String key, final Iterable<?> results) {
-        Iterables.addAll(getExport(key), results);
+        add(key, results, Storage.OBJECT);
+    }
+
+    /**
+     * Adds the results to the export. The storage is only used if this
+     * creates the export. The results are added in batches, and adding stops
+     * between batches if the thread is interrupted, such as when the job
+     * adding them is cancelled.
+     *
+     * @param key     the export key
+     * @param results the results to add
+     * @param storage how the values of a new export should be held, or null for {@link Storage#OBJECT}
+     */
+    public void add(final String key, final Iterable<?> results, final Storage storage) {
+        final ExportSet export = exports.computeIfAbsent(key, k -> new ExportSet(null == storage ? Storage.OBJECT : storage));
+        try (BatchCloseableIterator<?> itr = BatchCloseableIterator.wrap(results.iterator())) {
+            while (0 < itr.nextBatch(export, BATCH_SIZE)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new RuntimeException("Interrupted whilst adding results to export: " + key);
+                }
+            }
+        }
     }
 
     @Override
@@ -47,21 +160,289 @@ public class SetExporter implements Exporter {
         return get(key, 0, null);
     }
 
-    public CloseableIterable<?> get(final String key, final int start, final Integer end) {
-        return new LimitedCloseableIterable<>(getExport(key), start, end);
+    /**
+     * Gets a page of the export. Reading the page costs time proportional to
+     * its length, not its start position.
+     *
+     * @param key   the export key
+     * @param start the position of the first item in the page
+     * @param end   the position after the last item in the page, or null for all remaining items
+     * @return the page, which holds a cursor for the following page
+     */
+    public ExportPage<?> get(final String key, final int start, final Integer end) {
+        final ExportSet export = getExport(key);
+        final String nextCursor = null != end && end < export.size() ? ExportCursor.encode(key, end) : null;
+        final CloseableIterable<Object> values = Storage.OBJECT == export.type && !export.isSpilled()
+                ? new WrappedCloseableIterable<>(export.values)
+                : new ExportValues(export);
+        return new ExportPage<>(values, start, end, nextCursor);
+    }
+
+    /**
+     * @param key the export key
+     * @return true if the export has been moved to disk
+     */
+    public boolean isSpilled(final String key) {
+        final ExportSet export = exports.get(key);
+        return null != export && export.isSpilled();
+    }
+
+    /**
+     * @param key the export key
+     * @return the storage holding the values of the export, or null if the
+     * export is empty. This is never {@link Storage#AUTO}.
+     */
+    public Storage getStorage(final String key) {
+        final ExportSet export = exports.get(key);
+        return null == export ? null : export.type;
+    }
+
+    public int getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    @Override
+    public void close() {
+        for (final ExportSet export : exports.values()) {
+            export.close();
+        }
     }
 
-    private Set<Object> getExport(final String key) {
-        Set<Object> export = exports.computeIfAbsent(key, k -> new LinkedHashSet<>());
+    private ExportSet getExport(final String key) {
+        ExportSet export = exports.computeIfAbsent(key, k -> new ExportSet(Storage.OBJECT));
 
         return export;
     }
 
+    private byte[] serialise(final Object value) {
+        try {
+            return serialiser.serialise(value);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise export value: " + e.getMessage(), e);
+        }
+    }
+
+    private Object deserialise(final byte[] bytes) {
+        try {
+            return serialiser.deserialise(bytes);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise export value: " + e.getMessage(), e);
+        }
+    }
+
     public String toString() {
         return new ToStringBuilder(this)
                 .append("exports", exports)
                 .toString();
     }
 
+    private final class ExportSet extends AbstractCollection<Object> {
+        private final Storage requested;
+        private Storage type;
+        private Set<Object> index;
+        private List<Object> values;
+        private SpillingBytesSet spilled;
+        private LongLinkedHashSet longs;
+        private OffHeapBytesSet strings;
+
+        private ExportSet(final Storage requested) {
+            this.requested = requested;
+        }
+
+        @Override
+        public boolean add(final Object value) {
+            if (null == type) {
+                init(value);
+            }
+
+            if (Storage.LONG == type) {
+                if (value instanceof Long) {
+                    return longs.add((Long) value);
+                }
+                toObjects(value);
+            } else if (Storage.STRING == type) {
+                if (value instanceof String) {
+                    return strings.add(((String) value).getBytes(StandardCharsets.UTF_8));
+                }
+                toObjects(value);
+            }
+
+            return addObject(value);
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return Storage.OBJECT == type && !isSpilled() ? values.iterator() : iterator(0);
+        }
+
+        private CloseableIterator<Object> iterator(final int from) {
+            if (null == type) {
+                return new WrappedCloseableIterable<>().iterator();
+            }
+
+            final CloseableIterator<?> itr;
+            switch (type) {
+                case LONG:
+                    itr = longs.iterator(from);
+                    break;
+                case STRING:
+                    itr = new DecodingIterator<>(strings.iterator(from), bytes -> new String(bytes, StandardCharsets.UTF_8));
+                    break;
+                default:
+                    itr = isSpilled()
+                            ? new DecodingIterator<>(spilled.iterator(from), SetExporter.this::deserialise)
+                            : new WrappedCloseableIterable<>(values).iterator(from);
+                    break;
+            }
+            return (CloseableIterator<Object>) itr;
+        }
+
+        @Override
+        public int size() {
+            if (null == type) {
+                return 0;
+            }
+
+            switch (type) {
+                case LONG:
+                    return longs.size();
+                case STRING:
+                    return strings.size();
+                default:
+                    return isSpilled() ? spilled.size() : values.size();
+            }
+        }
+
+        private boolean isSpilled() {
+            return null != spilled;
+        }
+
+        private void init(final Object firstValue) {
+            type = requested;
+            if (Storage.AUTO == type) {
+                if (firstValue instanceof Long) {
+                    type = Storage.LONG;
+                } else if (firstValue instanceof String) {
+                    type = Storage.STRING;
+                } else {
+                    type = Storage.OBJECT;
+                }
+            }
+
+            switch (type) {
+                case LONG:
+                    longs = new LongLinkedHashSet();
+                    break;
+                case STRING:
+                    strings = new OffHeapBytesSet();
+                    break;
+                default:
+                    index = new HashSet<>();
+                    values = new ArrayList<>();
+                    break;
+            }
+        }
+
+        private void toObjects(final Object value) {
+            if (Storage.AUTO != requested) {
+                throw new IllegalArgumentException("Export with " + requested + " storage cannot hold value of type "
+                        + (null == value ? "null" : value.getClass().getName()));
+            }
+
+            final CloseableIterator<Object> typedValues = iterator(0);
+            final OffHeapBytesSet oldStrings = strings;
+            type = Storage.OBJECT;
+            index = new HashSet<>();
+            values = new ArrayList<>();
+            while (typedValues.hasNext()) {
+                addObject(typedValues.next());
+            }
+            longs = null;
+            strings = null;
+            if (null != oldStrings) {
+                oldStrings.close();
+            }
+        }
+
+        private boolean addObject(final Object value) {
+            if (isSpilled()) {
+                return spilled.add(serialise(value));
+            }
+
+            if (index.add(value)) {
+                values.add(value);
+                if (values.size() > maxItemsInMemory) {
+                    spill();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private void spill() {
+            spilled = new SpillingBytesSet(SPILL_BUFFER_SIZE);
+            for (final Object value : values) {
+                spilled.add(serialise(value));
+            }
+            index = null;
+            values = null;
+        }
+
+        private void close() {
+            if (null != spilled) {
+                spilled.close();
+            }
+            if (null != strings) {
+                strings.close();
+            }
+        }
+    }
+
+    private static final class ExportValues implements SeekableCloseableIterable<Object> {
+        private final ExportSet export;
+
+        private ExportValues(final ExportSet export) {
+            this.export = export;
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator() {
+            return iterator(0);
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator(final long position) {
+            return export.iterator((int) Math.min(Integer.MAX_VALUE, position));
+        }
+
+        @Override
+        public void close() {
+            // The values are owned by the exporter.
+        }
+    }
+
+    private static final class DecodingIterator<T> implements CloseableIterator<T> {
+        private final CloseableIterator<byte[]> entries;
+        private final Function<byte[], T> decoder;
+
+        private DecodingIterator(final CloseableIterator<byte[]> entries, final Function<byte[], T> decoder) {
+            this.entries = entries;
+            this.decoder = decoder;
+        }
 
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return decoder.apply(entries.next());
+        }
+
+        @Override
+        public void close() {
+            entries.close();
+        }
+    }
 }
@@ -23,23 +23,131 @@ import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.jobtracker.JobOrder;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.io.Output;
 import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
  * A {@code GetAllJobDetails} operation is used to retrieve all of the {@link JobDetail}s
- * related to a Maestro instance.
+ * related to a Maestro instance. The jobs can be filtered by userId, status,
+ * parent job and a start time range; fields which are not set match every job.
+ * <p>
+ * Jobs are streamed from the job tracker in start time order, oldest first
+ * unless {@link JobOrder#NEWEST_FIRST} is set. A page of up to
+ * {@code pageSize} jobs can be requested; the cursor for the following page
+ * is the jobId of the last job in the page. Setting {@code fields} returns
+ * only those {@link JobDetail} fields, e.g. to omit the serialised operation.
+ * </p>
  */
 @JsonPropertyOrder(value = {"class"}, alphabetic = true)
 @Since("1.0.0")
 @Summary("Gets all running and historic job details")
 public class GetAllJobDetails implements
         Output<CloseableIterable<JobDetail>> {
+    private String userId;
+    private JobStatus status;
+    private String parentJobId;
+    private Long startedAfter;
+    private Long startedBefore;
+    private JobOrder order;
+    private Integer pageSize;
+    private String cursor;
+    private List<String> fields;
     private Map<String, String> options;
 
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(final String userId) {
+        this.userId = userId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(final JobStatus status) {
+        this.status = status;
+    }
+
+    public String getParentJobId() {
+        return parentJobId;
+    }
+
+    public void setParentJobId(final String parentJobId) {
+        this.parentJobId = parentJobId;
+    }
+
+    /**
+     * @return the inclusive lower bound on the job start time, in milliseconds
+     */
+    public Long getStartedAfter() {
+        return startedAfter;
+    }
+
+    public void setStartedAfter(final Long startedAfter) {
+        this.startedAfter = startedAfter;
+    }
+
+    /**
+     * @return the exclusive upper bound on the job start time, in milliseconds
+     */
+    public Long getStartedBefore() {
+        return startedBefore;
+    }
+
+    public void setStartedBefore(final Long startedBefore) {
+        this.startedBefore = startedBefore;
+    }
+
+    public JobOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(final JobOrder order) {
+        this.order = order;
+    }
+
+    /**
+     * @return the maximum number of jobs to return, or null for all of them
+     */
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(final Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return the jobId of the last job of the previous page, or null to start with the first job
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return the names of the {@link JobDetail} fields to return, or null for all of them
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(final List<String> fields) {
+        this.fields = fields;
+    }
+
     @Override
     public TypeReference<CloseableIterable<JobDetail>> getOutputTypeReference() {
         return new TypeReferenceImpl.JobDetailIterable();
@@ -48,6 +156,15 @@ public class GetAllJobDetails implements
     @Override
     public GetAllJobDetails shallowClone() {
         return new GetAllJobDetails.Builder()
+                .userId(userId)
+                .status(status)
+                .parentJobId(parentJobId)
+                .startedAfter(startedAfter)
+                .startedBefore(startedBefore)
+                .order(order)
+                .pageSize(pageSize)
+                .cursor(cursor)
+                .fields(fields)
                 .options(options)
                 .build();
     }
@@ -68,5 +185,54 @@ public class GetAllJobDetails implements
         public Builder() {
             super(new GetAllJobDetails());
         }
+
+        public Builder userId(final String userId) {
+            _getOp().setUserId(userId);
+            return _self();
+        }
+
+        public Builder status(final JobStatus status) {
+            _getOp().setStatus(status);
+            return _self();
+        }
+
+        public Builder parentJobId(final String parentJobId) {
+            _getOp().setParentJobId(parentJobId);
+            return _self();
+        }
+
+        public Builder startedAfter(final Long startedAfter) {
+            _getOp().setStartedAfter(startedAfter);
+            return _self();
+        }
+
+        public Builder startedBefore(final Long startedBefore) {
+            _getOp().setStartedBefore(startedBefore);
+            return _self();
+        }
+
+        public Builder order(final JobOrder order) {
+            _getOp().setOrder(order);
+            return _self();
+        }
+
+        public Builder pageSize(final Integer pageSize) {
+            _getOp().setPageSize(pageSize);
+            return _self();
+        }
+
+        public Builder cursor(final String cursor) {
+            _getOp().setCursor(cursor);
+            return _self();
+        }
+
+        public Builder fields(final List<String> fields) {
+            _getOp().setFields(fields);
+            return _self();
+        }
+
+        public Builder fields(final String... fields) {
+            return fields(null == fields ? null : Arrays.asList(fields));
+        }
     }
 }
@@ -18,26 +18,57 @@ package uk.gov.gchq.maestro.operation.impl.job;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.export.Export;
 import uk.gov.gchq.maestro.operation.export.GetExport;
-import uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport;
+import uk.gov.gchq.maestro.operation.io.Output;
+import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
 
 import java.util.Map;
 
 /**
  * A {@code GetJobResults} operation is used to retrieve the results of executing
- * a job on a Maestro instance.
+ * a job on a Maestro instance. A range of the results can be requested with
+ * start and end positions.
+ * <p>
+ * Results can be fetched while the job is still running. The results are
+ * returned as {@link JobResults}, holding the results published so far, a
+ * cursor to start the next request from and whether the job has finished.
+ * </p>
+ *
+ * @see uk.gov.gchq.maestro.operation.impl.export.resultcache.GetResultCacheExport
  */
 @JsonPropertyOrder(value = {"class"}, alphabetic = true)
 @Since("1.0.0")
 @Summary("Gets the results of a job")
-public class GetJobResults extends GetResultCacheExport {
+public class GetJobResults implements
+        GetExport,
+        Output<JobResults<?>> {
+    private String jobId;
+    private int start = 0;
+    private Integer end = null;
     private Map<String, String> options;
 
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(final int start) {
+        this.start = start;
+    }
+
+    public Integer getEnd() {
+        return end;
+    }
+
+    public void setEnd(final Integer end) {
+        this.end = end;
+    }
+
     @JsonIgnore
     @Override
     public String getKey() {
@@ -51,10 +82,27 @@ public class GetJobResults extends GetResultCacheExport {
         }
     }
 
+    @Override
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public TypeReference<JobResults<?>> getOutputTypeReference() {
+        return new TypeReferenceImpl.JobResults();
+    }
+
     @Override
     public GetJobResults shallowClone() {
         return new GetJobResults.Builder()
                 .jobId(getJobId())
+                .start(getStart())
+                .end(getEnd())
                 .options(options)
                 .build();
     }
@@ -72,9 +120,20 @@ public class GetJobResults extends GetResultCacheExport {
 
     public static class Builder
             extends Operation.BaseBuilder<GetJobResults, Builder>
-            implements GetExport.Builder<GetJobResults, Builder> {
+            implements GetExport.Builder<GetJobResults, Builder>,
+            Output.Builder<GetJobResults, JobResults<?>, Builder> {
         public Builder() {
             super(new GetJobResults());
         }
+
+        public Builder start(final int start) {
+            _getOp().setStart(start);
+            return _self();
+        }
+
+        public Builder end(final Integer end) {
+            _getOp().setEnd(end);
+            return _self();
+        }
     }
 }
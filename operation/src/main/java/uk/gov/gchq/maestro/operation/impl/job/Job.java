@@ -29,6 +29,7 @@ import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.jobtracker.JobDetail;
 import uk.gov.gchq.maestro.jobtracker.Repeat;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.io.Output;
 import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
@@ -38,7 +39,8 @@ import java.util.Map;
 
 /**
  * A {@code Job} operation is used to add a Job, possibly scheduled, on a
- * Maestro instance.
+ * Maestro instance. A job with a {@link RetryPolicy} is retried when it
+ * fails, and is moved to the dead letter store if it still fails.
  */
 @JsonPropertyOrder(value = {"class"}, alphabetic = true)
 @Since("2.0.0")
@@ -46,6 +48,7 @@ import java.util.Map;
 public class Job implements Output<JobDetail> {
     private static final String CHARSET_NAME = CommonConstants.UTF_8;
     private Repeat repeat;
+    private RetryPolicy retryPolicy;
     private Operation operation;
     private Map<String, String> options;
 
@@ -57,6 +60,14 @@ public class Job implements Output<JobDetail> {
         this.repeat = repeat;
     }
 
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
     public String getOperation() {
         try {
             return new String(JSONSerialiser.serialise(operation),
@@ -90,6 +101,7 @@ public class Job implements Output<JobDetail> {
         return new Job.Builder()
                 .operation(operation)
                 .repeat(repeat)
+                .retryPolicy(retryPolicy)
                 .build();
     }
 
@@ -129,5 +141,10 @@ public class Job implements Output<JobDetail> {
             _getOp().setRepeat(repeat);
             return _self();
         }
+
+        public Job.Builder retryPolicy(final RetryPolicy retryPolicy) {
+            _getOp().setRetryPolicy(retryPolicy);
+            return _self();
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.job;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import uk.gov.gchq.maestro.commonutil.CloseableUtil;
+import uk.gov.gchq.maestro.commonutil.ToStringBuilder;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * {@code JobResults} are the results of a job returned by
+ * {@link GetJobResults}. While a job is running they hold the results it has
+ * published so far.
+ * <p>
+ * The {@code cursor} is the position after the last result returned, to be
+ * used as the start of the next request. Once the job has finished and the
+ * cursor has reached the end of the results there are no more to fetch.
+ * </p>
+ *
+ * @param <T> the type of the results
+ */
+@JsonPropertyOrder(value = {"results", "cursor", "finished"})
+public class JobResults<T> implements Closeable {
+    private final CloseableIterable<T> results;
+    private final long cursor;
+    private final boolean finished;
+
+    /**
+     * @param results  the results
+     * @param cursor   the position after the last result
+     * @param finished true if the job had finished when the results were read
+     */
+    public JobResults(final CloseableIterable<T> results, final long cursor, final boolean finished) {
+        this.results = results;
+        this.cursor = cursor;
+        this.finished = finished;
+    }
+
+    @JsonCreator
+    public JobResults(@JsonProperty("results") final List<T> results,
+                      @JsonProperty("cursor") final long cursor,
+                      @JsonProperty("finished") final boolean finished) {
+        this(new WrappedCloseableIterable<>(results), cursor, finished);
+    }
+
+    public CloseableIterable<T> getResults() {
+        return results;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return true if the job had finished when the results were read, so
+     * results up to the end of the job's output are available
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(results);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("cursor", cursor)
+                .append("finished", finished)
+                .toString();
+    }
+}
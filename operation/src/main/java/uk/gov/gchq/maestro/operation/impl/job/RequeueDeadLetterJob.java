@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.job;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.maestro.commonutil.Required;
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.operation.io.Output;
+import uk.gov.gchq.maestro.operation.serialisation.TypeReferenceImpl;
+
+import java.util.Map;
+
+/**
+ * A {@code RequeueDeadLetterJob} operation removes a job from the
+ * {@link uk.gov.gchq.maestro.jobtracker.DeadLetterStore} and submits it again
+ * as a new job, with the same operation and retry policy. The
+ * {@link JobDetail} of the new job is returned.
+ */
+@JsonPropertyOrder(value = {"class", "jobId"}, alphabetic = true)
+@Since("2.0.0")
+@Summary("Requeues a job which failed after using up its retries")
+public class RequeueDeadLetterJob implements
+        Output<JobDetail> {
+    @Required
+    private String jobId;
+    private Map<String, String> options;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public TypeReference<JobDetail> getOutputTypeReference() {
+        return new TypeReferenceImpl.JobDetail();
+    }
+
+    @Override
+    public RequeueDeadLetterJob shallowClone() {
+        return new RequeueDeadLetterJob.Builder()
+                .jobId(jobId)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public Operation options(final Map<String, String> options) {
+        this.options = options;
+        return this;
+    }
+
+    public static class Builder extends Operation.BaseBuilder<RequeueDeadLetterJob, Builder>
+            implements Output.Builder<RequeueDeadLetterJob, JobDetail, Builder> {
+        public Builder() {
+            super(new RequeueDeadLetterJob());
+        }
+
+        public Builder jobId(final String jobId) {
+            _getOp().setJobId(jobId);
+            return _self();
+        }
+    }
+}
@@ -57,6 +57,10 @@ public final class TypeReferenceImpl {
             TypeReference<Iterable<?>> {
     }
 
+    public static class ExportPage extends
+            TypeReference<uk.gov.gchq.maestro.operation.export.ExportPage<?>> {
+    }
+
     public static <T> TypeReference<T> createExplicitT() {
         return (TypeReference) new TypeReferenceImpl.Object();
     }
@@ -79,6 +83,9 @@ public final class TypeReferenceImpl {
     public static class JobDetailIterable extends TypeReference<CloseableIterable<uk.gov.gchq.maestro.jobtracker.JobDetail>> {
     }
 
+    public static class JobResults extends TypeReference<uk.gov.gchq.maestro.operation.impl.job.JobResults<?>> {
+    }
+
     public static class Map extends TypeReference<java.util.LinkedHashMap> {
     }
 
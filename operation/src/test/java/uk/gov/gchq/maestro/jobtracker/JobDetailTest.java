@@ -15,5 +15,110 @@
  */
 package uk.gov.gchq.maestro.jobtracker;
 
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.operation.Operation;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
 public class JobDetailTest {
+
+    @Test
+    public void shouldProjectFields() {
+        // Given
+        final JobDetail jobDetail = new JobDetail("job1", "parent", "user01", mock(Operation.class), JobStatus.RUNNING, "description");
+
+        // When
+        final JobDetail projection = jobDetail.project(Arrays.asList("status", "startTime"));
+
+        // Then
+        assertEquals("job1", projection.getJobId());
+        assertEquals(JobStatus.RUNNING, projection.getStatus());
+        assertEquals(jobDetail.getStartTime(), projection.getStartTime());
+        assertNull(projection.getOpAsOperation());
+        assertNull(projection.getOperation());
+        assertNull(projection.getUserId());
+        assertNull(projection.getParentJobId());
+        assertNull(projection.getDescription());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenProjectingUnknownField() {
+        // Given
+        final JobDetail jobDetail = new JobDetail("job1", "user01", (Operation) null, JobStatus.RUNNING, null);
+
+        // When / Then
+        try {
+            jobDetail.project(Arrays.asList("status", "unknown"));
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Unknown JobDetail field: unknown", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldUpdateProgressWithoutEndingJob() {
+        // Given
+        final JobDetail jobDetail = new JobDetail("job1", "user01", (Operation) null, JobStatus.RUNNING, null);
+
+        // When
+        final JobDetail withProgress = jobDetail.withProgress(Collections.singletonMap("records", 10L), 5L);
+        final JobDetail finished = new JobDetail(withProgress, new JobDetail("job1", "user01", (Operation) null, JobStatus.FINISHED, null));
+
+        // Then
+        assertNull(withProgress.getEndTime());
+        assertEquals(jobDetail.getStartTime(), withProgress.getStartTime());
+        assertEquals(JobStatus.RUNNING, withProgress.getStatus());
+        assertEquals(Collections.singletonMap("records", 10L), withProgress.getProgress());
+        assertEquals(Long.valueOf(5L), withProgress.getProgressTime());
+        assertNull(jobDetail.getProgress());
+        assertEquals(Collections.singletonMap("records", 10L), finished.getProgress());
+        assertEquals(Collections.singletonMap("records", 10L), withProgress.project(Collections.singleton("progress")).getProgress());
+    }
+
+    @Test
+    public void shouldRecordAttemptsWithoutEndingJob() {
+        // Given
+        final JobDetail jobDetail = new JobDetail("job1", "user01", (Operation) null, JobStatus.RUNNING, null);
+        jobDetail.setRetryPolicy(new RetryPolicy());
+        jobDetail.setAttempts(1);
+
+        // When
+        final JobDetail retrying = jobDetail.withAttempts(1, JobStatus.RETRYING, "Attempt 1 of 3 failed");
+        final JobDetail failed = new JobDetail(retrying.withAttempts(2, JobStatus.RUNNING, null),
+                new JobDetail("job1", "user01", (Operation) null, JobStatus.FAILED, "Failed"));
+
+        // Then
+        assertNull(retrying.getEndTime());
+        assertEquals(JobStatus.RETRYING, retrying.getStatus());
+        assertEquals("Attempt 1 of 3 failed", retrying.getDescription());
+        assertEquals(new RetryPolicy(), retrying.getRetryPolicy());
+        assertEquals(JobStatus.RUNNING, jobDetail.getStatus());
+        assertEquals(Integer.valueOf(2), failed.getAttempts());
+        assertEquals(new RetryPolicy(), failed.getRetryPolicy());
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+    }
+
+    @Test
+    public void shouldRecordNextRunTimeWithoutEndingJob() {
+        // Given
+        final JobDetail jobDetail = new JobDetail("job1", "user01", (Operation) null, JobStatus.SCHEDULED_PARENT, null);
+
+        // When
+        final JobDetail scheduled = jobDetail.withNextRunTime(1000L);
+        final JobDetail merged = new JobDetail(scheduled,
+                new JobDetail("job1", "user01", (Operation) null, JobStatus.SCHEDULED_PARENT, null));
+
+        // Then
+        assertNull(scheduled.getEndTime());
+        assertNull(jobDetail.getNextRunTime());
+        assertEquals(Long.valueOf(1000L), scheduled.getNextRunTime());
+        assertEquals(Long.valueOf(1000L), merged.getNextRunTime());
+    }
 }
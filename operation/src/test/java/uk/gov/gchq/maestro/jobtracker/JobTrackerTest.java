@@ -15,5 +15,280 @@
  */
 package uk.gov.gchq.maestro.jobtracker;
 
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.util.CacheProperties;
+import uk.gov.gchq.maestro.operation.Operation;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
 public class JobTrackerTest {
+    private static final long HOUR = JobTracker.START_TIME_BUCKET_SIZE;
+
+    private final User user = new User.Builder().userId("user01").build();
+
+    @Before
+    public void setUp() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        CacheServiceLoader.initialise(properties);
+        JobTracker.clear();
+    }
+
+    @After
+    public void tearDown() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldGetJobsByUserAndStatus() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.RUNNING, 0L);
+        addJob("job2", null, "user01", JobStatus.FINISHED, 0L);
+        addJob("job3", null, "user02", JobStatus.RUNNING, 0L);
+
+        // When
+        final List<String> running = getJobIds(new JobFilter.Builder().status(JobStatus.RUNNING).build());
+        final List<String> user01Running = getJobIds(new JobFilter.Builder()
+                .userId("user01")
+                .status(JobStatus.RUNNING)
+                .build());
+        final List<String> user03 = getJobIds(new JobFilter.Builder().userId("user03").build());
+
+        // Then
+        assertEquals(Arrays.asList("job1", "job3"), running);
+        assertEquals(Collections.singletonList("job1"), user01Running);
+        assertEquals(Collections.emptyList(), user03);
+    }
+
+    @Test
+    public void shouldUpdateIndexesWhenJobChanges() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.RUNNING, 0L);
+
+        // When
+        addJob("job1", null, "user01", JobStatus.FINISHED, 0L);
+
+        // Then
+        assertEquals(Collections.emptyList(), getJobIds(new JobFilter.Builder().status(JobStatus.RUNNING).build()));
+        assertEquals(Collections.singletonList("job1"), getJobIds(new JobFilter.Builder().status(JobStatus.FINISHED).build()));
+    }
+
+    @Test
+    public void shouldKeepIndexesInStepWithConcurrentUpdates() throws Exception {
+        // Given
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final List<Future<?>> updates = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            updates.add(pool.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    final String jobId = "job" + thread + "-" + i;
+                    addJob(jobId, null, "user01", JobStatus.RUNNING, 0L);
+                    addJob(jobId, null, "user01", JobStatus.FINISHED, 0L);
+                }
+            }));
+        }
+        for (final Future<?> update : updates) {
+            update.get();
+        }
+        pool.shutdown();
+
+        // Then
+        assertEquals(Collections.emptyList(), getJobIds(new JobFilter.Builder().status(JobStatus.RUNNING).build()));
+        assertEquals(400, getJobIds(new JobFilter.Builder().status(JobStatus.FINISHED).build()).size());
+        assertEquals(400, getJobIds(new JobFilter.Builder().userId("user01").build()).size());
+    }
+
+    @Test
+    public void shouldGetJobsByParentJobId() {
+        // Given
+        addJob("parent", null, "user01", JobStatus.SCHEDULED_PARENT, 0L);
+        addJob("child1", "parent", "user01", JobStatus.FINISHED, 0L);
+        addJob("child2", "parent", "user01", JobStatus.RUNNING, 0L);
+        addJob("other", "otherParent", "user01", JobStatus.RUNNING, 0L);
+
+        // When
+        final List<String> children = getJobIds(new JobFilter.Builder().parentJobId("parent").build());
+
+        // Then
+        assertEquals(Arrays.asList("child1", "child2"), children);
+    }
+
+    @Test
+    public void shouldGetJobsByStartTimeRange() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.FINISHED, 10 * HOUR);
+        addJob("job2", null, "user01", JobStatus.FINISHED, 10 * HOUR + 30);
+        addJob("job3", null, "user01", JobStatus.FINISHED, 12 * HOUR);
+        addJob("job4", null, "user02", JobStatus.FINISHED, 100 * HOUR);
+
+        // When
+        final List<String> bounded = getJobIds(new JobFilter.Builder()
+                .startedAfter(10 * HOUR + 30)
+                .startedBefore(12 * HOUR + 1)
+                .build());
+        final List<String> wideRange = getJobIds(new JobFilter.Builder()
+                .userId("user01")
+                .startedAfter(0L)
+                .startedBefore(10000 * HOUR)
+                .build());
+        final List<String> openRange = getJobIds(new JobFilter.Builder().startedBefore(12 * HOUR).build());
+
+        // Then
+        assertEquals(Arrays.asList("job2", "job3"), bounded);
+        assertEquals(Arrays.asList("job1", "job2", "job3"), wideRange);
+        assertEquals(Arrays.asList("job1", "job2"), openRange);
+    }
+
+    @Test
+    public void shouldGetAllJobsForEmptyFilter() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.RUNNING, 0L);
+        addJob("job2", null, "user02", JobStatus.FAILED, 0L);
+
+        // When
+        final List<String> jobIds = getJobIds(new JobFilter.Builder().build());
+
+        // Then
+        assertEquals(Arrays.asList("job1", "job2"), jobIds);
+    }
+
+    @Test
+    public void shouldClearIndexes() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.RUNNING, 0L);
+
+        // When
+        JobTracker.clear();
+
+        // Then
+        assertEquals(Collections.emptyList(), getJobIds(new JobFilter.Builder().userId("user01").build()));
+    }
+
+    @Test
+    public void shouldListJobsInStartTimeOrder() {
+        // Given
+        addJob("job3", null, "user01", JobStatus.RUNNING, 3 * HOUR);
+        addJob("job1", null, "user01", JobStatus.RUNNING, HOUR);
+        addJob("job2b", null, "user02", JobStatus.RUNNING, 2 * HOUR);
+        addJob("job2a", null, "user01", JobStatus.RUNNING, 2 * HOUR);
+
+        // When
+        final List<String> oldestFirst = getOrderedJobIds(null, JobOrder.OLDEST_FIRST, null);
+        final List<String> newestFirst = getOrderedJobIds(null, JobOrder.NEWEST_FIRST, null);
+        final List<String> user01NewestFirst = getOrderedJobIds(new JobFilter.Builder().userId("user01").build(), JobOrder.NEWEST_FIRST, null);
+
+        // Then
+        assertEquals(Arrays.asList("job1", "job2a", "job2b", "job3"), oldestFirst);
+        assertEquals(Arrays.asList("job3", "job2b", "job2a", "job1"), newestFirst);
+        assertEquals(Arrays.asList("job3", "job2a", "job1"), user01NewestFirst);
+    }
+
+    @Test
+    public void shouldContinueAfterCursorJob() {
+        // Given
+        for (int i = 0; i < 50; i++) {
+            addJob("job" + (100 + i), null, "user01", JobStatus.FINISHED, i * HOUR / 4);
+        }
+
+        // When
+        final List<String> afterOldest = getOrderedJobIds(null, JobOrder.OLDEST_FIRST, "job139");
+        final List<String> afterNewest = getOrderedJobIds(new JobFilter.Builder().status(JobStatus.FINISHED).build(), JobOrder.NEWEST_FIRST, "job103");
+
+        // Then
+        assertEquals(Arrays.asList("job140", "job141", "job142", "job143", "job144", "job145", "job146", "job147", "job148", "job149"), afterOldest);
+        assertEquals(Arrays.asList("job102", "job101", "job100"), afterNewest);
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnknownCursor() {
+        // When / Then
+        try {
+            JobTracker.getJobs(null, JobOrder.OLDEST_FIRST, "unknown", user);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Unknown job cursor: unknown", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldMergeJobDetails() {
+        // Given
+        addJob("job1", "parent", "user01", JobStatus.RUNNING, 5L);
+        final JobDetail update = new JobDetail();
+        update.setJobId("job1");
+        update.setStatus(JobStatus.FINISHED);
+
+        // When
+        final JobDetail merged = JobTracker.mergeJob(update, user);
+
+        // Then
+        assertEquals(JobStatus.FINISHED, merged.getStatus());
+        assertEquals("parent", merged.getParentJobId());
+        assertEquals(5L, (long) merged.getStartTime());
+        assertEquals(merged, JobTracker.getJob("job1", user));
+        assertEquals(Collections.singletonList("job1"), getJobIds(new JobFilter.Builder().status(JobStatus.FINISHED).build()));
+        assertEquals(Collections.emptyList(), getJobIds(new JobFilter.Builder().status(JobStatus.RUNNING).build()));
+    }
+
+    @Test
+    public void shouldUpdateExistingJobOnly() {
+        // Given
+        addJob("job1", null, "user01", JobStatus.RUNNING, 0L);
+
+        // When
+        final JobDetail updated = JobTracker.updateJob("job1", job -> new JobDetail(job, statusOf(JobStatus.FAILED)), user);
+        final JobDetail missing = JobTracker.updateJob("job2", job -> new JobDetail(job, statusOf(JobStatus.FAILED)), user);
+
+        // Then
+        assertEquals(JobStatus.FAILED, updated.getStatus());
+        assertEquals(JobStatus.FAILED, JobTracker.getJob("job1", user).getStatus());
+        assertNull(missing);
+        assertNull(JobTracker.getJob("job2", user));
+    }
+
+    private void addJob(final String jobId, final String parentJobId, final String userId, final JobStatus status, final long startTime) {
+        final JobDetail jobDetail = new JobDetail(jobId, parentJobId, userId, (Operation) null, status, null);
+        jobDetail.setStartTime(startTime);
+        JobTracker.addOrUpdateJob(jobDetail, user);
+    }
+
+    private List<String> getJobIds(final JobFilter filter) {
+        return Lists.newArrayList(JobTracker.getJobs(filter, user)).stream()
+                .map(JobDetail::getJobId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<String> getOrderedJobIds(final JobFilter filter, final JobOrder order, final String afterJobId) {
+        return Lists.newArrayList(JobTracker.getJobs(filter, order, afterJobId, user)).stream()
+                .map(JobDetail::getJobId)
+                .collect(Collectors.toList());
+    }
+
+    private static JobDetail statusOf(final JobStatus status) {
+        final JobDetail jobDetail = new JobDetail();
+        jobDetail.setStatus(status);
+        return jobDetail;
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.jobtracker;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+    @Test
+    public void shouldBackOffExponentiallyUpToMaxDelay() {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy(10, 1, 10, TimeUnit.SECONDS);
+        retryPolicy.setJitter(0);
+
+        // When / Then
+        assertEquals(1000, retryPolicy.getDelay(1, new Random()));
+        assertEquals(2000, retryPolicy.getDelay(2, new Random()));
+        assertEquals(4000, retryPolicy.getDelay(3, new Random()));
+        assertEquals(8000, retryPolicy.getDelay(4, new Random()));
+        assertEquals(10000, retryPolicy.getDelay(5, new Random()));
+    }
+
+    @Test
+    public void shouldRandomiseJitterFractionOfDelay() {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy(10, 1, 10, TimeUnit.SECONDS);
+        retryPolicy.setJitter(0.25);
+        final Random random = new Random(1);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            final long delay = retryPolicy.getDelay(2, random);
+            assertTrue("Delay was " + delay, delay >= 1500 && delay <= 2000);
+        }
+    }
+
+    @Test
+    public void shouldRetryEveryFailureByDefault() {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy();
+
+        // When / Then
+        assertTrue(retryPolicy.isRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    public void shouldOnlyRetryRetryableExceptionsAndTheirSubclassesAndCauses() {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setRetryableExceptions(Collections.singleton(IOException.class.getName()));
+
+        // When / Then
+        assertTrue(retryPolicy.isRetryable(new IOException()));
+        assertTrue(retryPolicy.isRetryable(new FileNotFoundException()));
+        assertTrue(retryPolicy.isRetryable(new OperationException("Failed", new IOException())));
+        assertFalse(retryPolicy.isRetryable(new OperationException("Failed", new TimeoutException())));
+        assertFalse(retryPolicy.isRetryable(new IllegalArgumentException()));
+    }
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final RetryPolicy retryPolicy = new RetryPolicy(5, 100, 2000, TimeUnit.MILLISECONDS);
+        retryPolicy.setMultiplier(3);
+        retryPolicy.setJitter(0.1);
+        retryPolicy.setRetryableExceptions(Collections.singleton(IOException.class.getName()));
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(retryPolicy);
+        final RetryPolicy deserialised = JSONSerialiser.deserialise(json, RetryPolicy.class);
+
+        // Then
+        assertEquals(retryPolicy, deserialised);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.export;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExportCursorTest {
+
+    @Test
+    public void shouldEncodeAndDecodeCursor() {
+        // Given
+        final String cursor = ExportCursor.encode("key", 1234L);
+
+        // When
+        final long position = ExportCursor.decode(cursor, "key");
+
+        // Then
+        assertEquals(1234L, position);
+    }
+
+    @Test
+    public void shouldRejectCursorForDifferentKey() {
+        // Given
+        final String cursor = ExportCursor.encode("key1", 10L);
+
+        // When / Then
+        try {
+            ExportCursor.decode(cursor, "key2");
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Export cursor does not belong to export key: key2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidCursor() {
+        // When / Then
+        try {
+            ExportCursor.decode("not a cursor!", "key");
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Invalid export cursor: not a cursor!", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.export;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.JsonAssert;
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.operation.impl.export.set.GetSetExport;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExportPageTest {
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseItemsWithNextCursor() throws SerialisationException {
+        // Given
+        final String nextCursor = ExportCursor.encode("key", 3);
+        final ExportPage<Integer> page = new ExportPage<>(
+                new WrappedCloseableIterable<>(Arrays.asList(0, 1, 2, 3, 4)), 1, 3, nextCursor);
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(page);
+        final ExportPage<?> deserialised = JSONSerialiser.deserialise(json, new GetSetExport().getOutputTypeReference());
+
+        // Then
+        JsonAssert.assertEquals(String.format("{%n" +
+                "  \"items\" : [ 1, 2 ],%n" +
+                "  \"nextCursor\" : \"" + nextCursor + "\"%n" +
+                "}"), new String(json));
+        assertEquals(Arrays.asList(1, 2), Lists.newArrayList(deserialised));
+        assertEquals(nextCursor, deserialised.getNextCursor());
+    }
+
+    @Test
+    public void shouldJsonSerialiseLastPageWithoutNextCursor() throws SerialisationException {
+        // Given
+        final ExportPage<Integer> page = new ExportPage<>(
+                new WrappedCloseableIterable<>(Arrays.asList(0, 1)), 0, null, null);
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(page);
+        final ExportPage<?> deserialised = JSONSerialiser.deserialise(json, new GetSetExport().getOutputTypeReference());
+
+        // Then
+        assertEquals(Arrays.asList(0, 1), Lists.newArrayList(deserialised));
+        assertNull(deserialised.getNextCursor());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.maestro.operation.impl.compare;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.operation.OperationTest;
+
+import java.util.Comparator;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class SortTest extends OperationTest<Sort> {
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Sets.newHashSet("comparator");
+    }
+
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final ToBytesSerialiser<Integer> serialiser = (ToBytesSerialiser) new JavaSerialiser();
+        final Sort<Integer> op = new Sort.Builder<Integer>()
+                .input(3, 1, 2)
+                .comparator(new IntegerComparator())
+                .serialiser(serialiser)
+                .maxItemsInMemory(10)
+                .build();
+
+        // When
+        byte[] json = JSONSerialiser.serialise(op, true);
+        final Sort deserialisedOp = JSONSerialiser.deserialise(json, Sort.class);
+
+        // Then
+        assertEquals(Lists.newArrayList(3, 1, 2), Lists.newArrayList(deserialisedOp.getInput()));
+        assertTrue(deserialisedOp.getComparator() instanceof IntegerComparator);
+        assertTrue(deserialisedOp.getSerialiser() instanceof JavaSerialiser);
+        assertEquals(10, (int) deserialisedOp.getMaxItemsInMemory());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // Given
+        final IntegerComparator comparator = new IntegerComparator();
+
+        // When
+        final Sort<Integer> op = new Sort.Builder<Integer>()
+                .input(3, 1, 2)
+                .comparator(comparator)
+                .maxItemsInMemory(10)
+                .build();
+
+        // Then
+        assertEquals(Lists.newArrayList(3, 1, 2), Lists.newArrayList(op.getInput()));
+        assertEquals(comparator, op.getComparator());
+        assertEquals(10, (int) op.getMaxItemsInMemory());
+    }
+
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final IntegerComparator comparator = new IntegerComparator();
+        final Sort<Integer> sort = new Sort.Builder<Integer>()
+                .input(3, 1, 2)
+                .comparator(comparator)
+                .maxItemsInMemory(10)
+                .build();
+
+        // When
+        final Sort<Integer> clone = sort.shallowClone();
+
+        // Then
+        assertNotSame(sort, clone);
+        assertEquals(Lists.newArrayList(3, 1, 2), Lists.newArrayList(clone.getInput()));
+        assertEquals(comparator, clone.getComparator());
+        assertEquals(10, (int) clone.getMaxItemsInMemory());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(Iterable.class, outputClass);
+    }
+
+    @Override
+    protected Sort getTestObject() {
+        return new Sort();
+    }
+
+    public static class IntegerComparator implements Comparator<Integer> {
+        @Override
+        public int compare(final Integer o1, final Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+    }
+}
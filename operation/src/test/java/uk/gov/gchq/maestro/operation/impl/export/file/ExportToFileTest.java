@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.file;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.operation.OperationTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+
+public class ExportToFileTest extends OperationTest<ExportToFile> {
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final String key = "key";
+        final ExportToFile op = new ExportToFile.Builder<>()
+                .key(key)
+                .build();
+
+        // When
+        byte[] json = JSONSerialiser.serialise(op, true);
+        final ExportToFile deserialisedOp = JSONSerialiser.deserialise(json, ExportToFile.class);
+
+        // Then
+        assertEquals(key, deserialisedOp.getKey());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final ExportToFile op = new ExportToFile.Builder<>()
+                .key("key")
+                .build();
+
+        // Then
+        assertEquals("key", op.getKey());
+    }
+
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final String key = "key";
+        final String input = "input";
+        final ExportToFile exportToFile = new ExportToFile.Builder<>()
+                .key(key)
+                .input(input)
+                .build();
+
+        // When
+        ExportToFile clone = exportToFile.shallowClone();
+
+        // Then
+        assertNotSame(exportToFile, clone);
+        assertEquals(key, clone.getKey());
+        assertEquals(input, clone.getInput());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(Object.class, outputClass);
+    }
+
+    @Override
+    protected ExportToFile getTestObject() {
+        return new ExportToFile();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.file;
+
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileExporterTest {
+    @Rule
+    public final TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldAddIterablesToFileInOrder() throws Exception {
+        // Given
+        try (FileExporter exporter = new FileExporter(testFolder.getRoot().getPath())) {
+            // When
+            exporter.add("key", Arrays.asList("1", "2", "3"));
+            exporter.add("key", Arrays.asList("3", "4"));
+            exporter.add("key2", Arrays.asList("5", "6"));
+
+            // Then
+            assertEquals(Arrays.asList("1", "2", "3", "3", "4"), Lists.newArrayList(exporter.get("key")));
+            assertEquals(Arrays.asList("5", "6"), Lists.newArrayList(exporter.get("key2")));
+            assertEquals(Collections.emptyList(), Lists.newArrayList(exporter.get("unknown")));
+        }
+    }
+
+    @Test
+    public void shouldReadPagesFromAnyPositionAcrossRegions() throws Exception {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add(i);
+        }
+        try (FileExporter exporter = new FileExporter(testFolder.getRoot().getPath(), 1024, new JavaSerialiser())) {
+            exporter.add("key", values);
+
+            // When
+            final ExportPage<?> page1 = exporter.get("key", 97, 140);
+            final ExportPage<?> page2 = exporter.get("key", (int) ExportCursor.decode(page1.getNextCursor(), "key"), 183);
+            final ExportPage<?> last = exporter.get("key", 490, 510);
+
+            // Then
+            assertEquals(values.subList(97, 140), Lists.newArrayList(page1));
+            assertEquals(values.subList(140, 183), Lists.newArrayList(page2));
+            assertEquals(values.subList(490, 500), Lists.newArrayList(last));
+            assertNull(last.getNextCursor());
+            assertEquals(values, Lists.newArrayList(exporter.get("key")));
+        }
+    }
+
+    @Test
+    public void shouldWriteRecordsLargerThanRegionSize() throws Exception {
+        // Given
+        final char[] chars = new char[5000];
+        Arrays.fill(chars, 'a');
+        final String large = new String(chars);
+        try (FileExporter exporter = new FileExporter(testFolder.getRoot().getPath(), 1024, new JavaSerialiser())) {
+            // When
+            exporter.add("key", Arrays.asList("small", large, "small2"));
+
+            // Then
+            assertEquals(Arrays.asList("small", large, "small2"), Lists.newArrayList(exporter.get("key")));
+        }
+    }
+
+    @Test
+    public void shouldCountBytesRead() throws Exception {
+        // Given
+        final JavaSerialiser serialiser = new JavaSerialiser();
+        final AtomicLong bytesRead = new AtomicLong();
+        try (FileExporter exporter = new FileExporter(testFolder.getRoot().getPath())) {
+            exporter.setBytesRead(bytesRead::addAndGet);
+            exporter.add("key", Arrays.asList("1", "2"));
+
+            // When
+            Lists.newArrayList(exporter.get("key"));
+
+            // Then
+            assertEquals(8 + serialiser.serialise("1").length + serialiser.serialise("2").length, bytesRead.get());
+        }
+    }
+
+    @Test
+    public void shouldDeleteFilesWhenClosed() throws Exception {
+        // Given
+        final FileExporter exporter = new FileExporter(testFolder.getRoot().getPath());
+        exporter.add("key", Arrays.asList(1, 2, 3));
+        final File file = exporter.getFile("key");
+        assertTrue(file.exists());
+
+        // When
+        exporter.close();
+
+        // Then
+        assertFalse(file.exists());
+        assertEquals(0, testFolder.getRoot().list().length);
+    }
+}
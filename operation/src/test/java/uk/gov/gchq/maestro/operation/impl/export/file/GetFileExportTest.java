@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.file;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.maestro.operation.OperationTest;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+
+public class GetFileExportTest extends OperationTest<GetFileExport> {
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final GetFileExport operation = new GetFileExport.Builder()
+                .key("key")
+                .jobId("jobId")
+                .start(0)
+                .end(5)
+                .build();
+
+        // When
+        byte[] json = JSONSerialiser.serialise(operation, true);
+        final GetFileExport deserialisedOp = JSONSerialiser.deserialise(json, GetFileExport.class);
+
+        // Then
+        assertEquals("key", deserialisedOp.getKey());
+        assertEquals("jobId", deserialisedOp.getJobId());
+        assertEquals(0, deserialisedOp.getStart());
+        assertEquals(5, (int) deserialisedOp.getEnd());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final GetFileExport operation = new GetFileExport.Builder()
+                .key("key")
+                .jobId("jobId")
+                .start(0)
+                .end(5)
+                .cursor("cursor")
+                .build();
+
+        // Then
+        assertEquals("cursor", operation.getCursor());
+        assertEquals("key", operation.getKey());
+        assertEquals("jobId", operation.getJobId());
+        assertEquals(0, operation.getStart());
+        assertEquals(5, (int) operation.getEnd());
+    }
+
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final String key = "key";
+        final String jobId = "jobId";
+        final int start = 0;
+        final int end = 5;
+        final String cursor = "cursor";
+        final GetFileExport getFileExport = new GetFileExport.Builder()
+                .key(key)
+                .jobId(jobId)
+                .start(start)
+                .end(end)
+                .cursor(cursor)
+                .build();
+
+        // When
+        GetFileExport clone = getFileExport.shallowClone();
+
+        // Then
+        assertNotSame(getFileExport, clone);
+        assertEquals(key, clone.getKey());
+        assertEquals(jobId, clone.getJobId());
+        assertEquals(start, clone.getStart());
+        assertEquals(end, (int) clone.getEnd());
+        assertEquals(cursor, clone.getCursor());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(ExportPage.class, outputClass);
+    }
+
+    @Override
+    protected GetFileExport getTestObject() {
+        return new GetFileExport();
+    }
+}
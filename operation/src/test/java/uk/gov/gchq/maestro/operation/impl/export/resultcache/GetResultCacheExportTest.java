@@ -51,10 +51,14 @@ public class GetResultCacheExportTest extends OperationTest<GetResultCacheExport
         final String key = "key";
         final GetResultCacheExport op = new GetResultCacheExport.Builder()
                 .key(key)
+                .start(2)
+                .end(5)
                 .build();
 
         // Then
         assertEquals(key, op.getKey());
+        assertEquals(2, op.getStart());
+        assertEquals(5, (int) op.getEnd());
     }
 
     @Override
@@ -65,6 +69,8 @@ public class GetResultCacheExportTest extends OperationTest<GetResultCacheExport
         final GetResultCacheExport getGafferResultCacheExport = new GetResultCacheExport.Builder()
                 .key(key)
                 .jobId(jobId)
+                .start(2)
+                .end(5)
                 .build();
 
         // When
@@ -74,6 +80,8 @@ public class GetResultCacheExportTest extends OperationTest<GetResultCacheExport
         assertNotSame(getGafferResultCacheExport, clone);
         assertEquals(key, clone.getKey());
         assertEquals(jobId, clone.getJobId());
+        assertEquals(2, clone.getStart());
+        assertEquals(5, (int) clone.getEnd());
     }
 
     @Test
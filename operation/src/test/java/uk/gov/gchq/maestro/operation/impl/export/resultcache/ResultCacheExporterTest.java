@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.export.resultcache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.commonutil.cache.CacheServiceLoader;
+import uk.gov.gchq.maestro.commonutil.cache.util.CacheProperties;
+import uk.gov.gchq.maestro.commonutil.exception.OperationException;
+import uk.gov.gchq.maestro.commonutil.serialisation.impl.JavaSerialiser;
+import uk.gov.gchq.maestro.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResultCacheExporterTest {
+    private final User user = new User.Builder().userId("user01").build();
+
+    @Before
+    public void setUp() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, "uk.gov.gchq.maestro.commonutil.cache.impl.HashMapCacheService");
+        CacheServiceLoader.initialise(properties);
+    }
+
+    @After
+    public void tearDown() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldStoreResultsInChunksAndRecordTheirSize() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 3);
+        final List<Object> values = range(0, 10);
+
+        // When
+        exporter.add("key", values);
+
+        // Then
+        final ResultCacheEntry entry = exporter.getEntry("jobId", "key");
+        assertEquals(10, entry.getElementCount());
+        assertEquals(4, entry.getChunkCount());
+        assertTrue(entry.getTotalBytes() > 0);
+        assertTrue(CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.CACHE_NAME).contains("jobId/key/3"));
+        assertEquals(values, Lists.newArrayList(exporter.get("key")));
+    }
+
+    @Test
+    public void shouldPublishEachCompletedChunkWhileAdding() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 3);
+        final List<Long> visibleCounts = new ArrayList<>();
+        final Iterable<Object> values = () -> range(0, 8).stream().peek(value -> {
+            try {
+                final ResultCacheEntry entry = exporter.getEntry("jobId", "key");
+                visibleCounts.add(null == entry ? 0 : entry.getElementCount());
+            } catch (final OperationException e) {
+                throw new RuntimeException(e);
+            }
+        }).iterator();
+
+        // When
+        exporter.add("key", values);
+
+        // Then - only whole chunks are visible until the add completes
+        assertEquals(Arrays.asList(0L, 0L, 0L, 3L, 3L, 3L, 6L, 6L), visibleCounts);
+        assertEquals(8, exporter.getEntry("jobId", "key").getElementCount());
+        assertEquals(range(0, 3), Lists.newArrayList(exporter.get("jobId", "key", 0, 3)));
+    }
+
+    @Test
+    public void shouldAppendToPartialChunk() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 4);
+
+        // When
+        exporter.add("key", range(0, 5));
+        exporter.add("key", range(5, 11));
+
+        // Then
+        assertEquals(range(0, 11), Lists.newArrayList(exporter.get("key")));
+        assertEquals(11, exporter.getEntry("jobId", "key").getElementCount());
+    }
+
+    @Test
+    public void shouldReadRangeOfResults() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 4);
+        exporter.add("key", range(0, 20));
+
+        // When
+        final List<Object> page = Lists.newArrayList(exporter.get("jobId", "key", 6, 13));
+        final List<Object> tail = Lists.newArrayList(exporter.get("jobId", "key", 18, 30));
+
+        // Then
+        assertEquals(range(6, 13), page);
+        assertEquals(range(18, 20), tail);
+    }
+
+    @Test
+    public void shouldOnlyAllowOwnerOrUsersWithOpAuthsToReadResults() throws OperationException {
+        // Given
+        createExporter(user, 4).add("key", range(0, 3), Sets.newHashSet("auth1"));
+        final User userWithAuth = new User.Builder().userId("user02").opAuths("auth1").build();
+        final User userWithoutAuth = new User.Builder().userId("user03").opAuths("auth2").build();
+
+        // When
+        final List<Object> withAuth = Lists.newArrayList(createExporter(userWithAuth, 4).get("key"));
+        final List<Object> withoutAuth = Lists.newArrayList(createExporter(userWithoutAuth, 4).get("key"));
+
+        // Then
+        assertEquals(range(0, 3), withAuth);
+        assertEquals(Collections.emptyList(), withoutAuth);
+        assertNull(createExporter(userWithoutAuth, 4).getEntry("jobId", "key"));
+    }
+
+    @Test
+    public void shouldNotAllowOtherUsersToAddToResults() throws OperationException {
+        // Given
+        createExporter(user, 4).add("key", range(0, 3));
+        final ResultCacheExporter otherExporter = createExporter(new User("user02"), 4);
+
+        // When / Then
+        try {
+            otherExporter.add("key", range(3, 6));
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("is not permitted"));
+        }
+    }
+
+    @Test
+    public void shouldNotAllowUsersWithOpAuthsToAddToResults() throws OperationException {
+        // Given
+        createExporter(user, 4).add("key", range(0, 3), Sets.newHashSet("auth1"));
+        final User userWithAuth = new User.Builder().userId("user02").opAuths("auth1").build();
+
+        // When
+        try {
+            createExporter(userWithAuth, 4).add("key", range(3, 6), Sets.newHashSet("auth2"));
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("is not permitted"));
+        }
+
+        // Then
+        final ResultCacheEntry entry = createExporter(user, 4).getEntry("jobId", "key");
+        assertEquals(user.getUserId(), entry.getUserId());
+        assertEquals(Sets.newHashSet("auth1"), entry.getOpAuths());
+        assertEquals(3, entry.getElementCount());
+    }
+
+    @Test
+    public void shouldAppendAfterLastWholeChunkWhenPartialChunkIsMissing() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 4);
+        exporter.add("key", range(0, 6));
+        CacheServiceLoader.getService().removeFromCache(ResultCacheExporter.CACHE_NAME, "jobId/key/1");
+
+        // When
+        exporter.add("key", range(6, 8));
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3, 6, 7), Lists.newArrayList(exporter.get("key")));
+    }
+
+    @Test
+    public void shouldRemoveAllResultsOfJob() throws OperationException {
+        // Given
+        final ResultCacheExporter exporter = createExporter(user, 2);
+        exporter.add("key1", range(0, 5));
+        exporter.add("key2", range(0, 1));
+        new ResultCacheExporter("jobId1", user, 2, ResultCacheExporter.DEFAULT_TIME_TO_LIVE, new JavaSerialiser())
+                .add("key", range(0, 5));
+
+        // When
+        exporter.removeAll();
+
+        // Then
+        assertEquals(Sets.newHashSet("jobId1/key", "jobId1/key/0", "jobId1/key/1", "jobId1/key/2"),
+                CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.CACHE_NAME));
+        assertEquals(Collections.singleton("jobId1"),
+                CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.INDEX_CACHE_NAME));
+    }
+
+    @Test
+    public void shouldRemoveExpiredResults() throws Exception {
+        // Given
+        final ResultCacheExporter exporter = new ResultCacheExporter("jobId", user, 2, 1, new JavaSerialiser());
+        exporter.add("key", range(0, 5));
+        Thread.sleep(5);
+
+        // When
+        final List<Object> results = Lists.newArrayList(exporter.get("key"));
+
+        // Then
+        assertEquals(Collections.emptyList(), results);
+        assertFalse(CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.CACHE_NAME).contains("jobId/key/0"));
+    }
+
+    @Test
+    public void shouldRemoveAllExpiredResults() throws Exception {
+        // Given
+        new ResultCacheExporter("jobId1", user, 2, 1, new JavaSerialiser()).add("key", range(0, 5));
+        createExporter(user, 2).add("key", range(0, 5));
+        Thread.sleep(5);
+
+        // When
+        ResultCacheExporter.removeExpired();
+
+        // Then
+        assertEquals(Sets.newHashSet("jobId/key", "jobId/key/0", "jobId/key/1", "jobId/key/2"),
+                CacheServiceLoader.getService().getAllKeysFromCache(ResultCacheExporter.CACHE_NAME));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenCacheIsNotConfigured() {
+        // Given
+        CacheServiceLoader.shutdown();
+        final ResultCacheExporter exporter = createExporter(user, 2);
+
+        // When / Then
+        try {
+            exporter.add("key", Arrays.asList(1, 2));
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("The result cache is not available as no cache service has been configured", e.getMessage());
+        }
+    }
+
+    private ResultCacheExporter createExporter(final User user, final int chunkSize) {
+        return new ResultCacheExporter("jobId", user, chunkSize, ResultCacheExporter.DEFAULT_TIME_TO_LIVE, new JavaSerialiser());
+    }
+
+    private static List<Object> range(final int start, final int end) {
+        final List<Object> values = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
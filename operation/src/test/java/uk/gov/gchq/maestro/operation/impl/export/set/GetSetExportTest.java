@@ -21,6 +21,7 @@ import org.junit.Test;
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.operation.OperationTest;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
@@ -57,9 +58,11 @@ public class GetSetExportTest extends OperationTest<GetSetExport> {
                 .jobId("jobId")
                 .start(0)
                 .end(5)
+                .cursor("cursor")
                 .build();
 
         // Then
+        assertEquals("cursor", operation.getCursor());
         assertEquals("key", operation.getKey());
         assertEquals("jobId", operation.getJobId());
         assertEquals(0, operation.getStart());
@@ -73,11 +76,13 @@ public class GetSetExportTest extends OperationTest<GetSetExport> {
         final String jobId = "jobId";
         final int start = 0;
         final int end = 5;
+        final String cursor = "cursor";
         final GetSetExport getSetExport = new GetSetExport.Builder()
                 .key(key)
                 .jobId(jobId)
                 .start(start)
                 .end(end)
+                .cursor(cursor)
                 .build();
 
         // When
@@ -89,6 +94,7 @@ public class GetSetExportTest extends OperationTest<GetSetExport> {
         assertEquals(jobId, clone.getJobId());
         assertEquals(start, clone.getStart());
         assertEquals(end, (int) clone.getEnd());
+        assertEquals(cursor, clone.getCursor());
     }
 
     @Test
@@ -97,7 +103,7 @@ public class GetSetExportTest extends OperationTest<GetSetExport> {
         final Class<?> outputClass = getTestObject().getOutputClass();
 
         // Then
-        assertEquals(Iterable.class, outputClass);
+        assertEquals(ExportPage.class, outputClass);
     }
 
     @Override
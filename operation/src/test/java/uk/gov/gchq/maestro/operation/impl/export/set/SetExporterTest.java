@@ -22,11 +22,23 @@ import org.junit.Test;
 
 import uk.gov.gchq.maestro.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.maestro.operation.export.ExportCursor;
+import uk.gov.gchq.maestro.operation.export.ExportPage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 public class SetExporterTest {
@@ -83,4 +95,221 @@ public class SetExporterTest {
             assertEquals(values1.subList(start, end), Lists.newArrayList(results));
         }
     }
+
+    @Test
+    public void shouldReturnCursorForNextPage() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+        final SetExporter exporter = new SetExporter();
+        exporter.add("key", values);
+
+        // When
+        final ExportPage<?> page1 = exporter.get("key", 0, 2);
+        final ExportPage<?> page2 = exporter.get("key", (int) ExportCursor.decode(page1.getNextCursor(), "key"), 4);
+        final ExportPage<?> page3 = exporter.get("key", (int) ExportCursor.decode(page2.getNextCursor(), "key"), 6);
+
+        // Then
+        assertEquals(values.subList(0, 2), Lists.newArrayList(page1));
+        assertEquals(values.subList(2, 4), Lists.newArrayList(page2));
+        assertEquals(values.subList(4, 5), Lists.newArrayList(page3));
+        assertNull(page3.getNextCursor());
+    }
+
+    @Test
+    public void shouldCloseResultsIteratorOnceAdded() {
+        // Given
+        final List<String> values = Arrays.asList("1", "2", "3");
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Iterable<String> results = () -> new CloseableIterator<String>() {
+            private final Iterator<String> itr = values.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return itr.next();
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        final SetExporter exporter = new SetExporter();
+
+        // When
+        exporter.add("key", results);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(exporter.get("key")));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void shouldStopAddingBetweenBatchesWhenInterrupted() {
+        // Given
+        final List<Integer> values = IntStream.range(0, 5000).boxed().collect(Collectors.toList());
+        final SetExporter exporter = new SetExporter();
+        Thread.currentThread().interrupt();
+
+        // When / Then
+        try {
+            exporter.add("key", values);
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            assertEquals("Interrupted whilst adding results to export: key", e.getMessage());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1000, Lists.newArrayList(exporter.get("key")).size());
+    }
+
+    @Test
+    public void shouldNotAddDuplicateValues() {
+        // Given
+        final SetExporter exporter = new SetExporter();
+
+        // When
+        exporter.add("key", Arrays.asList(1, 2, 3));
+        exporter.add("key", Arrays.asList(3, 2, 4));
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4), Lists.newArrayList(exporter.get("key")));
+    }
+
+    @Test
+    public void shouldSpillToDiskAndKeepInsertionOrderAndDeduplication() {
+        // Given
+        try (SetExporter exporter = new SetExporter(3)) {
+            exporter.add("key", Arrays.asList(1, 2, 3));
+            assertFalse(exporter.isSpilled("key"));
+
+            // When
+            exporter.add("key", Arrays.asList(3, 4, 1, 5, 6));
+
+            // Then
+            assertTrue(exporter.isSpilled("key"));
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), Lists.newArrayList(exporter.get("key")));
+        }
+    }
+
+    @Test
+    public void shouldPageSpilledExportFromDisk() {
+        // Given
+        try (SetExporter exporter = new SetExporter(10)) {
+            final List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                values.add(i);
+            }
+            exporter.add("key", values);
+
+            // When
+            final ExportPage<?> page1 = exporter.get("key", 40, 50);
+            final ExportPage<?> page2 = exporter.get("key", (int) ExportCursor.decode(page1.getNextCursor(), "key"), 60);
+            final ExportPage<?> last = exporter.get("key", 95, 105);
+
+            // Then
+            assertTrue(exporter.isSpilled("key"));
+            assertEquals(values.subList(40, 50), Lists.newArrayList(page1));
+            assertEquals(values.subList(50, 60), Lists.newArrayList(page2));
+            assertEquals(values.subList(95, 100), Lists.newArrayList(last));
+            assertNull(last.getNextCursor());
+        }
+    }
+
+    @Test
+    public void shouldHoldValuesAsObjectsByDefault() {
+        // Given
+        try (SetExporter exporter = new SetExporter()) {
+            // When
+            exporter.add("longs", Arrays.asList(1L, 2L));
+            exporter.add("strings", Arrays.asList("a", "b"), null);
+
+            // Then
+            assertEquals(SetExporter.Storage.OBJECT, exporter.getStorage("longs"));
+            assertEquals(SetExporter.Storage.OBJECT, exporter.getStorage("strings"));
+        }
+    }
+
+    @Test
+    public void shouldHoldLongsInPrimitiveSetWithAutoStorage() {
+        // Given
+        try (SetExporter exporter = new SetExporter(3)) {
+            // When
+            exporter.add("key", Arrays.asList(5L, 3L, 5L, 1L), SetExporter.Storage.AUTO);
+            exporter.add("key", Arrays.asList(3L, 2L, 4L));
+
+            // Then
+            assertEquals(SetExporter.Storage.LONG, exporter.getStorage("key"));
+            assertFalse(exporter.isSpilled("key"));
+            assertEquals(Arrays.asList(5L, 3L, 1L, 2L, 4L), Lists.newArrayList(exporter.get("key")));
+            assertEquals(Arrays.asList(1L, 2L), Lists.newArrayList(exporter.get("key", 2, 4)));
+        }
+    }
+
+    @Test
+    public void shouldHoldStringsOffHeapWithAutoStorage() {
+        // Given
+        try (SetExporter exporter = new SetExporter()) {
+            // When
+            exporter.add("key", Arrays.asList("b", "\u00e9", "a", "b"), SetExporter.Storage.AUTO);
+
+            // Then
+            assertEquals(SetExporter.Storage.STRING, exporter.getStorage("key"));
+            assertEquals(Arrays.asList("b", "\u00e9", "a"), Lists.newArrayList(exporter.get("key")));
+            assertEquals(Arrays.asList("\u00e9", "a"), Lists.newArrayList(exporter.get("key", 1, null)));
+        }
+    }
+
+    @Test
+    public void shouldFallBackToObjectStorageForMixedTypes() {
+        // Given
+        try (SetExporter exporter = new SetExporter(3)) {
+            exporter.add("key", Arrays.asList("a", "b"), SetExporter.Storage.AUTO);
+
+            // When
+            exporter.add("key", Arrays.asList(1, "a", "c"));
+
+            // Then
+            assertEquals(SetExporter.Storage.OBJECT, exporter.getStorage("key"));
+            assertTrue(exporter.isSpilled("key"));
+            assertEquals(Arrays.asList("a", "b", 1, "c"), Lists.newArrayList(exporter.get("key")));
+        }
+    }
+
+    @Test
+    public void shouldUseRequestedStorage() {
+        // Given
+        try (SetExporter exporter = new SetExporter()) {
+            // When
+            exporter.add("objects", Arrays.asList(1L, 2L), SetExporter.Storage.OBJECT);
+            exporter.add("longs", Arrays.asList(1L, 2L), SetExporter.Storage.LONG);
+
+            // Then
+            assertEquals(SetExporter.Storage.OBJECT, exporter.getStorage("objects"));
+            assertEquals(SetExporter.Storage.LONG, exporter.getStorage("longs"));
+            assertEquals(Arrays.asList(1L, 2L), Lists.newArrayList(exporter.get("objects")));
+            assertEquals(Arrays.asList(1L, 2L), Lists.newArrayList(exporter.get("longs")));
+        }
+    }
+
+    @Test
+    public void shouldRejectValuesNotMatchingRequestedStorage() {
+        // Given
+        try (SetExporter exporter = new SetExporter()) {
+            exporter.add("key", Arrays.asList(1L, 2L), SetExporter.Storage.LONG);
+
+            // When / Then
+            try {
+                exporter.add("key", Arrays.asList(3L, "4"));
+                fail("Exception expected");
+            } catch (final IllegalArgumentException e) {
+                assertEquals("Export with LONG storage cannot hold value of type java.lang.String", e.getMessage());
+            }
+            assertEquals(Arrays.asList(1L, 2L, 3L), Lists.newArrayList(exporter.get("key")));
+        }
+    }
 }
@@ -19,8 +19,12 @@ package uk.gov.gchq.maestro.operation.impl.job;
 import org.junit.Test;
 
 import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.jobtracker.JobOrder;
+import uk.gov.gchq.maestro.jobtracker.JobStatus;
 import uk.gov.gchq.maestro.operation.OperationTest;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -32,10 +36,28 @@ public class GetAllJobDetailsTest extends OperationTest<GetAllJobDetails> {
     @Override
     public void builderShouldCreatePopulatedOperation() {
         // When
-        final GetAllJobDetails op = getTestObject();
+        final GetAllJobDetails op = new GetAllJobDetails.Builder()
+                .userId("user01")
+                .status(JobStatus.RUNNING)
+                .parentJobId("parent")
+                .startedAfter(1L)
+                .startedBefore(2L)
+                .order(JobOrder.NEWEST_FIRST)
+                .pageSize(10)
+                .cursor("job1")
+                .fields("jobId", "status")
+                .build();
 
         // Then
-        assertNotNull(op);
+        assertEquals("user01", op.getUserId());
+        assertEquals(JobStatus.RUNNING, op.getStatus());
+        assertEquals("parent", op.getParentJobId());
+        assertEquals(1L, (long) op.getStartedAfter());
+        assertEquals(2L, (long) op.getStartedBefore());
+        assertEquals(JobOrder.NEWEST_FIRST, op.getOrder());
+        assertEquals(10, (int) op.getPageSize());
+        assertEquals("job1", op.getCursor());
+        assertEquals(Arrays.asList("jobId", "status"), op.getFields());
     }
 
     @Override
@@ -56,6 +78,11 @@ public class GetAllJobDetailsTest extends OperationTest<GetAllJobDetails> {
     public void shouldShallowCloneOperation() {
         // Given
         final GetAllJobDetails getAllJobDetails = new GetAllJobDetails.Builder()
+                .userId("user01")
+                .status(JobStatus.FINISHED)
+                .startedAfter(1L)
+                .pageSize(5)
+                .cursor("job1")
                 .build();
 
         // When
@@ -64,5 +91,10 @@ public class GetAllJobDetailsTest extends OperationTest<GetAllJobDetails> {
         // Then
         assertNotSame(getAllJobDetails, clone);
         assertNotNull(clone);
+        assertEquals("user01", clone.getUserId());
+        assertEquals(JobStatus.FINISHED, clone.getStatus());
+        assertEquals(1L, (long) clone.getStartedAfter());
+        assertEquals(5, (int) clone.getPageSize());
+        assertEquals("job1", clone.getCursor());
     }
 }
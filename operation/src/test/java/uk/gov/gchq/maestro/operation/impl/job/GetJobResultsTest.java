@@ -16,17 +16,22 @@
 
 package uk.gov.gchq.maestro.operation.impl.job;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
+import uk.gov.gchq.maestro.commonutil.JsonAssert;
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
-import uk.gov.gchq.maestro.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.maestro.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.operation.OperationTest;
 import uk.gov.gchq.maestro.operation.export.Export;
 
+import java.util.Arrays;
+
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThat;
@@ -94,7 +99,28 @@ public class GetJobResultsTest extends OperationTest<GetJobResults> {
         final Class<?> outputClass = getTestObject().getOutputClass();
 
         // Then
-        assertEquals(CloseableIterable.class, outputClass);
+        assertEquals(JobResults.class, outputClass);
+    }
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseResults() throws SerialisationException {
+        // Given
+        final JobResults<Integer> results = new JobResults<>(
+                new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3)), 3, false);
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(results);
+        final JobResults<?> deserialised = JSONSerialiser.deserialise(json, getTestObject().getOutputTypeReference());
+
+        // Then
+        JsonAssert.assertEquals(String.format("{%n" +
+                "  \"results\" : [ 1, 2, 3 ],%n" +
+                "  \"cursor\" : 3,%n" +
+                "  \"finished\" : false%n" +
+                "}"), new String(json));
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(deserialised.getResults()));
+        assertEquals(3, deserialised.getCursor());
+        assertFalse(deserialised.isFinished());
     }
 
     @Override
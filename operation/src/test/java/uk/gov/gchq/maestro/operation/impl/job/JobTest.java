@@ -19,9 +19,12 @@ package uk.gov.gchq.maestro.operation.impl.job;
 import uk.gov.gchq.maestro.commonutil.exception.SerialisationException;
 import uk.gov.gchq.maestro.commonutil.serialisation.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.maestro.jobtracker.Repeat;
+import uk.gov.gchq.maestro.jobtracker.RetryPolicy;
 import uk.gov.gchq.maestro.operation.Operation;
 import uk.gov.gchq.maestro.operation.OperationTest;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -32,6 +35,7 @@ public class JobTest extends OperationTest {
             .jobId(testJobId)
             .build();
     final Repeat repeat = new Repeat();
+    final RetryPolicy retryPolicy = new RetryPolicy(5, 2, 30, TimeUnit.SECONDS);
 
     @Override
     public void shouldJsonSerialiseAndDeserialise() throws SerialisationException {
@@ -39,6 +43,7 @@ public class JobTest extends OperationTest {
         final Job operation = new Job.Builder()
                 .operation(inputOp)
                 .repeat(repeat)
+                .retryPolicy(retryPolicy)
                 .build();
 
         // When
@@ -49,6 +54,7 @@ public class JobTest extends OperationTest {
         // Then
         assertEquals(((CancelScheduledJob) inputOp).getJobId(), ((CancelScheduledJob) deserialisedOp.getOpAsOperation()).getJobId());
         assertEquals(repeat, deserialisedOp.getRepeat());
+        assertEquals(retryPolicy, deserialisedOp.getRetryPolicy());
     }
 
     @Override
@@ -57,11 +63,13 @@ public class JobTest extends OperationTest {
         final Job op = new Job.Builder()
                 .operation(inputOp)
                 .repeat(repeat)
+                .retryPolicy(retryPolicy)
                 .build();
 
         // Then
         assertEquals(testJobId, ((CancelScheduledJob) op.getOpAsOperation()).getJobId());
         assertEquals(repeat, op.getRepeat());
+        assertEquals(retryPolicy, op.getRetryPolicy());
     }
 
     @Override
@@ -70,6 +78,7 @@ public class JobTest extends OperationTest {
         final Job jobOp = new Job.Builder()
                 .operation(inputOp)
                 .repeat(repeat)
+                .retryPolicy(retryPolicy)
                 .build();
 
         // When
@@ -80,6 +89,7 @@ public class JobTest extends OperationTest {
         assertNotNull(clone);
         assertEquals(clone.getOpAsOperation(), jobOp.getOpAsOperation());
         assertEquals(clone.getRepeat(), jobOp.getRepeat());
+        assertEquals(clone.getRetryPolicy(), jobOp.getRetryPolicy());
     }
 
     @Override
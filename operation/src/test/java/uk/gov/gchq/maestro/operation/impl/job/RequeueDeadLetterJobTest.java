@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.maestro.operation.impl.job;
+
+import org.junit.Test;
+
+import uk.gov.gchq.maestro.jobtracker.JobDetail;
+import uk.gov.gchq.maestro.operation.OperationTest;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class RequeueDeadLetterJobTest extends OperationTest<RequeueDeadLetterJob> {
+    private final String testJobId = "testJobId";
+
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // Given
+        RequeueDeadLetterJob op = new RequeueDeadLetterJob.Builder()
+                .jobId(testJobId)
+                .option("testOp", "testOpVal")
+                .build();
+
+        // Then
+        assertEquals(testJobId, op.getJobId());
+        assertEquals(Collections.singletonMap("testOp", "testOpVal"), op.getOptions());
+    }
+
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        RequeueDeadLetterJob op = new RequeueDeadLetterJob.Builder()
+                .jobId(testJobId)
+                .option("testOp", "testOpVal")
+                .build();
+
+        // When
+        RequeueDeadLetterJob clonedOp = op.shallowClone();
+
+        // Then
+        assertNotSame(clonedOp, op);
+        assertEquals(clonedOp.getJobId(), op.getJobId());
+        assertEquals(clonedOp.getOptions(), op.getOptions());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(JobDetail.class, outputClass);
+    }
+
+    @Override
+    protected RequeueDeadLetterJob getTestObject() {
+        return new RequeueDeadLetterJob();
+    }
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Collections.singleton("jobId");
+    }
+}